@@ -0,0 +1,78 @@
+package com.datai.framework.aspectj;
+
+import java.util.Objects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.datai.framework.datasource.DynamicDataSourceContextHolder;
+import com.datai.framework.datasource.ReadReplicaRouter;
+
+/**
+ * 读写分离事务路由：在事务开启前（优先于事务切面，晚于 DataSourceAspect）决定事务使用的数据源。
+ * 新开启的只读事务切换到可用副本；写事务若当前处于副本上则切回其主库。
+ *
+ * @author datai
+ */
+@Aspect
+@Order(2)
+@Component
+public class ReadOnlyDataSourceAspect {
+
+    @Autowired
+    private ReadReplicaRouter readReplicaRouter;
+
+    @Pointcut("@annotation(org.springframework.transaction.annotation.Transactional)"
+            + "|| @within(org.springframework.transaction.annotation.Transactional)")
+    public void txPointCut() {
+
+    }
+
+    @Around("txPointCut()")
+    public Object around(ProceedingJoinPoint point) throws Throwable {
+        if (!readReplicaRouter.isEnabled()) {
+            return point.proceed();
+        }
+        Transactional transactional = getTransactional(point);
+        String current = DynamicDataSourceContextHolder.getDataSourceType();
+        String target = null;
+        if (transactional != null && transactional.readOnly()) {
+            // 已在事务中时沿用外层事务的连接
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                target = readReplicaRouter.route(current);
+            }
+        } else {
+            target = readReplicaRouter.primaryOf(current);
+        }
+        if (target == null) {
+            return point.proceed();
+        }
+        try {
+            DynamicDataSourceContextHolder.setDataSourceType(target);
+            return point.proceed();
+        } finally {
+            DynamicDataSourceContextHolder.clearDataSourceType();
+        }
+    }
+
+    /**
+     * 获取生效的事务注解，方法上的优先
+     */
+    public Transactional getTransactional(ProceedingJoinPoint point) {
+        MethodSignature signature = (MethodSignature) point.getSignature();
+        Transactional transactional = AnnotationUtils.findAnnotation(signature.getMethod(), Transactional.class);
+        if (Objects.nonNull(transactional)) {
+            return transactional;
+        }
+        return AnnotationUtils.findAnnotation(signature.getDeclaringType(), Transactional.class);
+    }
+}
@@ -1,6 +1,7 @@
 package com.datai.framework.config.properties;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -19,6 +20,21 @@ public class DynamicDataSourceProperties {
     private Map<String, DataSourceProperties> datasource;
     private String primary;
 
+    /**
+     * 读写分离：主数据源 key -> 只读副本数据源 key 列表（副本同样在 datasource 中配置）
+     */
+    private Map<String, List<String>> replicas;
+
+    /**
+     * 副本允许的最大复制延迟（秒），超过后读请求回落到主库
+     */
+    private long replicaMaxLagSeconds = 5;
+
+    /**
+     * 副本健康与延迟检测间隔（毫秒）
+     */
+    private long replicaCheckIntervalMillis = 5000;
+
     public Properties build(DataSourceProperties dataSourceProperties) {
         Properties prop = new Properties();
         DruidProperties druidProperties = SpringUtils.getBean(DruidProperties.class);
@@ -74,4 +90,28 @@ public class DynamicDataSourceProperties {
         this.primary = primary;
     }
 
+    public Map<String, List<String>> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(Map<String, List<String>> replicas) {
+        this.replicas = replicas;
+    }
+
+    public long getReplicaMaxLagSeconds() {
+        return replicaMaxLagSeconds;
+    }
+
+    public void setReplicaMaxLagSeconds(long replicaMaxLagSeconds) {
+        this.replicaMaxLagSeconds = replicaMaxLagSeconds;
+    }
+
+    public long getReplicaCheckIntervalMillis() {
+        return replicaCheckIntervalMillis;
+    }
+
+    public void setReplicaCheckIntervalMillis(long replicaCheckIntervalMillis) {
+        this.replicaCheckIntervalMillis = replicaCheckIntervalMillis;
+    }
+
 }
@@ -5,6 +5,7 @@ import java.util.Map;
 import javax.sql.CommonDataSource;
 
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * 动态数据源
@@ -13,6 +14,8 @@ import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
  */
 public class DynamicDataSource extends AbstractRoutingDataSource
 {
+    private volatile ReadReplicaRouter readReplicaRouter;
+
     public DynamicDataSource(CommonDataSource defaultTargetDataSource, Map<Object, Object> targetDataSources)
     {
         super.setDefaultTargetDataSource(defaultTargetDataSource);
@@ -20,9 +23,27 @@ public class DynamicDataSource extends AbstractRoutingDataSource
         super.afterPropertiesSet();
     }
 
+    public void setReadReplicaRouter(ReadReplicaRouter readReplicaRouter)
+    {
+        this.readReplicaRouter = readReplicaRouter;
+    }
+
+    /**
+     * 只读事务中的连接路由到可用副本，其余情况按 DynamicDataSourceContextHolder 中的 key 路由
+     */
     @Override
     protected Object determineCurrentLookupKey()
     {
-        return DynamicDataSourceContextHolder.getDataSourceType();
+        String key = DynamicDataSourceContextHolder.getDataSourceType();
+        ReadReplicaRouter router = readReplicaRouter;
+        if (router != null && TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+        {
+            String replica = router.route(key);
+            if (replica != null)
+            {
+                return replica;
+            }
+        }
+        return key;
     }
 }
\ No newline at end of file
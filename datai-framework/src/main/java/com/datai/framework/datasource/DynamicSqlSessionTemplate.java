@@ -21,6 +21,7 @@ import org.apache.ibatis.session.SqlSessionFactory;
 import org.mybatis.spring.MyBatisExceptionTranslator;
 import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * 自定义SqlSessionTemplate，动态切换数据源
@@ -34,6 +35,7 @@ public class DynamicSqlSessionTemplate extends SqlSessionTemplate {
     private final PersistenceExceptionTranslator exceptionTranslator;
     private Map<Object, SqlSessionFactory> targetSqlSessionFactorys;
     private SqlSessionFactory defaultTargetSqlSessionFactory;
+    private ReadReplicaRouter readReplicaRouter;
 
     public DynamicSqlSessionTemplate(SqlSessionFactory sqlSessionFactory) {
         this(sqlSessionFactory, sqlSessionFactory.getConfiguration().getDefaultExecutorType());
@@ -59,6 +61,13 @@ public class DynamicSqlSessionTemplate extends SqlSessionTemplate {
         this.targetSqlSessionFactorys = targetSqlSessionFactorys;
     }
 
+    /**
+     * 设置读写分离路由，事务外的 select* 调用将路由到可用副本
+     */
+    public void setReadReplicaRouter(ReadReplicaRouter readReplicaRouter) {
+        this.readReplicaRouter = readReplicaRouter;
+    }
+
     public void setDefaultTargetSqlSessionFactory(SqlSessionFactory defaultTargetSqlSessionFactory) {
         this.defaultTargetSqlSessionFactory = defaultTargetSqlSessionFactory;
     }
@@ -284,6 +293,32 @@ public class DynamicSqlSessionTemplate extends SqlSessionTemplate {
      */
     private class SqlSessionInterceptor implements InvocationHandler {
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String replica = routeRead(method);
+            if (replica == null) {
+                return doInvoke(method, args);
+            }
+            DynamicDataSourceContextHolder.setDataSourceType(replica);
+            try {
+                return doInvoke(method, args);
+            } finally {
+                DynamicDataSourceContextHolder.clearDataSourceType();
+            }
+        }
+
+        /**
+         * 事务外的查询（selectOne/selectList/selectMap/selectCursor/select）走副本；
+         * 事务内由事务决定：只读事务已在开启前切换到副本，写事务保持主库
+         */
+        private String routeRead(Method method) {
+            ReadReplicaRouter router = DynamicSqlSessionTemplate.this.readReplicaRouter;
+            if (router == null || !method.getName().startsWith("select")
+                    || TransactionSynchronizationManager.isActualTransactionActive()) {
+                return null;
+            }
+            return router.route(DynamicDataSourceContextHolder.getDataSourceType());
+        }
+
+        private Object doInvoke(Method method, Object[] args) throws Throwable {
             final SqlSession sqlSession = getSqlSession(DynamicSqlSessionTemplate.this.getSqlSessionFactory(),
                     DynamicSqlSessionTemplate.this.executorType, DynamicSqlSessionTemplate.this.exceptionTranslator);
             try {
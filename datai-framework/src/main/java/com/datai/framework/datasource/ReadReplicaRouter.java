@@ -0,0 +1,310 @@
+package com.datai.framework.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.datai.framework.config.properties.DynamicDataSourceProperties;
+import com.datai.framework.manager.DataSourceManager;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 读写分离路由：为主数据源挑选健康且复制延迟未超阈值的只读副本，按轮询分摊读请求。
+ * 副本全部不可用、处于写事务中或未配置副本时返回 null，由调用方继续使用主库。
+ *
+ * 配置示例（spring.datasource.dynamic）：
+ * replicas:
+ *   MASTER: SLAVE1,SLAVE2
+ * replicaMaxLagSeconds: 5
+ * replicaCheckIntervalMillis: 5000
+ *
+ * @author datai
+ */
+@Component
+public class ReadReplicaRouter
+{
+    protected final Logger logger = LoggerFactory.getLogger(ReadReplicaRouter.class);
+
+    private static final int VALID_TIMEOUT_SECONDS = 3;
+
+    @Autowired
+    private DataSourceManager dataSourceManager;
+
+    @Autowired
+    private DynamicDataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private DynamicDataSource dynamicDataSource;
+
+    @Autowired
+    @Qualifier("scheduledExecutorService")
+    private ScheduledExecutorService scheduledExecutorService;
+
+    /** 主库 key -> 副本 key 列表 */
+    private final Map<String, List<String>> replicas = new LinkedHashMap<>();
+
+    /** 副本 key -> 最近一次检测结果 */
+    private final Map<String, ReplicaState> states = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    /**
+     * 副本检测结果
+     *
+     * @param healthy    连接是否可用
+     * @param lagSeconds 复制延迟（秒），未知时为 -1
+     * @param checkedAt  检测时间
+     */
+    public record ReplicaState(boolean healthy, long lagSeconds, long checkedAt)
+    {
+    }
+
+    @PostConstruct
+    public void init()
+    {
+        Map<String, List<String>> configured = dataSourceProperties.getReplicas();
+        if (configured == null || configured.isEmpty())
+        {
+            return;
+        }
+        configured.forEach((primary, keys) -> {
+            List<String> valid = new ArrayList<>();
+            for (String key : keys)
+            {
+                if (dataSourceManager.getDataSource(key) != null)
+                {
+                    valid.add(key);
+                    // 首次检测完成前视为不可用，避免启动阶段读到落后副本
+                    states.put(key, new ReplicaState(false, -1, 0));
+                }
+                else
+                {
+                    logger.warn("读写分离：副本数据源 {} 未在 datasource 中配置，已忽略", key);
+                }
+            }
+            if (!valid.isEmpty())
+            {
+                replicas.put(primary, Collections.unmodifiableList(valid));
+                cursors.put(primary, new AtomicInteger());
+            }
+        });
+        if (replicas.isEmpty())
+        {
+            return;
+        }
+        dynamicDataSource.setReadReplicaRouter(this);
+        long interval = Math.max(1000L, dataSourceProperties.getReplicaCheckIntervalMillis());
+        scheduledExecutorService.scheduleWithFixedDelay(this::checkReplicas, 0, interval, TimeUnit.MILLISECONDS);
+        logger.info("读写分离已启用，副本配置：{}，最大复制延迟：{}s", replicas, dataSourceProperties.getReplicaMaxLagSeconds());
+    }
+
+    /**
+     * 是否配置了任何副本
+     */
+    public boolean isEnabled()
+    {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * 为读请求选择副本
+     *
+     * @param dataSourceKey 当前数据源 key，为空时按主库处理
+     * @return 副本 key；无可用副本、处于写事务中时返回 null
+     */
+    public String route(String dataSourceKey)
+    {
+        if (replicas.isEmpty())
+        {
+            return null;
+        }
+        // 写事务中的读必须与写使用同一连接，保证读到本事务的修改
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+        {
+            return null;
+        }
+        String key = dataSourceKey == null ? dataSourceProperties.getPrimaryStorageBucket() : dataSourceKey;
+        List<String> candidates = replicas.get(key);
+        if (candidates == null)
+        {
+            return null;
+        }
+        long maxLag = dataSourceProperties.getReplicaMaxLagSeconds();
+        int size = candidates.size();
+        int start = Math.floorMod(cursors.get(key).getAndIncrement(), size);
+        for (int i = 0; i < size; i++)
+        {
+            String candidate = candidates.get((start + i) % size);
+            ReplicaState state = states.get(candidate);
+            if (state != null && state.healthy() && state.lagSeconds() >= 0 && state.lagSeconds() <= maxLag)
+            {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 副本所属的主库 key
+     *
+     * @param dataSourceKey 数据源 key
+     * @return 主库 key；不是副本时返回 null
+     */
+    public String primaryOf(String dataSourceKey)
+    {
+        if (dataSourceKey == null)
+        {
+            return null;
+        }
+        for (Map.Entry<String, List<String>> entry : replicas.entrySet())
+        {
+            if (entry.getValue().contains(dataSourceKey))
+            {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 各副本最近一次检测结果
+     */
+    public Map<String, ReplicaState> getStates()
+    {
+        return Collections.unmodifiableMap(states);
+    }
+
+    private void checkReplicas()
+    {
+        for (List<String> keys : replicas.values())
+        {
+            for (String key : keys)
+            {
+                ReplicaState previous = states.get(key);
+                ReplicaState current = checkReplica(key);
+                states.put(key, current);
+                if (previous != null && previous.healthy() != current.healthy())
+                {
+                    logger.warn("读写分离：副本 {} 状态变更为 {}，复制延迟：{}s", key,
+                            current.healthy() ? "可用" : "不可用", current.lagSeconds());
+                }
+            }
+        }
+    }
+
+    private ReplicaState checkReplica(String key)
+    {
+        DataSource dataSource = dataSourceManager.getDataSource(key);
+        long now = System.currentTimeMillis();
+        if (dataSource == null)
+        {
+            return new ReplicaState(false, -1, now);
+        }
+        try (Connection conn = dataSource.getConnection())
+        {
+            if (!conn.isValid(VALID_TIMEOUT_SECONDS))
+            {
+                return new ReplicaState(false, -1, now);
+            }
+            long lag = queryLagSeconds(conn, dataSourceManager.getDatabaseId(key));
+            return new ReplicaState(lag >= 0, lag, now);
+        }
+        catch (Exception e)
+        {
+            logger.debug("读写分离：副本 {} 检测失败：{}", key, e.getMessage());
+            return new ReplicaState(false, -1, now);
+        }
+    }
+
+    /**
+     * 查询复制延迟（秒）；非副本实例或已追平时返回 0，复制中断或无法判定时返回 -1
+     */
+    private long queryLagSeconds(Connection conn, String databaseId) throws SQLException
+    {
+        String id = databaseId == null ? "" : databaseId.toLowerCase();
+        if (id.contains("mysql") || id.contains("mariadb"))
+        {
+            return queryMySqlLag(conn);
+        }
+        if (id.contains("postgres") || id.contains("opengauss"))
+        {
+            // 主库空闲时 replay 时间戳不再前进，只按时间差计算会把已追平的副本误判为延迟；
+            // 接收位点与回放位点一致时视为无延迟，仅在回放确实落后时才用时间差（openGauss 沿用 xlog 函数名）
+            boolean gauss = id.contains("opengauss");
+            String receive = gauss ? "pg_last_xlog_receive_location()" : "pg_last_wal_receive_lsn()";
+            String replay = gauss ? "pg_last_xlog_replay_location()" : "pg_last_wal_replay_lsn()";
+            try (Statement st = conn.createStatement();
+                    ResultSet rs = st.executeQuery("SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0"
+                            + " WHEN " + receive + " = " + replay + " THEN 0"
+                            + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END"))
+            {
+                return rs.next() ? (long) Math.ceil(rs.getDouble(1)) : 0L;
+            }
+        }
+        // 其余数据库仅做连通性检测
+        return 0L;
+    }
+
+    private long queryMySqlLag(Connection conn) throws SQLException
+    {
+        ResultSet rs = null;
+        try (Statement st = conn.createStatement())
+        {
+            try
+            {
+                // MySQL 8.0.22+
+                rs = st.executeQuery("SHOW REPLICA STATUS");
+            }
+            catch (SQLException e)
+            {
+                rs = st.executeQuery("SHOW SLAVE STATUS");
+            }
+            if (!rs.next())
+            {
+                return 0L;
+            }
+            Object lag = null;
+            for (String column : new String[] { "Seconds_Behind_Source", "Seconds_Behind_Master" })
+            {
+                try
+                {
+                    lag = rs.getObject(column);
+                    break;
+                }
+                catch (SQLException ignore)
+                {
+                }
+            }
+            // 复制线程未运行时该列为 NULL
+            return lag == null ? -1L : Long.parseLong(lag.toString());
+        }
+        finally
+        {
+            if (rs != null)
+            {
+                rs.close();
+            }
+        }
+    }
+}
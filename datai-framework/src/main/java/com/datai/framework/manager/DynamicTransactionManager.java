@@ -11,6 +11,10 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import com.datai.framework.datasource.DynamicDataSourceContextHolder;
 
+/**
+ * 动态事务管理器：按 DynamicDataSourceContextHolder 中的 key 选择事务数据源。
+ * 只读事务由 ReadOnlyDataSourceAspect 在事务开启前将 key 切换为可用副本，写事务始终使用主库。
+ */
 @Component
 @EnableTransactionManagement(proxyTargetClass = true)
 public class DynamicTransactionManager extends JdbcTransactionManager {
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Component;
 import com.datai.common.service.mybatis.CreateSqlSessionFactory;
 import com.datai.framework.config.properties.DynamicDataSourceProperties;
 import com.datai.framework.datasource.DynamicSqlSessionTemplate;
+import com.datai.framework.datasource.ReadReplicaRouter;
 import com.datai.framework.manager.DataSourceManager;
 
 @Component
@@ -28,6 +29,9 @@ public class DynamicSqlSessionFactory {
     @Autowired
     DataSourceManager dataSourceManager;
 
+    @Autowired
+    ReadReplicaRouter readReplicaRouter;
+
     @Bean(name = "sqlSessionTemplate")
     public DynamicSqlSessionTemplate sqlSessionTemplate(Environment env) throws Exception {
         Map<Object, SqlSessionFactory> sqlSessionFactoryMap = new HashMap<>();
@@ -42,6 +46,7 @@ public class DynamicSqlSessionFactory {
         }
         DynamicSqlSessionTemplate customSqlSessionTemplate = new DynamicSqlSessionTemplate(factoryMaster);
         customSqlSessionTemplate.setTargetSqlSessionFactorys(sqlSessionFactoryMap);
+        customSqlSessionTemplate.setReadReplicaRouter(readReplicaRouter);
         return customSqlSessionTemplate;
     }
 }
@@ -1,7 +1,11 @@
 package com.datai.mybatisinterceptor.context.page;
 
+import java.util.Arrays;
+import java.util.List;
+
 import com.alibaba.fastjson2.JSONObject;
 import com.datai.mybatisinterceptor.context.page.model.PageInfo;
+import com.datai.mybatisinterceptor.enums.PageCountMode;
 
 public class PageContextHolder {
    private static final ThreadLocal<JSONObject> PAGE_CONTEXT_HOLDER = new ThreadLocal<>();
@@ -12,6 +16,8 @@ public class PageContextHolder {
 
    private static final String TOTAL = "total";
    private static final String SKIP_QUERY = "skipQuery";
+   private static final String FETCH_SIZE = "fetchSize";
+   private static final String KEYSET_COLUMNS = "keysetColumns";
 
    public static void startPage() {
       JSONObject jsonObject = new JSONObject();
@@ -55,6 +61,61 @@ public class PageContextHolder {
       return PAGE_CONTEXT_HOLDER.get() != null && PAGE_CONTEXT_HOLDER.get().getBooleanValue(SKIP_QUERY);
    }
 
+   /**
+    * 本次查询实际取的行数（不统计总数时比页大小多一条，用于判断是否有下一页）
+    */
+   public static void setFetchSize(Long fetchSize) {
+      PAGE_CONTEXT_HOLDER.get().put(FETCH_SIZE, fetchSize);
+   }
+
+   public static Long getFetchSize() {
+      return PAGE_CONTEXT_HOLDER.get().getLong(FETCH_SIZE);
+   }
+
+   /**
+    * 游标分页实际使用的排序列，用于从最后一条记录提取下一页游标
+    */
+   public static void setKeysetColumns(List<String> columns) {
+      PAGE_CONTEXT_HOLDER.get().put(KEYSET_COLUMNS, columns);
+   }
+
+   @SuppressWarnings("unchecked")
+   public static List<String> getKeysetColumns() {
+      return (List<String>) PAGE_CONTEXT_HOLDER.get().get(KEYSET_COLUMNS);
+   }
+
+   /**
+    * 设置总数统计方式
+    */
+   public static void setCountMode(PageCountMode countMode) {
+      if (!isPage()) {
+         startPage();
+         setPageInfo();
+      }
+      PageInfo info = getPageInfo();
+      if (info != null) {
+         info.setCountMode(countMode);
+      }
+   }
+
+   /**
+    * 游标（keyset）分页：按 ORDER BY 的排序键定位，从上一页最后一条记录之后开始取，页码不再参与计算。
+    * ORDER BY 需以唯一键结尾（如主键），游标值顺序与排序列一致；不传游标时查询第一页。
+    *
+    * @param cursor 上一页最后一条记录的排序键值，即上一页结果中的 nextCursor
+    */
+   public static void seekAfter(Object... cursor) {
+      if (!isPage()) {
+         startPage();
+         setPageInfo();
+      }
+      PageInfo info = getPageInfo();
+      if (info != null) {
+         info.setKeyset(true);
+         info.setCursor(cursor == null || cursor.length == 0 ? null : Arrays.asList(cursor));
+      }
+   }
+
    // === Facade methods for compatibility with PageHelper-like API ===
 
    /**
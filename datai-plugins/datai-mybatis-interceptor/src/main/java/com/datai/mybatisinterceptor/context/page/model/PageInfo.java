@@ -1,7 +1,11 @@
 package com.datai.mybatisinterceptor.context.page.model;
 
+import java.util.List;
+
+import com.alibaba.fastjson2.JSON;
 import com.datai.common.core.text.Convert;
 import com.datai.common.utils.ServletUtils;
+import com.datai.mybatisinterceptor.enums.PageCountMode;
 
 public class PageInfo {
 
@@ -29,6 +33,21 @@ public class PageInfo {
     */
    private Boolean reasonable;
 
+   /**
+    * 总数统计方式，为空时按 searchCount 决定（false 对应 NONE，否则 EXACT）
+    */
+   private PageCountMode countMode;
+
+   /**
+    * 是否使用游标（keyset）分页
+    */
+   private boolean keyset;
+
+   /**
+    * 游标：上一页最后一条记录的排序键值，顺序与 ORDER BY 一致；为空时查询第一页
+    */
+   private List<Object> cursor;
+
    /**
     * pageSize 的最大上限（防止恶意大页），默认 1000
     */
@@ -64,6 +83,16 @@ public class PageInfo {
     */
    public static final String SEARCH_COUNT = "searchCount";
 
+   /**
+    * 总数统计方式
+    */
+   public static final String COUNT_MODE = "countMode";
+
+   /**
+    * 游标分页的游标（JSON 数组）
+    */
+   public static final String CURSOR = "cursor";
+
    public Long getPageNumber() {
       return pageNumber;
    }
@@ -104,6 +133,12 @@ public class PageInfo {
       pageInfo.setIsAsc(asc);
       String sc = ServletUtils.getParameter(SEARCH_COUNT);
       pageInfo.setSearchCount(sc == null ? Boolean.TRUE : Boolean.parseBoolean(sc));
+      pageInfo.setCountMode(PageCountMode.of(ServletUtils.getParameter(COUNT_MODE)));
+      String cursor = ServletUtils.getParameter(CURSOR);
+      if (cursor != null && !cursor.isEmpty()) {
+         pageInfo.setKeyset(true);
+         pageInfo.setCursor(JSON.parseArray(cursor));
+      }
       return pageInfo;
    }
 
@@ -154,4 +189,38 @@ public class PageInfo {
    public void setReasonable(Boolean reasonable) {
       this.reasonable = reasonable;
    }
+
+   public PageCountMode getCountMode() {
+      return countMode;
+   }
+
+   public void setCountMode(PageCountMode countMode) {
+      this.countMode = countMode;
+   }
+
+   /**
+    * 实际生效的总数统计方式
+    */
+   public PageCountMode resolveCountMode() {
+      if (countMode != null) {
+         return countMode;
+      }
+      return Boolean.FALSE.equals(searchCount) ? PageCountMode.NONE : PageCountMode.EXACT;
+   }
+
+   public boolean isKeyset() {
+      return keyset;
+   }
+
+   public void setKeyset(boolean keyset) {
+      this.keyset = keyset;
+   }
+
+   public List<Object> getCursor() {
+      return cursor;
+   }
+
+   public void setCursor(List<Object> cursor) {
+      this.cursor = cursor;
+   }
 }
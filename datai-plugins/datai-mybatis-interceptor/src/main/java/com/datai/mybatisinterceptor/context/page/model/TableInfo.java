@@ -7,6 +7,16 @@ public class TableInfo<E> extends ArrayList<E> {
 
    private Long total;
 
+   /**
+    * 是否还有下一页，仅在不统计总数或游标分页时有值
+    */
+   private Boolean hasNext;
+
+   /**
+    * 下一页游标：本页最后一条记录的排序键值，仅游标分页时有值
+    */
+   private List<Object> nextCursor;
+
    public TableInfo() {
       super();
    }
@@ -23,4 +33,20 @@ public class TableInfo<E> extends ArrayList<E> {
       this.total = total;
    }
 
+   public Boolean getHasNext() {
+      return hasNext;
+   }
+
+   public void setHasNext(Boolean hasNext) {
+      this.hasNext = hasNext;
+   }
+
+   public List<Object> getNextCursor() {
+      return nextCursor;
+   }
+
+   public void setNextCursor(List<Object> nextCursor) {
+      this.nextCursor = nextCursor;
+   }
+
 }
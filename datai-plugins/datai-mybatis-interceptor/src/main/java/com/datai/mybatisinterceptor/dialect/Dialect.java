@@ -1,5 +1,8 @@
 package com.datai.mybatisinterceptor.dialect;
 
+import java.util.List;
+import java.util.Map;
+
 import net.sf.jsqlparser.statement.select.PlainSelect;
 
 /**
@@ -23,6 +26,27 @@ public interface Dialect {
         return "SELECT COUNT(1) FROM (" + body + ") TMP_COUNT";
     }
 
+    /**
+     * 生成估算行数的 SQL（通常为 EXPLAIN），返回 null 表示该方言不支持估算，调用方回退为精确 count。
+     */
+    default String buildEstimateSql(String originalSql) {
+        return null;
+    }
+
+    /**
+     * 从估算 SQL 的结果中解析行数，无法解析时返回 null。
+     */
+    default Long parseEstimate(List<Map<String, Object>> rows) {
+        return null;
+    }
+
+    /**
+     * 生成"值是否在逗号分隔列表中"的条件（MySQL 的 find_in_set），供数据权限等需要跨库的 SQL 片段使用。
+     */
+    default String findInSet(String value, String listColumn) {
+        return "find_in_set(" + value + ", " + listColumn + ")";
+    }
+
     /**
      * 为原始 SQL 包裹/追加分页（字符串方式）。
      * 默认实现适用于支持 "LIMIT n OFFSET m" 的方言（MySQL/H2/PostgreSQL/openGauss）。
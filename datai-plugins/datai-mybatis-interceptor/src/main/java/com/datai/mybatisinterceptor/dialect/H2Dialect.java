@@ -16,4 +16,9 @@ public class H2Dialect implements Dialect {
     }
 
     // 使用 Dialect 默认的 buildCountSql
+
+    @Override
+    public String findInSet(String value, String listColumn) {
+        return "LOCATE(CONCAT(',', " + value + ", ','), CONCAT(',', " + listColumn + ", ',')) > 0";
+    }
 }
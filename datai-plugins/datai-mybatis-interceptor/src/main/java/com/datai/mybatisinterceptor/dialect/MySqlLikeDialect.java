@@ -1,5 +1,8 @@
 package com.datai.mybatisinterceptor.dialect;
 
+import java.util.List;
+import java.util.Map;
+
 import net.sf.jsqlparser.expression.LongValue;
 import net.sf.jsqlparser.statement.select.Limit;
 import net.sf.jsqlparser.statement.select.PlainSelect;
@@ -29,4 +32,33 @@ public class MySqlLikeDialect implements Dialect {
         }
         return "SELECT COUNT(1) FROM (" + wrapped + ") TMP_COUNT";
     }
+
+    @Override
+    public String buildEstimateSql(String originalSql) {
+        String body = originalSql;
+        if (body.endsWith(";")) {
+            body = body.substring(0, body.length() - 1);
+        }
+        return "EXPLAIN " + body;
+    }
+
+    /**
+     * EXPLAIN 第一行为驱动表，其 rows 列即优化器估算的扫描行数
+     */
+    @Override
+    public Long parseEstimate(List<Map<String, Object>> rows) {
+        if (rows == null || rows.isEmpty() || rows.get(0) == null) {
+            return null;
+        }
+        for (Map.Entry<String, Object> entry : rows.get(0).entrySet()) {
+            if ("rows".equalsIgnoreCase(entry.getKey()) && entry.getValue() != null) {
+                try {
+                    return Long.parseLong(entry.getValue().toString().trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
 }
@@ -15,6 +15,11 @@ public class OracleDialect implements Dialect {
 
     // 使用 Dialect 默认的 buildCountSql
 
+    @Override
+    public String findInSet(String value, String listColumn) {
+        return "INSTR(',' || " + listColumn + " || ',', ',' || " + value + " || ',') > 0";
+    }
+
     public String wrapPaginationSql(String originalSql, long offset, long limit) {
         String body = originalSql;
         if (body.endsWith(";")) body = body.substring(0, body.length() - 1);
@@ -1,5 +1,10 @@
 package com.datai.mybatisinterceptor.dialect;
 
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import net.sf.jsqlparser.statement.select.PlainSelect;
 
 /**
@@ -8,6 +13,8 @@ import net.sf.jsqlparser.statement.select.PlainSelect;
  * - 计数查询统一包裹子查询，避免复杂 SQL 场景下的统计误差。
  */
 public class PostgresDialect implements Dialect {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
     // supportsLimit 已移除
 
     @Override
@@ -30,4 +37,36 @@ public class PostgresDialect implements Dialect {
 
     @Override
     public boolean preferWrap() { return true; }
+
+    @Override
+    public String findInSet(String value, String listColumn) {
+        return "CAST(" + value + " AS TEXT) = ANY(string_to_array(" + listColumn + ", ','))";
+    }
+
+    @Override
+    public String buildEstimateSql(String originalSql) {
+        String body = originalSql;
+        if (body.endsWith(";")) body = body.substring(0, body.length() - 1);
+        return "EXPLAIN " + body;
+    }
+
+    /**
+     * EXPLAIN 第一行为顶层计划节点，形如 "Seq Scan on t  (cost=0.00..1.00 rows=100 width=8)"
+     */
+    @Override
+    public Long parseEstimate(List<Map<String, Object>> rows) {
+        if (rows == null || rows.isEmpty() || rows.get(0) == null) {
+            return null;
+        }
+        for (Object value : rows.get(0).values()) {
+            if (value == null) {
+                continue;
+            }
+            Matcher matcher = PLAN_ROWS.matcher(value.toString());
+            if (matcher.find()) {
+                return Long.parseLong(matcher.group(1));
+            }
+        }
+        return null;
+    }
 }
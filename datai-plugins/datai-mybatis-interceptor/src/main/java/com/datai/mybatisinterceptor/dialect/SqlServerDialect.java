@@ -19,6 +19,11 @@ public class SqlServerDialect implements Dialect {
 
     // 使用 Dialect 默认的 buildCountSql
 
+    @Override
+    public String findInSet(String value, String listColumn) {
+        return "CHARINDEX(',' + CAST(" + value + " AS VARCHAR(64)) + ',', ',' + " + listColumn + " + ',') > 0";
+    }
+
     /**
      * 生成 SQL Server 的分页包装 SQL。
      */
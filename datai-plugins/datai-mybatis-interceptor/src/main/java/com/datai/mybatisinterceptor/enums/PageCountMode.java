@@ -0,0 +1,27 @@
+package com.datai.mybatisinterceptor.enums;
+
+/**
+ * 分页总数统计方式
+ */
+public enum PageCountMode {
+    /** 每次执行 COUNT 查询 */
+    EXACT,
+    /** 按 SQL 与参数缓存 COUNT 结果，短时间内重复翻页不再统计 */
+    CACHED,
+    /** 按执行计划（EXPLAIN）估算行数，估算值较小时仍执行 COUNT */
+    ESTIMATE,
+    /** 不统计总数，多查一条记录判断是否有下一页 */
+    NONE;
+
+    public static PageCountMode of(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        for (PageCountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        return null;
+    }
+}
@@ -1,6 +1,5 @@
 package com.datai.mybatisinterceptor.interceptor;
 
-import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -8,6 +7,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.Executor;
@@ -22,12 +23,18 @@ import org.apache.ibatis.plugin.Signature;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 
+import com.datai.common.utils.spring.SpringUtils;
 import com.datai.mybatisinterceptor.context.sqlContext.SqlContextHolder;
+import com.datai.mybatisinterceptor.dialect.Dialect;
+import com.datai.mybatisinterceptor.dialect.DialectRouter;
+import com.datai.mybatisinterceptor.dialect.MySqlLikeDialect;
 import com.datai.mybatisinterceptor.enums.ContextKey;
+import com.datai.mybatisinterceptor.util.SqlCaches;
 
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
 import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.schema.Column;
@@ -52,6 +59,15 @@ public class DataScopeInterceptor implements Interceptor {
     private static final String USER_TABLE = "sys_user";
     private static final String DEPT_TABLE = "sys_dept";
 
+    /** 改写模板中数据权限条件的占位列，绑定时替换为当前用户的权限条件 */
+    private static final String SCOPE_MARKER = "__DATA_SCOPE__";
+    private static final Pattern FIND_IN_SET = Pattern.compile("(?i)find_in_set\\(([^,()]+),\\s*([^()]+?)\\)");
+    private static final Dialect DEFAULT_DIALECT = new MySqlLikeDialect();
+
+    private static final String[] NO_REWRITE = new String[0];
+
+    private volatile DialectRouter dialectRouter;
+
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
         String userAlias = SqlContextHolder.getData(ContextKey.DATA_SCOPE, "userAlias", String.class);
@@ -85,15 +101,11 @@ public class DataScopeInterceptor implements Interceptor {
 
         try {
             String originalSql = boundSql.getSql();
-            if (!isMySQLDatabase(invocation)) {
-                log.warn("数据权限拦截器目前仅支持MySQL数据库，当前数据库类型不支持");
-                return invocation.proceed();
-            }
-            Statement statement = CCJSqlParserUtil.parse(originalSql);
             if (ms.getSqlCommandType() == SqlCommandType.SELECT) {
                 if (userAlias != null || deptAlias != null) {
-                    String newSql = parseSelect(statement, scopeExpression, deptAlias, userAlias);
-                    if (!newSql.equals(originalSql)) {
+                    String[] plan = getPlan(ms.getId(), originalSql, deptAlias, userAlias);
+                    if (plan != NO_REWRITE) {
+                        String newSql = bindPlan(plan, scopeExpression, currentDialect());
                         BoundSql newBoundSql = new BoundSql(ms.getConfiguration(), newSql,
                                 boundSql.getParameterMappings(), boundSql.getParameterObject());
                         for (ParameterMapping mapping : boundSql.getParameterMappings()) {
@@ -117,16 +129,59 @@ public class DataScopeInterceptor implements Interceptor {
         return invocation.proceed();
     }
 
-    private boolean isMySQLDatabase(Invocation invocation) {
+    /**
+     * 获取改写计划（缓存于 {@link SqlCaches#DATA_SCOPE_PLAN}），未命中时解析 SQL 并以占位列生成模板；无法改写的语句缓存为 NO_REWRITE，避免重复解析
+     */
+    private String[] getPlan(String statementId, String originalSql, String deptAlias, String userAlias) {
+        String key = statementId + '\n' + userAlias + '\n' + deptAlias + '\n' + originalSql;
+        return SqlCaches.DATA_SCOPE_PLAN.get(key, k -> buildPlan(statementId, originalSql, deptAlias, userAlias));
+    }
+
+    private String[] buildPlan(String statementId, String originalSql, String deptAlias, String userAlias) {
+        String[] plan;
         try {
-            Executor executor = (Executor) invocation.getTarget();
-            Connection connection = executor.getTransaction().getConnection();
-            String databaseProductName = connection.getMetaData().getDatabaseProductName();
-            return "MySQL".equalsIgnoreCase(databaseProductName);
+            Statement statement = CCJSqlParserUtil.parse(originalSql);
+            String template = parseSelect(statement, new Column(SCOPE_MARKER), deptAlias, userAlias);
+            plan = template.contains(SCOPE_MARKER) ? template.split(Pattern.quote(SCOPE_MARKER), -1) : NO_REWRITE;
         } catch (Exception e) {
-            log.warn("当前数据权限仅支持MySQL数据库", e);
-            return false;
+            log.warn("数据权限拦截器：语句 {} 无法解析或改写，跳过数据权限: {}", statementId, e.getMessage());
+            plan = NO_REWRITE;
         }
+        return plan;
+    }
+
+    /**
+     * 将当前用户的权限条件拼入模板，并把 find_in_set 等 MySQL 函数转换为当前方言的写法
+     */
+    private static String bindPlan(String[] plan, Expression scopeExpression, Dialect dialect) {
+        String scopeSql = scopeExpression.toString();
+        if (dialect != null && !(dialect instanceof MySqlLikeDialect)) {
+            Matcher matcher = FIND_IN_SET.matcher(scopeSql);
+            StringBuilder converted = new StringBuilder(scopeSql.length() + 32);
+            while (matcher.find()) {
+                matcher.appendReplacement(converted,
+                        Matcher.quoteReplacement(dialect.findInSet(matcher.group(1).trim(), matcher.group(2).trim())));
+            }
+            matcher.appendTail(converted);
+            scopeSql = converted.toString();
+        }
+        return String.join("(" + scopeSql + ")", plan);
+    }
+
+    /**
+     * 当前数据源的方言，databaseId 由 DataSourceManager 在数据源创建时按元数据识别一次并缓存
+     */
+    private Dialect currentDialect() {
+        DialectRouter router = dialectRouter;
+        if (router == null) {
+            try {
+                router = SpringUtils.getBean(DialectRouter.class);
+                dialectRouter = router;
+            } catch (Exception e) {
+                return DEFAULT_DIALECT;
+            }
+        }
+        return router.routeByCurrent();
     }
 
     private String parseSelect(Statement statement, Expression expression, String deptAlias, String userAlias)
@@ -218,6 +273,9 @@ public class DataScopeInterceptor implements Interceptor {
                 }
             }
             Expression currentWhere = plainSelect.getWhere();
+            if (currentWhere instanceof OrExpression) {
+                currentWhere = new ParenthesedExpressionList<>(currentWhere);
+            }
             Expression newWhere = currentWhere == null ? expression : new AndExpression(currentWhere, expression);
             plainSelect.setWhere(newWhere);
             log.debug("数据权限拦截器：数据权限条件已应用到主 WHERE 子句（表类型：{}）", targetType != null ? targetType : "未知");
@@ -1,37 +1,60 @@
 package com.datai.mybatisinterceptor.interceptor;
 
 import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.plugin.Intercepts;
 import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.springframework.util.ReflectionUtils;
 
 import com.datai.common.utils.spring.SpringUtils;
 import com.datai.common.utils.sql.SqlUtil;
+import com.datai.framework.datasource.DynamicDataSourceContextHolder;
 import com.datai.mybatisinterceptor.context.page.PageContextHolder;
 import com.datai.mybatisinterceptor.context.page.model.PageInfo;
 import com.datai.mybatisinterceptor.context.page.model.TableInfo;
 import com.datai.mybatisinterceptor.dialect.Dialect;
 import com.datai.mybatisinterceptor.dialect.DialectRouter;
+import com.datai.mybatisinterceptor.enums.PageCountMode;
 // no dialect-specific imports needed; rely on Dialect API
+import com.datai.mybatisinterceptor.util.CountCache;
 import com.datai.mybatisinterceptor.util.OrderByUtil;
 import com.datai.mybatisinterceptor.util.SqlAnalysisCache;
+import com.datai.mybatisinterceptor.util.SqlCaches;
 
 //
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.ComparisonOperator;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThan;
+import net.sf.jsqlparser.expression.operators.relational.MinorThan;
+import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
 import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
 import net.sf.jsqlparser.statement.Statement;
 //
 import net.sf.jsqlparser.statement.select.OrderByElement;
@@ -49,9 +72,17 @@ public class PageInercetor extends MybatisInterceptor {
     private static final List<ResultMapping> EMPTY_RESULTMAPPING = new ArrayList<ResultMapping>(0);
 
     private static final String SELECT_COUNT_SUFIX = "_SELECT_COUNT";
+    private static final String SELECT_ESTIMATE_SUFIX = "_SELECT_ESTIMATE";
+    /** 估算行数低于该值时直接执行精确 count，小表估算误差大且 count 本身很快 */
+    private static final long ESTIMATE_EXACT_THRESHOLD = 10000L;
+    /** 游标条件中的占位列，生成 SQL 后替换为 ? 并绑定游标值 */
+    private static final String KEYSET_MARKER = "__KEYSET_";
+    private static final String KEYSET_PARAM = "__keyset_";
     private static final Field sqlFiled = ReflectionUtils.findField(BoundSql.class, "sql");
+    private static final Field parameterMappingsField = ReflectionUtils.findField(BoundSql.class, "parameterMappings");
     static {
         sqlFiled.setAccessible(true);
+        parameterMappingsField.setAccessible(true);
     }
 
     private DialectRouter dialectRouter = SpringUtils.getBean(DialectRouter.class);
@@ -59,14 +90,15 @@ public class PageInercetor extends MybatisInterceptor {
     @Override
     public Object runPreHandlers(Executor executor, MappedStatement mappedStatement, Object params, RowBounds rowBounds,
             ResultHandler<?> resultHandler, CacheKey cacheKey, BoundSql boundSql) throws Throwable {
-        // 避免对内部 count 查询再次分页/递归
-        if (mappedStatement.getId() != null && mappedStatement.getId().endsWith(SELECT_COUNT_SUFIX)) {
+        // 避免对内部 count/估算查询再次分页/递归
+        if (mappedStatement.getId() != null && (mappedStatement.getId().endsWith(SELECT_COUNT_SUFIX)
+                || mappedStatement.getId().endsWith(SELECT_ESTIMATE_SUFIX))) {
             return null;
         }
         if (PageContextHolder.isPage()) {
             String originSql = boundSql.getSql();
             SqlAnalysisCache.Analysis analysis = SqlAnalysisCache.analyze(originSql);
-            // 惰性解析：仅在确需 AST（注入排序或复杂分页）时再 parse
+            // 惰性解析：仅在确需 AST（注入排序、游标条件或复杂分页）时再 parse
             Statement sql = null;
             Select selectAst = null;
             {
@@ -76,16 +108,35 @@ public class PageInercetor extends MybatisInterceptor {
                 // 路由方言
                 Dialect dialect = dialectRouter.routeByCurrent();
 
-                // 生成 count（可关闭）
+                // 生成 count（按统计方式：精确 / 缓存 / 估算 / 不统计）
+                PageCountMode countMode = pageInfo.resolveCountMode();
                 Long total = null;
-                boolean doCount = pageInfo.getSearchCount() == null || pageInfo.getSearchCount().booleanValue();
-                if (doCount) {
+                boolean exactCount = false;
+                if (countMode != PageCountMode.NONE) {
                     String base = analysis.noOrderSql != null ? analysis.noOrderSql : originSql; // 优化：去掉 order by
-                    String countSql = dialect.buildCountSql(base, analysis.complex);
-                    total = getCount(executor, mappedStatement, params, boundSql, rowBounds, resultHandler, countSql);
+                    if (countMode == PageCountMode.ESTIMATE) {
+                        total = getEstimate(executor, mappedStatement, params, boundSql, resultHandler, dialect, base);
+                    }
+                    if (total == null || total < ESTIMATE_EXACT_THRESHOLD) {
+                        String countSql = dialect.buildCountSql(base, analysis.complex);
+                        String countKey = null;
+                        if (countMode == PageCountMode.CACHED) {
+                            countKey = CountCache.buildKey(mappedStatement, boundSql, params, countSql);
+                            total = CountCache.get(countKey);
+                        } else {
+                            total = null;
+                        }
+                        if (total == null) {
+                            total = getCount(executor, mappedStatement, params, boundSql, rowBounds, resultHandler, countSql);
+                            if (countKey != null) {
+                                CountCache.put(countKey, total);
+                            }
+                        }
+                        exactCount = true;
+                    }
                     PageContextHolder.setTotal(total);
                     // 若 total=0，标记跳过主查询，由拦截器统一执行短路
-                    if (total != null && total.longValue() == 0L) {
+                    if (exactCount && total != null && total.longValue() == 0L) {
                         PageContextHolder.setSkipQuery(true);
                     }
                 }
@@ -93,7 +144,7 @@ public class PageInercetor extends MybatisInterceptor {
                 // PageHelper 合理化语义对齐：在拿到 total 后修正页码
                 if (Boolean.TRUE.equals(pageInfo.getReasonable())) {
                     // 仅在已执行 count 的情况下才能根据最大页修正
-                    if (doCount) {
+                    if (exactCount) {
                         long ps = pageInfo.getPageSize() == null ? 10L
                                 : Math.max(1L, pageInfo.getPageSize());
                         long pages = (total == null || total <= 0L) ? 0L : ((total + ps - 1L) / ps);
@@ -117,7 +168,8 @@ public class PageInercetor extends MybatisInterceptor {
 
                 // 注入排序（仅当需要注入且原 SQL 无排序时，才解析 AST 注入）
                 boolean needInjectOrder = (orderExpr != null && !orderExpr.isEmpty() && analysis.noOrderSql == null);
-                if (needInjectOrder || analysis.hasLimit || (!dialect.preferWrap() && analysis.complex)) {
+                if (pageInfo.isKeyset() || needInjectOrder || analysis.hasLimit
+                        || (!dialect.preferWrap() && analysis.complex)) {
                     // 需要 AST：解析一次
                     if (sql == null)
                         sql = SqlUtil.parseSql(originSql);
@@ -129,17 +181,44 @@ public class PageInercetor extends MybatisInterceptor {
                     }
                 }
 
+                // 游标分页：按排序键追加 seek 条件，不满足条件时回退为 offset 分页
+                List<Column> keysetColumns = (selectAst != null && pageInfo.isKeyset())
+                        ? resolveKeysetColumns(executor, selectAst, pageInfo)
+                        : null;
+
+                // 不统计总数或游标分页时多取一条，用于判断是否有下一页
+                long limitSize = pageInfo.getPageSize();
+                if (countMode == PageCountMode.NONE || keysetColumns != null) {
+                    limitSize = limitSize + 1;
+                    PageContextHolder.setFetchSize(limitSize);
+                }
+
                 // 注入分页
-                String baseSqlForPage = (selectAst != null) ? selectAst.toString() : originSql;
                 String pagedSqlStr;
-                if (selectAst != null) {
-                    // 用 AST 注入分页
-                    pagedSqlStr = applyPagination(selectAst, baseSqlForPage, pageInfo, dialect, analysis);
+                if (keysetColumns != null) {
+                    List<String> names = new ArrayList<>(keysetColumns.size());
+                    for (Column column : keysetColumns) {
+                        names.add(unquote(column.getColumnName()));
+                    }
+                    PageContextHolder.setKeysetColumns(names);
+                    String seekSql = applyKeyset((PlainSelect) selectAst, keysetColumns, pageInfo.getCursor(),
+                            mappedStatement, boundSql);
+                    pagedSqlStr = dialect.wrapPaginationSql(seekSql, 0L, limitSize);
+                    if (pageInfo.getCursor() != null) {
+                        for (Object value : pageInfo.getCursor()) {
+                            cacheKey.update(value);
+                        }
+                    }
                 } else {
-                    // 不解析，走包装
-                    long limitSize = pageInfo.getPageSize();
+                    String baseSqlForPage = (selectAst != null) ? selectAst.toString() : originSql;
                     long offset = pageInfo.getOffset();
-                    pagedSqlStr = dialect.wrapPaginationSql(baseSqlForPage, offset, limitSize);
+                    if (selectAst != null) {
+                        // 用 AST 注入分页
+                        pagedSqlStr = applyPagination(selectAst, baseSqlForPage, offset, limitSize, dialect, analysis);
+                    } else {
+                        // 不解析，走包装
+                        pagedSqlStr = dialect.wrapPaginationSql(baseSqlForPage, offset, limitSize);
+                    }
                 }
                 sqlFiled.set(boundSql, pagedSqlStr);
                 cacheKey.update(pagedSqlStr);
@@ -158,6 +237,24 @@ public class PageInercetor extends MybatisInterceptor {
             if (object instanceof List) {
                 TableInfo<Object> tableInfo = new TableInfo<Object>((List<?>) object);
                 tableInfo.setTotal(PageContextHolder.getTotal());
+                Long fetchSize = PageContextHolder.getFetchSize();
+                if (fetchSize != null) {
+                    // 多取的一条只用于判断是否有下一页
+                    boolean hasNext = tableInfo.size() >= fetchSize;
+                    if (hasNext) {
+                        tableInfo.remove(tableInfo.size() - 1);
+                    }
+                    tableInfo.setHasNext(hasNext);
+                    List<String> keysetColumns = PageContextHolder.getKeysetColumns();
+                    if (keysetColumns != null && !tableInfo.isEmpty()) {
+                        tableInfo.setNextCursor(extractCursor(tableInfo.get(tableInfo.size() - 1), keysetColumns));
+                    }
+                    if (tableInfo.getTotal() == null) {
+                        // 不统计总数时 total 为已知下界，保证"下一页"可点
+                        long offset = keysetColumns != null ? 0L : PageContextHolder.getPageInfo().getOffset();
+                        tableInfo.setTotal(offset + tableInfo.size() + (hasNext ? 1L : 0L));
+                    }
+                }
                 return tableInfo;
             }
             return object;
@@ -171,6 +268,10 @@ public class PageInercetor extends MybatisInterceptor {
     }
 
     private static MappedStatement createCountMappedStatement(MappedStatement ms, String newMsId) {
+        return createCountMappedStatement(ms, newMsId, Long.class);
+    }
+
+    private static MappedStatement createCountMappedStatement(MappedStatement ms, String newMsId, Class<?> resultType) {
         MappedStatement.Builder builder = new MappedStatement.Builder(ms.getConfiguration(), newMsId, ms.getSqlSource(),
                 ms.getSqlCommandType());
         builder.resource(ms.getResource());
@@ -189,7 +290,7 @@ public class PageInercetor extends MybatisInterceptor {
         builder.parameterMap(ms.getParameterMap());
         // count查询返回值int
         List<ResultMap> resultMaps = new ArrayList<ResultMap>();
-        ResultMap resultMap = new ResultMap.Builder(ms.getConfiguration(), ms.getId(), Long.class, EMPTY_RESULTMAPPING)
+        ResultMap resultMap = new ResultMap.Builder(ms.getConfiguration(), ms.getId(), resultType, EMPTY_RESULTMAPPING)
                 .build();
         resultMaps.add(resultMap);
         builder.resultMaps(resultMaps);
@@ -220,11 +321,250 @@ public class PageInercetor extends MybatisInterceptor {
         return mappedStatement.getId() + SELECT_COUNT_SUFIX;
     }
 
+    /**
+     * 通过方言的 EXPLAIN 估算行数；方言不支持或执行失败时返回 null，由调用方回退为精确 count
+     */
+    @SuppressWarnings("unchecked")
+    private static Long getEstimate(Executor executor, MappedStatement mappedStatement, Object parameter,
+            BoundSql boundSql, ResultHandler<?> resultHandler, Dialect dialect, String baseSql) {
+        String estimateSql = dialect.buildEstimateSql(baseSql);
+        if (estimateSql == null) {
+            return null;
+        }
+        try {
+            BoundSql estimateBoundSql = new BoundSql(mappedStatement.getConfiguration(), estimateSql,
+                    boundSql.getParameterMappings(), parameter);
+            for (Map.Entry<String, Object> entry : boundSql.getAdditionalParameters().entrySet()) {
+                estimateBoundSql.setAdditionalParameter(entry.getKey(), entry.getValue());
+            }
+            CacheKey estimateKey = executor.createCacheKey(mappedStatement, parameter, RowBounds.DEFAULT,
+                    estimateBoundSql);
+            List<Object> rows = executor.query(
+                    createCountMappedStatement(mappedStatement, mappedStatement.getId() + SELECT_ESTIMATE_SUFIX,
+                            HashMap.class),
+                    parameter, RowBounds.DEFAULT, resultHandler, estimateKey, estimateBoundSql);
+            List<Map<String, Object>> plan = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                plan.add((Map<String, Object>) row);
+            }
+            return dialect.parseEstimate(plan);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 校验能否走游标分页并返回排序列：要求简单单表/连接查询（无 GROUP BY/HAVING/DISTINCT/LIMIT），
+     * ORDER BY 全部为普通列，且游标值个数与排序列一致、不含 null。
+     * 排序列须能唯一确定一行，否则与边界值相同的记录会在翻页时被跳过：ORDER BY 已包含主表全部主键列时直接使用，
+     * 单表查询时在末尾追加主键列作为次序键，其余情况（无主键、连接查询）回退为 offset 分页
+     */
+    private static List<Column> resolveKeysetColumns(Executor executor, Select select, PageInfo pageInfo) {
+        if (!(select instanceof PlainSelect plain)) {
+            return null;
+        }
+        if (plain.getGroupBy() != null || plain.getHaving() != null || plain.getDistinct() != null
+                || plain.getLimit() != null || plain.getOffset() != null || plain.getFetch() != null) {
+            return null;
+        }
+        List<OrderByElement> orderBy = plain.getOrderByElements();
+        if (orderBy == null || orderBy.isEmpty()) {
+            return null;
+        }
+        List<Column> columns = new ArrayList<>(orderBy.size());
+        Set<String> names = new HashSet<>();
+        for (OrderByElement element : orderBy) {
+            if (!(element.getExpression() instanceof Column column)) {
+                return null;
+            }
+            columns.add(column);
+            names.add(unquote(column.getColumnName()).toLowerCase());
+        }
+        if (!(plain.getFromItem() instanceof Table table)) {
+            return null;
+        }
+        List<String> primaryKey = getPrimaryKey(executor, table);
+        if (primaryKey.isEmpty()) {
+            return null;
+        }
+        List<String> missing = new ArrayList<>();
+        for (String key : primaryKey) {
+            if (!names.contains(key.toLowerCase())) {
+                missing.add(key);
+            }
+        }
+        // 连接查询中主键列名可能与其他表重名，且结果行不一定带出主表主键，不追加
+        if (!missing.isEmpty() && plain.getJoins() != null && !plain.getJoins().isEmpty()) {
+            return null;
+        }
+        List<Object> cursor = pageInfo.getCursor();
+        if (cursor != null) {
+            if (cursor.size() != columns.size() + missing.size() || cursor.contains(null)) {
+                return null;
+            }
+        }
+        if (!missing.isEmpty()) {
+            Table qualifier = table.getAlias() != null ? new Table(table.getAlias().getName()) : null;
+            boolean asc = orderBy.get(orderBy.size() - 1).isAsc();
+            List<OrderByElement> extended = new ArrayList<>(orderBy);
+            for (String key : missing) {
+                Column column = new Column(qualifier, key);
+                OrderByElement element = new OrderByElement();
+                element.setExpression(column);
+                element.setAsc(asc);
+                extended.add(element);
+                columns.add(column);
+            }
+            plain.setOrderByElements(extended);
+        }
+        return columns;
+    }
+
+    /**
+     * 读取表的主键列（按 KEY_SEQ 排序），按数据源 + 表名缓存；读取失败时返回空列表
+     */
+    private static List<String> getPrimaryKey(Executor executor, Table table) {
+        String tableName = unquote(table.getName());
+        String schemaName = table.getSchemaName() != null ? unquote(table.getSchemaName()) : null;
+        String ds = DynamicDataSourceContextHolder.getDataSourceType();
+        String key = (ds == null ? "" : ds) + '\n' + (schemaName == null ? "" : schemaName + '.') + tableName;
+        List<String> cached = SqlCaches.PRIMARY_KEY.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<String> primaryKey = Collections.emptyList();
+        try {
+            Connection connection = executor.getTransaction().getConnection();
+            DatabaseMetaData metaData = connection.getMetaData();
+            // 未加引号的表名在不同数据库中按大写或小写存储，依次尝试
+            for (String name : new String[] { tableName, tableName.toLowerCase(), tableName.toUpperCase() }) {
+                primaryKey = readPrimaryKey(metaData, connection.getCatalog(), schemaName, name);
+                if (!primaryKey.isEmpty()) {
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            return Collections.emptyList();
+        }
+        SqlCaches.PRIMARY_KEY.put(key, primaryKey);
+        return primaryKey;
+    }
+
+    private static List<String> readPrimaryKey(DatabaseMetaData metaData, String catalog, String schema, String table)
+            throws SQLException {
+        TreeMap<Short, String> columns = new TreeMap<>();
+        try (ResultSet rs = metaData.getPrimaryKeys(catalog, schema, table)) {
+            while (rs.next()) {
+                columns.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+            }
+        }
+        return columns.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(columns.values()));
+    }
+
+    /**
+     * 追加 seek 条件 (c0 > ?) OR (c0 = ? AND c1 > ?) ...（降序列使用 <），游标值以参数形式绑定到 BoundSql。
+     * 游标为空时为第一页，不追加条件。
+     */
+    private static String applyKeyset(PlainSelect plain, List<Column> columns, List<Object> cursor,
+            MappedStatement mappedStatement, BoundSql boundSql) throws IllegalAccessException {
+        if (cursor == null) {
+            return plain.toString();
+        }
+        List<OrderByElement> orderBy = plain.getOrderByElements();
+        Expression seek = null;
+        for (int i = 0; i < columns.size(); i++) {
+            ComparisonOperator compare = orderBy.get(i).isAsc() ? new GreaterThan() : new MinorThan();
+            compare.setLeftExpression(columns.get(i));
+            compare.setRightExpression(new Column(KEYSET_MARKER + i + "__"));
+            Expression term = compare;
+            for (int j = i - 1; j >= 0; j--) {
+                term = new AndExpression(new EqualsTo(columns.get(j), new Column(KEYSET_MARKER + j + "__")), term);
+            }
+            seek = seek == null ? term : new OrExpression(seek, term);
+        }
+        Expression where = plain.getWhere();
+        plain.setWhere(where == null ? new ParenthesedExpressionList<>(seek)
+                : new AndExpression(new ParenthesedExpressionList<>(where), new ParenthesedExpressionList<>(seek)));
+        String seekSql = plain.toString();
+
+        // 将占位列替换为 ?，并按其在 SQL 中的位置插入参数映射
+        List<ParameterMapping> mappings = new ArrayList<>(boundSql.getParameterMappings());
+        StringBuilder out = new StringBuilder(seekSql.length());
+        int paramIndex = 0;
+        char quote = 0;
+        for (int i = 0; i < seekSql.length(); i++) {
+            char c = seekSql.charAt(i);
+            if (quote != 0) {
+                if (c == quote)
+                    quote = 0;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '?') {
+                paramIndex++;
+            } else if (seekSql.startsWith(KEYSET_MARKER, i)) {
+                int end = seekSql.indexOf("__", i + KEYSET_MARKER.length());
+                int k = Integer.parseInt(seekSql.substring(i + KEYSET_MARKER.length(), end));
+                String property = KEYSET_PARAM + k;
+                mappings.add(paramIndex++, new ParameterMapping.Builder(mappedStatement.getConfiguration(),
+                        property, Object.class).build());
+                boundSql.setAdditionalParameter(property, cursor.get(k));
+                out.append('?');
+                i = end + 1;
+                continue;
+            }
+            out.append(c);
+        }
+        parameterMappingsField.set(boundSql, mappings);
+        return out.toString();
+    }
+
+    /**
+     * 从本页最后一条记录取出排序列的值作为下一页游标；Map 结果按列名匹配，实体按驼峰属性匹配
+     */
+    private static List<Object> extractCursor(Object row, List<String> columns) {
+        if (row == null) {
+            return null;
+        }
+        List<Object> cursor = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            Object value = null;
+            if (row instanceof Map<?, ?> map) {
+                String normalized = column.replace("_", "");
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    String key = String.valueOf(entry.getKey());
+                    if (key.equalsIgnoreCase(column) || key.replace("_", "").equalsIgnoreCase(normalized)) {
+                        value = entry.getValue();
+                        break;
+                    }
+                }
+            } else {
+                MetaObject metaObject = SystemMetaObject.forObject(row);
+                String property = metaObject.findProperty(column, true);
+                if (property != null && metaObject.hasGetter(property)) {
+                    value = metaObject.getValue(property);
+                }
+            }
+            if (value == null) {
+                return null;
+            }
+            cursor.add(value);
+        }
+        return cursor;
+    }
+
+    private static String unquote(String name) {
+        if (name != null && name.length() > 1) {
+            char first = name.charAt(0);
+            if (first == '`' || first == '"' || first == '[') {
+                return name.substring(1, name.length() - 1);
+            }
+        }
+        return name;
+    }
+
     // 已简化：count 直接通过 dialect.buildCountSql(originSql, analysis.complex)
-    private String applyPagination(Select select, String originSql, PageInfo pageInfo, Dialect dialect,
+    private String applyPagination(Select select, String originSql, long offset, long limitSize, Dialect dialect,
             SqlAnalysisCache.Analysis analysis) {
-        long limitSize = pageInfo.getPageSize();
-        long offset = pageInfo.getOffset();
         if (dialect.preferWrap()) {
             return dialect.wrapPaginationSql(originSql, offset, limitSize);
         }
@@ -0,0 +1,76 @@
+package com.datai.mybatisinterceptor.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+import com.datai.framework.datasource.DynamicDataSourceContextHolder;
+
+/**
+ * 分页 count 结果缓存：按数据源、count SQL 与实际参数值缓存总数，短时间内重复翻页不再执行 count。
+ * 缓存值可能落后于最新数据，仅适用于对总数实时性要求不高的列表；容量与有效期见 {@link SqlCaches#PAGE_COUNT}。
+ */
+public final class CountCache {
+    private CountCache() {}
+
+    public static Long get(String key) {
+        return SqlCaches.PAGE_COUNT.getIfPresent(key);
+    }
+
+    public static void put(String key, Long total) {
+        if (key == null || total == null) return;
+        SqlCaches.PAGE_COUNT.put(key, total);
+    }
+
+    public static void clear() {
+        SqlCaches.PAGE_COUNT.invalidateAll();
+    }
+
+    /**
+     * 生成缓存键：数据源 + count SQL + 按 DefaultParameterHandler 相同规则取出的参数值
+     */
+    public static String buildKey(MappedStatement ms, BoundSql boundSql, Object parameterObject, String countSql) {
+        String ds = DynamicDataSourceContextHolder.getDataSourceType();
+        return (ds == null ? "" : ds) + '\n' + countSql + '\n' + resolveParameters(ms, boundSql, parameterObject);
+    }
+
+    private static List<Object> resolveParameters(MappedStatement ms, BoundSql boundSql, Object parameterObject) {
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        if (mappings == null || mappings.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Configuration configuration = ms.getConfiguration();
+        TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+        MetaObject metaObject = null;
+        List<Object> values = new ArrayList<>(mappings.size());
+        for (ParameterMapping mapping : mappings) {
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (registry.hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameterObject);
+                }
+                value = metaObject.getValue(property);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+}
@@ -1,9 +1,5 @@
 package com.datai.mybatisinterceptor.util;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 import com.datai.common.utils.sql.SqlUtil;
 
 import net.sf.jsqlparser.statement.Statement;
@@ -13,6 +9,7 @@ import net.sf.jsqlparser.statement.select.Select;
 
 /**
  * 轻量 SQL 分析缓存：缓存无 OrderBy 的 SQL 与特征位，减少重复解析负担。
+ * 缓存存放在 {@link SqlCaches#ANALYSIS}，容量与统计见该类。
  */
 public final class SqlAnalysisCache {
     private SqlAnalysisCache() {}
@@ -33,19 +30,12 @@ public final class SqlAnalysisCache {
         }
     }
 
-    private static final int MAX = 1024;
-    private static final Map<String, Analysis> CACHE = Collections.synchronizedMap(new LinkedHashMap<String, Analysis>(128, 0.75f, true) {
-        private static final long serialVersionUID = 1L;
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<String, Analysis> eldest) {
-            return size() > MAX;
-        }
-    });
-
     public static Analysis analyze(String originSql) {
         if (originSql == null) return new Analysis(false, false, false, false, null);
-        Analysis a = CACHE.get(originSql);
-        if (a != null) return a;
+        return SqlCaches.ANALYSIS.get(originSql, SqlAnalysisCache::parse);
+    }
+
+    private static Analysis parse(String originSql) {
         boolean isSelect = false;
         boolean complex = false;
         boolean hasOrderBy = false;
@@ -76,8 +66,6 @@ public final class SqlAnalysisCache {
         } catch (Throwable ignore) {
             // 解析失败，视为非 select
         }
-        Analysis res = new Analysis(isSelect, complex, hasOrderBy, hasLimit, noOrderSql);
-        CACHE.put(originSql, res);
-        return res;
+        return new Analysis(isSelect, complex, hasOrderBy, hasLimit, noOrderSql);
     }
 }
@@ -0,0 +1,25 @@
+package com.datai.mybatisinterceptor.util;
+
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 将 {@link SqlCaches} 的命中、未命中、淘汰及容量统计发布为 cache.* 指标（tag cache=缓存名）
+ */
+@Component
+public class SqlCacheMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Map.Entry<String, Cache<String, ?>> entry : SqlCaches.all().entrySet()) {
+            CaffeineCacheMetrics.monitor(registry, entry.getValue(), entry.getKey());
+        }
+    }
+}
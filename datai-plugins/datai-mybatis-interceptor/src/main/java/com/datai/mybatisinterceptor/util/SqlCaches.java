@@ -0,0 +1,104 @@
+package com.datai.mybatisinterceptor.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.datai.common.utils.spring.SpringUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * 拦截器共享的 SQL 缓存：分页拦截器的 SQL 分析、count 结果与游标分页用到的表主键、数据权限拦截器的改写计划。
+ * 基于 Caffeine（W-TinyLFU 淘汰，无全局锁），分析与改写计划按 SQL 字符数加权限容，
+ * 命中/未命中/淘汰统计由 {@link SqlCacheMetrics} 发布到监控指标。
+ *
+ * 配置（application.yml）：
+ * sqlcache.maxWeight     每个 SQL 缓存的最大权重（字符数），默认 4194304
+ * sqlcache.countMaxSize  count 结果缓存的最大条数，默认 4096
+ * sqlcache.countTtlSeconds count 结果缓存有效期（秒），默认 30
+ */
+public final class SqlCaches {
+    private SqlCaches() {}
+
+    private static final long DEFAULT_MAX_WEIGHT = 4L * 1024 * 1024;
+    private static final long DEFAULT_COUNT_MAX_SIZE = 4096L;
+    private static final long DEFAULT_COUNT_TTL_SECONDS = 30L;
+    private static final long PRIMARY_KEY_MAX_SIZE = 1024L;
+
+    /** SQL 分析结果：key 为原始 SQL */
+    public static final Cache<String, SqlAnalysisCache.Analysis> ANALYSIS = Caffeine.newBuilder()
+            .maximumWeight(property("sqlcache.maxWeight", DEFAULT_MAX_WEIGHT))
+            .weigher((String sql, SqlAnalysisCache.Analysis a) -> sql.length()
+                    + (a.noOrderSql == null ? 0 : a.noOrderSql.length()))
+            .recordStats()
+            .build();
+
+    /** 数据权限改写计划：key 为 statementId + 别名 + 原始 SQL，value 为按占位切分的 SQL 片段 */
+    public static final Cache<String, String[]> DATA_SCOPE_PLAN = Caffeine.newBuilder()
+            .maximumWeight(property("sqlcache.maxWeight", DEFAULT_MAX_WEIGHT))
+            .weigher((String key, String[] plan) -> {
+                int weight = key.length();
+                for (String segment : plan) {
+                    weight += segment.length();
+                }
+                return weight;
+            })
+            .recordStats()
+            .build();
+
+    /** 分页 count 结果：key 为数据源 + count SQL + 参数值 */
+    public static final Cache<String, Long> PAGE_COUNT = Caffeine.newBuilder()
+            .maximumSize(property("sqlcache.countMaxSize", DEFAULT_COUNT_MAX_SIZE))
+            .expireAfterWrite(Duration.ofSeconds(property("sqlcache.countTtlSeconds", DEFAULT_COUNT_TTL_SECONDS)))
+            .recordStats()
+            .build();
+
+    /** 表主键列：key 为数据源 + 表名，value 为按序号排列的主键列，无主键时为空列表 */
+    public static final Cache<String, List<String>> PRIMARY_KEY = Caffeine.newBuilder()
+            .maximumSize(PRIMARY_KEY_MAX_SIZE)
+            .recordStats()
+            .build();
+
+    /**
+     * 按名称返回全部缓存，用于指标发布
+     */
+    public static Map<String, Cache<String, ?>> all() {
+        Map<String, Cache<String, ?>> caches = new LinkedHashMap<>();
+        caches.put("sql-analysis", ANALYSIS);
+        caches.put("data-scope-plan", DATA_SCOPE_PLAN);
+        caches.put("page-count", PAGE_COUNT);
+        caches.put("primary-key", PRIMARY_KEY);
+        return caches;
+    }
+
+    /**
+     * 各缓存的统计快照：命中数、未命中数、命中率、淘汰数、条目数
+     */
+    public static Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Cache<String, ?>> entry : all().entrySet()) {
+            CacheStats s = entry.getValue().stats();
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("hitCount", s.hitCount());
+            item.put("missCount", s.missCount());
+            item.put("hitRate", s.hitRate());
+            item.put("evictionCount", s.evictionCount());
+            item.put("size", entry.getValue().estimatedSize());
+            result.put(entry.getKey(), item);
+        }
+        return result;
+    }
+
+    private static long property(String key, long defaultValue) {
+        try {
+            String value = SpringUtils.getRequiredProperty(key);
+            return Long.parseLong(value.trim());
+        } catch (Exception e) {
+            // 未配置或 Spring 上下文尚未就绪时使用默认值
+            return defaultValue;
+        }
+    }
+}
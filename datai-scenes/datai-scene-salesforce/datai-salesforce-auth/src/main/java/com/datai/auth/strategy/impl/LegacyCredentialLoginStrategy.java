@@ -6,6 +6,7 @@ import com.datai.auth.strategy.LoginStrategy;
 import com.datai.common.utils.CacheUtils;
 import com.datai.salesforce.common.constant.SalesforceConfigConstants;
 import com.datai.salesforce.common.exception.SalesforceLegacyCredentialLoginException;
+import com.datai.salesforce.common.utils.SalesforceHttpClient;
 import jakarta.annotation.Resource;
 import jakarta.xml.soap.*;
 import org.apache.commons.lang3.StringEscapeUtils;
@@ -17,9 +18,7 @@ import org.springframework.stereotype.Component;
 import com.datai.setting.config.SalesforceConfigCacheManager;
 
 import java.io.*;
-import java.net.HttpURLConnection;
 import java.net.SocketTimeoutException;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -229,16 +228,16 @@ public class LegacyCredentialLoginStrategy implements LoginStrategy {
         }
 
         if (environmentType == null) {
-            return CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.endpoint.production", String.class);
+            return salesforceConfigCacheManager.getConfigValue("salesforce.api.endpoint.production");
         }
 
         switch (environmentType) {
             case "sandbox":
-                return CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.endpoint.sandbox", String.class);
+                return salesforceConfigCacheManager.getConfigValue("salesforce.api.endpoint.sandbox");
             case "custom":
-                return CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.endpoint.custom", String.class);
+                return salesforceConfigCacheManager.getConfigValue("salesforce.api.endpoint.custom");
             default:
-                return CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.endpoint.production", String.class);
+                return salesforceConfigCacheManager.getConfigValue("salesforce.api.endpoint.production");
         }
     }
 
@@ -287,73 +286,30 @@ public class LegacyCredentialLoginStrategy implements LoginStrategy {
 
         logger.debug("Sending SOAP request to: {}. Payload size: {} bytes", endpointUrl, soapRequest.length());
 
-        HttpURLConnection connection = null;
-        try {
-            URL url = new URL(endpointUrl);
-            connection = (HttpURLConnection) url.openConnection();
-
-            // 配置请求参数
-            connection.setRequestMethod("POST");
-            connection.setConnectTimeout(10000);
-            connection.setReadTimeout(30000);
-            connection.setDoOutput(true);
-
-            // 设置 Header
-            connection.setRequestProperty("Content-Type", "text/xml; charset=utf-8");
-            connection.setRequestProperty("SOAPAction", "\"\"");
-            connection.setRequestProperty("Accept", "text/xml");
-            // 显式开启 Keep-Alive
-            connection.setRequestProperty("Connection", "Keep-Alive");
-
-            // 发送数据
-            byte[] requestBytes = soapRequest.getBytes(StandardCharsets.UTF_8);
-            connection.setFixedLengthStreamingMode(requestBytes.length); // 明确告知长度，提高性能
-            try (OutputStream os = connection.getOutputStream()) {
-                os.write(requestBytes);
-            }
-
-            int responseCode = connection.getResponseCode();
-
-            // 读取响应
-            try (InputStream is = (responseCode >= 200 && responseCode < 300)
-                    ? connection.getInputStream()
-                    : connection.getErrorStream()) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "text/xml; charset=utf-8");
+        headers.put("SOAPAction", "\"\"");
+        headers.put("Accept", "text/xml");
 
-                if (is == null) {
-                    throw new SalesforceLegacyCredentialLoginException("HTTP_" + responseCode, "Empty response body from Salesforce");
-                }
-
-                // 使用包装后的读取方法，防止内存溢出或乱码
-                String response = readStream(is);
+        // 连接由共享连接池保活复用
+        try (SalesforceHttpClient.SalesforceHttpResponse httpResponse = SalesforceHttpClient.execute(
+                "POST", endpointUrl, headers, soapRequest, null)) {
+            int responseCode = httpResponse.getStatusCode();
+            String response = httpResponse.getBodyAsString();
 
-                if (responseCode >= 300) {
-                    handleErrorResponse(responseCode, response);
-                }
+            if (StringUtils.isEmpty(response) && responseCode >= 300) {
+                throw new SalesforceLegacyCredentialLoginException("HTTP_" + responseCode, "Empty response body from Salesforce");
+            }
 
-                return response;
+            if (responseCode >= 300) {
+                handleErrorResponse(responseCode, response);
             }
+
+            return response;
         } catch (SocketTimeoutException e) {
             logger.error("Timeout connecting to Salesforce at {}", endpointUrl);
             throw new Exception("Salesforce connection timed out", e);
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
-        }
-    }
-
-    /**
-     * 提取辅助方法：流读取
-     */
-    private String readStream(InputStream is) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line);
-            }
         }
-        return sb.toString();
     }
 
     /**
@@ -630,7 +586,7 @@ public class LegacyCredentialLoginStrategy implements LoginStrategy {
                 // 假设 CacheUtils.get 返回的是 Object 或者可能为 null
                 // 使用 Optional 避免深层 if-else
                 expiresIn = Optional.ofNullable(CacheUtils.getCache(SalesforceConfigConstants.SALESFORCE_CONFIG_CACHE_KEY))
-                        .map(c -> CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.session.timeout", String.class))
+                        .map(c -> salesforceConfigCacheManager.getConfigValue("salesforce.session.timeout"))
                         .filter(StringUtils::isNumeric) // 确保是数字
                         .map(Long::parseLong)
                         .orElse(6900L);
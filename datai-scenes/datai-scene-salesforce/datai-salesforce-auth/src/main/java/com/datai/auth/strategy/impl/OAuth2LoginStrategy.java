@@ -9,6 +9,7 @@ import com.datai.auth.strategy.LoginStrategy;
 import com.datai.common.utils.CacheUtils;
 import com.datai.salesforce.common.constant.SalesforceConfigConstants;
 import com.datai.salesforce.common.exception.SalesforceOAuthException;
+import com.datai.salesforce.common.utils.SalesforceHttpClient;
 import jakarta.annotation.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,8 +17,6 @@ import org.springframework.cache.Cache;
 import org.springframework.stereotype.Component;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -231,8 +230,8 @@ public class OAuth2LoginStrategy implements LoginStrategy {
             throw new SalesforceOAuthException("OAUTH2_CONFIG_ERROR", "Salesforce config cache not found");
         }
         
-        String apiVersion = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.version", String.class);
-        String environmentType = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.environment.type", String.class);
+        String apiVersion = salesforceConfigCacheManager.getConfigValue("salesforce.api.version");
+        String environmentType = salesforceConfigCacheManager.getConfigValue("salesforce.environment.type");
         String loginUrl;
         
         if (customLoginUrl != null && !customLoginUrl.trim().isEmpty()) {
@@ -245,9 +244,9 @@ public class OAuth2LoginStrategy implements LoginStrategy {
             loginUrl = getLoginUrl(environmentType);
         }
         
-        String clientId = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.oauth.client.id", String.class);
-        String clientSecret = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.oauth.client.secret", String.class);
-        String redirectUri = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.oauth.redirect.uri", String.class);
+        String clientId = salesforceConfigCacheManager.getConfigValue("salesforce.oauth.client.id");
+        String clientSecret = salesforceConfigCacheManager.getConfigValue("salesforce.oauth.client.secret");
+        String redirectUri = salesforceConfigCacheManager.getConfigValue("salesforce.oauth.redirect.uri");
         
         // 验证必要配置
         if (clientId == null || clientId.trim().isEmpty()) {
@@ -282,7 +281,7 @@ public class OAuth2LoginStrategy implements LoginStrategy {
                 if (cache == null) {
                     throw new SalesforceOAuthException("OAUTH2_CONFIG_ERROR", "Salesforce config cache not found");
                 }
-                String customEndpoint = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.endpoint.custom", String.class);
+                String customEndpoint = salesforceConfigCacheManager.getConfigValue("salesforce.api.endpoint.custom");
                 if (customEndpoint == null || customEndpoint.trim().isEmpty()) {
                     throw new SalesforceOAuthException("OAUTH2_INVALID_CUSTOM_ENDPOINT", "Custom endpoint is required for custom environment type");
                 }
@@ -609,34 +608,16 @@ public class OAuth2LoginStrategy implements LoginStrategy {
                     .append(URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8.name()));
         }
         
-        URL requestUrl = new URL(url);
-        HttpURLConnection connection = (HttpURLConnection) requestUrl.openConnection();
-        
-        // 设置请求属性
-        connection.setRequestMethod("POST");
-        connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-        connection.setDoOutput(true);
-        connection.setDoInput(true);
-        
-        // 发送请求
-        try (OutputStream os = connection.getOutputStream()) {
-            byte[] input = requestBody.toString().getBytes(StandardCharsets.UTF_8);
-            os.write(input, 0, input.length);
-        }
-        
-        // 获取响应
-        int responseCode = connection.getResponseCode();
-        logger.debug("响应状态码: {}", responseCode);
-        
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(responseCode == 200 ? connection.getInputStream() : connection.getErrorStream(), StandardCharsets.UTF_8))) {
-            StringBuilder response = new StringBuilder();
-            String responseLine;
-            while ((responseLine = br.readLine()) != null) {
-                response.append(responseLine.trim());
-            }
-            
-            String responseStr = response.toString();
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/x-www-form-urlencoded");
+        headers.put("Accept", "application/json");
+
+        try (SalesforceHttpClient.SalesforceHttpResponse response = SalesforceHttpClient.execute(
+                "POST", url, headers, requestBody.toString(), null)) {
+            int responseCode = response.getStatusCode();
+            logger.debug("响应状态码: {}", responseCode);
+
+            String responseStr = response.getBodyAsString().trim();
             logger.debug("响应内容: {}", responseStr);
             
             if (responseCode != 200) {
@@ -651,8 +632,6 @@ public class OAuth2LoginStrategy implements LoginStrategy {
             }
             
             return responseStr;
-        } finally {
-            connection.disconnect();
         }
     }
     
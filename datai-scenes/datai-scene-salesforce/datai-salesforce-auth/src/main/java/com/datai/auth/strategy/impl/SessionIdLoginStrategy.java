@@ -6,6 +6,7 @@ import com.datai.auth.strategy.LoginStrategy;
 import com.datai.common.utils.CacheUtils;
 import com.datai.salesforce.common.constant.SalesforceConfigConstants;
 import com.datai.salesforce.common.exception.SalesforceSessionIdLoginException;
+import com.datai.salesforce.common.utils.SalesforceHttpClient;
 import com.datai.setting.config.SalesforceConfigCacheManager;
 import jakarta.annotation.Resource;
 import org.slf4j.Logger;
@@ -13,12 +14,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -33,6 +29,8 @@ public class SessionIdLoginStrategy implements LoginStrategy {
     
     private static final Logger logger = LoggerFactory.getLogger(SessionIdLoginStrategy.class);
 
+    private static final int HTTP_OK = 200;
+
     @Resource
     private SalesforceConfigCacheManager salesforceConfigCacheManager;
     
@@ -151,8 +149,8 @@ public class SessionIdLoginStrategy implements LoginStrategy {
             throw new SalesforceSessionIdLoginException("CONFIG_NOT_FOUND", "Salesforce config cache not found");
         }
         
-        String apiVersion = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.version", String.class);
-        String environmentType = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.environment.type", String.class);
+        String apiVersion = salesforceConfigCacheManager.getConfigValue("salesforce.api.version");
+        String environmentType = salesforceConfigCacheManager.getConfigValue("salesforce.environment.type");
         String endpointUrl;
         
         if (customLoginUrl != null && !customLoginUrl.trim().isEmpty()) {
@@ -162,7 +160,7 @@ public class SessionIdLoginStrategy implements LoginStrategy {
             endpointUrl = getEndpointUrl(environmentType);
         }
         
-        String namespace = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.namespace", String.class);
+        String namespace = salesforceConfigCacheManager.getConfigValue("salesforce.api.namespace");
         
         // 验证必要配置
         if (apiVersion == null) {
@@ -195,11 +193,11 @@ public class SessionIdLoginStrategy implements LoginStrategy {
         
         switch (environmentType) {
             case "sandbox":
-                return CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.endpoint.sandbox", String.class);
+                return salesforceConfigCacheManager.getConfigValue("salesforce.api.endpoint.sandbox");
             case "custom":
-                return CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.endpoint.custom", String.class);
+                return salesforceConfigCacheManager.getConfigValue("salesforce.api.endpoint.custom");
             default:
-                return CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.api.endpoint.production", String.class);
+                return salesforceConfigCacheManager.getConfigValue("salesforce.api.endpoint.production");
         }
     }
     
@@ -233,44 +231,24 @@ public class SessionIdLoginStrategy implements LoginStrategy {
     private Map<String, String> validateSessionId(String sessionId, String identityUrl) throws Exception {
         logger.debug("验证Session ID，调用Identity API: {}", identityUrl);
         
-        URL url = new URL(identityUrl);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        
-        // 设置请求属性
-        connection.setRequestMethod("GET");
-        connection.setRequestProperty("Authorization", "Bearer " + sessionId);
-        connection.setRequestProperty("Accept", "application/json");
-        connection.setDoOutput(true);
-        connection.setDoInput(true);
-        
-        // 获取响应
-        int responseCode = connection.getResponseCode();
-        logger.debug("Identity API响应状态码: {}", responseCode);
-        
-        try (InputStream inputStream = responseCode == HttpURLConnection.HTTP_OK ? 
-                connection.getInputStream() : connection.getErrorStream()) {
-            if (inputStream == null) {
-                throw new IOException("No response from Identity API");
-            }
-            
-            ByteArrayOutputStream result = new ByteArrayOutputStream();
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = inputStream.read(buffer)) != -1) {
-                result.write(buffer, 0, length);
-            }
-            
-            String response = result.toString(StandardCharsets.UTF_8);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Authorization", "Bearer " + sessionId);
+        headers.put("Accept", "application/json");
+
+        try (SalesforceHttpClient.SalesforceHttpResponse httpResponse = SalesforceHttpClient.execute(
+                "GET", identityUrl, headers, null, null)) {
+            int responseCode = httpResponse.getStatusCode();
+            logger.debug("Identity API响应状态码: {}", responseCode);
+
+            String response = httpResponse.getBodyAsString();
             logger.debug("Identity API响应内容: {}", response);
             
-            if (responseCode != HttpURLConnection.HTTP_OK) {
+            if (responseCode != HTTP_OK) {
                 throw new SalesforceSessionIdLoginException("INVALID_SESSION_ID", "Invalid Session ID: " + response);
             }
             
             // 解析JSON响应
             return parseIdentityResponse(response);
-        } finally {
-            connection.disconnect();
         }
     }
     
@@ -348,7 +326,7 @@ public class SessionIdLoginStrategy implements LoginStrategy {
     private long getSessionTimeout(Map<String, String> config) {
         Cache cache = CacheUtils.getCache(SalesforceConfigConstants.SALESFORCE_CONFIG_CACHE_KEY);
         if (cache != null) {
-            String sessionTimeout = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.session.timeout", String.class);
+            String sessionTimeout = salesforceConfigCacheManager.getConfigValue("salesforce.session.timeout");
             if (sessionTimeout != null) {
                 try {
                     return Long.parseLong(sessionTimeout);
@@ -372,30 +350,20 @@ public class SessionIdLoginStrategy implements LoginStrategy {
         // 构建登出URL
         String logoutUrl = config.get("endpointUrl").replace("/services/Soap/u/", "/services/oauth2/revoke");
         
-        URL url = new URL(logoutUrl);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        
-        // 设置请求属性
-        connection.setRequestMethod("POST");
-        connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-        connection.setDoOutput(true);
-        connection.setDoInput(true);
-        
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/x-www-form-urlencoded");
+
         // 构建请求体
         String requestBody = "token=" + sessionId;
         
         // 发送请求
-        try (var outputStream = connection.getOutputStream()) {
-            byte[] requestBytes = requestBody.getBytes(StandardCharsets.UTF_8);
-            outputStream.write(requestBytes);
-            outputStream.flush();
+        try (SalesforceHttpClient.SalesforceHttpResponse httpResponse = SalesforceHttpClient.execute(
+                "POST", logoutUrl, headers, requestBody, null)) {
+            int responseCode = httpResponse.getStatusCode();
+            logger.debug("登出API响应状态码: {}", responseCode);
+
+            // 登出成功返回200或204
+            return responseCode == HTTP_OK || responseCode == 204;
         }
-        
-        // 获取响应
-        int responseCode = connection.getResponseCode();
-        logger.debug("登出API响应状态码: {}", responseCode);
-        
-        // 登出成功返回200或204
-        return responseCode == HttpURLConnection.HTTP_OK || responseCode == 204;
     }
 }
\ No newline at end of file
@@ -77,6 +77,21 @@ public final class SalesforceConnectionConstants {
      */
     public static final long DEFAULT_MAX_LIFETIME = 7200000L; // 2小时
 
+    /**
+     * HTTP连接池默认最大连接数
+     */
+    public static final int DEFAULT_HTTP_MAX_TOTAL = 50;
+
+    /**
+     * HTTP连接池默认每个主机的最大连接数
+     */
+    public static final int DEFAULT_HTTP_MAX_PER_ROUTE = 20;
+
+    /**
+     * HTTP空闲连接默认保活时间（毫秒）
+     */
+    public static final long DEFAULT_HTTP_KEEP_ALIVE_TIMEOUT = 60000L;
+
     // ================================= 连接管理相关错误信息 =================================
     
     /**
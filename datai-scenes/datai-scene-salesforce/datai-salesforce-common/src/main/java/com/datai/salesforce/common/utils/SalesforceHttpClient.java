@@ -0,0 +1,492 @@
+package com.datai.salesforce.common.utils;
+
+import com.datai.salesforce.common.constant.SalesforceConnectionConstants;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.routing.HttpRoute;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityTemplate;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Salesforce HTTP传输工具类
+ * <p>
+ * Bulk、REST 连接与登录策略共用一个连接池：按主机限制并发连接数，空闲连接保活复用，避免每次请求重新建立TLS连接。
+ * 响应体由 HttpClient 自动协商并解压 gzip；请求体超过 {@link #GZIP_MIN_SIZE} 字节或为流时按 gzip 压缩上传。
+ * 响应体以流的形式返回，读取完毕并关闭后连接归还连接池。
+ * </p>
+ *
+ * @author datai
+ */
+public final class SalesforceHttpClient {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesforceHttpClient.class);
+
+    /**
+     * 请求体小于该字节数时不压缩
+     */
+    public static final int GZIP_MIN_SIZE = 1024;
+
+    private static volatile Settings settings = Settings.defaults();
+
+    private static volatile PoolingHttpClientConnectionManager connMgr;
+
+    private static volatile CloseableHttpClient httpClient;
+
+    private static final LongAdder REQUEST_COUNT = new LongAdder();
+
+    private static final LongAdder FAILURE_COUNT = new LongAdder();
+
+    private static final LongAdder GZIP_REQUEST_COUNT = new LongAdder();
+
+    private static final LongAdder RESPONSE_TIME_MILLIS = new LongAdder();
+
+    /**
+     * 旧连接池等待租用连接归还的最长时间，至少为读取超时
+     */
+    private static final long RETIRE_MAX_WAIT_MILLIS = 30 * 60 * 1000L;
+
+    private static final long RETIRE_CHECK_INTERVAL_MILLIS = 1000L;
+
+    private SalesforceHttpClient() {
+    }
+
+    /**
+     * 按配置重建连接池，新请求立即使用新连接池；旧连接池在已租用的连接（含未读完的 Bulk 结果流）全部归还后关闭
+     *
+     * @param newSettings 连接池配置
+     */
+    public static synchronized void configure(Settings newSettings) {
+        if (newSettings == null || newSettings.equals(settings) && httpClient != null) {
+            return;
+        }
+        CloseableHttpClient oldClient = httpClient;
+        PoolingHttpClientConnectionManager oldConnMgr = connMgr;
+        Settings oldSettings = settings;
+        settings = newSettings;
+        httpClient = null;
+        initClient();
+        if (oldClient != null) {
+            retire(oldClient, oldConnMgr, oldSettings);
+        }
+        log.info("Salesforce HTTP连接池已更新: {}", newSettings);
+    }
+
+    /**
+     * 在后台等待旧连接池的租用连接归还后再关闭；超过等待上限（不小于读取超时）仍未归还时强制关闭
+     */
+    private static void retire(CloseableHttpClient oldClient, PoolingHttpClientConnectionManager oldConnMgr, Settings oldSettings) {
+        long maxWait = Math.max(RETIRE_MAX_WAIT_MILLIS, oldSettings.getSocketTimeout());
+        Thread retireThread = new Thread(() -> {
+            long deadline = System.currentTimeMillis() + maxWait;
+            try {
+                while (oldConnMgr != null && System.currentTimeMillis() < deadline) {
+                    PoolStats stats = oldConnMgr.getTotalStats();
+                    if (stats.getLeased() == 0 && stats.getPending() == 0) {
+                        break;
+                    }
+                    Thread.sleep(RETIRE_CHECK_INTERVAL_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (oldConnMgr != null && oldConnMgr.getTotalStats().getLeased() > 0) {
+                log.warn("旧HTTP连接池等待 {}ms 后仍有 {} 个连接未归还，强制关闭", maxWait, oldConnMgr.getTotalStats().getLeased());
+            }
+            oldClient.close(CloseMode.GRACEFUL);
+            log.info("旧Salesforce HTTP连接池已关闭");
+        }, "salesforce-http-retire");
+        retireThread.setDaemon(true);
+        retireThread.start();
+    }
+
+    /**
+     * 获取当前连接池配置
+     */
+    public static Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * 发送请求，调用方负责关闭返回的响应
+     *
+     * @param method HTTP方法
+     * @param url 请求地址
+     * @param headers 请求头
+     * @param entity 请求体，可为null
+     * @return 响应
+     * @throws IOException 连接或传输失败
+     */
+    public static SalesforceHttpResponse execute(String method, String url, Map<String, String> headers, HttpEntity entity) throws IOException {
+        HttpUriRequestBase request = new HttpUriRequestBase(method, URI.create(url));
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (header.getValue() != null) {
+                    request.setHeader(header.getKey(), header.getValue());
+                }
+            }
+        }
+        if (entity != null) {
+            request.setEntity(entity);
+            if ("gzip".equals(entity.getContentEncoding())) {
+                GZIP_REQUEST_COUNT.increment();
+            }
+        }
+
+        long startTime = System.currentTimeMillis();
+        REQUEST_COUNT.increment();
+        try {
+            ClassicHttpResponse response = initClient().executeOpen(null, request, null);
+            return new SalesforceHttpResponse(response);
+        } catch (IOException e) {
+            FAILURE_COUNT.increment();
+            throw e;
+        } finally {
+            RESPONSE_TIME_MILLIS.add(System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * 发送请求并读取完整响应体，适用于响应较小的接口
+     *
+     * @param method HTTP方法
+     * @param url 请求地址
+     * @param headers 请求头
+     * @param body 请求体，可为null
+     * @param contentType 请求体类型，可为null（由请求头指定）
+     * @return 响应，响应体已读取为字符串
+     * @throws IOException 连接或传输失败
+     */
+    public static SalesforceHttpResponse execute(String method, String url, Map<String, String> headers,
+                                                 String body, String contentType) throws IOException {
+        try (SalesforceHttpResponse response = execute(method, url, headers, body != null ? entity(body, contentType) : null)) {
+            response.bufferBody();
+            return response;
+        }
+    }
+
+    /**
+     * 构建字符串请求体，超过 {@link #GZIP_MIN_SIZE} 字节且启用请求压缩时按 gzip 压缩
+     *
+     * @param body 请求体
+     * @param contentType 请求体类型，可为null
+     * @return 请求体
+     */
+    public static HttpEntity entity(String body, String contentType) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ContentType type = contentType != null ? ContentType.parse(contentType) : null;
+        if (!settings.isGzipRequest() || bytes.length < GZIP_MIN_SIZE) {
+            return new ByteArrayEntity(bytes, type);
+        }
+        return new EntityTemplate(-1, type, "gzip", out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+            gzip.write(bytes);
+            gzip.finish();
+        });
+    }
+
+    /**
+     * 构建流式请求体，启用请求压缩时边读边压缩上传
+     *
+     * @param stream 数据流
+     * @param contentType 请求体类型，可为null
+     * @return 请求体，不可重复发送
+     */
+    public static HttpEntity entity(InputStream stream, String contentType) {
+        ContentType type = contentType != null ? ContentType.parse(contentType) : null;
+        if (!settings.isGzipRequest()) {
+            return new InputStreamEntity(stream, -1, type);
+        }
+        return new EntityTemplate(-1, type, "gzip", out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+            stream.transferTo(gzip);
+            gzip.finish();
+        });
+    }
+
+    /**
+     * 获取连接池与请求统计
+     *
+     * @return 统计信息
+     */
+    public static Map<String, Object> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Settings current = settings;
+        stats.put("maxTotal", current.getMaxTotal());
+        stats.put("maxPerRoute", current.getMaxPerRoute());
+        stats.put("gzipRequest", current.isGzipRequest());
+
+        PoolingHttpClientConnectionManager manager = connMgr;
+        if (manager != null) {
+            PoolStats total = manager.getTotalStats();
+            stats.put("leased", total.getLeased());
+            stats.put("available", total.getAvailable());
+            stats.put("pending", total.getPending());
+
+            Map<String, Object> routes = new LinkedHashMap<>();
+            for (HttpRoute route : manager.getRoutes()) {
+                PoolStats routeStats = manager.getStats(route);
+                Map<String, Object> routeMap = new LinkedHashMap<>();
+                routeMap.put("leased", routeStats.getLeased());
+                routeMap.put("available", routeStats.getAvailable());
+                routeMap.put("pending", routeStats.getPending());
+                routeMap.put("max", routeStats.getMax());
+                routes.put(route.getTargetHost().toHostString(), routeMap);
+            }
+            stats.put("routes", routes);
+        }
+
+        long requests = REQUEST_COUNT.sum();
+        stats.put("requestCount", requests);
+        stats.put("failureCount", FAILURE_COUNT.sum());
+        stats.put("gzipRequestCount", GZIP_REQUEST_COUNT.sum());
+        stats.put("avgResponseMillis", requests > 0 ? RESPONSE_TIME_MILLIS.sum() / requests : 0);
+        return stats;
+    }
+
+    /**
+     * 初始化连接池，只在首次使用或重新配置时创建
+     */
+    private static CloseableHttpClient initClient() {
+        CloseableHttpClient client = httpClient;
+        if (client != null) {
+            return client;
+        }
+        synchronized (SalesforceHttpClient.class) {
+            if (httpClient == null) {
+                Settings current = settings;
+                connMgr = PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(current.getMaxTotal())
+                        .setMaxConnPerRoute(current.getMaxPerRoute())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(current.getConnectTimeout()))
+                                .setSocketTimeout(Timeout.ofMilliseconds(current.getSocketTimeout()))
+                                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                                .build())
+                        .build();
+                RequestConfig requestConfig = RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(current.getConnectTimeout()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(current.getSocketTimeout()))
+                        .build();
+                // 重试与限流由调用方处理，这里不自动重试
+                httpClient = HttpClients.custom()
+                        .setConnectionManager(connMgr)
+                        .setDefaultRequestConfig(requestConfig)
+                        .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(current.getKeepAliveTimeout()))
+                        .evictExpiredConnections()
+                        .evictIdleConnections(TimeValue.ofMilliseconds(current.getKeepAliveTimeout()))
+                        .disableAutomaticRetries()
+                        .build();
+            }
+            return httpClient;
+        }
+    }
+
+    /**
+     * 关闭连接池
+     */
+    public static synchronized void shutdown() {
+        if (httpClient != null) {
+            httpClient.close(CloseMode.GRACEFUL);
+            httpClient = null;
+            connMgr = null;
+        }
+    }
+
+    /**
+     * Salesforce HTTP响应
+     * <p>
+     * 响应体流关闭或响应关闭后连接归还连接池；未读完即关闭时连接会被丢弃。
+     * </p>
+     */
+    public static final class SalesforceHttpResponse implements Closeable {
+
+        private final ClassicHttpResponse response;
+
+        private String bufferedBody;
+
+        private SalesforceHttpResponse(ClassicHttpResponse response) {
+            this.response = response;
+        }
+
+        public int getStatusCode() {
+            return response.getCode();
+        }
+
+        public boolean isSuccessful() {
+            return response.getCode() >= 200 && response.getCode() < 300;
+        }
+
+        /**
+         * 获取响应头，不存在时返回null
+         */
+        public String getHeader(String name) {
+            Header header = response.getFirstHeader(name);
+            return header != null ? header.getValue() : null;
+        }
+
+        /**
+         * 获取响应体流（已解压），关闭该流即释放连接；无响应体时返回null
+         */
+        public InputStream getBody() throws IOException {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                return null;
+            }
+            return new FilterInputStream(entity.getContent()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        response.close();
+                    }
+                }
+            };
+        }
+
+        /**
+         * 获取响应体字符串，首次调用时读取完整响应体
+         */
+        public String getBodyAsString() throws IOException {
+            bufferBody();
+            return bufferedBody;
+        }
+
+        private void bufferBody() throws IOException {
+            if (bufferedBody != null) {
+                return;
+            }
+            HttpEntity entity = response.getEntity();
+            try {
+                bufferedBody = entity != null ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : "";
+            } catch (org.apache.hc.core5.http.ParseException e) {
+                throw new IOException("解析响应体失败: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            response.close();
+        }
+    }
+
+    /**
+     * 连接池配置
+     */
+    public static final class Settings {
+
+        private final int maxTotal;
+
+        private final int maxPerRoute;
+
+        private final int connectTimeout;
+
+        private final int socketTimeout;
+
+        private final long keepAliveTimeout;
+
+        private final boolean gzipRequest;
+
+        /**
+         * @param maxTotal 最大连接数
+         * @param maxPerRoute 每个主机的最大连接数
+         * @param connectTimeout 连接超时（毫秒），同时作为从连接池获取连接的超时
+         * @param socketTimeout 读取超时（毫秒）
+         * @param keepAliveTimeout 空闲连接保活时间（毫秒）
+         * @param gzipRequest 是否压缩请求体
+         */
+        public Settings(int maxTotal, int maxPerRoute, int connectTimeout, int socketTimeout, long keepAliveTimeout, boolean gzipRequest) {
+            this.maxTotal = Math.max(1, maxTotal);
+            this.maxPerRoute = Math.max(1, Math.min(maxPerRoute, this.maxTotal));
+            this.connectTimeout = connectTimeout;
+            this.socketTimeout = socketTimeout;
+            this.keepAliveTimeout = keepAliveTimeout;
+            this.gzipRequest = gzipRequest;
+        }
+
+        public static Settings defaults() {
+            return new Settings(SalesforceConnectionConstants.DEFAULT_HTTP_MAX_TOTAL,
+                    SalesforceConnectionConstants.DEFAULT_HTTP_MAX_PER_ROUTE,
+                    SalesforceConnectionConstants.DEFAULT_CONNECTION_TIMEOUT,
+                    SalesforceConnectionConstants.DEFAULT_READ_TIMEOUT,
+                    SalesforceConnectionConstants.DEFAULT_HTTP_KEEP_ALIVE_TIMEOUT,
+                    true);
+        }
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public int getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public int getSocketTimeout() {
+            return socketTimeout;
+        }
+
+        public long getKeepAliveTimeout() {
+            return keepAliveTimeout;
+        }
+
+        public boolean isGzipRequest() {
+            return gzipRequest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Settings other)) {
+                return false;
+            }
+            return maxTotal == other.maxTotal && maxPerRoute == other.maxPerRoute
+                    && connectTimeout == other.connectTimeout && socketTimeout == other.socketTimeout
+                    && keepAliveTimeout == other.keepAliveTimeout && gzipRequest == other.gzipRequest;
+        }
+
+        @Override
+        public int hashCode() {
+            return java.util.Objects.hash(maxTotal, maxPerRoute, connectTimeout, socketTimeout, keepAliveTimeout, gzipRequest);
+        }
+
+        @Override
+        public String toString() {
+            return "maxTotal=" + maxTotal + ", maxPerRoute=" + maxPerRoute + ", connectTimeout=" + connectTimeout
+                    + "ms, socketTimeout=" + socketTimeout + "ms, keepAlive=" + keepAliveTimeout + "ms, gzipRequest=" + gzipRequest;
+        }
+    }
+}
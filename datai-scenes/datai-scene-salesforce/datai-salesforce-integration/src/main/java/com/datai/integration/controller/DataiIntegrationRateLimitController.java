@@ -8,6 +8,7 @@ import com.datai.integration.model.vo.DataiIntegrationRateLimitVo;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -24,6 +25,8 @@ import com.datai.integration.model.domain.DataiIntegrationRateLimit;
 import com.datai.integration.model.dto.DataiIntegrationRateLimitDto;
 import com.datai.integration.service.IDataiIntegrationRateLimitService;
 import com.datai.common.utils.poi.ExcelUtil;
+import com.datai.salesforce.common.utils.SalesforceHttpClient;
+import com.datai.setting.future.SalesforceExecutor;
 import com.datai.common.core.page.TableDataInfo;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
@@ -42,6 +45,10 @@ public class DataiIntegrationRateLimitController extends BaseController
     @Autowired
     private IDataiIntegrationRateLimitService dataiIntegrationRateLimitService;
 
+    @Lazy
+    @Autowired
+    private SalesforceExecutor salesforceExecutor;
+
     /**
      * 查询API限流监控列表
      */
@@ -82,6 +89,28 @@ public class DataiIntegrationRateLimitController extends BaseController
         return success(dataiIntegrationRateLimitService.selectDataiIntegrationRateLimitById(id));
     }
 
+    /**
+     * 获取Salesforce HTTP连接池统计
+     */
+    @Operation(summary = "获取Salesforce HTTP连接池统计")
+    @PreAuthorize("@ss.hasPermi('integration:limit:list')")
+    @GetMapping("/transport")
+    public AjaxResult transport()
+    {
+        return success(SalesforceHttpClient.getPoolStats());
+    }
+
+    /**
+     * 获取Salesforce任务调度统计
+     */
+    @Operation(summary = "获取Salesforce任务调度统计")
+    @PreAuthorize("@ss.hasPermi('integration:limit:list')")
+    @GetMapping("/executor")
+    public AjaxResult executor()
+    {
+        return success(salesforceExecutor.getStats());
+    }
+
     /**
      * 新增API限流监控
      */
@@ -1,28 +1,20 @@
 package com.datai.integration.core;
 
 import com.datai.salesforce.common.constant.SalesforceConstants;
+import com.datai.salesforce.common.utils.SalesforceHttpClient;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sforce.async.*;
 import com.sforce.ws.ConnectorConfig;
 import com.sforce.ws.parser.XmlInputStream;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
-import org.apache.hc.core5.http.io.entity.InputStreamEntity;
-import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.net.URIBuilder;
 
-import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Bulk V1 连接类
@@ -55,28 +47,19 @@ public class BulkV1Connection extends BulkConnection implements IBulkV1Connectio
                     .appendPath("batch")
                     .build();
 
-            // 每次请求创建独立的 HttpClient (按要求不使用连接池)
-            try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-                HttpPost httpPost = new HttpPost(uri);
-
-                // 必须的鉴权和内容类型
-                httpPost.setHeader("X-SFDC-Session", getConfig().getSessionId());
-                httpPost.setHeader("Content-Type", "text/csv; charset=UTF-8");
-
-                // 使用 InputStreamEntity 实现真正的流式传输
-                // -1 表示长度未知，或者你可以传入具体的长度以优化性能
-                InputStreamEntity entity = new InputStreamEntity(csvStream, -1, ContentType.create("text/csv", StandardCharsets.UTF_8));
-                httpPost.setEntity(entity);
-
-                try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                    int status = response.getCode();
-                    if (status >= 200 && status < 300) {
-                        // 解析返回的 BatchInfo (XML 格式)
-                        return processBulkV1Get(response.getEntity().getContent(), com.sforce.async.ContentType.XML, BatchInfo.class);
-                    } else {
-                        String errorMsg = EntityUtils.toString(response.getEntity());
-                        throw new IOException("创建批次失败 (Status " + status + "): " + errorMsg);
-                    }
+            Map<String, String> headers = new HashMap<>();
+            // 必须的鉴权和内容类型
+            headers.put("X-SFDC-Session", getConfig().getSessionId());
+            headers.put("Content-Type", "text/csv; charset=UTF-8");
+
+            // CSV 按流上传（长度未知，分块传输），启用请求压缩时边读边压缩
+            try (SalesforceHttpClient.SalesforceHttpResponse response = SalesforceHttpClient.execute(
+                    SalesforceConstants.METHOD_POST, uri.toString(), headers, SalesforceHttpClient.entity(csvStream, null))) {
+                if (response.isSuccessful()) {
+                    // 解析返回的 BatchInfo (XML 格式)
+                    return processBulkV1Get(response.getBody(), com.sforce.async.ContentType.XML, BatchInfo.class);
+                } else {
+                    throw new IOException("创建批次失败 (Status " + response.getStatusCode() + "): " + response.getBodyAsString());
                 }
             }
         } catch (Exception e) {
@@ -101,20 +84,18 @@ public class BulkV1Connection extends BulkConnection implements IBulkV1Connectio
     private JobInfo updateJobState(String jobId, JobStateEnum newState) throws AsyncApiException {
         try {
             URI uri = new URIBuilder(getConfig().getRestEndpoint()).appendPath("job").appendPath(jobId).build();
-            try (CloseableHttpClient client = HttpClients.createDefault()) {
-                HttpPost post = new HttpPost(uri);
-                post.setHeader("X-SFDC-Session", getConfig().getSessionId());
-                post.setHeader("Content-Type", "application/xml");
-
-                String xmlBody = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
-                        "<jobInfo xmlns=\"http://www.force.com/2009/06/asyncapi/dataload\">" +
-                        "<state>" + newState.name() + "</state>" +
-                        "</jobInfo>";
-                post.setEntity(new StringEntity(xmlBody, StandardCharsets.UTF_8));
-
-                try (CloseableHttpResponse response = client.execute(post)) {
-                    return processBulkV1Get(response.getEntity().getContent(), com.sforce.async.ContentType.XML, JobInfo.class);
-                }
+            Map<String, String> headers = new HashMap<>();
+            headers.put("X-SFDC-Session", getConfig().getSessionId());
+            headers.put("Content-Type", "application/xml");
+
+            String xmlBody = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                    "<jobInfo xmlns=\"http://www.force.com/2009/06/asyncapi/dataload\">" +
+                    "<state>" + newState.name() + "</state>" +
+                    "</jobInfo>";
+
+            try (SalesforceHttpClient.SalesforceHttpResponse response = SalesforceHttpClient.execute(
+                    SalesforceConstants.METHOD_POST, uri.toString(), headers, SalesforceHttpClient.entity(xmlBody, null))) {
+                return processBulkV1Get(response.getBody(), com.sforce.async.ContentType.XML, JobInfo.class);
             }
         } catch (Exception e) {
             log.error("变更 Job 状态失败: {}", jobId, e);
@@ -158,24 +139,17 @@ public class BulkV1Connection extends BulkConnection implements IBulkV1Connectio
             for (String part : urlParts) builder.appendPath(part);
             URI uri = builder.build();
 
-            CloseableHttpClient httpClient = HttpClients.createDefault();
-            HttpGet httpGet = new HttpGet(uri);
-            httpGet.setHeader("X-SFDC-Session", getConfig().getSessionId());
-
-            CloseableHttpResponse response = httpClient.execute(httpGet);
-            if (response.getCode() >= 200 && response.getCode() < 300) {
-                // 返回自定义包装流，确保读取完毕后关闭 httpClient 和 response
-                return new FilterInputStream(response.getEntity().getContent()) {
-                    @Override
-                    public void close() throws IOException {
-                        try { super.close(); } finally { response.close(); httpClient.close(); }
-                    }
-                };
-            } else {
-                String err = EntityUtils.toString(response.getEntity());
-                response.close();
-                httpClient.close();
-                throw new IOException("API Error " + response.getCode() + ": " + err);
+            Map<String, String> headers = new HashMap<>();
+            headers.put("X-SFDC-Session", getConfig().getSessionId());
+
+            SalesforceHttpClient.SalesforceHttpResponse response = SalesforceHttpClient.execute(
+                    SalesforceConstants.METHOD_GET, uri.toString(), headers, null);
+            if (response.isSuccessful()) {
+                // 关闭返回的流即释放连接回连接池
+                return response.getBody();
+            }
+            try (response) {
+                throw new IOException("API Error " + response.getStatusCode() + ": " + response.getBodyAsString());
             }
         } catch (Exception e) {
             throw new AsyncApiException("GET 请求失败: " + e.getMessage(), AsyncExceptionCode.ClientInputError, e);
@@ -1,6 +1,11 @@
 package com.datai.integration.core;
 
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
 import com.datai.salesforce.common.constant.SalesforceConstants;
+import com.datai.salesforce.common.exception.HttpClientTransportException;
+import com.datai.salesforce.common.utils.SalesforceHttpClient;
 import com.sforce.async.*;
 import com.sforce.ws.ConnectionException;
 import com.sforce.ws.ConnectorConfig;
@@ -8,10 +13,10 @@ import com.sforce.ws.bind.TypeMapper;
 import com.sforce.ws.parser.PullParserException;
 import com.sforce.ws.parser.XmlInputStream;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.core5.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 
 import java.io.*;
-import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
@@ -123,7 +128,7 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
      * @throws AsyncApiException 异步API异常
      */
     public JobInfo setJobState(String jobId, boolean isQuery, JobStateEnum state, String errorMessage) throws AsyncApiException {
-        String urlString = constructRequestURL(jobId);
+        String urlString = constructRequestURL(jobId, isQuery);
         Map<String, String> headers = getHeaders(JSON_CONTENT_TYPE, JSON_CONTENT_TYPE);
         
         Map<String, Object> requestBodyMap = new HashMap<>();
@@ -146,7 +151,16 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
      * @throws AsyncApiException 异步API异常
      */
     public JobInfo getExtractJobStatus(String jobId) throws AsyncApiException {
-        return getJobStatus(jobId);
+        String urlString = constructRequestURL(jobId, true);
+        Map<String, String> headers = getHeaders(JSON_CONTENT_TYPE, JSON_CONTENT_TYPE);
+
+        try {
+            return doSendJobRequestToServer(urlString, headers, HttpMethod.GET,
+                ContentType.JSON, null, true, "获取查询作业状态失败: " + jobId);
+        } catch (Exception e) {
+            log.error("获取查询作业状态失败，jobId: {}", jobId, e);
+            throw new AsyncApiException("获取查询作业状态失败: " + jobId, AsyncExceptionCode.ClientInputError, e);
+        }
     }
 
     /**
@@ -158,14 +172,38 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
      * @throws AsyncApiException 异步API异常
      */
     public InputStream getQueryResultStream(String jobId, String locator) throws AsyncApiException {
-        String urlString = constructRequestURL(jobId) + "results/";
+        BulkV2QueryResult page = getQueryResultPage(jobId, locator, 0);
+        this.queryLocator = page.getLocator() != null ? page.getLocator() : this.queryLocator;
+        this.numberOfRecordsInQueryResult = page.getNumberOfRecords();
+        return page.getStream();
+    }
+
+    /**
+     * 获取查询结果分页
+     * <p>
+     * 定位器随结果页一起返回，不写入连接实例，适合多线程共享同一连接时按 Sforce-Locator 逐页拉取
+     * </p>
+     *
+     * @param jobId 作业ID
+     * @param locator 定位器，首页传null
+     * @param maxRecords 每页最大记录数，小于等于0时使用Salesforce默认值
+     * @return BulkV2QueryResult 查询结果分页
+     * @throws AsyncApiException 异步API异常
+     */
+    public BulkV2QueryResult getQueryResultPage(String jobId, String locator, int maxRecords) throws AsyncApiException {
+        StringBuilder urlString = new StringBuilder(constructRequestURL(jobId, true)).append("results");
+        char separator = '?';
         if (locator != null && !locator.isEmpty() && !"null".equalsIgnoreCase(locator)) {
-            urlString += "?locator=" + locator;
+            urlString.append(separator).append("locator=").append(locator);
+            separator = '&';
         }
-        
+        if (maxRecords > 0) {
+            urlString.append(separator).append("maxRecords=").append(maxRecords);
+        }
+
         try {
-            return doGetQueryResultStream(new URL(urlString), getHeaders(JSON_CONTENT_TYPE, CSV_CONTENT_TYPE));
-        } catch (IOException | ConnectionException e) {
+            return doGetQueryResultPage(new URL(urlString.toString()), getHeaders(JSON_CONTENT_TYPE, CSV_CONTENT_TYPE));
+        } catch (IOException e) {
             log.error("获取查询结果流失败，jobId: {}, locator: {}", jobId, locator, e);
             throw new AsyncApiException("获取查询结果失败: " + jobId, AsyncExceptionCode.ClientInputError, e);
         }
@@ -201,21 +239,11 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
         Map<String, String> headers = getHeaders(CSV_CONTENT_TYPE, JSON_CONTENT_TYPE);
         
         try {
-            HttpURLConnection connection = createHttpConnection(urlString, headers, SalesforceConstants.METHOD_PUT);
-            connection.setDoOutput(true);
-
-            try (OutputStream out = connection.getOutputStream()) {
-                byte[] buffer = new byte[8192];
-                int bytesRead;
-                while ((bytesRead = bulkUploadStream.read(buffer)) != -1) {
-                    out.write(buffer, 0, bytesRead);
-                }
-            }
-
-            int responseCode = connection.getResponseCode();
-            if (responseCode < 200 || responseCode >= 300) {
-                try (InputStream errorStream = connection.getErrorStream()) {
-                    parseAndThrowException(errorStream, ContentType.JSON);
+            // CSV 按流上传，启用请求压缩时边读边压缩
+            try (SalesforceHttpClient.SalesforceHttpResponse response = SalesforceHttpClient.execute(SalesforceConstants.METHOD_PUT,
+                    urlString, headers, SalesforceHttpClient.entity(bulkUploadStream, null))) {
+                if (!response.isSuccessful()) {
+                    parseAndThrowException(response.getBody(), ContentType.JSON);
                 }
             }
         } catch (IOException e) {
@@ -312,11 +340,22 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
      * @return String 请求URL
      */
     private String constructRequestURL(String jobId) {
+        return constructRequestURL(jobId, false);
+    }
+
+    /**
+     * 构造请求URL
+     *
+     * @param jobId 作业ID
+     * @param isQuery 是否为查询作业，查询作业使用 /jobs/query/，导入作业使用 /jobs/ingest/
+     * @return String 请求URL
+     */
+    private String constructRequestURL(String jobId, boolean isQuery) {
         String urlString = getConfig().getRestEndpoint();
         if (jobId == null) {
             jobId = "";
         }
-        urlString += SalesforceConstants.URI_STEM_INGEST + jobId + "/";
+        urlString += (isQuery ? SalesforceConstants.URI_STEM_QUERY : SalesforceConstants.URI_STEM_INGEST) + jobId + "/";
         return urlString;
     }
 
@@ -418,9 +457,6 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
         }
         
         try {
-            InputStream in = null;
-            boolean successfulRequest = true;
-            HttpURLConnection connection;
             String method;
             
             if (requestMethod.equals(HttpMethod.GET)) {
@@ -435,6 +471,7 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
                 method = SalesforceConstants.METHOD_GET;
             }
 
+            HttpEntity entity = null;
             if (requestMethod == HttpMethod.GET) {
                 if (requestBodyMap != null && !requestBodyMap.isEmpty()) {
                     Set<String> paramNameSet = requestBodyMap.keySet();
@@ -448,29 +485,21 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
                         }
                     }
                 }
-                connection = createHttpConnection(urlString, headers, SalesforceConstants.METHOD_GET);
-                in = connection.getInputStream();
-            } else {
-                connection = createHttpConnection(urlString, headers, method);
-                connection.setDoOutput(true);
+            } else if (requestBodyMap != null) {
+                entity = SalesforceHttpClient.entity(serializeToJson(requestBodyMap), null);
+            }
 
-                if (requestBodyMap != null) {
-                    String requestContent = serializeToJson(requestBodyMap);
-                    try (OutputStream out = connection.getOutputStream()) {
-                        out.write(requestContent.getBytes(SalesforceConstants.UTF_8));
-                    }
+            try (SalesforceHttpClient.SalesforceHttpResponse response = SalesforceHttpClient.execute(method, urlString, headers, entity);
+                 InputStream in = response.getBody()) {
+                if (!response.isSuccessful()) {
+                    parseAndThrowException(in, responseContentType);
                 }
 
-                in = connection.getInputStream();
-                successfulRequest = connection.getResponseCode() >= 200 && connection.getResponseCode() < 300;
-            }
-            
-            if (!processServerResponse) {
-                return null;
-            }
-            
-            JobInfo result = null;
-            if (successfulRequest) {
+                if (!processServerResponse) {
+                    return null;
+                }
+
+                JobInfo result;
                 if (responseContentType == ContentType.ZIP_XML || responseContentType == ContentType.XML) {
                     XmlInputStream xin = new XmlInputStream();
                     xin.setInput(in, SalesforceConstants.UTF_8);
@@ -479,11 +508,8 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
                 } else {
                     result = deserializeJobInfoFromJson(in);
                 }
-            } else {
-                parseAndThrowException(in, responseContentType);
+                return result;
             }
-            
-            return result;
         } catch (IOException e) {
             log.error("发送作业请求失败，url: {}", urlString, e);
             throw new AsyncApiException(exceptionMessageString, AsyncExceptionCode.ClientInputError, e);
@@ -550,31 +576,27 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
     }
 
     /**
-     * 获取查询结果流
+     * 获取查询结果分页
      *
      * @param resultsURL 结果URL
      * @param headers HTTP头
-     * @return InputStream 结果流
+     * @return BulkV2QueryResult 查询结果分页
      * @throws IOException IO异常
-     * @throws AsyncApiException 异步API异常
-     * @throws ConnectionException 连接异常
      */
-    private InputStream doGetQueryResultStream(URL resultsURL, Map<String, String> headers) 
-            throws IOException, AsyncApiException, ConnectionException {
-        HttpURLConnection connection = createHttpConnection(resultsURL.toString(), headers, SalesforceConstants.METHOD_GET);
-        InputStream is = connection.getInputStream();
+    private BulkV2QueryResult doGetQueryResultPage(URL resultsURL, Map<String, String> headers) throws IOException {
+        SalesforceHttpClient.SalesforceHttpResponse response = openGetStream(resultsURL.toString(), headers);
 
-        String locator = connection.getHeaderField("Sforce-Locator");
-        if (locator != null) {
-            this.queryLocator = locator;
-        }
+        String locator = response.getHeader("Sforce-Locator");
 
-        String numberOfRecords = connection.getHeaderField("Sforce-NumberOfRecords");
-        if (numberOfRecords != null) {
-            this.numberOfRecordsInQueryResult = Integer.parseInt(numberOfRecords);
+        int numberOfRecords = 0;
+        String numberOfRecordsHeader = response.getHeader("Sforce-NumberOfRecords");
+        if (numberOfRecordsHeader != null) {
+            numberOfRecords = Integer.parseInt(numberOfRecordsHeader);
         }
 
-        return is;
+        // 结果页按流返回，由调用方读取完毕后关闭以归还连接
+        InputStream is = response.getBody();
+        return new BulkV2QueryResult(is, locator, numberOfRecords);
     }
 
     /**
@@ -588,9 +610,7 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
     private InputStream doGetIngestResultsStream(String jobId, String resultsType) throws AsyncApiException {
         String resultsURLString = constructRequestURL(jobId) + resultsType;
         try {
-            HttpURLConnection connection = createHttpConnection(resultsURLString, 
-                getHeaders(JSON_CONTENT_TYPE, JSON_CONTENT_TYPE), SalesforceConstants.METHOD_GET);
-            return connection.getInputStream();
+            return openGetStream(resultsURLString, getHeaders(JSON_CONTENT_TYPE, JSON_CONTENT_TYPE)).getBody();
         } catch (IOException e) {
             log.error("获取导入结果流失败，jobId: {}, resultsType: {}", jobId, resultsType, e);
             throw new AsyncApiException("获取" + resultsType + "失败: " + jobId, AsyncExceptionCode.ClientInputError, e);
@@ -611,35 +631,14 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
         try (BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(filename, append));
              BufferedInputStream bis = new BufferedInputStream(doGetIngestResultsStream(jobId, resultsType))) {
 
-            byte[] buffer = new byte[2048];
-            boolean firstLineSkipped = !append;
-            for (int len; (len = bis.read(buffer)) > 0; ) {
-                if (!firstLineSkipped) {
-                    String str = new String(buffer, StandardCharsets.UTF_8);
-                    if (str.contains("\n")) {
-                        String[] parts = str.split("\n");
-                        if (parts.length > 1) {
-                            StringBuilder sb = new StringBuilder();
-                            for (int i = 1; i < parts.length; i++) {
-                                if (i > 1) {
-                                    sb.append(System.lineSeparator());
-                                }
-                                sb.append(parts[i]);
-                            }
-                            buffer = sb.toString().getBytes(StandardCharsets.UTF_8);
-                            int counter = 0;
-                            while (counter < buffer.length && buffer[counter] != 0) {
-                                counter++;
-                            }
-                            len = counter;
-                            firstLineSkipped = true;
-                        }
-                    }
-                }
-                if (firstLineSkipped) {
-                    bos.write(buffer, 0, len);
+            // 追加写入时跳过结果文件的表头行，其余内容按流直接写入文件
+            if (append) {
+                int b;
+                while ((b = bis.read()) != -1 && b != '\n') {
+                    // 跳过表头
                 }
             }
+            bis.transferTo(bos);
             bos.flush();
         } catch (FileNotFoundException e) {
             log.error("文件未找到，filename: {}", filename, e);
@@ -651,25 +650,24 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
     }
 
     /**
-     * 创建HTTP连接
+     * 发送GET请求并返回未读取的响应
      *
      * @param urlString URL字符串
      * @param headers HTTP头
-     * @param method HTTP方法
-     * @return HttpURLConnection HTTP连接
-     * @throws IOException IO异常
+     * @return 响应，调用方读取响应体后关闭以归还连接
+     * @throws IOException 请求失败或服务器返回错误状态码
      */
-    private HttpURLConnection createHttpConnection(String urlString, Map<String, String> headers, String method) 
+    private SalesforceHttpClient.SalesforceHttpResponse openGetStream(String urlString, Map<String, String> headers)
             throws IOException {
-        URL url = new URL(urlString);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod(method);
-
-        for (Map.Entry<String, String> entry : headers.entrySet()) {
-            connection.setRequestProperty(entry.getKey(), entry.getValue());
+        SalesforceHttpClient.SalesforceHttpResponse response = SalesforceHttpClient.execute(
+                SalesforceConstants.METHOD_GET, urlString, headers, null);
+        if (!response.isSuccessful()) {
+            try (response) {
+                throw new HttpClientTransportException("请求失败: " + urlString + ", 响应: " + response.getBodyAsString(),
+                        response.getStatusCode());
+            }
         }
-
-        return connection;
+        return response;
     }
 
     /**
@@ -708,8 +706,41 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
      * @throws IOException IO异常
      */
     private JobInfo deserializeJobInfoFromJson(InputStream is) throws IOException {
-        // 在实际项目中，这里应该使用Jackson或其他JSON库进行反序列化
-        throw new UnsupportedOperationException("JSON反序列化未实现");
+        JSONObject json = JSON.parseObject(readFully(is));
+        JobInfo jobInfo = new JobInfo();
+        if (json == null) {
+            return jobInfo;
+        }
+
+        jobInfo.setId(json.getString("id"));
+        jobInfo.setObject(json.getString("object"));
+        jobInfo.setCreatedById(json.getString("createdById"));
+        jobInfo.setExternalIdFieldName(json.getString("externalIdFieldName"));
+        if (json.containsKey("state")) {
+            jobInfo.setState(JobStateEnum.valueOf(json.getString("state")));
+        }
+        if (json.containsKey("operation")) {
+            jobInfo.setOperation(OperationEnum.valueOf(json.getString("operation")));
+        }
+        if (json.containsKey("contentType")) {
+            jobInfo.setContentType(ContentType.valueOf(json.getString("contentType")));
+        }
+        if (json.containsKey("apiVersion")) {
+            jobInfo.setApiVersion(json.getDoubleValue("apiVersion"));
+        }
+        if (json.containsKey("numberRecordsProcessed")) {
+            jobInfo.setNumberRecordsProcessed(json.getIntValue("numberRecordsProcessed"));
+        }
+        if (json.containsKey("numberRecordsFailed")) {
+            jobInfo.setNumberRecordsFailed(json.getIntValue("numberRecordsFailed"));
+        }
+        if (json.containsKey("retries")) {
+            jobInfo.setNumberRetries(json.getIntValue("retries"));
+        }
+        if (json.containsKey("totalProcessingTime")) {
+            jobInfo.setTotalProcessingTime(json.getLongValue("totalProcessingTime"));
+        }
+        return jobInfo;
     }
 
     /**
@@ -720,8 +751,40 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
      * @throws IOException IO异常
      */
     private BulkV2Error[] deserializeErrorsFromJson(InputStream is) throws IOException {
-        // 在实际项目中，这里应该使用Jackson或其他JSON库进行反序列化
-        throw new UnsupportedOperationException("JSON反序列化未实现");
+        JSONArray array = JSON.parseArray(readFully(is));
+        if (array == null) {
+            return new BulkV2Error[0];
+        }
+
+        BulkV2Error[] errors = new BulkV2Error[array.size()];
+        for (int i = 0; i < array.size(); i++) {
+            JSONObject item = array.getJSONObject(i);
+            BulkV2Error error = new BulkV2Error();
+            error.setErrorCode(item.getString("errorCode"));
+            error.setMessage(item.getString("message"));
+            JSONArray fields = item.getJSONArray("fields");
+            if (fields != null) {
+                error.setFields(fields.toArray(new String[0]));
+            }
+            errors[i] = error;
+        }
+        return errors;
+    }
+
+    /**
+     * 读取输入流全部内容
+     *
+     * @param is 输入流
+     * @return String 内容
+     * @throws IOException IO异常
+     */
+    private String readFully(InputStream is) throws IOException {
+        if (is == null) {
+            return null;
+        }
+        try (InputStream in = is) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
     }
 
     /**
@@ -763,13 +826,24 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
      * @return JobInfo 作业信息
      */
     public JobInfo createQueryJob(String soql) throws AsyncApiException {
+        return createQueryJob(soql, false);
+    }
+
+    /**
+     * 创建 Bulk Query 作业
+     *
+     * @param soql SOQL 查询语句
+     * @param queryAll 是否包含已删除和已归档记录（queryAll）
+     * @return JobInfo 作业信息
+     */
+    public JobInfo createQueryJob(String soql, boolean queryAll) throws AsyncApiException {
         // V2 Query 的 Endpoint 是 /jobs/query
         String urlString = getConfig().getRestEndpoint() + SalesforceConstants.URI_STEM_QUERY;
         Map<String, String> requestHeaders = getHeaders(JSON_CONTENT_TYPE, JSON_CONTENT_TYPE);
 
         Map<String, Object> body = new HashMap<>();
         body.put("query", soql);
-        body.put("operation", "query");
+        body.put("operation", queryAll ? OperationEnum.queryAll.toString() : OperationEnum.query.toString());
         // 可以指定字段定界符等，这里默认 CSV
         body.put("contentType", ContentType.CSV.toString());
         body.put("columnDelimiter", "COMMA");
@@ -785,16 +859,29 @@ public class BulkV2Connection extends BulkConnection implements IBulkV2Connectio
     }
 
     /**
-     * 轮询 Job 状态直到完成或失败
+     * 轮询查询 Job 状态直到完成或失败
      * * @param jobId 作业ID
      * @param intervalMillis 轮询间隔（毫秒）
      * @param timeoutMillis 超时时间（毫秒）
      * @return 最终的 JobInfo
      */
     public JobInfo awaitJobCompletion(String jobId, long intervalMillis, long timeoutMillis) throws AsyncApiException {
+        return awaitJobCompletion(jobId, true, intervalMillis, timeoutMillis);
+    }
+
+    /**
+     * 轮询 Job 状态直到完成或失败
+     *
+     * @param jobId 作业ID
+     * @param isQuery 是否为查询作业
+     * @param intervalMillis 轮询间隔（毫秒）
+     * @param timeoutMillis 超时时间（毫秒）
+     * @return 最终的 JobInfo
+     */
+    public JobInfo awaitJobCompletion(String jobId, boolean isQuery, long intervalMillis, long timeoutMillis) throws AsyncApiException {
         long start = System.currentTimeMillis();
         while (true) {
-            JobInfo status = getJobStatus(jobId);
+            JobInfo status = isQuery ? getExtractJobStatus(jobId) : getIngestJobStatus(jobId);
             JobStateEnum state = status.getState();
 
             if (state == JobStateEnum.JobComplete || state == JobStateEnum.Failed || state == JobStateEnum.Aborted) {
@@ -0,0 +1,70 @@
+package com.datai.integration.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk API V2 查询结果分页
+ *
+ * 每次拉取 /jobs/query/{jobId}/results 时返回一页CSV数据，同时携带响应头中的
+ * Sforce-Locator 与 Sforce-NumberOfRecords。定位器随结果页返回而不是保存在连接上，
+ * 以便同一个连接可以被多个线程同时用于拉取不同作业的结果。
+ *
+ * @author datai
+ * @since 1.0.0
+ */
+public class BulkV2QueryResult implements Closeable {
+
+    /**
+     * Salesforce 在最后一页返回的定位器值
+     */
+    private static final String LAST_PAGE_LOCATOR = "null";
+
+    private final InputStream stream;
+
+    private final String locator;
+
+    private final int numberOfRecords;
+
+    public BulkV2QueryResult(InputStream stream, String locator, int numberOfRecords) {
+        this.stream = stream;
+        this.locator = locator;
+        this.numberOfRecords = numberOfRecords;
+    }
+
+    /**
+     * 当前页CSV数据流（包含表头）
+     */
+    public InputStream getStream() {
+        return stream;
+    }
+
+    /**
+     * 下一页定位器
+     */
+    public String getLocator() {
+        return locator;
+    }
+
+    /**
+     * 当前页记录数
+     */
+    public int getNumberOfRecords() {
+        return numberOfRecords;
+    }
+
+    /**
+     * 是否还有下一页
+     */
+    public boolean hasNextPage() {
+        return locator != null && !locator.isEmpty() && !LAST_PAGE_LOCATOR.equalsIgnoreCase(locator);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.datai.integration.core;
+
+import com.datai.salesforce.common.constant.SalesforceConnectionConstants;
+import com.datai.salesforce.common.utils.SalesforceHttpClient;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import com.datai.setting.event.ConfigChangeEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Salesforce HTTP连接池配置类
+ * 启动时按配置初始化 {@link SalesforceHttpClient} 的连接池，salesforce.http.* 配置变更后重建连接池
+ *
+ * @author datai
+ */
+@Slf4j
+@Component
+public class HttpTransportConfigurer {
+
+    private static final String CONFIG_PREFIX = "salesforce.http.";
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    @PostConstruct
+    public void init() {
+        applySettings();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        SalesforceHttpClient.shutdown();
+    }
+
+    /**
+     * 监听连接池相关配置变更
+     *
+     * @param event 配置变更事件
+     */
+    @EventListener
+    public void onConfigChange(ConfigChangeEvent event) {
+        if (event.getConfig() != null && event.getConfig().getConfigKey() != null
+                && event.getConfig().getConfigKey().startsWith(CONFIG_PREFIX)) {
+            applySettings();
+        }
+    }
+
+    /**
+     * 读取配置并应用到连接池，配置未变化时不重建
+     */
+    public void applySettings() {
+        try {
+            SalesforceHttpClient.configure(new SalesforceHttpClient.Settings(
+                    getConfigInt("salesforce.http.max.total", SalesforceConnectionConstants.DEFAULT_HTTP_MAX_TOTAL),
+                    getConfigInt("salesforce.http.max.per.route", SalesforceConnectionConstants.DEFAULT_HTTP_MAX_PER_ROUTE),
+                    getConfigInt("salesforce.http.connect.timeout", SalesforceConnectionConstants.DEFAULT_CONNECTION_TIMEOUT),
+                    getConfigInt("salesforce.http.socket.timeout", SalesforceConnectionConstants.DEFAULT_READ_TIMEOUT),
+                    getConfigInt("salesforce.http.keep.alive.timeout", (int) SalesforceConnectionConstants.DEFAULT_HTTP_KEEP_ALIVE_TIMEOUT),
+                    !"false".equalsIgnoreCase(configCacheManager.getConfigValue("salesforce.http.gzip.request.enabled"))));
+        } catch (Exception e) {
+            log.warn("应用HTTP连接池配置失败，使用默认配置: {}", e.getMessage());
+        }
+    }
+
+    private int getConfigInt(String configKey, int defaultValue) {
+        String value = configCacheManager.getConfigValue(configKey);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                log.warn("配置 {} 的值 {} 不是有效整数，使用默认值 {}", configKey, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -17,6 +17,8 @@ public interface IBulkV2Connection {
 
     JobInfo createQueryJob(String soql) throws AsyncApiException;
 
+    JobInfo createQueryJob(String soql, boolean queryAll) throws AsyncApiException;
+
     JobInfo getJobStatus(String jobId) throws AsyncApiException;
 
     JobInfo getJobStatus(String jobId, ContentType contentType) throws AsyncApiException;
@@ -35,8 +37,12 @@ public interface IBulkV2Connection {
 
     JobInfo awaitJobCompletion(String jobId, long intervalMillis, long timeoutMillis) throws AsyncApiException;
 
+    JobInfo awaitJobCompletion(String jobId, boolean isQuery, long intervalMillis, long timeoutMillis) throws AsyncApiException;
+
     InputStream getQueryResultStream(String jobId, String locator) throws AsyncApiException;
 
+    BulkV2QueryResult getQueryResultPage(String jobId, String locator, int maxRecords) throws AsyncApiException;
+
     JobInfo startIngest(String jobId, InputStream bulkUploadStream) throws AsyncApiException;
 
     void saveIngestSuccessResults(String jobId, String filename, boolean append) throws AsyncApiException;
@@ -6,6 +6,7 @@ import com.sforce.ws.ConnectorConfig;
 import org.apache.commons.beanutils.DynaBean;
 
 import java.util.List;
+import java.util.Map;
 
 public interface IRESTConnection {
 
@@ -13,6 +14,8 @@ public interface IRESTConnection {
 
     void setApiVersion(String version);
 
+    Map<String, Object> getLimits() throws ConnectionException;
+
     enum ACTION_ENUM {
         INSERT, UPDATE, DELETE, UPSERT
     }
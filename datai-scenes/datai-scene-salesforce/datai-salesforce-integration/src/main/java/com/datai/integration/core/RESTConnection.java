@@ -2,6 +2,7 @@ package com.datai.integration.core;
 
 import com.datai.salesforce.common.constant.SalesforceConstants;
 import com.datai.salesforce.common.constant.SalesforceConnectionConstants;
+import com.datai.salesforce.common.utils.SalesforceHttpClient;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sforce.async.AsyncApiException;
@@ -13,13 +14,8 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.beanutils.DynaBean;
 import org.apache.commons.beanutils.DynaProperty;
-import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
@@ -104,6 +100,31 @@ public class RESTConnection implements IRESTConnection {
         }
     }
 
+    /**
+     * 查询组织的API额度使用情况 (Limits API)
+     *
+     * @return 各项额度，键为额度名称（如 DailyApiRequests），值包含 Max 与 Remaining
+     */
+    public Map<String, Object> getLimits() throws ConnectionException {
+        String endpoint = connectorConfig.getRestEndpoint();
+        if (endpoint == null || endpoint.isEmpty()) {
+            throw new IllegalStateException("REST endpoint is not configured");
+        }
+        String url = endpoint.endsWith("/") ? endpoint + "limits/" : endpoint + "/limits/";
+
+        try {
+            SimpleHttpResponse response = sendHttpRequest(url, createRestHeaders(connectorConfig.getSessionId()),
+                    SalesforceConstants.METHOD_GET, null);
+            if (!response.isSuccessful()) {
+                throw new ConnectionException("查询API额度失败: " + response.getResponseCode() + " " + response.getContentString());
+            }
+            return objectMapper.readValue(response.getContent(), new TypeReference<Map<String, Object>>() {});
+        } catch (IOException e) {
+            log.error("查询API额度时发生IO/JSON解析错误", e);
+            throw new ConnectionException("无法处理API额度响应", e);
+        }
+    }
+
     private String buildCompositeSobjectsEndpoint() {
         String endpoint = connectorConfig.getRestEndpoint();
         if (endpoint == null || endpoint.isEmpty()) {
@@ -277,38 +298,12 @@ public class RESTConnection implements IRESTConnection {
      */
     private SimpleHttpResponse sendHttpRequest(String urlString, Map<String, String> headers,
                                                String method, String requestBody) throws IOException {
-        URL url = new URL(urlString);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod(method);
-        connection.setConnectTimeout(SalesforceConnectionConstants.DEFAULT_CONNECTION_TIMEOUT);
-        connection.setReadTimeout(SalesforceConnectionConstants.DEFAULT_READ_TIMEOUT);
-
-        if (headers != null) {
-            for (Map.Entry<String, String> entry : headers.entrySet()) {
-                connection.setRequestProperty(entry.getKey(), entry.getValue());
-            }
-        }
-
-        if (requestBody != null && !requestBody.isEmpty()) {
-            connection.setDoOutput(true);
-            try (OutputStream out = connection.getOutputStream()) {
-                out.write(requestBody.getBytes(StandardCharsets.UTF_8));
-            }
+        try (SalesforceHttpClient.SalesforceHttpResponse response = SalesforceHttpClient.execute(
+                method, urlString, headers, requestBody != null && !requestBody.isEmpty() ? requestBody : null, null)) {
+            String content = response.getBodyAsString();
+            return new SimpleHttpResponse(response.isSuccessful(), response.getStatusCode(),
+                    content != null ? content.getBytes(StandardCharsets.UTF_8) : new byte[0]);
         }
-
-        int responseCode = connection.getResponseCode();
-        boolean successful = responseCode >= 200 && responseCode < 300;
-
-        String content;
-        try (InputStream inputStream = successful ? connection.getInputStream() : connection.getErrorStream()) {
-            if (inputStream != null) {
-                content = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
-            } else {
-                content = "";
-            }
-        }
-
-        return new SimpleHttpResponse(successful, responseCode, content != null ? content.getBytes(StandardCharsets.UTF_8) : new byte[0]);
     }
 
     /**
@@ -6,14 +6,29 @@ import com.datai.common.core.domain.AjaxResult;
 import com.datai.salesforce.common.constant.SalesforceConfigConstants;
 import com.datai.auth.model.domain.SalesforceLoginResult;
 import com.datai.auth.service.ISalesforceLoginService;
-import com.datai.common.utils.CacheUtils;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * 会话管理类 - 用于获取Salesforce会话信息
- * 支持会话失效时自动重新登录
+ * <p>
+ * 每个ORG类型的当前会话保存在不可变的 {@link SessionHolder} 中，读取时无锁。
+ * 会话过期或被 Salesforce 判定无效时，并发调用方共享同一次重新登录（single-flight）；
+ * 后台线程在会话到期前 salesforce.session.refresh.ahead.seconds 秒主动刷新，避免同步线程集中在过期时刻触发登录。
+ * </p>
  *
  * @author datai
  */
@@ -21,12 +36,73 @@ import org.springframework.stereotype.Component;
 @Component
 public class SessionManager {
 
+    /**
+     * 会话到期前主动刷新的默认提前秒数
+     */
+    private static final long DEFAULT_REFRESH_AHEAD_SECONDS = 600;
+
+    /**
+     * 主动刷新检查间隔（秒）
+     */
+    private static final long REFRESH_CHECK_INTERVAL_SECONDS = 60;
+
+    /**
+     * 等待其他线程正在进行的登录的最长时间（秒）
+     */
+    private static final long LOGIN_WAIT_TIMEOUT_SECONDS = 120;
+
     @Autowired
     private ISalesforceLoginService salesforceLoginService;
 
     @Autowired
     private IDataiSfLoginHistoryService dataiSfLoginHistoryService;
 
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    private final ConcurrentHashMap<String, SessionHolder> sessions = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, CompletableFuture<SessionHolder>> inflightLogins = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService refreshExecutor;
+
+    /**
+     * 当前会话，不可变
+     *
+     * @param loginResult 登录结果
+     * @param sessionId Session ID
+     */
+    private record SessionHolder(SalesforceLoginResult loginResult, String sessionId) {
+
+        boolean isValid() {
+            return loginResult.isSuccess() && sessionId != null && !loginResult.isSessionExpired();
+        }
+
+        boolean needsRefresh(long refreshAheadMillis) {
+            long expiration = loginResult.getExpirationTimestamp();
+            return loginResult.getExpiresIn() > 0 && expiration > 0
+                    && System.currentTimeMillis() >= expiration - refreshAheadMillis;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshExecutor.scheduleWithFixedDelay(this::refreshExpiringSessions,
+                REFRESH_CHECK_INTERVAL_SECONDS, REFRESH_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
     /**
      * 获取当前Salesforce会话信息
      * 如果会话无效，则自动尝试重新登录
@@ -36,19 +112,39 @@ public class SessionManager {
      * @throws RuntimeException 如果获取会话信息失败
      */
     public SalesforceLoginResult getCurrentLoginResult(String orgType) {
-        log.info("获取当前Salesforce会话信息，ORG类型: {}", orgType);
+        return getSession(orgType).loginResult();
+    }
+
+    /**
+     * 处理调用时 Salesforce 返回的 INVALID_SESSION_ID
+     * 当前会话仍是失效的会话时重新登录，已被其他线程刷新时直接返回新会话
+     *
+     * @param orgType ORG类型（source/target）
+     * @param staleSessionId 被判定无效的Session ID
+     * @return 新的Session ID
+     */
+    public String refreshInvalidSession(String orgType, String staleSessionId) {
+        log.warn("Salesforce返回会话无效，ORG类型: {}，刷新会话", orgType);
+        return refresh(orgType, staleSessionId).sessionId();
+    }
+
+    private SessionHolder getSession(String orgType) {
+        SessionHolder holder = sessions.get(orgType);
+        if (holder != null && holder.isValid()) {
+            return holder;
+        }
 
         try {
+            // 其他节点或手动登录可能已写入新的会话
             SalesforceLoginResult loginResult = salesforceLoginService.getCurrentLoginResultByOrgType(orgType);
-
             if (isLoginResultValid(loginResult)) {
-                log.info("获取会话信息成功，ORG类型: {}, 访问令牌前缀: {}", orgType,
-                        loginResult.getSessionId() != null ? loginResult.getSessionId().substring(0, Math.min(10, loginResult.getSessionId().length())) : "null");
-                return loginResult;
+                SessionHolder loaded = new SessionHolder(loginResult, loginResult.getSessionId());
+                sessions.put(orgType, loaded);
+                return loaded;
             }
 
             logSessionStatus(loginResult, orgType);
-            return autoLogin(orgType);
+            return refresh(orgType, holder != null ? holder.sessionId() : null);
 
         } catch (Exception e) {
             log.error("获取会话信息失败，ORG类型: {}, 错误: {}", orgType, e.getMessage(), e);
@@ -56,6 +152,87 @@ public class SessionManager {
         }
     }
 
+    /**
+     * 重新登录，同一ORG类型同时只执行一次，其他调用方等待并共享结果
+     *
+     * @param orgType ORG类型（source/target）
+     * @param staleSessionId 需要替换的Session ID，当前会话已不是该ID且有效时不再登录
+     * @return 新的会话
+     */
+    private SessionHolder refresh(String orgType, String staleSessionId) {
+        CompletableFuture<SessionHolder> future = new CompletableFuture<>();
+        CompletableFuture<SessionHolder> inflight = inflightLogins.putIfAbsent(orgType, future);
+        if (inflight != null) {
+            return awaitLogin(orgType, inflight);
+        }
+
+        try {
+            SessionHolder current = sessions.get(orgType);
+            if (current != null && current.isValid() && staleSessionId != null && !staleSessionId.equals(current.sessionId())) {
+                future.complete(current);
+                return current;
+            }
+
+            SalesforceLoginResult result = autoLogin(orgType);
+            SessionHolder refreshed = new SessionHolder(result, result.getSessionId());
+            sessions.put(orgType, refreshed);
+            future.complete(refreshed);
+            return refreshed;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflightLogins.remove(orgType, future);
+        }
+    }
+
+    private SessionHolder awaitLogin(String orgType, CompletableFuture<SessionHolder> inflight) {
+        log.debug("等待进行中的重新登录，ORG类型: {}", orgType);
+        try {
+            return inflight.get(LOGIN_WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtimeException ? runtimeException
+                    : new RuntimeException("自动重新登录失败: " + cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("等待重新登录超时，ORG类型: " + orgType, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("等待重新登录被中断，ORG类型: " + orgType, e);
+        }
+    }
+
+    /**
+     * 在会话到期前主动刷新
+     */
+    private void refreshExpiringSessions() {
+        long refreshAheadMillis = getRefreshAheadSeconds() * 1000;
+        for (Map.Entry<String, SessionHolder> entry : sessions.entrySet()) {
+            SessionHolder holder = entry.getValue();
+            if (!holder.needsRefresh(refreshAheadMillis)) {
+                continue;
+            }
+            try {
+                log.info("会话即将过期，主动刷新，ORG类型: {}", entry.getKey());
+                refresh(entry.getKey(), holder.sessionId());
+            } catch (Exception e) {
+                log.warn("主动刷新会话失败，ORG类型: {}，将在下次检查或会话过期时重试: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private long getRefreshAheadSeconds() {
+        String value = configCacheManager.getConfigValue("salesforce.session.refresh.ahead.seconds");
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                log.warn("会话提前刷新秒数配置无效: {}，使用默认值{}", value, DEFAULT_REFRESH_AHEAD_SECONDS);
+            }
+        }
+        return DEFAULT_REFRESH_AHEAD_SECONDS;
+    }
+
     /**
      * 自动重新登录
      *
@@ -135,12 +312,13 @@ public class SessionManager {
      * @return 如果会话有效返回true，否则返回false
      */
     public boolean isSessionValid(String orgType) {
-        log.info("检查当前Salesforce会话信息是否有效，ORG类型: {}", orgType);
+        SessionHolder holder = sessions.get(orgType);
+        if (holder != null) {
+            return holder.isValid();
+        }
 
         try {
-            SalesforceLoginResult loginResult = getCurrentLoginResult(orgType);
-            return isLoginResultValid(loginResult);
-
+            return isLoginResultValid(salesforceLoginService.getCurrentLoginResultByOrgType(orgType));
         } catch (Exception e) {
             log.error("检查会话信息有效性时发生异常，ORG类型: {}, 错误: {}", orgType, e.getMessage(), e);
             return false;
@@ -7,11 +7,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Salesforce连接工厂抽象基类
  * 提供通用的连接缓存和管理逻辑，使用模板方法模式
+ * <p>
+ * 缓存的连接与创建时的Session ID绑定，会话刷新后按新的Session ID重建；命中缓存时不加锁。
+ * </p>
  *
  * @param <T> 连接类型
  * @author Salesforce
@@ -22,47 +24,41 @@ public abstract class AbstractConnectionFactory<T> implements ISalesforceConnect
     @Autowired
     protected SessionManager sessionManager;
 
-    private final Map<String, T> connectionCache = new ConcurrentHashMap<>();
-    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, CachedConnection<T>> connectionCache = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存的连接及其创建时使用的Session ID
+     */
+    private record CachedConnection<T>(T connection, String sessionId) {
+    }
 
     @Override
     public T getConnection(String orgType) {
         String configKey = getConfigKey(orgType);
+        String sessionId = sessionManager.getCurrentSession(orgType);
 
-        T connection = connectionCache.get(configKey);
-        
-        if (connection != null && !sessionManager.isSessionValid(orgType)) {
-            log.warn("检测到Session已过期，ORG类型: {}，清除缓存的{}连接", orgType, getConnectionType());
-            lock.lock();
-            try {
-                connectionCache.remove(configKey);
-                connection = null;
-            } finally {
-                lock.unlock();
-            }
+        CachedConnection<T> cached = connectionCache.get(configKey);
+        if (cached != null && sessionId.equals(cached.sessionId())) {
+            return cached.connection();
         }
-        
-        if (connection == null) {
-            lock.lock();
-            try {
-                connection = connectionCache.get(configKey);
-                
-                if (connection == null) {
-                    connection = createConnection(orgType);
-                    connectionCache.put(configKey, connection);
-                    log.info("创建并缓存{}连接实例，ORG类型: {}", getConnectionType(), orgType);
-                }
-            } finally {
-                lock.unlock();
+
+        return connectionCache.compute(configKey, (key, current) -> {
+            if (current != null && sessionId.equals(current.sessionId())) {
+                return current;
             }
-        }
-        return connection;
+            if (current != null) {
+                log.info("Session已刷新，ORG类型: {}，重建{}连接", orgType, getConnectionType());
+            }
+            T connection = createConnection(orgType);
+            log.info("创建并缓存{}连接实例，ORG类型: {}", getConnectionType(), orgType);
+            return new CachedConnection<>(connection, sessionId);
+        }).connection();
     }
 
     @Override
     public void clearConnection(String orgType) {
         String configKey = getConfigKey(orgType);
-        T connection = connectionCache.remove(configKey);
+        CachedConnection<T> connection = connectionCache.remove(configKey);
         if (connection != null) {
             log.info("{}连接已清除，ORG类型: {}", getConnectionType(), orgType);
         } else {
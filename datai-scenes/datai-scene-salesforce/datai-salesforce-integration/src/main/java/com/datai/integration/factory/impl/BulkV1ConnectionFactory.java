@@ -24,11 +24,12 @@ public class BulkV1ConnectionFactory extends AbstractConnectionFactory<IBulkV1Co
     @Override
     protected IBulkV1Connection createConnection(String orgType) {
         try {
-            ConnectorConfig config = new ConnectorConfig();
-            config.setSessionId(sessionManager.getCurrentSession(orgType));
-            config.setServiceEndpoint(sessionManager.getInstanceUrl(orgType) + "/services/async/47.0");
-            BulkV1Connection connection = new BulkV1Connection(config);
-            return connectionProxy.createProxy(connection, "BULK_V1");
+            return connectionProxy.createProxy("BULK_V1", orgType, sessionId -> {
+                ConnectorConfig config = new ConnectorConfig();
+                config.setSessionId(sessionId);
+                config.setServiceEndpoint(sessionManager.getInstanceUrl(orgType) + "/services/async/47.0");
+                return new BulkV1Connection(config);
+            });
         } catch (Exception e) {
             log.error("创建BulkV1连接失败，ORG类型: {}", orgType, e);
             throw new RuntimeException("创建BulkV1连接失败: " + e.getMessage(), e);
@@ -20,12 +20,16 @@ public class BulkV2ConnectionFactory extends AbstractConnectionFactory<IBulkV2Co
     @Override
     protected IBulkV2Connection createConnection(String orgType) {
         try {
-            ConnectorConfig config = new ConnectorConfig();
-            config.setSessionId(sessionManager.getCurrentSession(orgType));
-            config.setServiceEndpoint(sessionManager.getInstanceUrl(orgType) + "/services/data/v" + 
-                SalesforceConstants.REST_API_VERSION.replace("v", "") + "/jobs/");
-            BulkV2Connection connection = new BulkV2Connection(config);
-            return connectionProxy.createProxy(connection, "BULK_V2");
+            return connectionProxy.createProxy("BULK_V2", orgType, sessionId -> {
+                ConnectorConfig config = new ConnectorConfig();
+                config.setSessionId(sessionId);
+                config.setServiceEndpoint(sessionManager.getInstanceUrl(orgType) + "/services/data/v" + 
+                    SalesforceConstants.REST_API_VERSION.replace("v", "") + "/jobs/");
+                // Bulk API 2.0 的作业地址均基于 REST 端点拼接 /jobs/ingest/ 或 /jobs/query/
+                config.setRestEndpoint(sessionManager.getInstanceUrl(orgType) + "/services/data/" +
+                    SalesforceConstants.REST_API_VERSION);
+                return new BulkV2Connection(config);
+            });
         } catch (Exception e) {
             log.error("创建BulkV2连接失败，ORG类型: {}", orgType, e);
             throw new RuntimeException("创建BulkV2连接失败: " + e.getMessage(), e);
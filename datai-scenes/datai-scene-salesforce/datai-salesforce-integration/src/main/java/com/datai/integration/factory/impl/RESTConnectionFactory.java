@@ -5,7 +5,6 @@ import com.datai.integration.core.IRESTConnection;
 import com.datai.integration.core.RESTConnection;
 import com.datai.integration.factory.AbstractConnectionFactory;
 import com.datai.integration.proxy.ConnectionProxy;
-import com.sforce.async.AsyncApiException;
 import com.sforce.ws.ConnectorConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,13 +20,14 @@ public class RESTConnectionFactory extends AbstractConnectionFactory<IRESTConnec
     @Override
     protected IRESTConnection createConnection(String orgType) {
         try {
-            ConnectorConfig config = new ConnectorConfig();
-            config.setSessionId(sessionManager.getCurrentSession(orgType));
-            config.setRestEndpoint(sessionManager.getInstanceUrl(orgType) + "/services/data/v" + 
-                SalesforceConstants.REST_API_VERSION.replace("v", "") + "/");
-            RESTConnection connection = new RESTConnection(config);
-            return connectionProxy.createProxy(connection, "REST");
-        } catch (AsyncApiException e) {
+            return connectionProxy.createProxy("REST", orgType, sessionId -> {
+                ConnectorConfig config = new ConnectorConfig();
+                config.setSessionId(sessionId);
+                config.setRestEndpoint(sessionManager.getInstanceUrl(orgType) + "/services/data/v" + 
+                    SalesforceConstants.REST_API_VERSION.replace("v", "") + "/");
+                return new RESTConnection(config);
+            });
+        } catch (Exception e) {
             log.error("创建REST连接失败，ORG类型: {}", orgType, e);
             throw new RuntimeException("创建REST连接失败: " + e.getMessage(), e);
         }
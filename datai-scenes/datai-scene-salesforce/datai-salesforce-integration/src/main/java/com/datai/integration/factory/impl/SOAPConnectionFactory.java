@@ -24,13 +24,12 @@ public class SOAPConnectionFactory extends AbstractConnectionFactory<IPartnerV1C
     @Override
     protected IPartnerV1Connection createConnection(String orgType) {
         try {
-            ConnectorConfig config = new ConnectorConfig();
-            config.setSessionId(sessionManager.getCurrentSession(orgType));
-            config.setServiceEndpoint(sessionManager.getInstanceUrl(orgType) + "/services/Soap/u/59.0");
-            
-            PartnerV1Connection connection = new PartnerV1Connection(config);
-            
-            return connectionProxy.createProxy(connection, "SOAP");
+            return connectionProxy.createProxy("SOAP", orgType, sessionId -> {
+                ConnectorConfig config = new ConnectorConfig();
+                config.setSessionId(sessionId);
+                config.setServiceEndpoint(sessionManager.getInstanceUrl(orgType) + "/services/Soap/u/59.0");
+                return new PartnerV1Connection(config);
+            });
         } catch (Exception e) {
             log.error("创建SOAP连接失败，ORG类型: {}", orgType, e);
             throw new RuntimeException("创建SOAP连接失败: " + e.getMessage(), e);
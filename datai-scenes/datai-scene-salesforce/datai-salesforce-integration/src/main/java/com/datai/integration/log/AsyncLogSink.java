@@ -0,0 +1,269 @@
+package com.datai.integration.log;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 异步批量日志写入通道
+ * <p>
+ * 调用线程只把日志放入有界环形缓冲区，由单独的后台线程取出，
+ * 每累计 batchSize 条或每隔 flushIntervalMillis 毫秒以一次多行插入写入数据库。
+ * 缓冲区写满或接近写满时按溢出策略丢弃或抽样，调用线程不会因日志写入而阻塞。
+ * </p>
+ *
+ * @param <T> 日志类型
+ */
+@Slf4j
+public class AsyncLogSink<T> {
+
+    /**
+     * 抽样策略下开始抽样的缓冲区占用比例
+     */
+    private static final double SAMPLE_WATERMARK = 0.75;
+
+    private final String name;
+
+    private final ArrayBlockingQueue<T> buffer;
+
+    private final int capacity;
+
+    private final Consumer<List<T>> writer;
+
+    private final Runnable settingsRefresher;
+
+    private final Thread drainThread;
+
+    private volatile boolean running = true;
+
+    private volatile int batchSize = 500;
+
+    private volatile long flushIntervalMillis = 1000;
+
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+    private volatile int sampleRatio = 10;
+
+    private final AtomicLong sampleSequence = new AtomicLong();
+
+    private final LongAdder writtenCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder sampledOutCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 丢弃新写入的日志
+         */
+        DROP_NEWEST,
+        /**
+         * 丢弃缓冲区中最早的日志，保留新日志
+         */
+        DROP_OLDEST,
+        /**
+         * 缓冲区占用超过水位后，非重要日志每 sampleRatio 条只保留一条；缓冲区满时丢弃新日志
+         */
+        SAMPLE
+    }
+
+    /**
+     * @param name 通道名称，用于线程名与日志
+     * @param capacity 缓冲区容量
+     * @param writer 批量写入函数
+     * @param settingsRefresher 每个写入周期结束时调用，用于刷新批量大小、间隔与溢出策略，可为null
+     */
+    public AsyncLogSink(String name, int capacity, Consumer<List<T>> writer, Runnable settingsRefresher) {
+        this.name = name;
+        this.capacity = capacity;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.writer = writer;
+        this.settingsRefresher = settingsRefresher;
+        this.drainThread = new Thread(this::drainLoop, "AsyncLogSink-" + name);
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    /**
+     * 提交一条日志，不阻塞调用线程
+     *
+     * @param entry 日志
+     * @param important 是否为重要日志（如失败记录），重要日志不参与抽样
+     * @return 是否已放入缓冲区
+     */
+    public boolean offer(T entry, boolean important) {
+        if (!running) {
+            droppedCount.increment();
+            return false;
+        }
+
+        OverflowPolicy policy = overflowPolicy;
+        if (policy == OverflowPolicy.SAMPLE && !important && buffer.size() >= capacity * SAMPLE_WATERMARK) {
+            int ratio = sampleRatio;
+            if (ratio > 1 && sampleSequence.incrementAndGet() % ratio != 0) {
+                sampledOutCount.increment();
+                return false;
+            }
+        }
+
+        if (buffer.offer(entry)) {
+            return true;
+        }
+
+        if (policy == OverflowPolicy.DROP_OLDEST) {
+            // 环形覆盖：挤掉最早的一条后重试一次
+            if (buffer.poll() != null) {
+                droppedCount.increment();
+            }
+            if (buffer.offer(entry)) {
+                return true;
+            }
+        }
+        droppedCount.increment();
+        return false;
+    }
+
+    /**
+     * 后台写入循环，攒够一批或到达写入间隔时写入一次
+     */
+    private void drainLoop() {
+        List<T> batch = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (running || !buffer.isEmpty() || !batch.isEmpty()) {
+            try {
+                int size = Math.max(1, batchSize);
+                if (batch.size() < size) {
+                    buffer.drainTo(batch, size - batch.size());
+                }
+
+                long now = System.nanoTime();
+                if (batch.size() >= size || now >= deadline || (!running && !batch.isEmpty())) {
+                    write(batch);
+                    batch.clear();
+                    refreshSettings();
+                    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                    continue;
+                }
+
+                if (!running) {
+                    continue;
+                }
+                T entry = buffer.poll(deadline - now, TimeUnit.NANOSECONDS);
+                if (entry != null) {
+                    batch.add(entry);
+                }
+            } catch (InterruptedException e) {
+                // 关闭时被唤醒，继续把剩余日志写完
+                running = false;
+            } catch (Throwable e) {
+                log.error("异步日志通道 {} 写入循环异常", name, e);
+            }
+        }
+    }
+
+    /**
+     * 写入一批日志，失败时计入失败数，不影响后续写入
+     */
+    private void write(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            writer.accept(batch);
+            writtenCount.add(batch.size());
+        } catch (Exception e) {
+            failedCount.add(batch.size());
+            log.error("异步日志通道 {} 批量写入 {} 条日志失败", name, batch.size(), e);
+        }
+    }
+
+    private void refreshSettings() {
+        if (settingsRefresher == null) {
+            return;
+        }
+        try {
+            settingsRefresher.run();
+        } catch (Exception e) {
+            log.warn("异步日志通道 {} 刷新配置失败", name, e);
+        }
+    }
+
+    /**
+     * 停止接收新日志，并等待缓冲区中的日志写完
+     *
+     * @param timeoutMillis 最长等待时间
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        drainThread.interrupt();
+        try {
+            drainThread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (drainThread.isAlive()) {
+            log.warn("异步日志通道 {} 关闭超时，剩余 {} 条日志未写入", name, buffer.size());
+        }
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setSampleRatio(int sampleRatio) {
+        this.sampleRatio = sampleRatio;
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getSampledOutCount() {
+        return sampledOutCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * 获取通道统计信息
+     *
+     * @return 包含 capacity、pending、written、dropped、sampledOut、failed 的统计
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("capacity", capacity);
+        statistics.put("pending", buffer.size());
+        statistics.put("written", getWrittenCount());
+        statistics.put("dropped", getDroppedCount());
+        statistics.put("sampledOut", getSampledOutCount());
+        statistics.put("failed", getFailedCount());
+        return statistics;
+    }
+}
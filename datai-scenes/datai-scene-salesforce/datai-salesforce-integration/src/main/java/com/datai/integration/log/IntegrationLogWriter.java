@@ -0,0 +1,157 @@
+package com.datai.integration.log;
+
+import com.datai.common.core.domain.model.LoginUser;
+import com.datai.common.utils.SecurityUtils;
+import com.datai.integration.model.domain.DataiIntegrationApiCallLog;
+import com.datai.integration.model.domain.DataiIntegrationRealtimeSyncLog;
+import com.datai.integration.service.IDataiIntegrationApiCallLogService;
+import com.datai.integration.service.IDataiIntegrationRealtimeSyncLogService;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 集成日志异步写入器
+ * <p>
+ * API调用日志与实时同步日志各使用一个 {@link AsyncLogSink}，调用线程只负责入队，
+ * 由后台线程以多行插入批量写库，避免逐条插入与数据同步争用连接池。
+ * 缓冲区容量在启动时确定，批量大小、写入间隔与溢出策略在每个写入周期从配置中刷新。
+ * </p>
+ */
+@Slf4j
+@Component
+public class IntegrationLogWriter {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+    @Autowired
+    private IDataiIntegrationApiCallLogService apiCallLogService;
+
+    @Autowired
+    private IDataiIntegrationRealtimeSyncLogService syncLogService;
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    private AsyncLogSink<DataiIntegrationApiCallLog> apiCallLogSink;
+
+    private AsyncLogSink<DataiIntegrationRealtimeSyncLog> syncLogSink;
+
+    @PostConstruct
+    public void init() {
+        int capacity = getConfigInt("salesforce.log.async.buffer.size", 10000);
+        apiCallLogSink = new AsyncLogSink<>("ApiCallLog", capacity,
+                apiCallLogService::insertDataiIntegrationApiCallLogBatch, () -> applySettings(apiCallLogSink));
+        syncLogSink = new AsyncLogSink<>("RealtimeSyncLog", capacity,
+                syncLogService::insertDataiIntegrationRealtimeSyncLogBatch, () -> applySettings(syncLogSink));
+        applySettings(apiCallLogSink);
+        applySettings(syncLogSink);
+        log.info("集成日志异步写入器已启动，缓冲区容量: {}", capacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (apiCallLogSink != null) {
+            apiCallLogSink.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+        if (syncLogSink != null) {
+            syncLogSink.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+        log.info("集成日志异步写入器已关闭，统计: {}", getStatistics());
+    }
+
+    /**
+     * 提交API调用日志，失败记录不参与抽样
+     *
+     * @param callLog API调用日志
+     */
+    public void writeApiCallLog(DataiIntegrationApiCallLog callLog) {
+        if (callLog.getCreateBy() == null) {
+            callLog.setCreateBy(currentUsername());
+        }
+        apiCallLogSink.offer(callLog, !"SUCCESS".equals(callLog.getStatus()));
+    }
+
+    /**
+     * 提交实时同步日志，失败记录不参与抽样
+     *
+     * @param syncLog 实时同步日志
+     */
+    public void writeSyncLog(DataiIntegrationRealtimeSyncLog syncLog) {
+        syncLogSink.offer(syncLog, !"SUCCESS".equals(syncLog.getSyncStatus()));
+    }
+
+    /**
+     * 获取各日志通道的统计信息
+     *
+     * @return 键为通道名称，值为 written、dropped 等计数
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        if (apiCallLogSink != null) {
+            statistics.put("apiCallLog", apiCallLogSink.getStatistics());
+        }
+        if (syncLogSink != null) {
+            statistics.put("realtimeSyncLog", syncLogSink.getStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * 从配置刷新通道的批量大小、写入间隔与溢出策略
+     */
+    private void applySettings(AsyncLogSink<?> sink) {
+        if (sink == null) {
+            return;
+        }
+        sink.setBatchSize(getConfigInt("salesforce.log.async.batch.size", 500));
+        sink.setFlushIntervalMillis(getConfigInt("salesforce.log.async.flush.interval", 1000));
+        sink.setSampleRatio(getConfigInt("salesforce.log.async.sample.ratio", 10));
+
+        String policy = configCacheManager.getConfigValue("salesforce.log.async.overflow.policy");
+        if (policy != null && !policy.isEmpty()) {
+            try {
+                sink.setOverflowPolicy(AsyncLogSink.OverflowPolicy.valueOf(policy.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                log.warn("配置项salesforce.log.async.overflow.policy的值{}无效，保持当前策略", policy);
+            }
+        }
+    }
+
+    /**
+     * 获取当前登录用户名，后台线程等无登录上下文时返回null
+     */
+    private String currentUsername() {
+        Authentication authentication = SecurityUtils.getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof LoginUser loginUser) {
+            return loginUser.getUsername();
+        }
+        return null;
+    }
+
+    /**
+     * 从配置缓存中获取整数类型配置值
+     *
+     * @param configKey 配置键
+     * @param defaultValue 默认值
+     * @return 配置值或默认值
+     */
+    private int getConfigInt(String configKey, int defaultValue) {
+        String value = configCacheManager.getConfigValue(configKey);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.warn("配置项{}的值{}无法转换为整数，使用默认值{}", configKey, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -39,6 +39,15 @@ public interface CustomMapper {
      */
     List<String> getIds(@Param("tableName") String tableName, @Param("ids") List<String> ids);
 
+    /**
+     * 统计表中已存在的ID数
+     *
+     * @param tableName 表名
+     * @param ids       ID列表
+     * @return 已存在的ID数
+     */
+    int countByIds(@Param("tableName") String tableName, @Param("ids") Collection<?> ids);
+
     /**
      * 统计表数据条数
      *
@@ -174,10 +183,24 @@ public interface CustomMapper {
      *
      * @param tableName 表名
      * @param map       数据字段映射
+     * @return 影响行数，新插入计1，值有变化的已存在记录计2
      */
-    void upsert(@Param("tableName") String tableName, 
+    int upsert(@Param("tableName") String tableName, 
                 @Param("map") Map<String, Object> map);
 
+    /**
+     * 批量根据ID更新或插入记录（upsert）
+     * 一条多行INSERT ... ON DUPLICATE KEY UPDATE语句，主键已存在的记录按新值更新
+     *
+     * @param tableName 表名
+     * @param keys      字段列表
+     * @param values    字段值列表，顺序与keys一致
+     * @return 影响行数，新插入的记录计1，值有变化的已存在记录计2
+     */
+    int upsertBatch(@Param("tableName") String tableName,
+                     @Param("keys") Collection<String> keys,
+                     @Param("values") Collection<Collection<Object>> values);
+
     /**
      * 通用表数据查询
      *
@@ -256,8 +279,18 @@ public interface CustomMapper {
      *
      * @param tableName 表名
      * @param ids       ID列表
+     * @return 删除的行数
      */
-    void delete(@Param("tableName") String tableName, @Param("ids") List<String> ids);
+    int delete(@Param("tableName") String tableName, @Param("ids") List<String> ids);
+
+    /**
+     * 根据ID列表将记录标记为已删除（IsDeleted = 1）
+     *
+     * @param tableName 表名
+     * @param ids       ID列表，不能为空
+     * @return 标记的行数
+     */
+    int markDeleted(@Param("tableName") String tableName, @Param("ids") List<String> ids);
 
     /**
      * 根据ID删除单条记录
@@ -275,6 +308,42 @@ public interface CustomMapper {
      */
     void deleteBySQL(@Param("tableName") String tableName, @Param("sql") String sql);
 
+    /**
+     * 按主键游标分段查询记录
+     * 返回id大于lastId的前limit条记录，按id升序排列
+     *
+     * @param select 查询字段
+     * @param api    表名
+     * @param sql    过滤条件
+     * @param lastId 上一段最后一条记录的id，为空时从头开始
+     * @param limit  每段记录数
+     * @return 记录列表
+     */
+    @MapKey("id")
+    List<Map<String, Object>> listAfterId(@Param("select") String select,
+                                          @Param("api") String api,
+                                          @Param("sql") String sql,
+                                          @Param("lastId") String lastId,
+                                          @Param("limit") int limit);
+
+    /**
+     * 批量回写推送到目标系统后生成的new_id，并标记为已插入
+     *
+     * @param tableName 表名
+     * @param newIds    本地id与目标系统new_id的映射
+     */
+    void updateNewIds(@Param("tableName") String tableName,
+                      @Param("newIds") Map<String, String> newIds);
+
+    /**
+     * 批量标记记录已更新到目标系统
+     *
+     * @param tableName 表名
+     * @param ids       本地id列表
+     */
+    void markUpdated(@Param("tableName") String tableName,
+                     @Param("ids") List<String> ids);
+
     /**
      * 分页查询数据
      *
@@ -465,10 +534,25 @@ public interface CustomMapper {
      * @param tableName 表名
      * @param partitionName 分区名
      * @param map       数据字段映射
+     * @return 影响行数，新插入计1，值有变化的已存在记录计2
      */
-    void upsertToPartition(@Param("tableName") String tableName,
+    int upsertToPartition(@Param("tableName") String tableName,
                            @Param("partitionName") String partitionName,
                            @Param("map") Map<String, Object> map);
+
+    /**
+     * 在指定分区批量根据ID更新或插入记录（upsert）
+     *
+     * @param tableName 表名
+     * @param partitionName 分区名
+     * @param keys      字段列表
+     * @param values    字段值列表，顺序与keys一致
+     * @return 影响行数，新插入的记录计1，值有变化的已存在记录计2
+     */
+    int upsertBatchToPartition(@Param("tableName") String tableName,
+                                @Param("partitionName") String partitionName,
+                                @Param("keys") Collection<String> keys,
+                                @Param("values") Collection<Collection<Object>> values);
                            
     /**
      * 在指定分区查询数据
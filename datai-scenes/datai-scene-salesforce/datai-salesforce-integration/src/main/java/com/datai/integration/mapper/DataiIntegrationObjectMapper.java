@@ -2,6 +2,7 @@ package com.datai.integration.mapper;
 
 import java.util.List;
 import java.util.Map;
+import org.apache.ibatis.annotations.Param;
 import com.datai.integration.model.domain.DataiIntegrationObject;
 
 /**
@@ -52,6 +53,15 @@ public interface DataiIntegrationObjectMapper
      */
     public int updateDataiIntegrationObject(DataiIntegrationObject dataiIntegrationObject);
 
+    /**
+     * 按增量累加对象行数
+     * 
+     * @param id 对象同步控制主键
+     * @param delta 行数增减量
+     * @return 结果
+     */
+    public int addDataiIntegrationObjectTotalRows(@Param("id") Integer id, @Param("delta") long delta);
+
     /**
      * 删除对象同步控制
      * 
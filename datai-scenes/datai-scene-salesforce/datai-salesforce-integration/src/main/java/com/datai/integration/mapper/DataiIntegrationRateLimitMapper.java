@@ -1,6 +1,8 @@
 package com.datai.integration.mapper;
 
+import java.util.Date;
 import java.util.List;
+import org.apache.ibatis.annotations.Param;
 import com.datai.integration.model.domain.DataiIntegrationRateLimit;
 
 /**
@@ -43,6 +45,18 @@ public interface DataiIntegrationRateLimitMapper
      */
     public int updateDataiIntegrationRateLimit(DataiIntegrationRateLimit dataiIntegrationRateLimit);
 
+    /**
+     * 原子累加API使用量，并在额度耗尽时置为阻止
+     * 
+     * @param id API限流监控主键
+     * @param delta 新增调用次数
+     * @param blocked 额度耗尽时写入的阻止标记
+     * @param updateTime 更新时间
+     * @return 结果
+     */
+    public int incrementDataiIntegrationRateLimitUsage(@Param("id") Long id, @Param("delta") long delta,
+                                                      @Param("blocked") Boolean blocked, @Param("updateTime") Date updateTime);
+
     /**
      * 删除API限流监控
      * 
@@ -37,6 +37,14 @@ public interface DataiIntegrationRealtimeSyncLogMapper
      */
     public int insertDataiIntegrationRealtimeSyncLog(DataiIntegrationRealtimeSyncLog dataiIntegrationRealtimeSyncLog);
 
+    /**
+     * 批量新增实时同步日志
+     * 
+     * @param list 实时同步日志集合
+     * @return 结果
+     */
+    public int insertDataiIntegrationRealtimeSyncLogBatch(List<DataiIntegrationRealtimeSyncLog> list);
+
     /**
      * 修改实时同步日志
      * 
@@ -54,9 +54,13 @@ public class DataiSyncParam {
      */
     private Date endModifyDate;
     /**
-     * 最大Id
+     * 最大Id（不包含），Id分片拉取时作为分片下界及断点
      */
     private String maxId;
+    /**
+     * 结束Id（包含），Id分片拉取时作为分片上界
+     */
+    private String endId;
     /**
      * id字段
      */
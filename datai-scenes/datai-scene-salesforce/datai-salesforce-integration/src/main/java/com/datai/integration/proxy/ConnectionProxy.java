@@ -1,18 +1,28 @@
 package com.datai.integration.proxy;
 
+import com.datai.integration.core.SessionManager;
+import com.datai.integration.factory.impl.RESTConnectionFactory;
+import com.datai.integration.log.IntegrationLogWriter;
 import com.datai.integration.model.domain.DataiIntegrationApiCallLog;
 import com.datai.integration.model.domain.DataiIntegrationRateLimit;
-import com.datai.integration.service.IDataiIntegrationApiCallLogService;
 import com.datai.integration.service.IDataiIntegrationRateLimitService;
 import com.datai.salesforce.common.exception.RateLimitExceededException;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import com.sforce.async.AsyncApiException;
+import com.sforce.async.AsyncExceptionCode;
+import com.sforce.soap.partner.fault.ApiFault;
+import com.sforce.soap.partner.fault.ExceptionCode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.cglib.proxy.Enhancer;
 import org.springframework.cglib.proxy.MethodInterceptor;
 import org.springframework.cglib.proxy.MethodProxy;
 import org.springframework.stereotype.Component;
 
+import java.io.InputStream;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.time.LocalDate;
@@ -25,18 +35,29 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Component
 public class ConnectionProxy {
 
     @Autowired
-    private IDataiIntegrationApiCallLogService apiCallLogService;
+    private IntegrationLogWriter integrationLogWriter;
 
     @Autowired
     private IDataiIntegrationRateLimitService rateLimitService;
 
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Lazy
+    @Autowired
+    private RESTConnectionFactory restConnectionFactory;
+
     private final ConcurrentHashMap<String, AtomicInteger> methodCallCountMap = new ConcurrentHashMap<>();
 
     private final ConcurrentHashMap<String, Long> methodCallTimeMap = new ConcurrentHashMap<>();
@@ -47,9 +68,25 @@ public class ConnectionProxy {
 
     private static final long CLEANUP_INTERVAL_MINUTES = 60;
     private static final long MAX_ENTRY_AGE_MINUTES = 1440;
-    private static final int MAX_RETRY_TIMES = 3;
 
-    private final ConcurrentHashMap<String, ReentrantLock> rateLimitLocks = new ConcurrentHashMap<>();
+    private static final String LIMIT_TYPE_DAILY = "Daily";
+    private static final long FLUSH_INTERVAL_SECONDS = 5;
+    private static final long ORG_SYNC_INTERVAL_MINUTES = 5;
+
+    /**
+     * API类型与组织 Limits API 中额度名称的对应关系
+     */
+    private static final Map<String, String> ORG_LIMIT_NAMES = Map.of(
+        "SOAP", "DailyApiRequests",
+        "REST", "DailyApiRequests",
+        "BULK_V1", "DailyBulkApiBatches",
+        "BULK_V2", "DailyBulkV2QueryJobs"
+    );
+
+    /**
+     * 各API类型的内存额度，调用路径上只做原子操作，由后台任务定期写回数据库
+     */
+    private final ConcurrentHashMap<String, ApiBudget> budgets = new ConcurrentHashMap<>();
 
     public ConnectionProxy() {
         defaultApiLimits.put("BULK_V1", 5000);
@@ -69,24 +106,74 @@ public class ConnectionProxy {
             CLEANUP_INTERVAL_MINUTES,
             TimeUnit.MINUTES
         );
+
+        cleanupExecutor.scheduleWithFixedDelay(
+            this::flushBudgets,
+            FLUSH_INTERVAL_SECONDS,
+            FLUSH_INTERVAL_SECONDS,
+            TimeUnit.SECONDS
+        );
+
+        cleanupExecutor.scheduleWithFixedDelay(
+            this::syncOrgLimits,
+            ORG_SYNC_INTERVAL_MINUTES,
+            ORG_SYNC_INTERVAL_MINUTES,
+            TimeUnit.MINUTES
+        );
+    }
+
+    /**
+     * 创建连接的函数，会话失效后按新的Session ID重建连接
+     *
+     * @param <T> 连接类型
+     */
+    @FunctionalInterface
+    public interface ConnectionBuilder<T> {
+
+        /**
+         * 使用指定的Session ID创建连接
+         *
+         * @param sessionId Session ID
+         * @return 连接实例
+         * @throws Exception 创建连接失败
+         */
+        T build(String sessionId) throws Exception;
     }
 
-    @SuppressWarnings("unchecked")
     public <T> T createProxy(T target, String apiType) {
-        Class<?> targetClass = target.getClass();
-        
+        return createProxy(new ProxyTarget(target, null, null, null), target.getClass(), apiType);
+    }
+
+    /**
+     * 创建可自动续期的连接代理
+     * 调用返回 INVALID_SESSION_ID 时刷新会话、重建连接并重试一次；参数中包含流时不重试
+     *
+     * @param apiType API类型
+     * @param orgType ORG类型（source/target）
+     * @param builder 按Session ID创建连接的函数
+     * @return 连接代理
+     * @throws Exception 创建连接失败
+     */
+    public <T> T createProxy(String apiType, String orgType, ConnectionBuilder<? extends T> builder) throws Exception {
+        String sessionId = sessionManager.getCurrentSession(orgType);
+        T target = builder.build(sessionId);
+        return createProxy(new ProxyTarget(target, sessionId, orgType, builder), target.getClass(), apiType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T createProxy(ProxyTarget proxyTarget, Class<?> targetClass, String apiType) {
         if (targetClass.getInterfaces().length > 0) {
             return (T) Proxy.newProxyInstance(
                 targetClass.getClassLoader(),
                 targetClass.getInterfaces(),
-                new ConnectionInvocationHandler(target, apiType)
+                new ConnectionInvocationHandler(proxyTarget, apiType)
             );
         } else {
             try {
                 Enhancer enhancer = new Enhancer();
                 enhancer.setSuperclass(targetClass);
                 enhancer.setInterfaces(targetClass.getInterfaces());
-                enhancer.setCallback(new CglibMethodInterceptor(target, apiType));
+                enhancer.setCallback(new CglibMethodInterceptor(proxyTarget, apiType));
                 enhancer.setUseCache(false);
                 
                 return (T) enhancer.create();
@@ -97,32 +184,89 @@ public class ConnectionProxy {
         }
     }
 
+    /**
+     * 代理的目标连接及其Session ID，不可变，续期时整体替换
+     */
+    private record Binding(Object target, String sessionId) {
+    }
+
+    /**
+     * 代理目标，持有当前连接及重建连接所需的信息
+     */
+    private class ProxyTarget {
+        private final String orgType;
+        private final ConnectionBuilder<?> builder;
+        private volatile Binding binding;
+
+        private ProxyTarget(Object target, String sessionId, String orgType, ConnectionBuilder<?> builder) {
+            this.binding = new Binding(target, sessionId);
+            this.orgType = orgType;
+            this.builder = builder;
+        }
+
+        private boolean isRenewable() {
+            return builder != null;
+        }
+
+        /**
+         * 刷新会话并重建连接，同一代理上的并发调用只重建一次
+         *
+         * @param stale 失败调用使用的连接
+         * @return 新的连接
+         */
+        private Object renew(Binding stale) throws Exception {
+            synchronized (this) {
+                Binding current = binding;
+                if (current != stale && !stale.sessionId().equals(current.sessionId())) {
+                    return current.target();
+                }
+                String sessionId = sessionManager.refreshInvalidSession(orgType, stale.sessionId());
+                binding = new Binding(builder.build(sessionId), sessionId);
+                return binding.target();
+            }
+        }
+    }
+
     private class ConnectionInvocationHandler implements InvocationHandler {
-        private final Object target;
+        private final ProxyTarget proxyTarget;
         private final String apiType;
 
-        public ConnectionInvocationHandler(Object target, String apiType) {
-            this.target = target;
+        public ConnectionInvocationHandler(ProxyTarget proxyTarget, String apiType) {
+            this.proxyTarget = proxyTarget;
             this.apiType = apiType;
         }
 
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            return handleMethodInvocation(target, method, args, apiType);
+            return handleMethodInvocation(proxyTarget, method, args, apiType);
         }
     }
 
     private class CglibMethodInterceptor implements MethodInterceptor {
-        private final Object target;
+        private final ProxyTarget proxyTarget;
         private final String apiType;
 
-        public CglibMethodInterceptor(Object target, String apiType) {
-            this.target = target;
+        public CglibMethodInterceptor(ProxyTarget proxyTarget, String apiType) {
+            this.proxyTarget = proxyTarget;
             this.apiType = apiType;
         }
 
         @Override
         public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            return handleMethodInvocation(proxyTarget, method, args, apiType);
+        }
+    }
+
+    private Object handleMethodInvocation(ProxyTarget proxyTarget, Method method, Object[] args, String apiType) throws Throwable {
+        Binding binding = proxyTarget.binding;
+        try {
+            return handleMethodInvocation(binding.target(), method, args, apiType);
+        } catch (Throwable e) {
+            if (!proxyTarget.isRenewable() || !isInvalidSession(e) || hasStreamArgument(args)) {
+                throw e;
+            }
+            log.warn("{}调用{}时会话失效，ORG类型: {}，刷新会话后重试", apiType, method.getName(), proxyTarget.orgType);
+            Object target = proxyTarget.renew(binding);
             return handleMethodInvocation(target, method, args, apiType);
         }
     }
@@ -141,6 +285,10 @@ public class ConnectionProxy {
             
             result = method.invoke(target, args);
             return result;
+        } catch (InvocationTargetException e) {
+            // 还原连接方法声明的原始异常（如 ApiFault），避免经代理后变为 UndeclaredThrowableException
+            exception = e.getTargetException();
+            throw exception;
         } catch (Throwable e) {
             exception = e;
             throw e;
@@ -161,26 +309,72 @@ public class ConnectionProxy {
         }
     }
 
-    private void checkRateLimit(String apiType) {
-        List<DataiIntegrationRateLimit> rateLimits = getRateLimits(apiType);
-
-        for (DataiIntegrationRateLimit rateLimit : rateLimits) {
-            if (rateLimit.getIsBlocked() != null && rateLimit.getIsBlocked()) {
-                throwRateLimitException(rateLimit);
+    /**
+     * 判断异常是否为 Salesforce 返回的会话无效
+     */
+    private boolean isInvalidSession(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof ApiFault apiFault && apiFault.getExceptionCode() == ExceptionCode.INVALID_SESSION_ID) {
+                return true;
+            }
+            if (cause instanceof AsyncApiException asyncApiException
+                    && asyncApiException.getExceptionCode() == AsyncExceptionCode.InvalidSessionId) {
+                return true;
             }
+            if (cause.getMessage() != null && cause.getMessage().contains("INVALID_SESSION_ID")) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-            if (rateLimit.getRemainingVal() != null && rateLimit.getRemainingVal() <= 0) {
-                rateLimit.setIsBlocked(true);
-                rateLimitService.updateDataiIntegrationRateLimit(rateLimit);
-                throwRateLimitException(rateLimit);
+    /**
+     * 参数中的流在首次调用时已被读取，不能重试
+     */
+    private boolean hasStreamArgument(Object[] args) {
+        if (args != null) {
+            for (Object arg : args) {
+                if (arg instanceof InputStream) {
+                    return true;
+                }
             }
         }
+        return false;
     }
 
-    private List<DataiIntegrationRateLimit> getRateLimits(String apiType) {
+    private void checkRateLimit(String apiType) {
+        ApiBudget budget = getBudget(apiType);
+        if (budget != null && !budget.tryPass()) {
+            throw new RateLimitExceededException(apiType, LIMIT_TYPE_DAILY, (int) budget.used.get(), budget.maxLimit);
+        }
+    }
+
+    private void updateRateLimitUsage(String apiType) {
+        ApiBudget budget = getBudget(apiType);
+        if (budget != null) {
+            budget.consume();
+        }
+    }
+
+    /**
+     * 获取API类型对应的内存额度，首次使用时从数据库加载
+     */
+    private ApiBudget getBudget(String apiType) {
+        ApiBudget budget = budgets.get(apiType);
+        if (budget != null) {
+            return budget;
+        }
+        DataiIntegrationRateLimit rateLimit = loadRateLimit(apiType);
+        if (rateLimit == null) {
+            return null;
+        }
+        return budgets.computeIfAbsent(apiType, k -> new ApiBudget(rateLimit));
+    }
+
+    private DataiIntegrationRateLimit loadRateLimit(String apiType) {
         DataiIntegrationRateLimit query = new DataiIntegrationRateLimit();
         query.setApiType(apiType);
-        query.setLimitType("Daily");
+        query.setLimitType(LIMIT_TYPE_DAILY);
         List<DataiIntegrationRateLimit> rateLimits = rateLimitService.selectDataiIntegrationRateLimitList(query);
 
         if (rateLimits.isEmpty()) {
@@ -188,16 +382,7 @@ public class ConnectionProxy {
             rateLimits = rateLimitService.selectDataiIntegrationRateLimitList(query);
         }
 
-        return rateLimits;
-    }
-
-    private void throwRateLimitException(DataiIntegrationRateLimit rateLimit) {
-        throw new RateLimitExceededException(
-            rateLimit.getApiType(),
-            rateLimit.getLimitType(),
-            rateLimit.getCurrentUsage(),
-            rateLimit.getMaxLimit()
-        );
+        return rateLimits.isEmpty() ? null : rateLimits.get(0);
     }
 
     private void createDefaultRateLimit(String apiType) {
@@ -210,7 +395,7 @@ public class ConnectionProxy {
 
             DataiIntegrationRateLimit rateLimit = new DataiIntegrationRateLimit();
             rateLimit.setApiType(apiType);
-            rateLimit.setLimitType("Daily");
+            rateLimit.setLimitType(LIMIT_TYPE_DAILY);
             rateLimit.setCurrentUsage(0);
             rateLimit.setMaxLimit(defaultLimit);
             rateLimit.setRemainingVal(defaultLimit);
@@ -224,70 +409,64 @@ public class ConnectionProxy {
         }
     }
 
-    private void updateRateLimitUsage(String apiType) {
-        ReentrantLock lock = rateLimitLocks.computeIfAbsent(apiType, k -> new ReentrantLock());
-        lock.lock();
-        try {
-            List<DataiIntegrationRateLimit> rateLimits = getRateLimits(apiType);
+    /**
+     * 将内存中累计的调用次数写回数据库，同时读取数据库中的最新额度与重置结果
+     */
+    private void flushBudgets() {
+        for (ApiBudget budget : budgets.values()) {
+            try {
+                flushBudget(budget);
+            } catch (Exception e) {
+                log.error("写回限流使用量失败 - API类型: {}", budget.apiType, e);
+            }
+        }
+    }
 
-            for (DataiIntegrationRateLimit rateLimit : rateLimits) {
-                if (rateLimit.getIsBlocked() != null && rateLimit.getIsBlocked()) {
-                    continue;
-                }
+    private void flushBudget(ApiBudget budget) {
+        long delta = budget.pending.sumThenReset();
+        // 多实例共用同一条限流记录，使用量只能以增量方式写回，读改写会互相覆盖
+        DataiIntegrationRateLimit latest = rateLimitService.incrementDataiIntegrationRateLimitUsage(budget.rateLimitId, delta);
+        if (latest == null) {
+            budgets.remove(budget.apiType);
+            return;
+        }
 
-                int currentUsage = rateLimit.getCurrentUsage() != null ? rateLimit.getCurrentUsage() : 0;
-                int maxLimit = rateLimit.getMaxLimit() != null ? rateLimit.getMaxLimit() : 0;
-                int remainingVal = maxLimit - currentUsage - 1;
-                Integer oldVersion = rateLimit.getVersion();
+        int maxLimit = latest.getMaxLimit() != null ? latest.getMaxLimit() : 0;
+        int currentUsage = latest.getCurrentUsage() != null ? latest.getCurrentUsage() : 0;
+        boolean blocked = currentUsage >= maxLimit || Boolean.TRUE.equals(latest.getIsBlocked());
+        if (blocked && !budget.blocked) {
+            log.warn("API限流触发 - 类型: {}, 限制维度: {}, 已用额度: {}, 总额度: {}",
+                    budget.apiType, latest.getLimitType(), currentUsage, maxLimit);
+        }
 
-                rateLimit.setCurrentUsage(currentUsage + 1);
-                rateLimit.setRemainingVal(remainingVal);
+        // 以数据库为准同步额度，保留写回期间新增的调用次数，且不低于组织额度推算的使用量
+        budget.maxLimit = maxLimit;
+        budget.blocked = blocked;
+        budget.syncUsed(currentUsage);
+    }
 
-                if (remainingVal <= 0) {
-                    rateLimit.setIsBlocked(true);
-                    log.warn("API限流触发 - 类型: {}, 限制维度: {}, 已用额度: {}, 总额度: {}", 
-                            apiType, rateLimit.getLimitType(), currentUsage + 1, maxLimit);
+    /**
+     * 按组织实际剩余额度（Limits API）收紧内存额度
+     */
+    private void syncOrgLimits() {
+        if (!Boolean.parseBoolean(configCacheManager.getConfigValue("salesforce.rate.limit.org.sync.enabled"))) {
+            return;
+        }
+        try {
+            Map<String, Object> limits = restConnectionFactory.getConnection("source").getLimits();
+            for (Map.Entry<String, String> entry : ORG_LIMIT_NAMES.entrySet()) {
+                ApiBudget budget = budgets.get(entry.getKey());
+                Object orgLimit = limits.get(entry.getValue());
+                if (budget == null || !(orgLimit instanceof Map)) {
+                    continue;
                 }
-
-                boolean updateSuccess = false;
-                int retryCount = 0;
-                
-                while (!updateSuccess && retryCount < MAX_RETRY_TIMES) {
-                    try {
-                        int affectedRows = rateLimitService.updateDataiIntegrationRateLimit(rateLimit);
-                        if (affectedRows > 0) {
-                            updateSuccess = true;
-                        } else {
-                            retryCount++;
-                            if (retryCount < MAX_RETRY_TIMES) {
-                                log.warn("更新限流配置失败，版本号可能已变更，正在重试 ({}/{}) - API类型: {}", 
-                                        retryCount, MAX_RETRY_TIMES, apiType);
-                                DataiIntegrationRateLimit latest = rateLimitService.selectDataiIntegrationRateLimitById(rateLimit.getId());
-                                if (latest != null) {
-                                    rateLimit.setVersion(latest.getVersion());
-                                    rateLimit.setCurrentUsage(latest.getCurrentUsage() + 1);
-                                    rateLimit.setRemainingVal(latest.getMaxLimit() - latest.getCurrentUsage() - 1);
-                                }
-                                Thread.sleep(10);
-                            }
-                        }
-                    } catch (Exception e) {
-                        retryCount++;
-                        if (retryCount >= MAX_RETRY_TIMES) {
-                            log.error("更新限流配置失败，已达最大重试次数 - API类型: {}", apiType, e);
-                            throw new RuntimeException("更新限流配置失败: " + e.getMessage(), e);
-                        }
-                        try {
-                            Thread.sleep(10);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            throw new RuntimeException("线程被中断", ie);
-                        }
-                    }
+                Object remaining = ((Map<?, ?>) orgLimit).get("Remaining");
+                if (remaining instanceof Number) {
+                    budget.capRemaining(((Number) remaining).longValue());
                 }
             }
-        } finally {
-            lock.unlock();
+        } catch (Exception e) {
+            log.warn("同步组织API额度失败: {}", e.getMessage());
         }
     }
 
@@ -309,7 +488,7 @@ public class ConnectionProxy {
                 callLog.setErrorMessage(errorMessage != null ? errorMessage : exception.getClass().getName());
             }
 
-            apiCallLogService.insertDataiIntegrationApiCallLog(callLog);
+            integrationLogWriter.writeApiCallLog(callLog);
         } catch (Exception e) {
             log.error("记录API调用日志失败", e);
         }
@@ -351,6 +530,7 @@ public class ConnectionProxy {
     }
 
     public void shutdown() {
+        flushBudgets();
         if (cleanupExecutor != null && !cleanupExecutor.isShutdown()) {
             cleanupExecutor.shutdown();
             try {
@@ -363,4 +543,49 @@ public class ConnectionProxy {
             }
         }
     }
+
+    /**
+     * 单个API类型的内存额度
+     */
+    private static class ApiBudget {
+        private final String apiType;
+        private final Long rateLimitId;
+        private final AtomicLong used;
+        private final LongAdder pending = new LongAdder();
+        /** 最近一次组织额度同步推算的使用量（含同步后的调用），未同步时为 -1 */
+        private final AtomicLong orgUsed = new AtomicLong(-1);
+        private volatile int maxLimit;
+        private volatile boolean blocked;
+
+        private ApiBudget(DataiIntegrationRateLimit rateLimit) {
+            this.apiType = rateLimit.getApiType();
+            this.rateLimitId = rateLimit.getId();
+            this.used = new AtomicLong(rateLimit.getCurrentUsage() != null ? rateLimit.getCurrentUsage() : 0);
+            this.maxLimit = rateLimit.getMaxLimit() != null ? rateLimit.getMaxLimit() : 0;
+            this.blocked = Boolean.TRUE.equals(rateLimit.getIsBlocked());
+        }
+
+        private boolean tryPass() {
+            return !blocked && used.get() < maxLimit;
+        }
+
+        private void consume() {
+            used.incrementAndGet();
+            pending.increment();
+            orgUsed.getAndUpdate(v -> v < 0 ? v : v + 1);
+        }
+
+        /**
+         * 按组织剩余额度推算使用量，实际剩余额度取数据库与组织两者中较小者
+         */
+        private void capRemaining(long orgRemaining) {
+            long floor = maxLimit - orgRemaining;
+            orgUsed.set(floor);
+            used.accumulateAndGet(floor, Math::max);
+        }
+
+        private void syncUsed(long dbUsage) {
+            used.set(Math.max(dbUsage + pending.sum(), orgUsed.get()));
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package com.datai.integration.proxy;
+
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Salesforce 请求速率控制器
+ * <p>
+ * 基于令牌桶控制对 Salesforce 的请求节奏，速率取自配置项 salesforce.rate.limit.threshold（每分钟请求数），
+ * 由 salesforce.rate.limit.enabled 控制是否启用。令牌不足时按预约方式计算需要等待的时长，
+ * 调用方在锁外休眠，多个线程按到达顺序依次获得许可。
+ * </p>
+ */
+@Slf4j
+@Component
+public class SalesforceRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 当前可用令牌数，为负数时表示已被预约的令牌
+     */
+    private double storedPermits;
+
+    private long lastRefillNanos = System.nanoTime();
+
+    /**
+     * 获取一个请求许可，令牌不足时阻塞等待
+     *
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    public void acquire() throws InterruptedException {
+        if (!Boolean.parseBoolean(configCacheManager.getConfigValue("salesforce.rate.limit.enabled"))) {
+            return;
+        }
+        int perMinute = getPermitsPerMinute();
+        if (perMinute <= 0) {
+            return;
+        }
+
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            storedPermits = Math.min(perMinute, storedPermits + (now - lastRefillNanos) * (double) perMinute / NANOS_PER_MINUTE);
+            lastRefillNanos = now;
+            storedPermits -= 1;
+            waitNanos = storedPermits < 0 ? (long) (-storedPermits * NANOS_PER_MINUTE / perMinute) : 0;
+        } finally {
+            lock.unlock();
+        }
+
+        if (waitNanos > 0) {
+            log.debug("Salesforce请求速率达到上限，等待 {}ms", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * 获取每分钟允许的请求数
+     *
+     * @return 每分钟请求数
+     */
+    private int getPermitsPerMinute() {
+        String value = configCacheManager.getConfigValue("salesforce.rate.limit.threshold");
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.warn("配置项salesforce.rate.limit.threshold的值{}无法转换为整数，不限制请求速率", value);
+            }
+        }
+        return 0;
+    }
+}
@@ -7,4 +7,11 @@ public interface EventProcessor {
     void processMessage(Message message);
 
     void processMessageBatch(Message[] messages);
+
+    /**
+     * 解析消息为待同步数据，不执行同步
+     * @param message 消息
+     * @return 待同步数据，消息为空或缺少对象类型、记录ID时返回null
+     */
+    DataSynchronizer.SyncData parseSyncData(Message message);
 }
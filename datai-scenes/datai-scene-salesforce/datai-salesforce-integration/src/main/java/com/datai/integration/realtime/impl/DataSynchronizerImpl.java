@@ -1,9 +1,10 @@
 package com.datai.integration.realtime.impl;
 
+import com.datai.integration.log.IntegrationLogWriter;
 import com.datai.integration.mapper.CustomMapper;
 import com.datai.integration.realtime.DataSynchronizer;
-import com.datai.integration.service.IDataiIntegrationRealtimeSyncLogService;
 import com.datai.integration.model.domain.DataiIntegrationRealtimeSyncLog;
+import com.datai.integration.service.ISalesforceObjectRegistryService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -11,21 +12,32 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Component
 public class DataSynchronizerImpl implements DataSynchronizer {
 
+    /**
+     * 单条多行 upsert 语句的最大记录数
+     */
+    private static final int UPSERT_BATCH_SIZE = 500;
+
     @Autowired
     private CustomMapper customMapper;
 
     @Autowired
-    private IDataiIntegrationRealtimeSyncLogService syncLogService;
+    private IntegrationLogWriter integrationLogWriter;
+
+    @Autowired
+    private ISalesforceObjectRegistryService objectRegistryService;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -46,6 +58,14 @@ public class DataSynchronizerImpl implements DataSynchronizer {
         }
     }
 
+    /**
+     * 批量同步数据
+     * <p>
+     * 同一记录的多条变更按到达顺序合并为一份行数据（后到的字段值覆盖先到的），
+     * 再按表和字段集合分组，每组以多行 upsert 写入，所有写入在同一事务中完成。
+     * 任一写入失败时整批回滚并抛出异常，不记录同步日志，由调用方决定是否逐条重试。
+     * </p>
+     */
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void batchSynchronizeData(List<SyncData> syncDataList) {
@@ -54,21 +74,60 @@ public class DataSynchronizerImpl implements DataSynchronizer {
             return;
         }
 
-        log.info("开始批量同步 {} 条数据", syncDataList.size());
-        int successCount = 0;
-        int failureCount = 0;
-
+        // 按记录合并变更，保持记录首次出现的顺序
+        Map<String, Map<String, Object>> mergedRows = new LinkedHashMap<>();
+        Map<String, String> rowTables = new HashMap<>();
         for (SyncData syncData : syncDataList) {
-            try {
-                synchronizeData(syncData.objectType(), syncData.recordId(), syncData.changeType(), syncData.changeData(), syncData.changeDate());
-                successCount++;
-            } catch (Exception e) {
-                failureCount++;
-                log.error("批量同步单条数据失败: objectType={}, recordId={}, error={}", syncData.objectType(), syncData.recordId(), e.getMessage());
+            if (syncData.objectType() == null || syncData.recordId() == null) {
+                continue;
+            }
+            String tableName = getTableName(syncData.objectType());
+            String rowKey = tableName + ":" + syncData.recordId();
+            Map<String, Object> row = mergedRows.computeIfAbsent(rowKey, k -> {
+                Map<String, Object> initial = new HashMap<>();
+                initial.put("Id", syncData.recordId());
+                return initial;
+            });
+            if (syncData.changeData() != null) {
+                row.putAll(syncData.changeData());
             }
+            rowTables.put(rowKey, tableName);
         }
 
-        log.info("批量同步完成，成功: {}, 失败: {}, 总计: {}", successCount, failureCount, syncDataList.size());
+        // 按表和字段集合分组，同组记录字段一致，可用一条多行 upsert 写入
+        Map<String, List<String>> groupKeys = new LinkedHashMap<>();
+        Map<String, List<Collection<Object>>> groupValues = new LinkedHashMap<>();
+        Map<String, String> groupTables = new HashMap<>();
+        for (Map.Entry<String, Map<String, Object>> entry : mergedRows.entrySet()) {
+            String tableName = rowTables.get(entry.getKey());
+            Map<String, Object> row = entry.getValue();
+            List<String> keys = new ArrayList<>(new TreeSet<>(row.keySet()));
+            String groupKey = tableName + "|" + String.join(",", keys);
+
+            List<Object> values = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                values.add(row.get(key));
+            }
+            groupKeys.putIfAbsent(groupKey, keys);
+            groupTables.putIfAbsent(groupKey, tableName);
+            groupValues.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(values);
+        }
+
+        for (Map.Entry<String, List<Collection<Object>>> entry : groupValues.entrySet()) {
+            String groupKey = entry.getKey();
+            List<Collection<Object>> values = entry.getValue();
+            // PostgreSQL 系单条语句的绑定参数有上限，宽表按字段数进一步缩小每条语句的记录数
+            int batchSize = Math.min(UPSERT_BATCH_SIZE, objectRegistryService.getDialect().maxBatchRows(groupKeys.get(groupKey).size()));
+            for (int from = 0; from < values.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, values.size());
+                customMapper.upsertBatch(groupTables.get(groupKey), groupKeys.get(groupKey), values.subList(from, to));
+            }
+        }
+
+        for (SyncData syncData : syncDataList) {
+            recordSyncLog(syncData.objectType(), syncData.recordId(), syncData.changeType(), syncData.changeData(), "SUCCESS", null);
+        }
+        log.debug("批量同步完成，事件数: {}，合并后记录数: {}，写入语句数: {}", syncDataList.size(), mergedRows.size(), groupValues.size());
     }
 
     @Override
@@ -79,8 +138,8 @@ public class DataSynchronizerImpl implements DataSynchronizer {
             return;
         }
 
-        String tableName = "sf_" + objectType.toLowerCase();
-        
+        String tableName = getTableName(objectType);
+
         Map<String, Object> upsertData = new HashMap<>();
         upsertData.put("Id", recordId);
         if (data != null) {
@@ -96,6 +155,10 @@ public class DataSynchronizerImpl implements DataSynchronizer {
         }
     }
 
+    private String getTableName(String objectType) {
+        return "sf_" + objectType.toLowerCase();
+    }
+
     private void recordSyncLog(String objectType, String recordId, String changeType, Map<String, Object> changeData, String syncStatus, String errorMessage) {
         try {
             DataiIntegrationRealtimeSyncLog syncLog = new DataiIntegrationRealtimeSyncLog();
@@ -108,7 +171,7 @@ public class DataSynchronizerImpl implements DataSynchronizer {
             syncLog.setSalesforceTimestamp(LocalDateTime.now());
             syncLog.setSyncTimestamp(LocalDateTime.now());
 
-            syncLogService.insertDataiIntegrationRealtimeSyncLog(syncLog);
+            integrationLogWriter.writeSyncLog(syncLog);
         } catch (Exception e) {
             log.error("记录同步日志时发生异常: {}", e.getMessage(), e);
         }
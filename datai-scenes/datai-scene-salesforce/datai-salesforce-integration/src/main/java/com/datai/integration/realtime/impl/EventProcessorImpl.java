@@ -109,15 +109,44 @@ public class EventProcessorImpl implements EventProcessor {
             }
         }
 
+        int syncFailureCount = 0;
         if (!syncDataList.isEmpty()) {
             try {
                 dataSynchronizer.batchSynchronizeData(syncDataList);
             } catch (Exception e) {
-                log.error("{}: {}", ERROR_BATCH_SYNC, e.getMessage(), e);
+                log.error("{}，改为逐条同步: {}", ERROR_BATCH_SYNC, e.getMessage(), e);
+                for (DataSynchronizer.SyncData syncData : syncDataList) {
+                    try {
+                        dataSynchronizer.synchronizeData(syncData.objectType(), syncData.recordId(), syncData.changeType(), syncData.changeData(), syncData.changeDate());
+                    } catch (Exception ex) {
+                        syncFailureCount++;
+                    }
+                }
             }
         }
 
-        log.info("消息批次处理完成，成功: {}, 失败: {}, 总计: {}", syncDataList.size(), failureCount, messages.length);
+        log.info("消息批次处理完成，成功: {}, 失败: {}, 总计: {}", syncDataList.size() - syncFailureCount, failureCount + syncFailureCount, messages.length);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public DataSynchronizer.SyncData parseSyncData(Message message) {
+        if (message == null || message.getBody() == null) {
+            log.warn(WARN_EMPTY_MESSAGE);
+            return null;
+        }
+
+        Map<String, Object> eventData = parseMessage(message);
+        if (!validateEventData(eventData, message.getLoggableID())) {
+            return null;
+        }
+        return new DataSynchronizer.SyncData(
+                (String) eventData.get("objectType"),
+                (String) eventData.get("recordId"),
+                (String) eventData.get("changeType"),
+                (Map<String, Object>) eventData.get("changeData"),
+                (Date) eventData.get("changeDate")
+        );
     }
 
     private void validateMessage(Message message) {
@@ -1,6 +1,7 @@
 package com.datai.integration.realtime.impl;
 
 import com.datai.integration.factory.impl.PubSubConnectionFactory;
+import com.datai.integration.realtime.DataSynchronizer;
 import com.datai.integration.realtime.EventProcessor;
 import com.datai.integration.realtime.EventSubscriber;
 import com.salesforce.multicloudj.pubsub.client.SubscriptionClient;
@@ -44,7 +45,11 @@ public class PubSubEventSubscriberImpl implements EventSubscriber {
     @Autowired
     private EventProcessor eventProcessor;
 
+    @Autowired
+    private DataSynchronizer dataSynchronizer;
+
     private SubscriptionClient subscriptionClient;
+    private ShardedEventDispatcher dispatcher;
     private final AtomicBoolean subscribed = new AtomicBoolean(false);
     private ScheduledExecutorService monitorExecutor;
 
@@ -54,6 +59,24 @@ public class PubSubEventSubscriberImpl implements EventSubscriber {
     @Value("${salesforce.pubsub.retry.delay:30}")
     private int retryDelay;
 
+    @Value("${salesforce.pubsub.consumer.shards:8}")
+    private int shardCount;
+
+    @Value("${salesforce.pubsub.consumer.batch.size:200}")
+    private int batchSize;
+
+    @Value("${salesforce.pubsub.consumer.batch.interval:100}")
+    private long batchInterval;
+
+    @Value("${salesforce.pubsub.consumer.max.in.flight:2000}")
+    private int maxInFlight;
+
+    @Value("${salesforce.pubsub.ack.batch.size:500}")
+    private int ackBatchSize;
+
+    @Value("${salesforce.pubsub.ack.interval:200}")
+    private long ackInterval;
+
     @Override
     public void startSubscription() {
         if (subscribed.get()) {
@@ -83,6 +106,8 @@ public class PubSubEventSubscriberImpl implements EventSubscriber {
 
     private void initializeSubscription() {
         subscriptionClient = connectionFactory.getSubscriptionClient(topic);
+        dispatcher = new ShardedEventDispatcher(subscriptionClient, eventProcessor, dataSynchronizer,
+                shardCount, batchSize, batchInterval, maxInFlight, ackBatchSize, ackInterval);
         monitorExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread thread = new Thread(r, MONITOR_THREAD_NAME);
             thread.setDaemon(true);
@@ -93,7 +118,7 @@ public class PubSubEventSubscriberImpl implements EventSubscriber {
     }
 
     /**
-     * 接收并处理事件
+     * 接收事件并按记录分发到分片线程处理，在途消息数达到上限时阻塞
      */
     private void receiveEvents() {
         Thread.currentThread().setName(EVENT_RECEIVER_THREAD_NAME);
@@ -103,9 +128,13 @@ public class PubSubEventSubscriberImpl implements EventSubscriber {
                 if (subscriptionClient != null) {
                     Message message = subscriptionClient.receive();
                     if (message != null) {
-                        processMessage(message);
+                        log.debug("接收到事件: {}", message.getLoggableID());
+                        dispatcher.dispatch(message);
                     }
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception e) {
                 log.error(ERROR_EVENT_PROCESSING + ": {}", e.getMessage(), e);
                 sleepOnError();
@@ -113,18 +142,6 @@ public class PubSubEventSubscriberImpl implements EventSubscriber {
         }
     }
 
-    private void processMessage(Message message) {
-        String loggableId = message.getLoggableID();
-        log.debug("接收到事件: {}", loggableId);
-        
-        try {
-            eventProcessor.processMessage(message);
-            subscriptionClient.sendAck(message.getAckID());
-        } catch (Exception e) {
-            log.error("处理事件失败 [LoggableID: {}]: {}", loggableId, e.getMessage(), e);
-        }
-    }
-
     private void sleepOnError() {
         try {
             TimeUnit.SECONDS.sleep(ERROR_SLEEP_SECONDS);
@@ -164,6 +181,7 @@ public class PubSubEventSubscriberImpl implements EventSubscriber {
 
         try {
             shutdownMonitorExecutor();
+            shutdownDispatcher();
             closeSubscriptionClient();
             subscribed.set(false);
             subscriptionClient = null;
@@ -183,6 +201,13 @@ public class PubSubEventSubscriberImpl implements EventSubscriber {
         }
     }
 
+    private void shutdownDispatcher() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+            dispatcher = null;
+        }
+    }
+
     private void closeSubscriptionClient() {
         if (subscriptionClient != null) {
             try {
@@ -0,0 +1,306 @@
+package com.datai.integration.realtime.impl;
+
+import com.datai.integration.realtime.DataSynchronizer;
+import com.datai.integration.realtime.EventProcessor;
+import com.salesforce.multicloudj.pubsub.client.SubscriptionClient;
+import com.salesforce.multicloudj.pubsub.driver.AckID;
+import com.salesforce.multicloudj.pubsub.driver.Message;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按记录分片的有序事件分发器
+ * <p>
+ * 接收线程解析消息后按 (objectType, recordId) 分配到固定的分片线程，同一记录的事件始终在同一分片上按到达顺序处理，
+ * 不同记录的事件在多个分片上并行处理。分片线程每攒够 batchSize 条或等待 batchIntervalMillis 毫秒后，
+ * 将这一批事件交给 {@link DataSynchronizer#batchSynchronizeData(List)} 合并同一记录的变更并批量写入，
+ * 批量写入失败时退回逐条同步。事件处理完成（事务已提交或已回滚并记录失败日志）后才进入确认队列，
+ * 由确认线程按批发送确认。在途消息数（已接收但尚未确认）达到上限时接收线程阻塞，形成背压。
+ * </p>
+ */
+@Slf4j
+public class ShardedEventDispatcher {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final SubscriptionClient subscriptionClient;
+
+    private final EventProcessor eventProcessor;
+
+    private final DataSynchronizer dataSynchronizer;
+
+    private final ShardWorker[] shards;
+
+    private final int batchSize;
+
+    private final long batchIntervalMillis;
+
+    private volatile boolean running = true;
+
+    private final Semaphore inFlight;
+
+    private final int maxInFlight;
+
+    private final int ackBatchSize;
+
+    private final LinkedBlockingQueue<AckID> pendingAcks = new LinkedBlockingQueue<>();
+
+    private final ScheduledExecutorService ackExecutor;
+
+    private final Object ackLock = new Object();
+
+    private final AtomicBoolean ackFlushScheduled = new AtomicBoolean(false);
+
+    private final LongAdder processedCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private final LongAdder ackedCount = new LongAdder();
+
+    /**
+     * @param subscriptionClient 订阅客户端
+     * @param eventProcessor 事件解析器
+     * @param dataSynchronizer 数据同步器
+     * @param shardCount 分片数
+     * @param batchSize 分片每批同步的最大事件数
+     * @param batchIntervalMillis 分片攒批的最长等待时间（毫秒）
+     * @param maxInFlight 最大在途消息数
+     * @param ackBatchSize 每批确认的消息数
+     * @param ackIntervalMillis 确认发送间隔（毫秒）
+     */
+    public ShardedEventDispatcher(SubscriptionClient subscriptionClient, EventProcessor eventProcessor, DataSynchronizer dataSynchronizer,
+                                  int shardCount, int batchSize, long batchIntervalMillis,
+                                  int maxInFlight, int ackBatchSize, long ackIntervalMillis) {
+        this.subscriptionClient = subscriptionClient;
+        this.eventProcessor = eventProcessor;
+        this.dataSynchronizer = dataSynchronizer;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.ackBatchSize = Math.max(1, ackBatchSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.batchIntervalMillis = Math.max(0, batchIntervalMillis);
+
+        this.shards = new ShardWorker[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new ShardWorker("pubsub-shard-" + i);
+        }
+
+        ackExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pubsub-ack");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ackExecutor.scheduleWithFixedDelay(this::flushAcks, ackIntervalMillis, Math.max(1, ackIntervalMillis), TimeUnit.MILLISECONDS);
+
+        log.info("事件分发器已启动，分片数: {}，同步批量: {}，最大在途消息数: {}，确认批量: {}",
+                shards.length, this.batchSize, this.maxInFlight, this.ackBatchSize);
+    }
+
+    /**
+     * 分发一条消息，在途消息数达到上限时阻塞等待
+     *
+     * @param message 消息
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    public void dispatch(Message message) throws InterruptedException {
+        inFlight.acquire();
+
+        DataSynchronizer.SyncData syncData;
+        try {
+            syncData = eventProcessor.parseSyncData(message);
+        } catch (Exception e) {
+            log.error("解析事件失败 [LoggableID: {}]: {}", message.getLoggableID(), e.getMessage(), e);
+            syncData = null;
+        }
+
+        if (syncData == null) {
+            // 无法同步的消息直接确认，避免重复投递
+            enqueueAck(message.getAckID());
+            return;
+        }
+
+        int shard = Math.floorMod(Objects.hash(syncData.objectType(), syncData.recordId()), shards.length);
+        shards[shard].queue.add(new PendingEvent(message, syncData));
+    }
+
+    /**
+     * 同步一批事件，完成后全部进入确认队列
+     */
+    private void processBatch(List<PendingEvent> batch) {
+        try {
+            if (batch.size() > 1) {
+                List<DataSynchronizer.SyncData> dataList = new ArrayList<>(batch.size());
+                for (PendingEvent event : batch) {
+                    dataList.add(event.data());
+                }
+                try {
+                    dataSynchronizer.batchSynchronizeData(dataList);
+                    processedCount.add(batch.size());
+                    return;
+                } catch (Exception e) {
+                    log.warn("批量同步 {} 条事件失败，改为逐条同步: {}", batch.size(), e.getMessage());
+                }
+            }
+            for (PendingEvent event : batch) {
+                process(event);
+            }
+        } finally {
+            for (PendingEvent event : batch) {
+                enqueueAck(event.message().getAckID());
+            }
+        }
+    }
+
+    /**
+     * 同步单条事件
+     */
+    private void process(PendingEvent event) {
+        DataSynchronizer.SyncData data = event.data();
+        try {
+            dataSynchronizer.synchronizeData(data.objectType(), data.recordId(), data.changeType(), data.changeData(), data.changeDate());
+            processedCount.increment();
+        } catch (Exception e) {
+            // 失败已由同步器记录到实时同步日志，与原逐条处理一致不再重复投递
+            failedCount.increment();
+            log.error("处理事件失败 [LoggableID: {}]: {}", event.message().getLoggableID(), e.getMessage(), e);
+        }
+    }
+
+    private void enqueueAck(AckID ackID) {
+        pendingAcks.add(ackID);
+        if (pendingAcks.size() >= ackBatchSize && !ackExecutor.isShutdown() && ackFlushScheduled.compareAndSet(false, true)) {
+            ackExecutor.execute(this::flushAcks);
+        }
+    }
+
+    /**
+     * 按批发送确认并释放在途许可
+     */
+    private void flushAcks() {
+        synchronized (ackLock) {
+            ackFlushScheduled.set(false);
+            List<AckID> batch = new ArrayList<>(ackBatchSize);
+            while (pendingAcks.drainTo(batch, ackBatchSize) > 0) {
+                try {
+                    subscriptionClient.sendAcks(batch).join();
+                    ackedCount.add(batch.size());
+                } catch (Exception e) {
+                    log.error("批量确认 {} 条事件失败: {}", batch.size(), e.getMessage(), e);
+                } finally {
+                    inFlight.release(batch.size());
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * 等待已分发的事件处理完成并发送剩余确认
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            for (ShardWorker shard : shards) {
+                shard.thread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+                if (shard.thread.isAlive()) {
+                    log.warn("事件分片关闭超时，强制关闭");
+                    shard.thread.interrupt();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        ackExecutor.shutdown();
+        try {
+            ackExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAcks();
+        log.info("事件分发器已关闭，成功: {}，失败: {}，已确认: {}", processedCount.sum(), failedCount.sum(), ackedCount.sum());
+    }
+
+    public long getProcessedCount() {
+        return processedCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getAckedCount() {
+        return ackedCount.sum();
+    }
+
+    public int getInFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private record PendingEvent(Message message, DataSynchronizer.SyncData data) {}
+
+    /**
+     * 分片工作线程，按批取出本分片的事件并同步
+     */
+    private class ShardWorker implements Runnable {
+
+        private final LinkedBlockingQueue<PendingEvent> queue = new LinkedBlockingQueue<>();
+
+        private final Thread thread;
+
+        ShardWorker(String name) {
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            List<PendingEvent> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingEvent first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchIntervalMillis);
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long remaining = deadline - System.nanoTime();
+                        if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                            break;
+                        }
+                        PendingEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+
+                    processBatch(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    log.error("事件分片 {} 处理异常: {}", thread.getName(), e.getMessage(), e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
@@ -36,6 +36,14 @@ public interface IDataiIntegrationApiCallLogService
      */
     public int insertDataiIntegrationApiCallLog(DataiIntegrationApiCallLog dataiIntegrationApiCallLog);
 
+    /**
+     * 批量新增API调用日志
+     * 
+     * @param list API调用日志集合
+     * @return 结果
+     */
+    public int insertDataiIntegrationApiCallLogBatch(List<DataiIntegrationApiCallLog> list);
+
     /**
      * 修改API调用日志
      * 
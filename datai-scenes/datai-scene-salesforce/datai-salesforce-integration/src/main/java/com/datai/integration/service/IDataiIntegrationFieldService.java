@@ -35,6 +35,14 @@ public interface IDataiIntegrationFieldService
      */
     public int insertDataiIntegrationField(DataiIntegrationField dataiIntegrationField);
 
+    /**
+     * 批量新增对象字段信息
+     * 
+     * @param list 对象字段信息集合
+     * @return 结果
+     */
+    public int insertDataiIntegrationFieldBatch(List<DataiIntegrationField> list);
+
     /**
      * 修改对象字段信息
      * 
@@ -35,6 +35,22 @@ public interface IDataiIntegrationFilterLookupService
      */
     public int insertDataiIntegrationFilterLookup(DataiIntegrationFilterLookup dataiIntegrationFilterLookup);
 
+    /**
+     * 批量新增字段过滤查找信息
+     * 
+     * @param list 字段过滤查找信息集合
+     * @return 结果
+     */
+    public int insertDataiIntegrationFilterLookupBatch(List<DataiIntegrationFilterLookup> list);
+
+    /**
+     * 删除对象下的全部字段过滤查找信息
+     * 
+     * @param api 对象API名称
+     * @return 结果
+     */
+    public int deleteDataiIntegrationFilterLookupByApi(String api);
+
     /**
      * 修改字段过滤查找信息
      * 
@@ -36,6 +36,14 @@ public interface IDataiIntegrationMetadataChangeService
      */
     public int insertDataiIntegrationMetadataChange(DataiIntegrationMetadataChange dataiIntegrationMetadataChange);
 
+    /**
+     * 批量新增对象元数据变更
+     * 
+     * @param list 对象元数据变更集合
+     * @return 结果
+     */
+    public int insertDataiIntegrationMetadataChangeBatch(List<DataiIntegrationMetadataChange> list);
+
     /**
      * 修改对象元数据变更
      * 
@@ -35,6 +35,22 @@ public interface IDataiIntegrationPicklistService
      */
     public int insertDataiIntegrationPicklist(DataiIntegrationPicklist dataiIntegrationPicklist);
 
+    /**
+     * 批量新增字段选择列表信息
+     * 
+     * @param list 字段选择列表信息集合
+     * @return 结果
+     */
+    public int insertDataiIntegrationPicklistBatch(List<DataiIntegrationPicklist> list);
+
+    /**
+     * 删除对象下的全部字段选择列表信息
+     * 
+     * @param api 对象API名称
+     * @return 结果
+     */
+    public int deleteDataiIntegrationPicklistByApi(String api);
+
     /**
      * 修改字段选择列表信息
      * 
@@ -47,6 +47,16 @@ public interface IDataiIntegrationRateLimitService
      */
     public int updateDataiIntegrationRateLimit(DataiIntegrationRateLimit dataiIntegrationRateLimit);
 
+    /**
+     * 原子累加API使用量
+     * 在数据库中以 current_usage + delta 的方式写回，多实例并发写回不会互相覆盖
+     * 
+     * @param id API限流监控主键
+     * @param delta 新增调用次数
+     * @return 累加后的最新限流配置，记录不存在时返回 null
+     */
+    public DataiIntegrationRateLimit incrementDataiIntegrationRateLimitUsage(Long id, long delta);
+
     /**
      * 批量删除API限流监控配置
      * 根据主键ID数组批量删除多条限流配置记录
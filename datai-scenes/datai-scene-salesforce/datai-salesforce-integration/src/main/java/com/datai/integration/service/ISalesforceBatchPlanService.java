@@ -0,0 +1,31 @@
+package com.datai.integration.service;
+
+import com.datai.integration.core.IPartnerV1Connection;
+import com.datai.integration.model.domain.DataiIntegrationBatch;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Salesforce 全量同步批次规划服务接口
+ * <p>
+ * 通过按月分组的聚合查询一次获取时间范围内的数据分布，数据量超过阈值的月份再按天分组细化，
+ * 然后将相邻时间窗口合并为数据量接近的批次，替代逐个时间窗口执行 COUNT 的递归拆分。
+ * </p>
+ */
+public interface ISalesforceBatchPlanService {
+
+    /**
+     * 规划全量同步批次
+     *
+     * @param connection Salesforce连接
+     * @param objectApi 对象API名称
+     * @param batchField 批次字段（日期时间类型）
+     * @param startDate 开始时间
+     * @param endDate 结束时间
+     * @return 首尾相接覆盖整个时间范围的批次，已设置 api、batchField、syncStartDate、syncEndDate、sfNum；
+     *         聚合查询不可用时返回null，调用方应改用逐窗口计数方式
+     */
+    List<DataiIntegrationBatch> planFullBatches(IPartnerV1Connection connection, String objectApi, String batchField,
+                                                Date startDate, Date endDate);
+}
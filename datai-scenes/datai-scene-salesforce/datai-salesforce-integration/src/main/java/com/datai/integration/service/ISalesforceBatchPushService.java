@@ -0,0 +1,46 @@
+package com.datai.integration.service;
+
+import com.datai.integration.core.IPartnerV1Connection;
+import com.sforce.soap.partner.DescribeSObjectResult;
+
+import java.util.Map;
+
+/**
+ * Salesforce 批次数据推送服务接口
+ * <p>
+ * 按主键游标分段读取本地表数据，按块推送到目标系统，并按块回写 new_id、is_insert、is_update 标记，
+ * 不在内存中缓存整个批次的数据。
+ * </p>
+ */
+public interface ISalesforceBatchPushService {
+
+    /**
+     * 将本地表中尚未插入的记录插入到目标系统
+     * <p>
+     * 每次 SOAP create 调用打包多条记录，成功后按块回写 new_id 与 is_insert。
+     * </p>
+     *
+     * @param connection 目标系统SOAP连接
+     * @param objDetail 目标系统对象描述
+     * @param tableName 本地表名
+     * @param condition 批次数据过滤条件，为空时推送全表
+     * @return 推送统计，包含 totalCount、successCount、failureCount、failedRecords
+     */
+    Map<String, Object> insertRecords(IPartnerV1Connection connection, DescribeSObjectResult objDetail, String tableName, String condition);
+
+    /**
+     * 将本地表中的记录按 new_id 更新到目标系统
+     * <p>
+     * 启用 Bulk API 且记录数超过阈值时通过 Bulk API 2.0 导入作业更新，否则每次 SOAP update 调用打包多条记录。
+     * 成功后按块回写 is_update。
+     * </p>
+     *
+     * @param targetOrgType 目标ORG类型
+     * @param connection 目标系统SOAP连接
+     * @param objDetail 目标系统对象描述
+     * @param tableName 本地表名
+     * @param condition 批次数据过滤条件，为空时推送全表
+     * @return 推送统计，包含 totalCount、successCount、failureCount、failedRecords
+     */
+    Map<String, Object> updateRecords(String targetOrgType, IPartnerV1Connection connection, DescribeSObjectResult objDetail, String tableName, String condition);
+}
@@ -0,0 +1,55 @@
+package com.datai.integration.service;
+
+import com.sforce.soap.partner.Field;
+
+/**
+ * Salesforce Bulk API 2.0 数据提取服务接口
+ * <p>
+ * 通过 Bulk API 2.0 查询作业提取大数据量对象，按 Sforce-Locator 逐页读取CSV结果并直接写入本地表。
+ * </p>
+ */
+public interface ISalesforceBulkExtractService {
+
+    /**
+     * 判断是否应使用 Bulk API 提取数据
+     *
+     * @param recordCount Salesforce中符合条件的记录数
+     * @return 启用Bulk API且记录数超过阈值时返回true
+     */
+    boolean shouldUseBulkApi(long recordCount);
+
+    /**
+     * 构建 Bulk API 可查询的字段列表
+     * <p>
+     * Bulk API 不支持 base64 及 address、location 等复合字段，需在SELECT中排除。
+     * </p>
+     *
+     * @param fields 对象字段描述
+     * @return 逗号分隔的字段列表
+     */
+    String buildBulkSelect(Field[] fields);
+
+    /**
+     * 通过 Bulk API 2.0 提取对象数据并写入本地表
+     *
+     * @param objectApi 对象API名称
+     * @param fields 对象字段描述
+     * @param soql 查询语句，SELECT字段应来自 {@link #buildBulkSelect(Field[])}
+     * @return 写入本地表的记录数
+     */
+    int extractObjectData(String objectApi, Field[] fields, String soql);
+
+    /**
+     * 通过 Bulk API 2.0 提取对象数据并写入本地表，每写完一页记录断点
+     * <p>
+     * 断点保存作业ID、下一页定位器与已写入记录数，再次调用时若断点对应的作业仍可读取，则跳过已写入的页继续提取。
+     * </p>
+     *
+     * @param objectApi 对象API名称
+     * @param fields 对象字段描述
+     * @param soql 查询语句，SELECT字段应来自 {@link #buildBulkSelect(Field[])}
+     * @param checkpointKey 断点键，为空时不记录断点
+     * @return 写入本地表的记录数，从断点继续时包含断点前已写入的记录
+     */
+    int extractObjectData(String objectApi, Field[] fields, String soql, String checkpointKey);
+}
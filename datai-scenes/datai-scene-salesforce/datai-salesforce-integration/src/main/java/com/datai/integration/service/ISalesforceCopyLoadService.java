@@ -0,0 +1,31 @@
+package com.datai.integration.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * PostgreSQL COPY 批量写入服务接口
+ * <p>
+ * 本地库为 PostgreSQL 系时，Bulk API 提取的大批量数据通过 COPY FROM STDIN 流式写入会话临时表，
+ * 再以一条 INSERT ... SELECT 合并到目标表，替代多行 INSERT。
+ * </p>
+ */
+public interface ISalesforceCopyLoadService {
+
+    /**
+     * 当前本地库是否支持 COPY 写入
+     *
+     * @return 本地库为 PostgreSQL 系且驱动提供 CopyManager 时返回true
+     */
+    boolean isSupported();
+
+    /**
+     * 以 COPY 方式写入一页记录，已存在的记录按主键更新
+     *
+     * @param tableName 表名
+     * @param keys 字段列表
+     * @param values 记录值，顺序与keys一致
+     * @return 影响行数，口径与 upsertBatch 在 MySQL 上一致：新插入的记录计1，已存在的记录计2
+     */
+    int copyUpsert(String tableName, List<String> keys, Collection<? extends Collection<Object>> values);
+}
@@ -0,0 +1,62 @@
+package com.datai.integration.service;
+
+import com.datai.integration.core.IPartnerV1Connection;
+import com.sforce.soap.partner.DescribeSObjectResult;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Salesforce 对象批量描述服务接口
+ * <p>
+ * 按每组最多100个对象调用 describeSObjects，多组在 SalesforceExecutor 上并行执行；
+ * 对每个对象的描述结果计算摘要，摘要与上次处理成功时一致的对象可直接跳过。
+ * </p>
+ */
+public interface ISalesforceDescribeService {
+
+    /**
+     * 批量获取对象描述
+     *
+     * @param connection Salesforce连接
+     * @param objectApis 对象API名称集合
+     * @return 键为请求中的对象API名称，值为描述结果；获取失败的对象不包含在结果中
+     */
+    Map<String, DescribeSObjectResult> describeSObjects(IPartnerV1Connection connection, Collection<String> objectApis);
+
+    /**
+     * 计算对象描述的摘要，只包含元数据同步关心的对象、字段、选择列表与过滤查找属性
+     *
+     * @param describe 对象描述
+     * @return 十六进制摘要
+     */
+    String computeHash(DescribeSObjectResult describe);
+
+    /**
+     * 解析摘要范围，在使用方范围上附加源组织ID与目标库标识
+     *
+     * @param connection Salesforce连接
+     * @param scope 使用方范围
+     * @return 完整范围；无法解析时返回null，此时不跳过任何对象也不记录摘要
+     */
+    String resolveScope(IPartnerV1Connection connection, String scope);
+
+    /**
+     * 判断对象描述自上次处理成功后是否未变化
+     *
+     * @param scope 由 resolveScope 解析的范围，不同流程、组织与目标库分别记录摘要
+     * @param objectApi 对象API名称
+     * @param hash 本次描述的摘要
+     * @return 摘要与上次记录一致时返回true
+     */
+    boolean isUnchanged(String scope, String objectApi, String hash);
+
+    /**
+     * 记录对象描述的摘要，应在该对象处理成功后调用
+     *
+     * @param scope 由 resolveScope 解析的范围
+     * @param objectApi 对象API名称
+     * @param hash 摘要
+     */
+    void saveHash(String scope, String objectApi, String hash);
+}
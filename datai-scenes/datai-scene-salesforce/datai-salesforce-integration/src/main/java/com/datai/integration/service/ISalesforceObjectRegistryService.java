@@ -0,0 +1,109 @@
+package com.datai.integration.service;
+
+import com.datai.integration.util.RecordConvertPlan;
+import com.datai.integration.util.SqlDialect;
+import com.datai.integration.util.TableLayout;
+import com.sforce.soap.partner.Field;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Salesforce 对象注册表服务接口
+ * <p>
+ * 在本地内存中按对象保存由对象描述派生、在多次同步间保持不变的结构，
+ * 对象元数据变化时由元数据同步流程失效；本地表结构首次使用时加载，之后由建表、增删列与新增分区维护，
+ * 并通过共享缓存中的版本号感知其他节点的变更，超过有效期后重新加载以感知手工变更。
+ * </p>
+ */
+public interface ISalesforceObjectRegistryService {
+
+    /**
+     * 获取对象的记录转换计划，字段描述与已缓存的计划不一致时重新编译
+     *
+     * @param objectApi 对象API名称
+     * @param fields 字段描述
+     * @return 转换计划
+     */
+    RecordConvertPlan getConvertPlan(String objectApi, Field[] fields);
+
+    /**
+     * 获取本地库的SQL方言，与 CustomMapper.xml 使用的 databaseId 一致
+     *
+     * @return 方言
+     */
+    SqlDialect getDialect();
+
+    /**
+     * 获取本地表结构，未加载时查询一次数据库
+     *
+     * @param tableName 表名
+     * @return 表结构
+     */
+    TableLayout getTableLayout(String tableName);
+
+    /**
+     * 重新从数据库加载本地表结构，用于写入失败后排查列是否已被删除
+     *
+     * @param tableName 表名
+     * @return 表结构
+     */
+    TableLayout refreshTableLayout(String tableName);
+
+    /**
+     * 一组记录可写入本地表的字段位置
+     * <p>
+     * 有值的字段在本地表结构中不存在时，先重新加载一次表结构（其他节点或手工加列后本节点可能尚未感知），
+     * 仍不存在的字段记录告警后跳过，避免整页写入失败。
+     * </p>
+     *
+     * @param tableName 表名
+     * @param plan 记录转换计划
+     * @param rows 转换后的记录
+     * @return 字段位置，按列顺序排列
+     */
+    int[] resolveSlots(String tableName, RecordConvertPlan plan, List<Object[]> rows);
+
+    /**
+     * 登记新建的表
+     *
+     * @param tableName 表名
+     * @param partitionNames 按年分区名，非分区表传空集合
+     * @param columnNames 列名
+     */
+    void registerTable(String tableName, Collection<String> partitionNames, Collection<String> columnNames);
+
+    /**
+     * 登记新增的列，并通知其他节点重新加载表结构
+     *
+     * @param tableName 表名
+     * @param columnName 列名
+     */
+    void addColumn(String tableName, String columnName);
+
+    /**
+     * 登记删除的列，并通知其他节点重新加载表结构
+     *
+     * @param tableName 表名
+     * @param columnName 列名
+     */
+    void dropColumn(String tableName, String columnName);
+
+    /**
+     * 确保按年分区表存在指定年份的分区，缺少的分区按年依次追加
+     * <p>
+     * RANGE 分区只能在末尾追加，早于已有最小分区的年份无法补建；最多追加到下一年，避免异常日期批量建分区
+     * </p>
+     *
+     * @param tableName 表名
+     * @param years 年份
+     */
+    void ensurePartitions(String tableName, Collection<Integer> years);
+
+    /**
+     * 失效对象的全部缓存结构
+     *
+     * @param objectApi 对象API名称
+     */
+    void invalidate(String objectApi);
+}
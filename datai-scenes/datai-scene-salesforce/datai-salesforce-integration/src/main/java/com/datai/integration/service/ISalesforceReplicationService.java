@@ -0,0 +1,32 @@
+package com.datai.integration.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Salesforce 复制API增量同步服务接口
+ * <p>
+ * 通过 getUpdated 获取时间窗口内变更的记录ID，按 2000 个ID一组调用 retrieve 拉取并写入本地表；
+ * 通过 getDeleted 获取已删除的记录ID，在本地表中做软删除或物理删除。
+ * 返回 Salesforce 实际覆盖到的时间点 latestDateCovered，作为下次同步的起点。
+ * </p>
+ */
+public interface ISalesforceReplicationService {
+
+    /**
+     * 判断是否启用复制API增量模式
+     *
+     * @return 启用时返回true
+     */
+    boolean isEnabled();
+
+    /**
+     * 按复制API增量同步对象数据
+     *
+     * @param objectApi 对象API名称
+     * @param watermark 上次同步覆盖到的时间点
+     * @return 同步结果，包含 success、updatedCount、deletedCount、latestDateCovered；
+     *         对象不支持复制、起点超出30天或变更数超出复制API上限时返回null，调用方应改用查询方式增量同步
+     */
+    Map<String, Object> replicate(String objectApi, LocalDateTime watermark);
+}
@@ -0,0 +1,120 @@
+package com.datai.integration.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Salesforce 对象数据量统计服务接口
+ * <p>
+ * 由写入路径增量维护每个对象及每个批次的新增、更新、删除计数，
+ * 行数增减量定期以增量方式累加到对象的 total_rows，仅在后台定时任务中按对象轮流执行精确 COUNT 校准，
+ * 同步完成和统计页面直接读取维护的计数，不再每次同步后全表计数。
+ * </p>
+ */
+public interface ISalesforceStatisticsService {
+
+    /**
+     * 统计一批待 upsert 的记录中本地表已存在的记录数，须在写入前调用
+     * <p>
+     * 按主键统计，不依赖驱动返回的影响行数（MySQL 的 found rows/affected rows 口径、PostgreSQL 的 ON CONFLICT 均无法区分新增和更新）。
+     * </p>
+     *
+     * @param objectApi 对象API名称（本地表名）
+     * @param keys 字段列表，须包含 Id 字段
+     * @param values 记录值，与字段列表一一对应
+     * @return 已存在的记录数，无法统计时返回 -1
+     */
+    int countExisting(String objectApi, List<String> keys, List<? extends Collection<Object>> values);
+
+    /**
+     * 记录一次 upsert 的结果
+     *
+     * @param objectApi 对象API名称（本地表名）
+     * @param rows 写入的记录数
+     * @param existing 写入前已存在的记录数（见 {@link #countExisting}），小于0表示未知，全部计为更新并尽快校准
+     */
+    void recordUpsert(String objectApi, int rows, int existing);
+
+    /**
+     * 记录一次删除的结果
+     *
+     * @param objectApi 对象API名称（本地表名）
+     * @param affected 删除或标记删除的行数
+     * @param hardDelete 是否为物理删除，标记删除不减少行数
+     */
+    void recordDelete(String objectApi, int affected, boolean hardDelete);
+
+    /**
+     * 开始在当前线程累计批次的写入计数，之后本线程的写入同时计入该批次
+     *
+     * @param batchId 批次ID
+     */
+    void beginBatch(Integer batchId);
+
+    /**
+     * 结束当前线程的批次计数，并保存到缓存供各节点查询
+     */
+    void endBatch();
+
+    /**
+     * 获取批次最近一次同步的写入计数
+     *
+     * @param batchId 批次ID
+     * @return 包含 insertedRows、updatedRows、deletedRows、running 的统计，没有记录时返回空Map
+     */
+    Map<String, Object> getBatchStatistics(Integer batchId);
+
+    /**
+     * 获取对象的估算行数
+     *
+     * @param objectApi 对象API名称
+     * @return 上次校准的精确行数加上之后写入路径累计的增减量
+     */
+    int getEstimatedRows(String objectApi);
+
+    /**
+     * 以已知的精确行数重置对象的计数基准，累计的增减量清零
+     *
+     * @param objectApi 对象API名称
+     * @param rows 精确行数
+     */
+    void rebase(String objectApi, int rows);
+
+    /**
+     * 丢弃对象在内存中的计数，下次写入时从 total_rows 重新加载，用于重建表后
+     *
+     * @param objectApi 对象API名称
+     */
+    void evict(String objectApi);
+
+    /**
+     * 获取全部对象自服务启动以来的写入计数
+     *
+     * @return 包含 insertedRows、updatedRows、deletedRows、pendingObjects 的统计
+     */
+    Map<String, Object> getWriteStatistics();
+
+    /**
+     * 获取单个对象的计数
+     *
+     * @param objectApi 对象API名称
+     * @return 包含 estimatedRows、insertedRows、updatedRows、deletedRows、reconciledAt 的统计，对象未被写入过时返回空Map
+     */
+    Map<String, Object> getObjectStatistics(String objectApi);
+
+    /**
+     * 将各对象累计的行数增减量累加到 total_rows
+     *
+     * @return 写回的对象数
+     */
+    int flush();
+
+    /**
+     * 对校准间隔内未校准过的启用对象执行精确计数
+     *
+     * @param maxObjects 本次最多校准的对象数，小于等于0时使用配置值
+     * @return 校准的对象数
+     */
+    int reconcile(int maxObjects);
+}
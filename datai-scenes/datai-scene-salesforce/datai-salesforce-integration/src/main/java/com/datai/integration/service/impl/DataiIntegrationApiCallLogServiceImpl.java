@@ -71,6 +71,32 @@ public class DataiIntegrationApiCallLogServiceImpl implements IDataiIntegrationA
             return dataiIntegrationApiCallLogMapper.insertDataiIntegrationApiCallLog(dataiIntegrationApiCallLog);
     }
 
+    /**
+     * 批量新增API调用日志
+     * <p>
+     * 由异步日志写入线程调用，不依赖当前登录用户，创建人由调用方在入队时填充。
+     * </p>
+     *
+     * @param list API调用日志集合
+     * @return 结果
+     */
+    @Override
+    public int insertDataiIntegrationApiCallLogBatch(List<DataiIntegrationApiCallLog> list)
+    {
+        if (list == null || list.isEmpty())
+        {
+            return 0;
+        }
+        Date now = DateUtils.getNowDate();
+        for (DataiIntegrationApiCallLog callLog : list)
+        {
+            callLog.setCreateTime(now);
+            callLog.setUpdateTime(now);
+            callLog.setUpdateBy(callLog.getCreateBy());
+        }
+        return dataiIntegrationApiCallLogMapper.insertDataiIntegrationApiCallLogBatch(list);
+    }
+
     /**
      * 修改API调用日志
      *
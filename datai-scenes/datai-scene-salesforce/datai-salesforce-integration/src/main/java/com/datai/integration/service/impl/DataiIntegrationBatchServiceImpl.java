@@ -1,18 +1,22 @@
 package com.datai.integration.service.impl;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.function.Supplier;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
+import com.datai.common.utils.CacheUtils;
 import com.datai.common.utils.DateUtils;
 import com.datai.common.utils.SecurityUtils;
 import com.datai.integration.model.param.DataiSyncParam;
 import com.datai.salesforce.common.utils.SoqlBuilder;
-import com.datai.integration.util.ConvertUtil;
+import com.datai.integration.util.RecordConvertPlan;
+import com.datai.integration.util.TableLayout;
 import com.sforce.soap.partner.PartnerConnection;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +29,10 @@ import com.datai.integration.model.domain.DataiIntegrationBatchHistory;
 import com.datai.integration.service.IDataiIntegrationBatchHistoryService;
 import com.datai.integration.service.IDataiIntegrationFieldService;
 import com.datai.integration.service.IDataiIntegrationSyncLogService;
+import com.datai.integration.service.ISalesforceBatchPushService;
+import com.datai.integration.service.ISalesforceBulkExtractService;
+import com.datai.integration.service.ISalesforceObjectRegistryService;
+import com.datai.integration.service.ISalesforceStatisticsService;
 import com.datai.integration.mapper.CustomMapper;
 import com.datai.integration.factory.impl.SOAPConnectionFactory;
 import com.sforce.soap.partner.DescribeSObjectResult;
@@ -63,6 +71,35 @@ public class DataiIntegrationBatchServiceImpl implements IDataiIntegrationBatchS
     @Autowired
     private IDataiIntegrationSyncLogService dataiIntegrationSyncLogService;
 
+    @Autowired
+    private ISalesforceBulkExtractService bulkExtractService;
+
+    @Autowired
+    private ISalesforceBatchPushService batchPushService;
+
+    @Autowired
+    private ISalesforceObjectRegistryService objectRegistryService;
+
+    @Autowired
+    private ISalesforceStatisticsService statisticsService;
+
+    /**
+     * 批次同步断点缓存名称
+     */
+    private static final String CHECKPOINT_CACHE = "salesforceBatchCheckpoint";
+
+    /**
+     * 断点保留时长（小时）
+     */
+    private static final long CHECKPOINT_CACHE_HOURS = 72;
+
+    /**
+     * 每页查询的记录数
+     */
+    private static final int QUERY_PAGE_SIZE = 2000;
+
+    private static final DateTimeFormatter BATCH_CONDITION_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     /**
      * 查询数据批次
      *
@@ -176,6 +213,7 @@ public class DataiIntegrationBatchServiceImpl implements IDataiIntegrationBatchS
 
             log.info("批次 {} 共有 {} 条失败的同步记录，准备重试", id, failedHistories.size());
 
+            // 上次失败时保留的断点仍然有效，从断点继续同步
             boolean retryResult = syncObjectDataByBatch(batch.getApi(), id);
 
             if (retryResult) {
@@ -260,6 +298,7 @@ public class DataiIntegrationBatchServiceImpl implements IDataiIntegrationBatchS
                 put("syncType", batch.getSyncType());
                 put("sfNum", batch.getSfNum());
                 put("dbNum", batch.getDbNum());
+                put("writeStatistics", statisticsService.getBatchStatistics(id));
                 put("totalCount", totalCount);
                 put("successCount", finalSuccessCount);
                 put("failedCount", finalFailedCount);
@@ -381,10 +420,28 @@ public class DataiIntegrationBatchServiceImpl implements IDataiIntegrationBatchS
                 param.setEndDate(java.sql.Timestamp.valueOf(batch.getSyncEndDate()));
             }
 
-            int sfTotalCount = querySalesforceDataCount(connection, param);
+            // 批次规划时已统计数据量，首次同步直接使用，重新同步时再查询最新数据量
+            int sfTotalCount = batch.getSfNum() != null && batch.getFirstSyncTime() == null
+                    ? batch.getSfNum() : querySalesforceDataCount(connection, param);
             log.info("对象 {} 批次 {} Salesforce中共有 {} 条记录需要同步", objectApi, batchId, sfTotalCount);
             
-            int dbProcessedCount = executeQueryAndProcessData(connection, param, fieldList);
+            String checkpointKey = String.valueOf(batchId);
+            int dbProcessedCount;
+            // 本线程的写入同时计入批次的新增、更新、删除计数
+            statisticsService.beginBatch(batchId);
+            try {
+                if (bulkExtractService.shouldUseBulkApi(sfTotalCount)) {
+                    log.info("对象 {} 批次 {} 超过Bulk阈值，使用Bulk API 2.0提取", objectApi, batchId);
+                    Field[] fields = connection.describeSObject(objectApi).getFields();
+                    param.setSelect(bulkExtractService.buildBulkSelect(fields));
+                    dbProcessedCount = bulkExtractService.extractObjectData(objectApi, fields, buildDynamicQuery(param), "batch_" + checkpointKey);
+                } else {
+                    dbProcessedCount = executeQueryAndProcessData(connection, param, checkpointKey);
+                }
+            } finally {
+                statisticsService.endBatch();
+            }
+            CacheUtils.remove(CHECKPOINT_CACHE, checkpointKey);
             log.info("对象 {} 批次 {} 数据同步完成，共处理 {} 条记录", objectApi, batchId, dbProcessedCount);
             
             long endTime = System.currentTimeMillis();
@@ -625,64 +682,116 @@ public class DataiIntegrationBatchServiceImpl implements IDataiIntegrationBatchS
 
     /**
      * 执行查询并处理结果
+     * <p>
+     * 按Id升序分页拉取，每页写入本地表后记录Id水位线与累计条数作为断点。
+     * 断点与批次的同步时间范围绑定，范围变更后断点失效，从头拉取。
+     * </p>
      *
-     * @param connection SOAP连接
-     * @param param      查询参数
-     * @param fieldList  字段列表
-     * @return 处理的数据条数
+     * @param connection    SOAP连接
+     * @param param         查询参数
+     * @param checkpointKey 断点键
+     * @return 处理的数据条数，从断点继续时包含断点前已处理的记录
+     * @throws ConnectionException 连接异常
      */
-    private int executeQueryAndProcessData(IPartnerV1Connection connection, DataiSyncParam param, List<String> fieldList) {
+    private int executeQueryAndProcessData(IPartnerV1Connection connection, DataiSyncParam param, String checkpointKey) throws ConnectionException {
         int totalCount = 0;
-        JSONArray objects = null;
         String maxId = null;
-        Date lastDate = null;
+        String window = buildCheckpointWindow(param);
 
-        try {
-            DescribeSObjectResult describeSObject = connection.describeSObject(param.getApi());
-            Field[] dsrFields = describeSObject.getFields();
+        JSONObject checkpoint = loadCheckpoint(checkpointKey);
+        if (checkpoint != null && window.equals(checkpoint.getString("window"))) {
+            maxId = checkpoint.getString("maxId");
+            totalCount = checkpoint.getIntValue("count");
+            log.info("对象 {} 从断点继续同步，Id水位线: {}，已处理 {} 条记录", param.getApi(), maxId, totalCount);
+        }
+
+        DescribeSObjectResult describeSObject = connection.describeSObject(param.getApi());
+        RecordConvertPlan plan = objectRegistryService.getConvertPlan(param.getApi(), describeSObject.getFields());
 
+        while (true) {
+            DataiSyncParam queryParam = new DataiSyncParam();
+            queryParam.setApi(param.getApi());
+            queryParam.setSelect(param.getSelect());
+            queryParam.setBatchField(param.getBatchField());
+            queryParam.setIdField(param.getIdField());
+            queryParam.setIsDeleted(param.getIsDeleted());
+            queryParam.setBeginDate(param.getBeginDate());
+            queryParam.setEndDate(param.getEndDate());
+            queryParam.setMaxId(maxId);
+            queryParam.setLimit(QUERY_PAGE_SIZE);
+
+            String query = buildDynamicQuery(queryParam);
+            log.info("执行查询SQL: {}", query);
+            QueryResult result = connection.queryAll(query);
+
+            // SOAP 每次调用最多返回 batchSize 条（默认500），需用 queryMore 取完整页后再判断是否还有下一页
+            int pageCount = 0;
             while (true) {
-                DataiSyncParam queryParam = new DataiSyncParam();
-                queryParam.setApi(param.getApi());
-                queryParam.setSelect(param.getSelect());
-                queryParam.setBatchField(param.getBatchField());
-                queryParam.setIdField(param.getIdField());
-                queryParam.setIsDeleted(param.getIsDeleted());
-                
-                queryParam.setBeginDate(param.getBeginDate());
-                queryParam.setEndDate(param.getEndDate());
-                queryParam.setLastDate(lastDate);
-                queryParam.setMaxId(maxId);
-                
-                String query = buildDynamicQuery(queryParam);
-                log.info("执行查询SQL: {}", query);
-                QueryResult result = connection.queryAll(query);
-
-                if (result.getRecords() != null && result.getRecords().length > 0) {
-                    objects = ConvertUtil.toJsonArray(result.getRecords(), dsrFields);
-                    Date maxDate = objects.getJSONObject(objects.size() - 1).getDate(param.getBatchField());
-                    Optional<String> maxIdOptional = objects.stream()
-                            .map(t -> (JSONObject) t)
-                            .filter(t -> maxDate.equals(t.getDate(param.getBatchField())))
-                            .map(t -> t.getString("Id"))
-                            .max(String::compareTo);
-                    maxId = maxIdOptional.orElse(null);
-                    lastDate = maxDate;
-
-                    totalCount += processQueryResult(param.getApi(), result.getRecords(), objects);
-                    log.info("已处理 {} 条记录", totalCount);
+                SObject[] records = result.getRecords();
+                if (records != null && records.length > 0) {
+                    List<Object[]> rows = new ArrayList<>(records.length);
+                    for (SObject record : records) {
+                        rows.add(plan.convert(record));
+                    }
+                    totalCount += processQueryResult(param.getApi(), plan, rows);
+                    pageCount += records.length;
+                    // 查询按Id升序，每批写入后即可推进水位线
+                    maxId = records[records.length - 1].getId();
+                    saveCheckpoint(checkpointKey, window, maxId, totalCount);
                 }
-
-                if (result.isDone() || result.getRecords() == null || result.getRecords().length == 0) {
+                if (result.isDone()) {
                     break;
                 }
+                result = connection.queryMore(result.getQueryLocator());
+            }
+            log.info("已处理 {} 条记录，Id水位线: {}", totalCount, maxId);
+
+            if (pageCount < QUERY_PAGE_SIZE) {
+                break;
             }
-        } catch (Exception e) {
-            log.error("查询处理数据时发生异常，对象API: {}", param.getApi(), e);
         }
         return totalCount;
     }
 
+    /**
+     * 构建断点对应的同步时间范围标识
+     *
+     * @param param 查询参数
+     * @return 时间范围标识
+     */
+    private String buildCheckpointWindow(DataiSyncParam param) {
+        return param.getBatchField() + ":"
+                + (param.getBeginDate() != null ? param.getBeginDate().getTime() : "") + ":"
+                + (param.getEndDate() != null ? param.getEndDate().getTime() : "");
+    }
+
+    /**
+     * 读取断点
+     *
+     * @param checkpointKey 断点键
+     * @return 断点信息，不存在时返回null
+     */
+    private JSONObject loadCheckpoint(String checkpointKey) {
+        String value = CacheUtils.get(CHECKPOINT_CACHE, checkpointKey, String.class);
+        return StringUtils.isEmpty(value) ? null : JSON.parseObject(value);
+    }
+
+    /**
+     * 记录断点
+     *
+     * @param checkpointKey 断点键
+     * @param window        同步时间范围标识
+     * @param maxId         已写入的最大Id
+     * @param count         已处理的记录数
+     */
+    private void saveCheckpoint(String checkpointKey, String window, String maxId, int count) {
+        JSONObject checkpoint = new JSONObject();
+        checkpoint.put("window", window);
+        checkpoint.put("maxId", maxId);
+        checkpoint.put("count", count);
+        CacheUtils.put(CHECKPOINT_CACHE, checkpointKey, checkpoint.toJSONString(), CHECKPOINT_CACHE_HOURS, TimeUnit.HOURS);
+    }
+
     /**
      * 构建动态查询语句
      *
@@ -736,6 +845,7 @@ public class DataiIntegrationBatchServiceImpl implements IDataiIntegrationBatchS
         }
         
         if (param.getLimit() != null && param.getLimit() > 0) {
+            builder.orderBy(param.getIdField(), SoqlBuilder.SortOrder.ASC);
             builder.limit(param.getLimit());
         }
 
@@ -745,146 +855,112 @@ public class DataiIntegrationBatchServiceImpl implements IDataiIntegrationBatchS
 
     /**
      * 处理查询结果
+     * <p>
+     * 每页（分区表按分区）执行一条多行 INSERT ... ON DUPLICATE KEY UPDATE，
+     * 已存在的记录由数据库按主键更新，无需预先查询已存在的ID。
+     * </p>
      *
-     * @param api       API名称
-
+     * @param api  API名称
+     * @param plan 对象的记录转换计划
+     * @param rows 转换后的记录
      * @return 处理的数据条数
      */
-    private int processQueryResult(String api, SObject[] records, JSONArray objects) {
-        int count = 0;
-        
-        log.info("处理API {} 的查询结果，共 {} 条记录", api, records.length);
-
-        boolean isPartitioned = checkIfTablePartitioned(api);
-        String batchField = null;
-        if (isPartitioned) {
-            batchField = integrationFieldService.getDateField(api);
-        }
+    private int processQueryResult(String api, RecordConvertPlan plan, List<Object[]> rows) {
+        log.info("处理API {} 的查询结果，共 {} 条记录", api, rows.size());
 
-        if (objects == null || objects.isEmpty()) {
+        if (rows.isEmpty()) {
             log.info("API {} 没有需要处理的数据", api);
             return 0;
         }
 
+        TableLayout layout = objectRegistryService.getTableLayout(api);
+        int batchSlot = -1;
+        if (layout.isPartitioned()) {
+            batchSlot = plan.indexOf(integrationFieldService.getDateField(api));
+        }
+
         try {
-            List<String> ids = Arrays.stream(records).map(SObject::getId).collect(Collectors.toList());
-            List<String> existsIds = customMapper.getIds(api, ids);
-            
-            String partitionName = null;
-            if (isPartitioned && batchField != null) {
-                partitionName = buildPartitionName(batchField, objects);
+            Map<Integer, List<Object[]>> yearGroups = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                yearGroups.computeIfAbsent(batchSlot >= 0 ? resolvePartitionYear(row[batchSlot]) : -1, k -> new ArrayList<>()).add(row);
             }
-
-            List<Map<String, Object>> insertMaps = new ArrayList<>();
-            List<Map<String, Object>> updateMaps = new ArrayList<>();
-            List<String> updateIds = new ArrayList<>();
-
-            for (int i = 0; i < objects.size(); i++) {
-                JSONObject jsonObject = objects.getJSONObject(i);
-                String id = jsonObject.getString("Id");
-                
-                Map<String, Object> recordMap = new HashMap<>();
-                for (String key : jsonObject.keySet()) {
-                    recordMap.put(key, jsonObject.get(key));
-                }
-
-                if (existsIds.contains(id)) {
-                    updateMaps.add(recordMap);
-                    updateIds.add(id);
-                } else {
-                    insertMaps.add(recordMap);
-                }
+            if (batchSlot >= 0) {
+                objectRegistryService.ensurePartitions(api, yearGroups.keySet());
             }
 
-            if (!insertMaps.isEmpty()) {
-                List<String> keys = new ArrayList<>(insertMaps.get(0).keySet());
-                List<Collection<Object>> values = new ArrayList<>();
-                
-                for (Map<String, Object> recordMap : insertMaps) {
-                    List<Object> rowValues = new ArrayList<>();
-                    for (String key : keys) {
-                        rowValues.add(recordMap.get(key));
-                    }
-                    values.add(rowValues);
-                }
-
-                if (isPartitioned && partitionName != null) {
-                    customMapper.saveBatchToPartition(api, partitionName, keys, values);
-                    log.info("成功插入 {} 条记录到分区表 {} 的分区 {}", values.size(), api, partitionName);
-                } else {
-                    customMapper.saveBatch(api, keys, values);
-                    log.info("成功插入 {} 条记录到表 {}", values.size(), api);
-                }
-                count += values.size();
+            // 没有对应分区的记录不指定分区，由数据库按分区键路由
+            Map<String, List<Object[]>> groups = new LinkedHashMap<>();
+            for (Map.Entry<Integer, List<Object[]>> entry : yearGroups.entrySet()) {
+                String partitionName = entry.getKey() > 0 ? TableLayout.partitionName(entry.getKey()) : null;
+                groups.computeIfAbsent(layout.hasPartition(partitionName) ? partitionName : null, k -> new ArrayList<>()).addAll(entry.getValue());
             }
 
-            if (!updateMaps.isEmpty()) {
-                for (int i = 0; i < updateMaps.size(); i++) {
-                    Map<String, Object> recordMap = updateMaps.get(i);
-                    String id = updateIds.get(i);
-                    
-                    List<Map<String, Object>> maps = new ArrayList<>();
-                    for (Map.Entry<String, Object> entry : recordMap.entrySet()) {
-                        Map<String, Object> paramMap = new HashMap<>();
-                        paramMap.put("key", entry.getKey());
-                        paramMap.put("value", entry.getValue());
-                        maps.add(paramMap);
-                    }
-
-                    if (isPartitioned && partitionName != null) {
-                        customMapper.updateByIdFromPartition(api, partitionName, maps, id);
+            for (Map.Entry<String, List<Object[]>> entry : groups.entrySet()) {
+                List<Object[]> groupRows = entry.getValue();
+                int[] slots = objectRegistryService.resolveSlots(api, plan, groupRows);
+                List<String> keys = plan.columnsOf(slots);
+                List<Collection<Object>> values = plan.valuesOf(groupRows, slots);
+
+                // PostgreSQL 系单条语句的绑定参数有上限，宽表按字段数拆分写入
+                int sliceSize = objectRegistryService.getDialect().maxBatchRows(keys.size());
+                for (int from = 0; from < values.size(); from += sliceSize) {
+                    List<Collection<Object>> slice = values.subList(from, Math.min(from + sliceSize, values.size()));
+                    int existing = statisticsService.countExisting(api, keys, slice);
+                    if (entry.getKey() != null) {
+                        customMapper.upsertBatchToPartition(api, entry.getKey(), keys, slice);
                     } else {
-                        customMapper.updateById(api, maps, id);
+                        customMapper.upsertBatch(api, keys, slice);
                     }
+                    statisticsService.recordUpsert(api, slice.size(), existing);
+                }
+                if (entry.getKey() != null) {
+                    log.info("成功写入 {} 条记录到分区表 {} 的分区 {}", values.size(), api, entry.getKey());
+                } else {
+                    log.info("成功写入 {} 条记录到表 {}", values.size(), api);
                 }
-                log.info("成功更新 {} 条记录到表 {}", updateMaps.size(), api);
-                count += updateMaps.size();
             }
-            
         } catch (Exception e) {
             log.error("处理API {} 的查询结果时发生异常", api, e);
             throw new RuntimeException("处理查询结果失败: " + e.getMessage(), e);
         }
 
-        return count;
+        return rows.size();
     }
 
-
-
     /**
-     * 检查表是否已分区
+     * 根据批次字段值确定分区年份
      *
-     * @param tableName 表名
-     * @return 是否已分区
+     * @param dateValue 批次字段值
+     * @return 年份，批次字段为空时返回-1
      */
-    private boolean checkIfTablePartitioned(String tableName) {
-        Boolean isPartitioned = customMapper.isPartitioned(tableName);
-        return (isPartitioned != null) ? isPartitioned : false;
+    private int resolvePartitionYear(Object dateValue) {
+        if (dateValue instanceof LocalDateTime dateTime) {
+            return dateTime.getYear();
+        } else if (dateValue instanceof LocalDate date) {
+            return date.getYear();
+        }
+        return -1;
     }
 
     /**
-     * 根据批次字段和数据构建分区名
+     * 构建批次数据在本地表中的过滤条件
      *
-     * @param batchField 批次字段名
-     * @param objects 数据对象数组
-     * @return 分区名（如p2025）
+     * @param batch 批次
+     * @return 过滤条件，批次未设置时间范围时返回空字符串
      */
-    private String buildPartitionName(String batchField, JSONArray objects) {
-        String partitionName = "p_default";
-        
-        if (StringUtils.isNotEmpty(batchField) && !objects.isEmpty()) {
-            JSONObject firstRecord = objects.getJSONObject(0);
-            Object dateValue = firstRecord.get(batchField);
-            
-            if (dateValue instanceof Date) {
-                Calendar calendar = Calendar.getInstance();
-                calendar.setTime((Date) dateValue);
-                int year = calendar.get(Calendar.YEAR);
-                partitionName = "p" + year;
-            }
+    private String buildBatchCondition(DataiIntegrationBatch batch) {
+        String batchField = batch.getBatchField();
+        if (StringUtils.isBlank(batchField)) {
+            return "";
         }
-        
-        return partitionName;
+        List<String> clauses = new ArrayList<>();
+        if (batch.getSyncStartDate() != null) {
+            clauses.add("`" + batchField.trim() + "` >= '" + batch.getSyncStartDate().format(BATCH_CONDITION_FORMATTER) + "'");
+        }
+        if (batch.getSyncEndDate() != null) {
+            clauses.add("`" + batchField.trim() + "` <= '" + batch.getSyncEndDate().format(BATCH_CONDITION_FORMATTER) + "'");
+        }
+        return String.join(" AND ", clauses);
     }
 
     /**
@@ -1042,152 +1118,62 @@ public class DataiIntegrationBatchServiceImpl implements IDataiIntegrationBatchS
 
             log.info("准备插入批次 {} 的对象 {} 数据到目标系统", id, objectApi);
 
-            IPartnerV1Connection targetConnection = null;
-            try {
-                targetConnection = soapConnectionFactory.getConnection(targetOrgType);
-                if (targetConnection == null) {
-                    log.error("无法获取目标系统连接，ORG类型: {}", targetOrgType);
-                    result.put("success", false);
-                    result.put("message", "无法获取目标系统连接");
-                    return result;
-                }
-
-                DescribeSObjectResult objDetail = targetConnection.describeSObject(objectApi);
-                if (objDetail == null) {
-                    log.error("目标系统不存在该对象，对象API: {}", objectApi);
-                    result.put("success", false);
-                    result.put("message", "目标系统不存在该对象: " + objectApi);
-                    return result;
-                }
-
-                String batchField = batch.getBatchField();
-                String whereClause = "";
-                if (batchField != null && !batchField.trim().isEmpty()) {
-                    whereClause = "WHERE " + batchField.trim() + " = '" + batch.getBatchValue() + "'";
-                }
+            // 连接由连接工厂缓存复用，推送完成后不登出
+            IPartnerV1Connection targetConnection = soapConnectionFactory.getConnection(targetOrgType);
+            if (targetConnection == null) {
+                log.error("无法获取目标系统连接，ORG类型: {}", targetOrgType);
+                result.put("success", false);
+                result.put("message", "无法获取目标系统连接");
+                return result;
+            }
 
-                log.info("开始查询本地批次数据，表名: {}, 条件: {}", tableName, whereClause);
-                List<Map<String, Object>> dataList = customMapper.list("*", tableName, whereClause);
+            DescribeSObjectResult objDetail = targetConnection.describeSObject(objectApi);
+            if (objDetail == null) {
+                log.error("目标系统不存在该对象，对象API: {}", objectApi);
+                result.put("success", false);
+                result.put("message", "目标系统不存在该对象: " + objectApi);
+                return result;
+            }
 
-                if (dataList == null || dataList.isEmpty()) {
-                    log.warn("本地批次没有数据，表名: {}, 条件: {}", tableName, whereClause);
-                    result.put("success", false);
-                    result.put("message", "本地批次没有数据");
+            String condition = buildBatchCondition(batch);
+            log.info("开始推送本地批次数据，表名: {}, 条件: {}", tableName, condition);
+            Map<String, Object> pushResult = batchPushService.insertRecords(targetConnection, objDetail, tableName, condition);
+
+            int totalCount = (Integer) pushResult.get("totalCount");
+            if (totalCount == 0) {
+                // 只推送 new_id 为空的记录，重复执行已全部插入的批次时视为成功
+                Integer batchRows = customMapper.countBySQL(tableName, condition);
+                if (batchRows != null && batchRows > 0) {
+                    log.info("批次记录已全部插入，无需重复推送，批次ID: {}, 表名: {}, 记录数: {}", id, tableName, batchRows);
+                    result.put("success", true);
+                    result.put("message", "批次数据已全部插入，无需重复推送");
+                    result.put("batchId", id);
+                    result.put("api", objectApi);
+                    result.put("targetOrgType", targetOrgType);
+                    result.putAll(pushResult);
+                    result.put("duration", System.currentTimeMillis() - startTime);
                     return result;
                 }
+                log.warn("本地批次没有数据，表名: {}, 条件: {}", tableName, condition);
+                result.put("success", false);
+                result.put("message", "本地批次没有数据");
+                return result;
+            }
 
-                log.info("查询到 {} 条本地批次数据，准备插入到目标系统", dataList.size());
-
-                int successCount = 0;
-                int failureCount = 0;
-                List<Map<String, Object>> failedRecords = new ArrayList<>();
-
-                for (int i = 0; i < dataList.size(); i++) {
-                    Map<String, Object> dataMap = dataList.get(i);
-                    try {
-                        String localId = (String) dataMap.get("id");
-                        if (localId == null || localId.isEmpty()) {
-                            log.warn("记录ID为空，跳过该记录，索引: {}", i);
-                            failureCount++;
-                            Map<String, Object> failedRecord = new HashMap<>();
-                            failedRecord.put("index", i);
-                            failedRecord.put("reason", "记录ID为空");
-                            failedRecords.add(failedRecord);
-                            continue;
-                        }
-
-                        Map<String, Object> fieldsToInsert = new HashMap<>();
-                        for (String key : dataMap.keySet()) {
-                            if (!"id".equalsIgnoreCase(key) && !"new_id".equalsIgnoreCase(key) && 
-                                !"is_insert".equalsIgnoreCase(key) && !"is_update".equalsIgnoreCase(key) && 
-                                dataMap.get(key) != null) {
-                                fieldsToInsert.put(key, dataMap.get(key));
-                            }
-                        }
-
-                        if (fieldsToInsert.isEmpty()) {
-                            log.warn("记录没有需要插入的字段，跳过该记录，ID: {}", localId);
-                            continue;
-                        }
-
-                        SObject sObject = new SObject();
-                        sObject.setType(objectApi);
-                        for (Map.Entry<String, Object> entry : fieldsToInsert.entrySet()) {
-                            sObject.setField(entry.getKey(), entry.getValue());
-                        }
-
-                        SaveResult[] saveResults = targetConnection.create(new SObject[]{sObject});
-                        if (saveResults != null && saveResults.length > 0 && saveResults[0].isSuccess()) {
-                            String newId = saveResults[0].getId();
-                            
-                            List<Map<String, Object>> updateMaps = new ArrayList<>();
-                            Map<String, Object> newIdMap = new HashMap<>();
-                            newIdMap.put("key", "new_id");
-                            newIdMap.put("value", newId);
-                            updateMaps.add(newIdMap);
-                            
-                            Map<String, Object> isInsertMap = new HashMap<>();
-                            isInsertMap.put("key", "is_insert");
-                            isInsertMap.put("value", 1);
-                            updateMaps.add(isInsertMap);
-                            
-                            customMapper.updateById(tableName, updateMaps, localId);
-                            
-                            successCount++;
-                            log.debug("记录插入成功，本地ID: {}, 新ID: {}", localId, newId);
-                        } else {
-                            String errorMsg = saveResults != null && saveResults.length > 0 ? 
-                                saveResults[0].getErrors()[0].getMessage() : "未知错误";
-                            log.error("记录插入失败，本地ID: {}, 错误: {}", localId, errorMsg);
-                            failureCount++;
-                            Map<String, Object> failedRecord = new HashMap<>();
-                            failedRecord.put("index", i);
-                            failedRecord.put("localId", localId);
-                            failedRecord.put("reason", errorMsg);
-                            failedRecords.add(failedRecord);
-                        }
-
-                        if ((i + 1) % 100 == 0) {
-                            log.info("已插入 {}/{} 条记录", i + 1, dataList.size());
-                        }
-
-                    } catch (Exception e) {
-                        log.error("插入记录失败，索引: {}, 错误: {}", i, e.getMessage());
-                        failureCount++;
-                        Map<String, Object> failedRecord = new HashMap<>();
-                        failedRecord.put("index", i);
-                        failedRecord.put("reason", e.getMessage());
-                        failedRecords.add(failedRecord);
-                    }
-                }
-
-                long endTime = System.currentTimeMillis();
-                long duration = endTime - startTime;
+            long endTime = System.currentTimeMillis();
+            long duration = endTime - startTime;
 
-                result.put("success", true);
-                result.put("message", "批次数据插入完成");
-                result.put("batchId", id);
-                result.put("api", objectApi);
-                result.put("label", batch.getLabel());
-                result.put("targetOrgType", targetOrgType);
-                result.put("totalCount", dataList.size());
-                result.put("successCount", successCount);
-                result.put("failureCount", failureCount);
-                result.put("duration", duration);
-                result.put("failedRecords", failedRecords);
+            result.put("success", true);
+            result.put("message", "批次数据插入完成");
+            result.put("batchId", id);
+            result.put("api", objectApi);
+            result.put("label", batch.getLabel());
+            result.put("targetOrgType", targetOrgType);
+            result.putAll(pushResult);
+            result.put("duration", duration);
 
-                log.info("批次数据插入完成，批次ID: {}, 对象API: {}, 总数: {}, 成功: {}, 失败: {}, 耗时: {}ms",
-                    id, objectApi, dataList.size(), successCount, failureCount, duration);
-
-            } finally {
-                if (targetConnection != null) {
-                    try {
-                        targetConnection.logout();
-                    } catch (Exception e) {
-                        log.error("关闭目标系统连接失败", e);
-                    }
-                }
-            }
+            log.info("批次数据插入完成，批次ID: {}, 对象API: {}, 总数: {}, 成功: {}, 失败: {}, 耗时: {}ms",
+                id, objectApi, totalCount, pushResult.get("successCount"), pushResult.get("failureCount"), duration);
 
         } catch (Exception e) {
             log.error("插入批次数据到目标系统失败，批次ID: {}", id, e);
@@ -1245,141 +1231,49 @@ public class DataiIntegrationBatchServiceImpl implements IDataiIntegrationBatchS
 
             log.info("准备更新批次 {} 的对象 {} 数据到目标系统", id, objectApi);
 
-            IPartnerV1Connection targetConnection = null;
-            try {
-                targetConnection = soapConnectionFactory.getConnection(targetOrgType);
-                if (targetConnection == null) {
-                    log.error("无法获取目标系统连接，ORG类型: {}", targetOrgType);
-                    result.put("success", false);
-                    result.put("message", "无法获取目标系统连接");
-                    return result;
-                }
-
-                DescribeSObjectResult objDetail = targetConnection.describeSObject(objectApi);
-                if (objDetail == null) {
-                    log.error("目标系统不存在该对象，对象API: {}", objectApi);
-                    result.put("success", false);
-                    result.put("message", "目标系统不存在该对象: " + objectApi);
-                    return result;
-                }
-
-                String batchField = batch.getBatchField();
-                String whereClause = "";
-                if (batchField != null && !batchField.trim().isEmpty()) {
-                    whereClause = "WHERE " + batchField.trim() + " = '" + batch.getBatchValue() + "'";
-                }
-
-                log.info("开始查询本地批次数据，表名: {}, 条件: {}", tableName, whereClause);
-                List<Map<String, Object>> dataList = customMapper.list("*", tableName, whereClause);
-
-                if (dataList == null || dataList.isEmpty()) {
-                    log.warn("本地批次没有数据，表名: {}, 条件: {}", tableName, whereClause);
-                    result.put("success", false);
-                    result.put("message", "本地批次没有数据");
-                    return result;
-                }
+            // 连接由连接工厂缓存复用，推送完成后不登出
+            IPartnerV1Connection targetConnection = soapConnectionFactory.getConnection(targetOrgType);
+            if (targetConnection == null) {
+                log.error("无法获取目标系统连接，ORG类型: {}", targetOrgType);
+                result.put("success", false);
+                result.put("message", "无法获取目标系统连接");
+                return result;
+            }
 
-                log.info("查询到 {} 条本地批次数据，准备更新到目标系统", dataList.size());
-
-                int successCount = 0;
-                int failureCount = 0;
-                List<Map<String, Object>> failedRecords = new ArrayList<>();
-
-                for (int i = 0; i < dataList.size(); i++) {
-                    Map<String, Object> dataMap = dataList.get(i);
-                    try {
-                        String localId = (String) dataMap.get("id");
-                        String newId = (String) dataMap.get("new_id");
-                        
-                        if (localId == null || localId.isEmpty()) {
-                            log.warn("记录ID为空，跳过该记录，索引: {}", i);
-                            failureCount++;
-                            Map<String, Object> failedRecord = new HashMap<>();
-                            failedRecord.put("index", i);
-                            failedRecord.put("reason", "记录ID为空");
-                            failedRecords.add(failedRecord);
-                            continue;
-                        }
-
-                        if (newId == null || newId.isEmpty()) {
-                            log.warn("记录new_id为空，跳过该记录，本地ID: {}", localId);
-                            failureCount++;
-                            Map<String, Object> failedRecord = new HashMap<>();
-                            failedRecord.put("index", i);
-                            failedRecord.put("localId", localId);
-                            failedRecord.put("reason", "new_id为空，请先执行插入操作");
-                            failedRecords.add(failedRecord);
-                            continue;
-                        }
-
-                        Map<String, Object> fieldsToUpdate = new HashMap<>();
-                        for (String key : dataMap.keySet()) {
-                            if (!"id".equalsIgnoreCase(key) && !"new_id".equalsIgnoreCase(key) && 
-                                !"is_insert".equalsIgnoreCase(key) && !"is_update".equalsIgnoreCase(key) && 
-                                dataMap.get(key) != null) {
-                                fieldsToUpdate.put(key, dataMap.get(key));
-                            }
-                        }
-
-                        if (fieldsToUpdate.isEmpty()) {
-                            log.warn("记录没有需要更新的字段，跳过该记录，本地ID: {}", localId);
-                            continue;
-                        }
-
-                        targetConnection.update(objectApi, newId, fieldsToUpdate);
-                        
-                        List<Map<String, Object>> updateMaps = new ArrayList<>();
-                        Map<String, Object> isUpdateMap = new HashMap<>();
-                        isUpdateMap.put("key", "is_update");
-                        isUpdateMap.put("value", 1);
-                        updateMaps.add(isUpdateMap);
-                        
-                        customMapper.updateById(tableName, updateMaps, localId);
-                        
-                        successCount++;
-                        log.debug("记录更新成功，本地ID: {}, 目标ID: {}", localId, newId);
-
-                        if ((i + 1) % 100 == 0) {
-                            log.info("已更新 {}/{} 条记录", i + 1, dataList.size());
-                        }
-
-                    } catch (Exception e) {
-                        log.error("更新记录失败，索引: {}, 错误: {}", i, e.getMessage());
-                        failureCount++;
-                        Map<String, Object> failedRecord = new HashMap<>();
-                        failedRecord.put("index", i);
-                        failedRecord.put("reason", e.getMessage());
-                        failedRecords.add(failedRecord);
-                    }
-                }
+            DescribeSObjectResult objDetail = targetConnection.describeSObject(objectApi);
+            if (objDetail == null) {
+                log.error("目标系统不存在该对象，对象API: {}", objectApi);
+                result.put("success", false);
+                result.put("message", "目标系统不存在该对象: " + objectApi);
+                return result;
+            }
 
-                long endTime = System.currentTimeMillis();
-                long duration = endTime - startTime;
+            String condition = buildBatchCondition(batch);
+            log.info("开始推送本地批次数据，表名: {}, 条件: {}", tableName, condition);
+            Map<String, Object> pushResult = batchPushService.updateRecords(targetOrgType, targetConnection, objDetail, tableName, condition);
 
-                result.put("success", true);
-                result.put("message", "批次数据更新完成");
-                result.put("batchId", id);
-                result.put("api", objectApi);
-                result.put("label", batch.getLabel());
-                result.put("targetOrgType", targetOrgType);
-                result.put("totalCount", dataList.size());
-                result.put("successCount", successCount);
-                result.put("failureCount", failureCount);
-                result.put("duration", duration);
-                result.put("failedRecords", failedRecords);
+            int totalCount = (Integer) pushResult.get("totalCount");
+            if (totalCount == 0) {
+                log.warn("本地批次没有数据，表名: {}, 条件: {}", tableName, condition);
+                result.put("success", false);
+                result.put("message", "本地批次没有数据");
+                return result;
+            }
 
-                log.info("批次数据更新完成，批次ID: {}, 对象API: {}, 总数: {}, 成功: {}, 失败: {}, 耗时: {}ms",
-                    id, objectApi, dataList.size(), successCount, failureCount, duration);
+            long endTime = System.currentTimeMillis();
+            long duration = endTime - startTime;
 
-            } finally {
-                if (targetConnection != null) {
-                    try {
-                        targetConnection.logout();
-                    } catch (Exception e) {
-                        log.error("关闭目标系统连接失败", e);
-                    }
-                }
-            }
+            result.put("success", true);
+            result.put("message", "批次数据更新完成");
+            result.put("batchId", id);
+            result.put("api", objectApi);
+            result.put("label", batch.getLabel());
+            result.put("targetOrgType", targetOrgType);
+            result.putAll(pushResult);
+            result.put("duration", duration);
+
+            log.info("批次数据更新完成，批次ID: {}, 对象API: {}, 总数: {}, 成功: {}, 失败: {}, 耗时: {}ms",
+                id, objectApi, totalCount, pushResult.get("successCount"), pushResult.get("failureCount"), duration);
 
         } catch (Exception e) {
             log.error("更新批次数据到目标系统失败，批次ID: {}", id, e);
@@ -1,6 +1,7 @@
 package com.datai.integration.service.impl;
 
 import java.util.HashSet;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
@@ -68,6 +69,32 @@ public class DataiIntegrationFieldServiceImpl implements IDataiIntegrationFieldS
             return dataiIntegrationFieldMapper.insertDataiIntegrationField(dataiIntegrationField);
     }
 
+    /**
+     * 批量新增对象字段信息
+     *
+     * @param list 对象字段信息集合
+     * @return 结果
+     */
+    @Override
+    public int insertDataiIntegrationFieldBatch(List<DataiIntegrationField> list)
+    {
+        if (list == null || list.isEmpty())
+        {
+            return 0;
+        }
+        LoginUser loginUser = SecurityUtils.getLoginUser();
+        String username = loginUser.getUsername();
+        Date now = DateUtils.getNowDate();
+        for (DataiIntegrationField item : list)
+        {
+            item.setCreateTime(now);
+            item.setUpdateTime(now);
+            item.setCreateBy(username);
+            item.setUpdateBy(username);
+        }
+        return dataiIntegrationFieldMapper.insertDataiIntegrationFieldBatch(list);
+    }
+
     /**
      * 修改对象字段信息
      *
@@ -1,5 +1,6 @@
 package com.datai.integration.service.impl;
 
+import java.util.Date;
 import java.util.List;
 import com.datai.common.utils.DateUtils;
 import com.datai.common.utils.SecurityUtils;
@@ -65,6 +66,44 @@ public class DataiIntegrationFilterLookupServiceImpl implements IDataiIntegratio
             return dataiIntegrationFilterLookupMapper.insertDataiIntegrationFilterLookup(dataiIntegrationFilterLookup);
     }
 
+    /**
+     * 批量新增字段过滤查找信息
+     *
+     * @param list 字段过滤查找信息集合
+     * @return 结果
+     */
+    @Override
+    public int insertDataiIntegrationFilterLookupBatch(List<DataiIntegrationFilterLookup> list)
+    {
+        if (list == null || list.isEmpty())
+        {
+            return 0;
+        }
+        LoginUser loginUser = SecurityUtils.getLoginUser();
+        String username = loginUser.getUsername();
+        Date now = DateUtils.getNowDate();
+        for (DataiIntegrationFilterLookup item : list)
+        {
+            item.setCreateTime(now);
+            item.setUpdateTime(now);
+            item.setCreateBy(username);
+            item.setUpdateBy(username);
+        }
+        return dataiIntegrationFilterLookupMapper.insertDataiIntegrationFilterLookupBatch(list);
+    }
+
+    /**
+     * 删除对象下的全部字段过滤查找信息
+     *
+     * @param api 对象API名称
+     * @return 结果
+     */
+    @Override
+    public int deleteDataiIntegrationFilterLookupByApi(String api)
+    {
+        return dataiIntegrationFilterLookupMapper.deleteDataiIntegrationFilterLookupByApi(api);
+    }
+
     /**
      * 修改字段过滤查找信息
      *
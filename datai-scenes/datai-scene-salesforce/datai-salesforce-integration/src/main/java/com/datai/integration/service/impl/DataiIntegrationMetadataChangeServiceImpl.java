@@ -9,19 +9,20 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import com.datai.common.utils.DateUtils;
 import com.datai.common.utils.SecurityUtils;
-import com.datai.common.utils.CacheUtils;
 import com.datai.integration.core.PartnerV1Connection;
 import com.datai.integration.factory.impl.SOAPConnectionFactory;
 import com.datai.integration.core.IPartnerV1Connection;
 import com.datai.integration.mapper.CustomMapper;
 import com.datai.integration.model.domain.DataiIntegrationBatch;
 import com.datai.integration.util.ConvertUtil;
+import com.datai.integration.util.SqlDialect;
 import com.datai.salesforce.common.utils.SoqlBuilder;
 import com.sforce.soap.partner.*;
 import com.sforce.soap.partner.sobject.SObject;
 import com.sforce.ws.ConnectionException;
 import com.datai.setting.config.SalesforceConfigCacheManager;
 import com.datai.setting.future.SalesforceExecutor;
+import com.datai.setting.future.SalesforceTaskLane;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -36,6 +37,10 @@ import com.datai.integration.service.IDataiIntegrationFieldService;
 import com.datai.integration.service.IDataiIntegrationPicklistService;
 import com.datai.integration.service.IDataiIntegrationFilterLookupService;
 import com.datai.integration.service.IDataiIntegrationBatchService;
+import com.datai.integration.service.ISalesforceBatchPlanService;
+import com.datai.integration.service.ISalesforceObjectRegistryService;
+import com.datai.integration.service.ISalesforceDescribeService;
+import com.datai.integration.service.ISalesforceStatisticsService;
 import com.datai.setting.service.IDataiConfigurationService;
 import com.datai.salesforce.common.constant.SalesforceConfigConstants;
 import com.datai.common.core.domain.model.LoginUser;
@@ -54,6 +59,16 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
      */
     private static final int LARGE_OBJECT_THRESHOLD = 5000000;
 
+    /**
+     * 字段、选择列表与变更记录多行插入的批量大小
+     */
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * 元数据变更拉取使用的对象描述摘要范围
+     */
+    private static final String METADATA_HASH_SCOPE = "metadata";
+
     @Autowired
     private DataiIntegrationMetadataChangeMapper dataiIntegrationMetadataChangeMapper;
 
@@ -87,6 +102,18 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
     @Autowired
     private SalesforceExecutor salesforceExecutor;
 
+    @Autowired
+    private ISalesforceDescribeService describeService;
+
+    @Autowired
+    private ISalesforceBatchPlanService batchPlanService;
+
+    @Autowired
+    private ISalesforceObjectRegistryService objectRegistryService;
+
+    @Autowired
+    private ISalesforceStatisticsService statisticsService;
+
     /**
      * 查询对象元数据变更
      *
@@ -136,6 +163,32 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
         return dataiIntegrationMetadataChangeMapper.insertDataiIntegrationMetadataChange(dataiIntegrationMetadataChange);
     }
 
+    /**
+     * 批量新增对象元数据变更
+     *
+     * @param list 对象元数据变更集合
+     * @return 结果
+     */
+    @Override
+    public int insertDataiIntegrationMetadataChangeBatch(List<DataiIntegrationMetadataChange> list)
+    {
+        if (list == null || list.isEmpty())
+        {
+            return 0;
+        }
+        LoginUser loginUser = SecurityUtils.getLoginUser();
+        String username = loginUser.getUsername();
+        Date now = DateUtils.getNowDate();
+        for (DataiIntegrationMetadataChange item : list)
+        {
+            item.setCreateTime(now);
+            item.setUpdateTime(now);
+            item.setCreateBy(username);
+            item.setUpdateBy(username);
+        }
+        return dataiIntegrationMetadataChangeMapper.insertDataiIntegrationMetadataChangeBatch(list);
+    }
+
     /**
      * 修改对象元数据变更
      *
@@ -517,7 +570,7 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
                     failCount.incrementAndGet();
                     processedCount.incrementAndGet();
                 }
-            }, 1, index);
+            }, 1, index, SalesforceTaskLane.REALTIME, "source", null);
 
             futures.add(future);
         }
@@ -842,6 +895,14 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
             failReasonField.put("comment", "失败原因");
             fieldDefinitions.add(failReasonField);
 
+            // 字段类型按MySQL生成，其他数据库转换为对应类型
+            SqlDialect dialect = objectRegistryService.getDialect();
+            if (dialect.isPostgresLike()) {
+                for (Map<String, Object> fieldDef : fieldDefinitions) {
+                    fieldDef.put("type", dialect.columnType((String) fieldDef.get("type")));
+                }
+            }
+
             // 构建索引定义 - 只为TABLE_INDEX列表中的字段创建索引
             List<Map<String, Object>> indexDefinitions = new ArrayList<>();
             for (String field : fields) {
@@ -860,6 +921,7 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
             } else {
                 // 创建普通表
                 customMapper.createTable(objectApi, objectLabel, fieldDefinitions, indexDefinitions);
+                objectRegistryService.registerTable(objectApi, Collections.emptyList(), collectColumnNames(fieldDefinitions));
                 log.info("成功创建表结构: {}", objectApi);
                 result.put("success", true);
                 result.put("message", "表创建成功");
@@ -885,7 +947,7 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
             }
 
             // 从缓存获取系统数据开始时间
-            String systemDataStartTimeStr = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "system.data.start.time", String.class);
+            String systemDataStartTimeStr = salesforceConfigCacheManager.getConfigValue("system.data.start.time");
             int startYear = SalesforceConfigConstants.DEFAULT_SYSTEM_DATA_START_YEAR;
 
             if (systemDataStartTimeStr != null && !systemDataStartTimeStr.trim().isEmpty()) {
@@ -930,6 +992,11 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
                     partitionKey,
                     partitions
             );
+            List<String> partitionNames = new ArrayList<>(partitions.size());
+            for (Map<String, Object> partition : partitions) {
+                partitionNames.add(String.valueOf(partition.get("name")));
+            }
+            objectRegistryService.registerTable(objectApi, partitionNames, collectColumnNames(fieldDefinitions));
 
             log.info("成功创建分区表结构: {}, 分区起始年份: {}", objectApi, startYear);
             result.put("success", true);
@@ -942,6 +1009,17 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
         }
     }
 
+    /**
+     * 从表字段定义中取出列名
+     */
+    private List<String> collectColumnNames(List<Map<String, Object>> fieldDefinitions) {
+        List<String> columnNames = new ArrayList<>(fieldDefinitions.size());
+        for (Map<String, Object> fieldDefinition : fieldDefinitions) {
+            columnNames.add(String.valueOf(fieldDefinition.get("name")));
+        }
+        return columnNames;
+    }
+
 //    private void updateDatabaseTable(String objectApi, String objectLabel, Map<String, Object> result) {
 //        IPartnerV1Connection connection = null;
 //        try {
@@ -987,6 +1065,8 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
         try {
             String dropTableSql = "DROP TABLE IF EXISTS " + objectApi;
             customMapper.executeUpdate(dropTableSql);
+            objectRegistryService.invalidate(objectApi);
+            statisticsService.evict(objectApi);
             log.info("成功删除表: {}", objectApi);
         } catch (Exception e) {
             result.put("success", false);
@@ -1009,10 +1089,11 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
 
             for (com.sforce.soap.partner.Field field : objDetail.getFields()) {
                 if (fieldApi.equals(field.getName())) {
-                    String mysqlType = ConvertUtil.fieldTypeToMysql(field);
+                    String columnType = objectRegistryService.getDialect().columnType(ConvertUtil.fieldTypeToMysql(field));
 
-                    customMapper.addField(objectApi, fieldApi, mysqlType, field.isNillable());
-                    log.info("成功添加字段: {}.{} 类型: {}", objectApi, fieldApi, mysqlType);
+                    customMapper.addField(objectApi, fieldApi, columnType, field.isNillable());
+                    objectRegistryService.addColumn(objectApi, fieldApi);
+                    log.info("成功添加字段: {}.{} 类型: {}", objectApi, fieldApi, columnType);
                     return;
                 }
             }
@@ -1045,10 +1126,10 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
 
             for (com.sforce.soap.partner.Field field : objDetail.getFields()) {
                 if (fieldApi.equals(field.getName())) {
-                    String mysqlType = ConvertUtil.fieldTypeToMysql(field);
+                    String columnType = objectRegistryService.getDialect().columnType(ConvertUtil.fieldTypeToMysql(field));
 
-                    customMapper.modifyField(objectApi, fieldApi, mysqlType, field.isNillable());
-                    log.info("成功修改字段: {}.{} 类型: {}", objectApi, fieldApi, mysqlType);
+                    customMapper.modifyField(objectApi, fieldApi, columnType, field.isNillable());
+                    log.info("成功修改字段: {}.{} 类型: {}", objectApi, fieldApi, columnType);
                     return;
                 }
             }
@@ -1070,6 +1151,7 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
     private void dropDatabaseColumn(String objectApi, String fieldApi, Map<String, Object> result) {
         try {
             customMapper.dropField(objectApi, fieldApi);
+            objectRegistryService.dropColumn(objectApi, fieldApi);
             log.info("成功删除字段: {}.{}", objectApi, fieldApi);
         } catch (Exception e) {
             result.put("success", false);
@@ -1110,139 +1192,156 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
             Set<String> syncedObjectApis = new HashSet<>();
             int objectChangeCount = 0; // 记录对象变更数量
             int fieldChangeCount = 0;  // 记录字段变更数量
+            int skippedCount = 0;      // 记录元数据未变化而跳过的对象数量
 
-            // 遍历所有Salesforce对象
+            // 筛选需要同步的对象（满足查询、创建、更新或删除任一条件），按组批量获取详细描述信息
+            List<String> objectApis = new ArrayList<>();
             for (DescribeGlobalSObjectResult sObject : sObjects) {
-                try {
-                    String objectApi = sObject.getName();
-
-                    // 检查对象是否需要同步（满足查询、创建、更新或删除任一条件）
-                    if (shouldSyncObject(sObject)) {
-                        // 获取对象的详细描述信息
-                        DescribeSObjectResult objDetail = connection.describeSObject(objectApi);
-
-                        // 查询数据库中是否已存在该对象
-                        DataiIntegrationObject queryObject = new DataiIntegrationObject();
-                        queryObject.setApi(objectApi);
-                        List<DataiIntegrationObject> existingObjects = dataiIntegrationObjectService.selectDataiIntegrationObjectList(queryObject);
-
-                        // 构建当前对象的元数据信息
-                        DataiIntegrationObject newObject = buildObjectMetadata(objDetail);
-                        boolean hasFieldChange = false; // 标记该对象是否有字段变更
-
-                        // 判断对象是否为新增
-                        if (existingObjects.isEmpty()) {
-                            // 新增对象到数据库
-                            dataiIntegrationObjectService.insertDataiIntegrationObject(newObject);
-                            // 记录对象新增变更
-                            recordObjectChange(newObject, null, "INSERT");
-                            objectChangeCount++;
-                            log.info("新增对象并记录变更: {}", objectApi);
-                            // 重新查询以获取新插入对象的ID
-                            existingObjects = dataiIntegrationObjectService.selectDataiIntegrationObjectList(queryObject);
-                            if (!existingObjects.isEmpty()) {
-                                newObject.setId(existingObjects.get(0).getId());
-                            }
-                            // 将对象API添加到已同步集合中
-                            syncedObjectApis.add(objectApi);
-                            // 对象新增后直接跳过字段比较
-                            continue;
-                        }
+                if (shouldSyncObject(sObject)) {
+                    objectApis.add(sObject.getName());
+                }
+            }
+            Map<String, DescribeSObjectResult> describes = describeService.describeSObjects(connection, objectApis);
+            String hashScope = describeService.resolveScope(connection, METADATA_HASH_SCOPE);
 
-                        // 对象已存在，比较新旧对象的差异
-                        DataiIntegrationObject existingObject = existingObjects.get(0);
-                        newObject.setId(existingObject.getId());
-                        List<String> changedFields = compareObjects(existingObject, newObject);
-                        if (!changedFields.isEmpty()) {
-                            // 记录对象更新变更
-                            recordObjectChange(newObject, existingObject, "UPDATE");
-                            objectChangeCount++;
-                            log.debug("记录对象更新: {} - 变更: {}", objectApi, String.join(", ", changedFields));
-                        }
+            // 一次性加载数据库中的对象与未同步的变更记录，避免逐个对象查询
+            Map<String, DataiIntegrationObject> existingObjectMap = new HashMap<>();
+            for (DataiIntegrationObject existingObject : dataiIntegrationObjectService.selectDataiIntegrationObjectList(new DataiIntegrationObject())) {
+                existingObjectMap.putIfAbsent(existingObject.getApi(), existingObject);
+            }
+            Set<String> unsyncedChangeKeys = loadUnsyncedChangeKeys(null);
 
-                        // 将对象API添加到已同步集合中
+            // 遍历需要同步的Salesforce对象
+            for (String objectApi : objectApis) {
+                try {
+                    DescribeSObjectResult objDetail = describes.get(objectApi);
+                    if (objDetail == null) {
+                        // 描述失败的对象视为仍存在，避免被误判为已删除
                         syncedObjectApis.add(objectApi);
+                        continue;
+                    }
 
-                        // 查询数据库中该对象的现有字段
-                        DataiIntegrationField queryField = new DataiIntegrationField();
-                        queryField.setApi(objectApi);
-                        List<DataiIntegrationField> existingFields = dataiIntegrationFieldService.selectDataiIntegrationFieldList(queryField);
+                    // 将对象API添加到已同步集合中
+                    syncedObjectApis.add(objectApi);
 
-                        // 将现有字段转换为Map，便于快速查找
-                        Map<String, DataiIntegrationField> existingFieldMap = new HashMap<>();
-                        for (DataiIntegrationField existingField : existingFields) {
-                            existingFieldMap.put(existingField.getField(), existingField);
-                        }
+                    // 描述与上次拉取成功时一致，变更已记录过，跳过该对象
+                    String describeHash = describeService.computeHash(objDetail);
+                    if (describeService.isUnchanged(hashScope, objectApi, describeHash)) {
+                        skippedCount++;
+                        continue;
+                    }
+
+                    // 构建当前对象的元数据信息
+                    DataiIntegrationObject newObject = buildObjectMetadata(objDetail);
+                    DataiIntegrationObject existingObject = existingObjectMap.get(objectApi);
+                    List<DataiIntegrationMetadataChange> changes = new ArrayList<>();
+                    boolean hasFieldChange = false; // 标记该对象是否有字段变更
+
+                    // 判断对象是否为新增
+                    if (existingObject == null) {
+                        // 新增对象到数据库
+                        dataiIntegrationObjectService.insertDataiIntegrationObject(newObject);
+                        // 记录对象新增变更
+                        recordObjectChange(newObject, null, "INSERT", unsyncedChangeKeys, changes);
+                        saveMetadataChanges(changes);
+                        objectChangeCount++;
+                        log.info("新增对象并记录变更: {}", objectApi);
+                        describeService.saveHash(hashScope, objectApi, describeHash);
+                        // 对象新增后直接跳过字段比较
+                        continue;
+                    }
+
+                    // 对象已存在，比较新旧对象的差异
+                    newObject.setId(existingObject.getId());
+                    List<String> changedFields = compareObjects(existingObject, newObject);
+                    if (!changedFields.isEmpty()) {
+                        // 记录对象更新变更
+                        recordObjectChange(newObject, existingObject, "UPDATE", unsyncedChangeKeys, changes);
+                        objectChangeCount++;
+                        log.debug("记录对象更新: {} - 变更: {}", objectApi, String.join(", ", changedFields));
+                    }
 
-                        // 遍历Salesforce中的所有字段
-                        for (Field field : objDetail.getFields()) {
-                            // 构建当前字段的元数据信息
-                            DataiIntegrationField newField = buildFieldMetadata(objectApi, field);
-                            // 检查字段是否已存在
-                            DataiIntegrationField existingField = existingFieldMap.get(field.getName());
+                    // 查询数据库中该对象的现有字段
+                    DataiIntegrationField queryField = new DataiIntegrationField();
+                    queryField.setApi(objectApi);
+                    List<DataiIntegrationField> existingFields = dataiIntegrationFieldService.selectDataiIntegrationFieldList(queryField);
 
-                            if (existingField == null) {
-                                // 字段为新增
+                    // 将现有字段转换为Map，便于快速查找
+                    Map<String, DataiIntegrationField> existingFieldMap = new HashMap<>();
+                    for (DataiIntegrationField existingField : existingFields) {
+                        existingFieldMap.put(existingField.getField(), existingField);
+                    }
+
+                    // 遍历Salesforce中的所有字段
+                    Set<String> describedFieldNames = new HashSet<>();
+                    for (Field field : objDetail.getFields()) {
+                        describedFieldNames.add(field.getName());
+                        // 构建当前字段的元数据信息
+                        DataiIntegrationField newField = buildFieldMetadata(objectApi, field);
+                        // 检查字段是否已存在
+                        DataiIntegrationField existingField = existingFieldMap.get(field.getName());
+
+                        if (existingField == null) {
+                            // 字段为新增
+                            recordFieldChange(objectApi, newObject.getLabel(), newField.getField(),
+                                    newField.getLabel(), null, "INSERT", "新增字段", newObject.getIsCustom(),
+                                    unsyncedChangeKeys, changes);
+                            fieldChangeCount++;
+                            hasFieldChange = true;
+                            log.debug("记录字段新增: {}.{}", objectApi, field.getName());
+                        } else {
+                            // 字段已存在，比较新旧字段的差异
+                            List<String> changedFieldProps = compareFields(existingField, newField);
+                            if (!changedFieldProps.isEmpty()) {
+                                // 记录字段更新变更
                                 recordFieldChange(objectApi, newObject.getLabel(), newField.getField(),
-                                        newField.getLabel(), null, "INSERT", "新增字段", newObject.getIsCustom());
+                                        newField.getLabel(), "字段属性变更: " + String.join(", ", changedFieldProps),
+                                        "UPDATE", "字段属性更新", newObject.getIsCustom(), unsyncedChangeKeys, changes);
                                 fieldChangeCount++;
                                 hasFieldChange = true;
-                                log.debug("记录字段新增: {}.{}", objectApi, field.getName());
-                            } else {
-                                // 字段已存在，比较新旧字段的差异
-                                List<String> changedFieldProps = compareFields(existingField, newField);
-                                if (!changedFieldProps.isEmpty()) {
-                                    // 记录字段更新变更
-                                    recordFieldChange(objectApi, newObject.getLabel(), newField.getField(),
-                                            newField.getLabel(), "字段属性变更: " + String.join(", ", changedFieldProps),
-                                            "UPDATE", "字段属性更新", newObject.getIsCustom());
-                                    fieldChangeCount++;
-                                    hasFieldChange = true;
-                                    log.debug("记录字段更新: {}.{} - 变更: {}", objectApi, field.getName(),
-                                            String.join(", ", changedFieldProps));
-                                }
+                                log.debug("记录字段更新: {}.{} - 变更: {}", objectApi, field.getName(),
+                                        String.join(", ", changedFieldProps));
                             }
                         }
+                    }
 
-                        // 检查是否有已删除的字段（在数据库中存在但在Salesforce中不存在）
-                        for (DataiIntegrationField existingField : existingFields) {
-                            boolean fieldExists = false;
-                            for (Field field : objDetail.getFields()) {
-                                if (existingField.getField().equals(field.getName())) {
-                                    fieldExists = true;
-                                    break;
-                                }
-                            }
-                            if (!fieldExists) {
-                                // 记录字段删除变更
-                                recordFieldChange(objectApi, newObject.getLabel(), existingField.getField(),
-                                        existingField.getLabel(), "字段已从Salesforce中删除",
-                                        "DELETE", "字段删除", newObject.getIsCustom());
-                                fieldChangeCount++;
-                                hasFieldChange = true;
-                                log.warn("记录字段删除: {}.{}", objectApi, existingField.getField());
-                            }
+                    // 检查是否有已删除的字段（在数据库中存在但在Salesforce中不存在）
+                    for (DataiIntegrationField existingField : existingFields) {
+                        if (!describedFieldNames.contains(existingField.getField())) {
+                            // 记录字段删除变更
+                            recordFieldChange(objectApi, newObject.getLabel(), existingField.getField(),
+                                    existingField.getLabel(), "字段已从Salesforce中删除",
+                                    "DELETE", "字段删除", newObject.getIsCustom(), unsyncedChangeKeys, changes);
+                            fieldChangeCount++;
+                            hasFieldChange = true;
+                            log.warn("记录字段删除: {}.{}", objectApi, existingField.getField());
                         }
+                    }
 
-                        // 如果该对象有字段变更，禁用其增量更新状态
-                        if (hasFieldChange && newObject.getId() != null) {
-                            DataiIntegrationObject updateObject = new DataiIntegrationObject();
-                            updateObject.setId(newObject.getId());
-                            updateObject.setIsIncremental(false); // 禁用增量更新
-                            dataiIntegrationObjectService.updateDataiIntegrationObject(updateObject);
-                            log.info("检测到字段变更，已禁用对象 {} 的增量更新状态", objectApi);
-                        }
+                    // 批量写入该对象的变更记录
+                    saveMetadataChanges(changes);
+
+                    // 如果该对象有字段变更，禁用其增量更新状态
+                    if (hasFieldChange && newObject.getId() != null) {
+                        DataiIntegrationObject updateObject = new DataiIntegrationObject();
+                        updateObject.setId(newObject.getId());
+                        updateObject.setIsIncremental(false); // 禁用增量更新
+                        dataiIntegrationObjectService.updateDataiIntegrationObject(updateObject);
+                        log.info("检测到字段变更，已禁用对象 {} 的增量更新状态", objectApi);
                     }
+
+                    // 变更已全部记录，保存本次描述摘要
+                    describeService.saveHash(hashScope, objectApi, describeHash);
                 } catch (Exception e) {
                     // 记录处理单个对象时的错误，但继续处理其他对象
-                    log.error("处理对象 {} 时出错: {}", sObject.getName(), e.getMessage(), e);
+                    log.error("处理对象 {} 时出错: {}", objectApi, e.getMessage(), e);
                 }
             }
 
             // 检查并记录已从Salesforce中删除的对象
-            checkDeletedObjectsForMetadata(syncedObjectApis);
+            checkDeletedObjectsForMetadata(syncedObjectApis, unsyncedChangeKeys);
 
-            log.info("全对象元数据变更拉取完成，对象变更: {} 个，字段变更: {} 个", objectChangeCount, fieldChangeCount);
+            log.info("全对象元数据变更拉取完成，对象变更: {} 个，字段变更: {} 个，未变化跳过 {} 个对象", objectChangeCount, fieldChangeCount, skippedCount);
 
             // 设置返回结果
             result.put("success", true);
@@ -1585,55 +1684,49 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
 
     /**
      * 记录对象元数据变更
-     * 将对象级别的变更（新增、修改、删除）记录到元数据变更表中
+     * 将对象级别的变更（新增、修改、删除）加入待写入列表，已存在相同的未同步变更时跳过
      *
      * @param newObject 新的对象元数据
      * @param oldObject 旧的对象元数据（新增操作时为null）
      * @param operationType 操作类型（INSERT、UPDATE、DELETE）
+     * @param unsyncedChangeKeys 未同步变更的去重键集合
+     * @param changes 待写入的变更列表
      */
-    private void recordObjectChange(DataiIntegrationObject newObject, DataiIntegrationObject oldObject, String operationType) {
-        try {
-            String changeReason;
-            if (oldObject != null) {
-                List<String> changedFields = compareObjects(oldObject, newObject);
-                if (!changedFields.isEmpty()) {
-                    changeReason = "对象属性变更: " + String.join(", ", changedFields);
-                } else {
-                    changeReason = "对象属性更新";
-                }
+    private void recordObjectChange(DataiIntegrationObject newObject, DataiIntegrationObject oldObject, String operationType,
+                                    Set<String> unsyncedChangeKeys, List<DataiIntegrationMetadataChange> changes) {
+        String changeReason;
+        if (oldObject != null) {
+            List<String> changedFields = compareObjects(oldObject, newObject);
+            if (!changedFields.isEmpty()) {
+                changeReason = "对象属性变更: " + String.join(", ", changedFields);
             } else {
-                changeReason = "新增对象";
-            }
-
-            int similarCount = dataiIntegrationMetadataChangeMapper.countSimilarChanges(
-                    "OBJECT", operationType, newObject.getApi(), null, changeReason);
-
-            if (similarCount > 0) {
-                log.debug("发现相似的未同步对象变更记录，跳过重复记录: {} - {}", newObject.getApi(), operationType);
-                return;
+                changeReason = "对象属性更新";
             }
+        } else {
+            changeReason = "新增对象";
+        }
 
-            DataiIntegrationMetadataChange metadataChange = new DataiIntegrationMetadataChange();
-            metadataChange.setChangeType("OBJECT");
-            metadataChange.setOperationType(operationType);
-            metadataChange.setObjectApi(newObject.getApi());
-            metadataChange.setObjectLabel(newObject.getLabel());
-            metadataChange.setChangeTime(LocalDateTime.now());
-            metadataChange.setSyncStatus(false);
-            metadataChange.setIsCustom(newObject.getIsCustom());
-            metadataChange.setChangeReason(changeReason);
-            metadataChange.setChangeUser("SYSTEM");
-
-            insertDataiIntegrationMetadataChange(metadataChange);
-            log.debug("记录对象变更成功: {} - {}", newObject.getApi(), operationType);
-        } catch (Exception e) {
-            log.error("记录对象变更失败: {} - {}", newObject.getApi(), e.getMessage(), e);
+        if (!unsyncedChangeKeys.add(buildChangeKey("OBJECT", operationType, newObject.getApi(), null, changeReason))) {
+            log.debug("发现相似的未同步对象变更记录，跳过重复记录: {} - {}", newObject.getApi(), operationType);
+            return;
         }
+
+        DataiIntegrationMetadataChange metadataChange = new DataiIntegrationMetadataChange();
+        metadataChange.setChangeType("OBJECT");
+        metadataChange.setOperationType(operationType);
+        metadataChange.setObjectApi(newObject.getApi());
+        metadataChange.setObjectLabel(newObject.getLabel());
+        metadataChange.setChangeTime(LocalDateTime.now());
+        metadataChange.setSyncStatus(false);
+        metadataChange.setIsCustom(newObject.getIsCustom());
+        metadataChange.setChangeReason(changeReason);
+        metadataChange.setChangeUser("SYSTEM");
+        changes.add(metadataChange);
     }
 
     /**
      * 记录字段元数据变更
-     * 将字段级别的变更（新增、修改、删除）记录到元数据变更表中
+     * 将字段级别的变更（新增、修改、删除）加入待写入列表，已存在相同的未同步变更时跳过
      *
      * @param objectApi 所属对象的API名称
      * @param objectLabel 所属对象的标签名称
@@ -1643,37 +1736,64 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
      * @param operationType 操作类型（INSERT、UPDATE、DELETE）
      * @param defaultReason 默认变更原因
      * @param isCustom 是否为自定义对象
+     * @param unsyncedChangeKeys 未同步变更的去重键集合
+     * @param changes 待写入的变更列表
      */
     private void recordFieldChange(String objectApi, String objectLabel, String fieldApi, String fieldLabel,
-                                   String changeReason, String operationType, String defaultReason, Boolean isCustom) {
-        try {
-            String finalChangeReason = changeReason != null ? changeReason : defaultReason;
+                                   String changeReason, String operationType, String defaultReason, Boolean isCustom,
+                                   Set<String> unsyncedChangeKeys, List<DataiIntegrationMetadataChange> changes) {
+        String finalChangeReason = changeReason != null ? changeReason : defaultReason;
 
-            int similarCount = dataiIntegrationMetadataChangeMapper.countSimilarChanges(
-                    "FIELD", operationType, objectApi, fieldApi, finalChangeReason);
+        if (!unsyncedChangeKeys.add(buildChangeKey("FIELD", operationType, objectApi, fieldApi, finalChangeReason))) {
+            log.debug("发现相似的未同步字段变更记录，跳过重复记录: {}.{} - {}", objectApi, fieldApi, operationType);
+            return;
+        }
 
-            if (similarCount > 0) {
-                log.debug("发现相似的未同步字段变更记录，跳过重复记录: {}.{} - {}", objectApi, fieldApi, operationType);
-                return;
-            }
+        DataiIntegrationMetadataChange metadataChange = new DataiIntegrationMetadataChange();
+        metadataChange.setChangeType("FIELD");
+        metadataChange.setOperationType(operationType);
+        metadataChange.setObjectApi(objectApi);
+        metadataChange.setObjectLabel(objectLabel);
+        metadataChange.setFieldApi(fieldApi);
+        metadataChange.setFieldLabel(fieldLabel);
+        metadataChange.setChangeTime(LocalDateTime.now());
+        metadataChange.setSyncStatus(false);
+        metadataChange.setIsCustom(isCustom);
+        metadataChange.setChangeReason(finalChangeReason);
+        metadataChange.setChangeUser("SYSTEM");
+        changes.add(metadataChange);
+    }
 
-            DataiIntegrationMetadataChange metadataChange = new DataiIntegrationMetadataChange();
-            metadataChange.setChangeType("FIELD");
-            metadataChange.setOperationType(operationType);
-            metadataChange.setObjectApi(objectApi);
-            metadataChange.setObjectLabel(objectLabel);
-            metadataChange.setFieldApi(fieldApi);
-            metadataChange.setFieldLabel(fieldLabel);
-            metadataChange.setChangeTime(LocalDateTime.now());
-            metadataChange.setSyncStatus(false);
-            metadataChange.setIsCustom(isCustom);
-            metadataChange.setChangeReason(finalChangeReason);
-            metadataChange.setChangeUser("SYSTEM");
-
-            insertDataiIntegrationMetadataChange(metadataChange);
-            log.debug("记录字段变更成功: {}.{} - {}", objectApi, fieldApi, operationType);
-        } catch (Exception e) {
-            log.error("记录字段变更失败: {}.{} - {}", objectApi, fieldApi, e.getMessage(), e);
+    /**
+     * 加载未同步变更的去重键，与 countSimilarChanges 的判重条件一致
+     *
+     * @param objectApi 对象API名称，为null时加载全部对象
+     * @return 去重键集合
+     */
+    private Set<String> loadUnsyncedChangeKeys(String objectApi) {
+        DataiIntegrationMetadataChange query = new DataiIntegrationMetadataChange();
+        query.setObjectApi(objectApi);
+        Set<String> keys = new HashSet<>();
+        for (DataiIntegrationMetadataChange change : dataiIntegrationMetadataChangeMapper.selectUnsyncedMetadataChangeList(query)) {
+            keys.add(buildChangeKey(change.getChangeType(), change.getOperationType(), change.getObjectApi(),
+                    change.getFieldApi(), change.getChangeReason()));
+        }
+        return keys;
+    }
+
+    private String buildChangeKey(String changeType, String operationType, String objectApi, String fieldApi, String changeReason) {
+        return changeType + '\u0001' + operationType + '\u0001' + objectApi + '\u0001'
+                + (fieldApi == null ? "" : fieldApi) + '\u0001' + changeReason;
+    }
+
+    /**
+     * 按批量大小多行写入变更记录
+     *
+     * @param changes 变更记录列表
+     */
+    private void saveMetadataChanges(List<DataiIntegrationMetadataChange> changes) {
+        for (int from = 0; from < changes.size(); from += INSERT_BATCH_SIZE) {
+            insertDataiIntegrationMetadataChangeBatch(changes.subList(from, Math.min(from + INSERT_BATCH_SIZE, changes.size())));
         }
     }
 
@@ -1683,20 +1803,19 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
      * 识别出已从Salesforce中删除的对象并记录相应的删除变更
      *
      * @param syncedObjectApis 从Salesforce获取到的已同步对象API名称集合
+     * @param unsyncedChangeKeys 未同步变更的去重键集合
      */
-    private void checkDeletedObjectsForMetadata(Set<String> syncedObjectApis) {
+    private void checkDeletedObjectsForMetadata(Set<String> syncedObjectApis, Set<String> unsyncedChangeKeys) {
         try {
             DataiIntegrationObject queryObject = new DataiIntegrationObject();
             List<DataiIntegrationObject> allObjects = dataiIntegrationObjectService.selectDataiIntegrationObjectList(queryObject);
+            List<DataiIntegrationMetadataChange> changes = new ArrayList<>();
 
             for (DataiIntegrationObject object : allObjects) {
                 if (!syncedObjectApis.contains(object.getApi())) {
                     String changeReason = "对象已从Salesforce中删除";
 
-                    int similarCount = dataiIntegrationMetadataChangeMapper.countSimilarChanges(
-                            "OBJECT", "DELETE", object.getApi(), null, changeReason);
-
-                    if (similarCount > 0) {
+                    if (!unsyncedChangeKeys.add(buildChangeKey("OBJECT", "DELETE", object.getApi(), null, changeReason))) {
                         log.debug("发现相似的未同步对象删除记录，跳过重复记录: {}", object.getApi());
                         continue;
                     }
@@ -1711,11 +1830,12 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
                     metadataChange.setIsCustom(object.getIsCustom());
                     metadataChange.setChangeReason(changeReason);
                     metadataChange.setChangeUser("SYSTEM");
-
-                    insertDataiIntegrationMetadataChange(metadataChange);
+                    changes.add(metadataChange);
                     log.warn("检测到对象已删除: {}", object.getApi());
                 }
             }
+
+            saveMetadataChanges(changes);
         } catch (Exception e) {
             log.error("检查已删除对象时出错: {}", e.getMessage(), e);
         }
@@ -1908,6 +2028,7 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
     private void syncFieldsAndRecordChanges(String objectApi, List<DataiIntegrationField> newFields,
                                             List<com.datai.integration.model.domain.DataiIntegrationPicklist> picklists,
                                             List<com.datai.integration.model.domain.DataiIntegrationFilterLookup> filterLookups) {
+        objectRegistryService.invalidate(objectApi);
         try {
             DataiIntegrationField queryField = new DataiIntegrationField();
             queryField.setApi(objectApi);
@@ -1929,13 +2050,17 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
             String objectLabel = objects.isEmpty() ? objectApi : objects.get(0).getLabel();
             Boolean isCustom = objects.isEmpty() ? false : objects.get(0).getIsCustom();
 
+            Set<String> unsyncedChangeKeys = loadUnsyncedChangeKeys(objectApi);
+            List<DataiIntegrationField> insertFields = new ArrayList<>();
+            List<DataiIntegrationMetadataChange> changes = new ArrayList<>();
+
             for (DataiIntegrationField newField : newFields) {
                 DataiIntegrationField existingField = existingFieldMap.get(newField.getField());
 
                 if (existingField == null) {
-                    dataiIntegrationFieldService.insertDataiIntegrationField(newField);
+                    insertFields.add(newField);
                     recordFieldChange(objectApi, objectLabel, newField.getField(), newField.getLabel(),
-                            null, "INSERT", "新增字段", isCustom);
+                            null, "INSERT", "新增字段", isCustom, unsyncedChangeKeys, changes);
                     log.debug("新增字段: {}.{}", objectApi, newField.getField());
                 } else {
                     List<String> changedFields = compareFields(existingField, newField);
@@ -1944,22 +2069,29 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
                         dataiIntegrationFieldService.updateDataiIntegrationField(newField);
                         recordFieldChange(objectApi, objectLabel, newField.getField(), newField.getLabel(),
                                 "字段属性变更: " + String.join(", ", changedFields),
-                                "UPDATE", "字段属性更新", isCustom);
+                                "UPDATE", "字段属性更新", isCustom, unsyncedChangeKeys, changes);
                         log.debug("更新字段: {}.{} - 变更: {}", objectApi, newField.getField(),
                                 String.join(", ", changedFields));
                     }
                 }
             }
 
-            if (!picklists.isEmpty()) {
-                for (com.datai.integration.model.domain.DataiIntegrationPicklist picklist : picklists) {
-                    dataiIntegrationPicklistService.insertDataiIntegrationPicklist(picklist);
-                }
+            for (int from = 0; from < insertFields.size(); from += INSERT_BATCH_SIZE) {
+                dataiIntegrationFieldService.insertDataiIntegrationFieldBatch(
+                        insertFields.subList(from, Math.min(from + INSERT_BATCH_SIZE, insertFields.size())));
             }
-            if (!filterLookups.isEmpty()) {
-                for (com.datai.integration.model.domain.DataiIntegrationFilterLookup filterLookup : filterLookups) {
-                    dataiIntegrationFilterLookupService.insertDataiIntegrationFilterLookup(filterLookup);
-                }
+            saveMetadataChanges(changes);
+
+            // 选择列表与过滤查找按对象整体替换，避免重复同步时累积重复数据
+            dataiIntegrationPicklistService.deleteDataiIntegrationPicklistByApi(objectApi);
+            for (int from = 0; from < picklists.size(); from += INSERT_BATCH_SIZE) {
+                dataiIntegrationPicklistService.insertDataiIntegrationPicklistBatch(
+                        picklists.subList(from, Math.min(from + INSERT_BATCH_SIZE, picklists.size())));
+            }
+            dataiIntegrationFilterLookupService.deleteDataiIntegrationFilterLookupByApi(objectApi);
+            for (int from = 0; from < filterLookups.size(); from += INSERT_BATCH_SIZE) {
+                dataiIntegrationFilterLookupService.insertDataiIntegrationFilterLookupBatch(
+                        filterLookups.subList(from, Math.min(from + INSERT_BATCH_SIZE, filterLookups.size())));
             }
 
         } catch (Exception e) {
@@ -2059,6 +2191,7 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
                 object.setTotalRows(objectNum);
 
                 int updateResult = dataiIntegrationObjectService.updateDataiIntegrationObject(object);
+                statisticsService.evict(objectApi);
 
                 if (updateResult > 0) {
                     log.debug("成功更新对象 {} 的字段信息", objectApi);
@@ -2097,7 +2230,7 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
                 return;
             }
 
-            String systemDataStartTimeStr = CacheUtils.get(salesforceConfigCacheManager.getEnvironmentCacheKey(), "salesforce.data.start.time", String.class);
+            String systemDataStartTimeStr = salesforceConfigCacheManager.getConfigValue("salesforce.data.start.time");
             java.time.LocalDateTime startDate = java.time.LocalDateTime.now().minusYears(5);
             startDate = startDate.withHour(0).withMinute(0).withSecond(0).withNano(0);
 
@@ -2122,14 +2255,26 @@ public class DataiIntegrationMetadataChangeServiceImpl implements IDataiIntegrat
             batchTemplate.setCreateTime(DateUtils.getNowDate());
             batchTemplate.setUpdateTime(DateUtils.getNowDate());
 
-            saveBatch(SalesforceConfigConstants.BATCH_TYPE_YEAR,
-                    java.sql.Timestamp.valueOf(startDate),
-                    java.sql.Timestamp.valueOf(endDate),
-                    objectApi,
-                    objectLabel,
-                    batchField,
-                    connection,
-                    batchTemplate);
+            // 优先用聚合查询一次获得数据分布并合并为均衡的批次，不可用时退回逐窗口计数
+            List<DataiIntegrationBatch> plannedBatches = batchPlanService.planFullBatches(connection, objectApi, batchField,
+                    java.sql.Timestamp.valueOf(startDate), java.sql.Timestamp.valueOf(endDate));
+            if (plannedBatches != null) {
+                for (DataiIntegrationBatch dataBatch : plannedBatches) {
+                    dataBatch.setLabel(objectLabel);
+                    dataBatch.setSyncType("FULL");
+                    dataBatch.setSyncStatus(false);
+                    dataiIntegrationBatchService.insertDataiIntegrationBatch(dataBatch);
+                }
+            } else {
+                saveBatch(SalesforceConfigConstants.BATCH_TYPE_YEAR,
+                        java.sql.Timestamp.valueOf(startDate),
+                        java.sql.Timestamp.valueOf(endDate),
+                        objectApi,
+                        objectLabel,
+                        batchField,
+                        connection,
+                        batchTemplate);
+            }
 
             object.setLastBatchDate(endDate);
             dataiIntegrationObjectService.updateDataiIntegrationObject(object);
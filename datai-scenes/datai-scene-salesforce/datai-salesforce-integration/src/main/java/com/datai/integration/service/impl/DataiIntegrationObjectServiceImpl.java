@@ -16,8 +16,11 @@ import com.datai.integration.model.param.DataiSyncParam;
 import com.datai.integration.service.IDataiIntegrationBatchService;
 import com.datai.integration.service.IDataiIntegrationFieldService;
 import com.datai.integration.service.IDataiIntegrationObjectService;
+import com.datai.integration.service.ISalesforceReplicationService;
+import com.datai.integration.service.ISalesforceStatisticsService;
 import com.datai.salesforce.common.utils.SoqlBuilder;
 import com.datai.setting.future.SalesforceExecutor;
+import com.datai.setting.future.SalesforceTaskLane;
 import com.sforce.soap.partner.DescribeSObjectResult;
 import com.sforce.soap.partner.Field;
 import com.datai.integration.core.IPartnerV1Connection;
@@ -58,6 +61,12 @@ public class DataiIntegrationObjectServiceImpl implements IDataiIntegrationObjec
     @Autowired
     private SalesforceExecutor salesforceExecutor;
 
+    @Autowired
+    private ISalesforceReplicationService salesforceReplicationService;
+
+    @Autowired
+    private ISalesforceStatisticsService statisticsService;
+
     @Lazy
     @Autowired
     private com.datai.integration.realtime.impl.ObjectRegistryImpl objectRegistry;
@@ -206,6 +215,7 @@ public class DataiIntegrationObjectServiceImpl implements IDataiIntegrationObjec
             data.put("syncStatus", object.getSyncStatus());
             data.put("errorMessage", object.getErrorMessage());
             data.put("totalRows", object.getTotalRows());
+            data.putAll(statisticsService.getObjectStatistics(object.getApi()));
             statistics.put("data", data);
             
         } catch (Exception e) {
@@ -732,6 +742,7 @@ public class DataiIntegrationObjectServiceImpl implements IDataiIntegrationObjec
             data.put("totalRows", totalRows);
             data.put("latestSyncDate", latestSyncDate);
             data.put("latestFullSyncDate", latestFullSyncDate);
+            data.putAll(statisticsService.getWriteStatistics());
             statistics.put("data", data);
 
             log.info("成功获取对象整体统计信息，总对象数: {}, 启用同步: {}, 增量更新: {}, 实时同步: {}", totalObjects, enabledObjects, incrementalObjects, realtimeSyncObjects);
@@ -963,7 +974,7 @@ public class DataiIntegrationObjectServiceImpl implements IDataiIntegrationObjec
                         errorResult.put("message", e.getMessage());
                         batchResults.add(errorResult);
                     }
-                }, 0, i);
+                }, 0, i, SalesforceTaskLane.BACKFILL, "source", objectApi);
                 
                 futures.add(future);
             }
@@ -1000,6 +1011,8 @@ public class DataiIntegrationObjectServiceImpl implements IDataiIntegrationObjec
                 .mapToInt(DataiIntegrationBatch::getDbNum)
                 .sum();
             
+            // 全量同步后以各批次写入量之和作为新的计数基准
+            statisticsService.rebase(objectApi, totalDbNum);
             object.setTotalRows(totalDbNum);
             object.setSyncStatus(failedBatchCount == 0);
             object.setUpdateTime(DateUtils.getNowDate());
@@ -1049,6 +1062,13 @@ public class DataiIntegrationObjectServiceImpl implements IDataiIntegrationObjec
                 result.put("message", "对象未启用增量更新");
                 return result;
             }
+
+            if (salesforceReplicationService.isEnabled()) {
+                Map<String, Object> replicationResult = salesforceReplicationService.replicate(objectApi, lastBatchDate);
+                if (replicationResult != null) {
+                    return applyReplicationResult(object, replicationResult, startTime);
+                }
+            }
             
             IPartnerV1Connection connection = soapConnectionFactory.getConnection("source");
             if (connection == null) {
@@ -1090,14 +1110,15 @@ public class DataiIntegrationObjectServiceImpl implements IDataiIntegrationObjec
 
             Map<String, Object> batchResult = dataiIntegrationBatchService.syncBatchData(batchId);
 
-            Integer totalDbNum = customMapper.countBySQL(objectApi, null);
+            int totalDbNum = statisticsService.getEstimatedRows(objectApi);
             long endTime = System.currentTimeMillis();
             long duration = endTime - startTime;
+            // 行数由统计服务以增量方式写回，这里写入绝对值会覆盖其他节点的增量
+            object.setTotalRows(null);
             LocalDateTime now = LocalDateTime.now();
             
             if ((Boolean) batchResult.get("success")) {
                 object.setLastSyncDate(now);
-                object.setTotalRows(totalDbNum);
                 object.setSyncStatus(true);
                 object.setUpdateTime(DateUtils.getNowDate());
                 updateDataiIntegrationObject(object);
@@ -1133,6 +1154,51 @@ public class DataiIntegrationObjectServiceImpl implements IDataiIntegrationObjec
         return result;
     }
 
+    /**
+     * 根据复制API增量同步结果更新对象同步状态
+     * 成功时以 latestDateCovered 作为新的批次时间，下次从该时间点继续
+     *
+     * @param object 对象信息
+     * @param replicationResult 复制API同步结果
+     * @param startTime 开始时间
+     * @return 同步结果
+     */
+    private Map<String, Object> applyReplicationResult(DataiIntegrationObject object, Map<String, Object> replicationResult, long startTime) {
+        Map<String, Object> result = new HashMap<>();
+        String objectApi = object.getApi().trim();
+        long duration = System.currentTimeMillis() - startTime;
+        // 行数由统计服务以增量方式写回，这里写入绝对值会覆盖其他节点的增量
+        object.setTotalRows(null);
+
+        if (Boolean.TRUE.equals(replicationResult.get("success"))) {
+            object.setLastBatchDate((LocalDateTime) replicationResult.get("latestDateCovered"));
+            object.setLastSyncDate(LocalDateTime.now());
+            object.setSyncStatus(true);
+            object.setUpdateTime(DateUtils.getNowDate());
+            updateDataiIntegrationObject(object);
+
+            result.put("success", true);
+            result.put("message", "增量数据拉取成功");
+            result.put("objectId", object.getId());
+            result.put("objectApi", objectApi);
+            result.put("totalCount", replicationResult.get("updatedCount"));
+            result.put("deletedCount", replicationResult.get("deletedCount"));
+            result.put("duration", duration);
+            result.put("syncType", "replication");
+            result.put("lastBatchDate", object.getLastBatchDate());
+            result.put("lastSyncDate", object.getLastSyncDate());
+        } else {
+            object.setSyncStatus(false);
+            object.setUpdateTime(DateUtils.getNowDate());
+            updateDataiIntegrationObject(object);
+
+            result.put("success", false);
+            result.put("message", replicationResult.get("message"));
+            log.error("对象 {} 复制API增量同步失败: {}", objectApi, replicationResult.get("message"));
+        }
+        return result;
+    }
+
     private List<String> getSalesforceObjectFields(IPartnerV1Connection connection, String objectApi) throws ConnectionException
     {
         List<String> fields = new ArrayList<>();
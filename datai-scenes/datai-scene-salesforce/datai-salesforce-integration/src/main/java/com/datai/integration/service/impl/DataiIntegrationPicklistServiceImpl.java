@@ -1,5 +1,6 @@
 package com.datai.integration.service.impl;
 
+import java.util.Date;
 import java.util.List;
 import com.datai.common.utils.DateUtils;
 import com.datai.common.utils.SecurityUtils;
@@ -65,6 +66,44 @@ public class DataiIntegrationPicklistServiceImpl implements IDataiIntegrationPic
             return dataiIntegrationPicklistMapper.insertDataiIntegrationPicklist(dataiIntegrationPicklist);
     }
 
+    /**
+     * 批量新增字段选择列表信息
+     *
+     * @param list 字段选择列表信息集合
+     * @return 结果
+     */
+    @Override
+    public int insertDataiIntegrationPicklistBatch(List<DataiIntegrationPicklist> list)
+    {
+        if (list == null || list.isEmpty())
+        {
+            return 0;
+        }
+        LoginUser loginUser = SecurityUtils.getLoginUser();
+        String username = loginUser.getUsername();
+        Date now = DateUtils.getNowDate();
+        for (DataiIntegrationPicklist item : list)
+        {
+            item.setCreateTime(now);
+            item.setUpdateTime(now);
+            item.setCreateBy(username);
+            item.setUpdateBy(username);
+        }
+        return dataiIntegrationPicklistMapper.insertDataiIntegrationPicklistBatch(list);
+    }
+
+    /**
+     * 删除对象下的全部字段选择列表信息
+     *
+     * @param api 对象API名称
+     * @return 结果
+     */
+    @Override
+    public int deleteDataiIntegrationPicklistByApi(String api)
+    {
+        return dataiIntegrationPicklistMapper.deleteDataiIntegrationPicklistByApi(api);
+    }
+
     /**
      * 修改字段选择列表信息
      *
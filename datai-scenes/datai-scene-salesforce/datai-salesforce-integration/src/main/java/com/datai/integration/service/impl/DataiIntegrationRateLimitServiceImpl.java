@@ -82,6 +82,24 @@ public class DataiIntegrationRateLimitServiceImpl implements IDataiIntegrationRa
         return dataiIntegrationRateLimitMapper.updateDataiIntegrationRateLimit(dataiIntegrationRateLimit);
     }
 
+    /**
+     * 原子累加API使用量
+     *
+     * @param id API限流监控主键
+     * @param delta 新增调用次数
+     * @return 累加后的最新限流配置
+     */
+    @Override
+    public DataiIntegrationRateLimit incrementDataiIntegrationRateLimitUsage(Long id, long delta)
+    {
+        // 由后台线程写回，不依赖登录用户
+        if (delta > 0)
+        {
+            dataiIntegrationRateLimitMapper.incrementDataiIntegrationRateLimitUsage(id, delta, Boolean.TRUE, DateUtils.getNowDate());
+        }
+        return dataiIntegrationRateLimitMapper.selectDataiIntegrationRateLimitById(id);
+    }
+
     /**
      * 批量删除API限流监控
      *
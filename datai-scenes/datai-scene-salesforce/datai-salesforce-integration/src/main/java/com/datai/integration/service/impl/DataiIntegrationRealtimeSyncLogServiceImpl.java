@@ -3,6 +3,7 @@ package com.datai.integration.service.impl;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -70,6 +71,31 @@ public class DataiIntegrationRealtimeSyncLogServiceImpl implements IDataiIntegra
             return dataiIntegrationRealtimeSyncLogMapper.insertDataiIntegrationRealtimeSyncLog(dataiIntegrationRealtimeSyncLog);
     }
 
+    /**
+     * 批量新增实时同步日志
+     * <p>
+     * 由异步日志写入线程调用，不依赖当前登录用户。
+     * </p>
+     *
+     * @param list 实时同步日志集合
+     * @return 结果
+     */
+    @Override
+    public int insertDataiIntegrationRealtimeSyncLogBatch(List<DataiIntegrationRealtimeSyncLog> list)
+    {
+        if (list == null || list.isEmpty())
+        {
+            return 0;
+        }
+        Date now = DateUtils.getNowDate();
+        for (DataiIntegrationRealtimeSyncLog syncLog : list)
+        {
+            syncLog.setCreateTime(now);
+            syncLog.setUpdateTime(now);
+        }
+        return dataiIntegrationRealtimeSyncLogMapper.insertDataiIntegrationRealtimeSyncLogBatch(list);
+    }
+
     /**
      * 修改实时同步日志
      *
@@ -0,0 +1,228 @@
+package com.datai.integration.service.impl;
+
+import com.datai.integration.core.IPartnerV1Connection;
+import com.datai.integration.model.domain.DataiIntegrationBatch;
+import com.datai.integration.service.ISalesforceBatchPlanService;
+import com.datai.salesforce.common.constant.SalesforceConfigConstants;
+import com.datai.salesforce.common.constant.SalesforceConstants;
+import com.datai.salesforce.common.utils.SoqlBuilder;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import com.sforce.soap.partner.QueryResult;
+import com.sforce.soap.partner.sobject.SObject;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.DateFormatUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * Salesforce 全量同步批次规划服务实现类
+ * <p>
+ * SOQL 日期函数按 UTC 分组，因此时间窗口按 UTC 的月、日边界切分。
+ * 聚合查询最多返回2000组，按天细化时每次查询最多覆盖 {@link #DAY_QUERY_MONTHS} 个月。
+ * 单日数据量仍超过阈值时该日单独成批，与原周粒度仍超阈值时直接保存的处理一致。
+ * </p>
+ */
+@Service
+@Slf4j
+public class SalesforceBatchPlanServiceImpl implements ISalesforceBatchPlanService {
+
+    /**
+     * 按天细化时单次聚合查询覆盖的最大月数
+     */
+    private static final int DAY_QUERY_MONTHS = 60;
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    @Override
+    public List<DataiIntegrationBatch> planFullBatches(IPartnerV1Connection connection, String objectApi, String batchField,
+                                                       Date startDate, Date endDate) {
+        if (!startDate.before(endDate)) {
+            return Collections.emptyList();
+        }
+
+        long startTime = System.currentTimeMillis();
+        int threshold = getConfigInt("salesforce.batch.plan.max.size", SalesforceConfigConstants.BATCH_DATA_THRESHOLD);
+        ZonedDateTime start = startDate.toInstant().atZone(ZoneOffset.UTC);
+        ZonedDateTime end = endDate.toInstant().atZone(ZoneOffset.UTC);
+
+        try {
+            // 第一次查询：按月统计数据量
+            Map<String, Integer> monthCounts = queryHistogram(connection, objectApi, batchField,
+                    "CALENDAR_MONTH(" + batchField + ")", buildRangeClause(batchField, startDate, endDate));
+
+            List<Window> windows = new ArrayList<>();
+            List<Window> heavyMonths = new ArrayList<>();
+            for (ZonedDateTime monthStart = start.withDayOfMonth(1).toLocalDate().atStartOfDay(ZoneOffset.UTC);
+                 monthStart.isBefore(end); monthStart = monthStart.plusMonths(1)) {
+                ZonedDateTime from = monthStart.isBefore(start) ? start : monthStart;
+                ZonedDateTime to = monthStart.plusMonths(1).isAfter(end) ? end : monthStart.plusMonths(1);
+                int count = monthCounts.getOrDefault(monthStart.getYear() + "-" + monthStart.getMonthValue(), 0);
+                Window window = new Window(from, to, count);
+                windows.add(window);
+                if (count > threshold) {
+                    heavyMonths.add(window);
+                }
+            }
+
+            // 第二次查询：数据量超过阈值的月份按天统计
+            if (!heavyMonths.isEmpty()) {
+                Map<String, Integer> dayCounts = queryHeavyDays(connection, objectApi, batchField, heavyMonths);
+                List<Window> refined = new ArrayList<>(windows.size() + heavyMonths.size() * 31);
+                for (Window window : windows) {
+                    if (window.count() <= threshold) {
+                        refined.add(window);
+                        continue;
+                    }
+                    for (ZonedDateTime dayStart = window.from().toLocalDate().atStartOfDay(ZoneOffset.UTC);
+                         dayStart.isBefore(window.to()); dayStart = dayStart.plusDays(1)) {
+                        ZonedDateTime from = dayStart.isBefore(window.from()) ? window.from() : dayStart;
+                        ZonedDateTime to = dayStart.plusDays(1).isAfter(window.to()) ? window.to() : dayStart.plusDays(1);
+                        refined.add(new Window(from, to, dayCounts.getOrDefault(dayStart.getYear() + "-" + dayStart.getDayOfYear(), 0)));
+                    }
+                }
+                windows = refined;
+            }
+
+            List<DataiIntegrationBatch> batches = pack(windows, threshold, objectApi, batchField);
+            log.info("对象 {} 批次规划完成，{} 个时间窗口合并为 {} 个批次，数据量细化月份 {} 个，耗时 {}ms",
+                    objectApi, windows.size(), batches.size(), heavyMonths.size(), System.currentTimeMillis() - startTime);
+            return batches;
+        } catch (Exception e) {
+            log.warn("对象 {} 按聚合查询规划批次失败，改用逐窗口计数: {}", objectApi, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 将相邻时间窗口合并为批次
+     * <p>
+     * 批次数取总数据量除以阈值向上取整，目标数据量为总量的平均值；
+     * 顺序累加窗口，达到目标或再加入下一个窗口会超过阈值时结束当前批次，使各批次数据量接近。
+     * </p>
+     */
+    private List<DataiIntegrationBatch> pack(List<Window> windows, int threshold, String objectApi, String batchField) {
+        long total = 0;
+        for (Window window : windows) {
+            total += window.count();
+        }
+        int batchCount = (int) Math.max(1, (total + threshold - 1) / threshold);
+        long target = Math.max(1, (total + batchCount - 1) / batchCount);
+
+        List<DataiIntegrationBatch> batches = new ArrayList<>(batchCount + 1);
+        ZonedDateTime batchStart = windows.get(0).from();
+        long batchSize = 0;
+        for (int i = 0; i < windows.size(); i++) {
+            Window window = windows.get(i);
+            if (batchSize > 0 && batchSize + window.count() > threshold) {
+                batches.add(buildBatch(objectApi, batchField, batchStart, window.from(), batchSize));
+                batchStart = window.from();
+                batchSize = 0;
+            }
+            batchSize += window.count();
+            boolean last = i == windows.size() - 1;
+            if (last || batchSize >= target) {
+                batches.add(buildBatch(objectApi, batchField, batchStart, window.to(), batchSize));
+                batchStart = window.to();
+                batchSize = 0;
+            }
+        }
+        return batches;
+    }
+
+    private DataiIntegrationBatch buildBatch(String objectApi, String batchField, ZonedDateTime from, ZonedDateTime to, long count) {
+        DataiIntegrationBatch batch = new DataiIntegrationBatch();
+        batch.setApi(objectApi);
+        batch.setBatchField(batchField);
+        batch.setSfNum((int) count);
+        batch.setSyncStartDate(LocalDateTime.ofInstant(from.toInstant(), ZoneId.systemDefault()));
+        batch.setSyncEndDate(LocalDateTime.ofInstant(to.toInstant(), ZoneId.systemDefault()));
+        return batch;
+    }
+
+    /**
+     * 按天统计数据量超过阈值的月份，每次查询最多覆盖 {@link #DAY_QUERY_MONTHS} 个月
+     *
+     * @return 键为 年-年内天数
+     */
+    private Map<String, Integer> queryHeavyDays(IPartnerV1Connection connection, String objectApi, String batchField,
+                                                List<Window> heavyMonths) throws Exception {
+        Map<String, Integer> dayCounts = new HashMap<>();
+        for (int from = 0; from < heavyMonths.size(); from += DAY_QUERY_MONTHS) {
+            StringJoiner ranges = new StringJoiner(" OR ", "(", ")");
+            for (Window window : heavyMonths.subList(from, Math.min(from + DAY_QUERY_MONTHS, heavyMonths.size()))) {
+                ranges.add("(" + buildRangeClause(batchField, Date.from(window.from().toInstant()), Date.from(window.to().toInstant())) + ")");
+            }
+            dayCounts.putAll(queryHistogram(connection, objectApi, batchField, "DAY_IN_YEAR(" + batchField + ")", ranges.toString()));
+        }
+        return dayCounts;
+    }
+
+    /**
+     * 执行按年和指定日期函数分组的计数查询
+     *
+     * @return 键为 年-分组值，值为数据量
+     */
+    private Map<String, Integer> queryHistogram(IPartnerV1Connection connection, String objectApi, String batchField,
+                                                String bucketFunction, String whereClause) throws Exception {
+        String yearFunction = "CALENDAR_YEAR(" + batchField + ")";
+        String soql = new SoqlBuilder()
+                .select(yearFunction + " y", bucketFunction + " b", "COUNT(Id) num")
+                .from(objectApi)
+                .where(whereClause)
+                .groupBy(yearFunction, bucketFunction)
+                .build();
+        log.debug("Histogram SOQL: {}", soql);
+
+        Map<String, Integer> counts = new HashMap<>();
+        QueryResult result = connection.queryAll(soql);
+        if (result == null || result.getRecords() == null) {
+            return counts;
+        }
+        for (SObject record : result.getRecords()) {
+            Object year = record.getField("y");
+            Object bucket = record.getField("b");
+            Object num = record.getField("num");
+            if (year == null || bucket == null || num == null) {
+                continue;
+            }
+            counts.put(year + "-" + bucket, Integer.valueOf(num.toString()));
+        }
+        return counts;
+    }
+
+    private String buildRangeClause(String batchField, Date startDate, Date endDate) {
+        return batchField + " >= " + DateFormatUtils.formatUTC(startDate, SalesforceConstants.SF_DATE_FORMAT)
+                + " AND " + batchField + " < " + DateFormatUtils.formatUTC(endDate, SalesforceConstants.SF_DATE_FORMAT);
+    }
+
+    /**
+     * 从配置缓存中获取整数类型配置值
+     *
+     * @param configKey 配置键
+     * @param defaultValue 默认值
+     * @return 配置值或默认值
+     */
+    private int getConfigInt(String configKey, int defaultValue) {
+        String value = configCacheManager.getConfigValue(configKey);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.warn("配置项{}的值{}无法转换为整数，使用默认值{}", configKey, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * 时间窗口 [from, to) 及其数据量
+     */
+    private record Window(ZonedDateTime from, ZonedDateTime to, int count) {}
+}
@@ -0,0 +1,444 @@
+package com.datai.integration.service.impl;
+
+import cn.hutool.core.text.csv.CsvParser;
+import cn.hutool.core.text.csv.CsvReadConfig;
+import cn.hutool.core.text.csv.CsvRow;
+import cn.hutool.core.text.csv.CsvUtil;
+import cn.hutool.core.text.csv.CsvWriter;
+import com.datai.integration.core.IBulkV2Connection;
+import com.datai.integration.core.IPartnerV1Connection;
+import com.datai.integration.factory.impl.BulkV2ConnectionFactory;
+import com.datai.integration.mapper.CustomMapper;
+import com.datai.integration.service.ISalesforceBatchPushService;
+import com.datai.salesforce.common.constant.SalesforceConstants;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import com.sforce.async.ContentType;
+import com.sforce.async.JobInfo;
+import com.sforce.async.JobStateEnum;
+import com.sforce.async.OperationEnum;
+import com.sforce.soap.partner.DescribeSObjectResult;
+import com.sforce.soap.partner.Field;
+import com.sforce.soap.partner.SaveResult;
+import com.sforce.soap.partner.sobject.SObject;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.DateFormatUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Salesforce 批次数据推送服务实现类
+ * <p>
+ * 本地数据按主键游标分段读取，每段打包为一次 SOAP create/update 调用或一个 Bulk API 2.0 导入作业，
+ * 推送结果按段用一条语句回写本地表。
+ * </p>
+ */
+@Service
+@Slf4j
+public class SalesforceBatchPushServiceImpl implements ISalesforceBatchPushService {
+
+    /**
+     * 单次 SOAP create/update 调用允许的最大记录数
+     */
+    private static final int SOAP_MAX_BATCH_SIZE = 200;
+
+    /**
+     * 返回结果中保留的失败记录明细上限
+     */
+    private static final int MAX_FAILED_RECORDS = 1000;
+
+    /**
+     * 本地表维护的推送状态字段，不推送到目标系统
+     */
+    private static final Set<String> LOCAL_COLUMNS = new HashSet<>(Arrays.asList("id", "new_id", "is_insert", "is_update"));
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    @Autowired
+    private CustomMapper customMapper;
+
+    @Autowired
+    private BulkV2ConnectionFactory bulkV2ConnectionFactory;
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    @Override
+    public Map<String, Object> insertRecords(IPartnerV1Connection connection, DescribeSObjectResult objDetail, String tableName, String condition) {
+        Map<String, Field> fields = resolveFields(objDetail, true);
+        // 只推送尚未插入的记录，中断后重新执行时从未完成的记录继续
+        String pendingCondition = appendCondition(condition, "new_id IS NULL");
+        int batchSize = Math.min(getConfigInt("salesforce.batch.size", SOAP_MAX_BATCH_SIZE), SOAP_MAX_BATCH_SIZE);
+
+        PushStatistics statistics = new PushStatistics();
+        String lastId = null;
+        while (true) {
+            List<Map<String, Object>> rows = customMapper.listAfterId("*", tableName, pendingCondition, lastId, batchSize);
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            lastId = (String) rows.get(rows.size() - 1).get("id");
+
+            List<String> localIds = new ArrayList<>(rows.size());
+            List<SObject> sObjects = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                String localId = (String) row.get("id");
+                SObject sObject = new SObject();
+                sObject.setType(objDetail.getName());
+                fillFields(sObject, row, fields);
+                localIds.add(localId);
+                sObjects.add(sObject);
+            }
+
+            Map<String, String> newIds = new LinkedHashMap<>();
+            try {
+                SaveResult[] saveResults = connection.create(sObjects.toArray(new SObject[0]));
+                for (int i = 0; i < saveResults.length; i++) {
+                    if (saveResults[i].isSuccess()) {
+                        newIds.put(localIds.get(i), saveResults[i].getId());
+                    } else {
+                        statistics.fail(localIds.get(i), getErrorMessage(saveResults[i]));
+                    }
+                }
+            } catch (Exception e) {
+                log.error("批量插入记录失败，表名: {}, 记录数: {}", tableName, rows.size(), e);
+                for (String localId : localIds) {
+                    statistics.fail(localId, e.getMessage());
+                }
+            }
+
+            if (!newIds.isEmpty()) {
+                customMapper.updateNewIds(tableName, newIds);
+                statistics.successCount += newIds.size();
+            }
+            statistics.totalCount += rows.size();
+            log.info("已插入 {} 条记录，成功: {}，失败: {}", statistics.totalCount, statistics.successCount, statistics.failureCount);
+        }
+        return statistics.toMap();
+    }
+
+    @Override
+    public Map<String, Object> updateRecords(String targetOrgType, IPartnerV1Connection connection, DescribeSObjectResult objDetail, String tableName, String condition) {
+        Map<String, Field> fields = resolveFields(objDetail, false);
+
+        Integer count = customMapper.countBySQL(tableName, condition);
+        if (shouldUseBulkApi(count != null ? count : 0)) {
+            log.info("表 {} 共 {} 条记录需要更新，超过Bulk阈值，使用Bulk API 2.0更新", tableName, count);
+            return bulkUpdateRecords(targetOrgType, objDetail, tableName, condition, fields);
+        }
+
+        int batchSize = Math.min(getConfigInt("salesforce.batch.size", SOAP_MAX_BATCH_SIZE), SOAP_MAX_BATCH_SIZE);
+        PushStatistics statistics = new PushStatistics();
+        String lastId = null;
+        while (true) {
+            List<Map<String, Object>> rows = customMapper.listAfterId("*", tableName, condition, lastId, batchSize);
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            lastId = (String) rows.get(rows.size() - 1).get("id");
+
+            List<String> localIds = new ArrayList<>(rows.size());
+            List<SObject> sObjects = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                String localId = (String) row.get("id");
+                String newId = (String) row.get("new_id");
+                if (StringUtils.isEmpty(newId)) {
+                    statistics.fail(localId, "new_id为空，请先执行插入操作");
+                    continue;
+                }
+                SObject sObject = new SObject();
+                sObject.setType(objDetail.getName());
+                sObject.setId(newId);
+                fillFields(sObject, row, fields);
+                localIds.add(localId);
+                sObjects.add(sObject);
+            }
+
+            List<String> updatedIds = new ArrayList<>(sObjects.size());
+            if (!sObjects.isEmpty()) {
+                try {
+                    SaveResult[] saveResults = connection.update(sObjects.toArray(new SObject[0]));
+                    for (int i = 0; i < saveResults.length; i++) {
+                        if (saveResults[i].isSuccess()) {
+                            updatedIds.add(localIds.get(i));
+                        } else {
+                            statistics.fail(localIds.get(i), getErrorMessage(saveResults[i]));
+                        }
+                    }
+                } catch (Exception e) {
+                    log.error("批量更新记录失败，表名: {}, 记录数: {}", tableName, sObjects.size(), e);
+                    for (String localId : localIds) {
+                        statistics.fail(localId, e.getMessage());
+                    }
+                }
+            }
+
+            if (!updatedIds.isEmpty()) {
+                customMapper.markUpdated(tableName, updatedIds);
+                statistics.successCount += updatedIds.size();
+            }
+            statistics.totalCount += rows.size();
+            log.info("已更新 {} 条记录，成功: {}，失败: {}", statistics.totalCount, statistics.successCount, statistics.failureCount);
+        }
+        return statistics.toMap();
+    }
+
+    /**
+     * 通过 Bulk API 2.0 导入作业更新记录，每段数据一个作业
+     */
+    private Map<String, Object> bulkUpdateRecords(String targetOrgType, DescribeSObjectResult objDetail, String tableName,
+                                                  String condition, Map<String, Field> fields) {
+        IBulkV2Connection bulkConnection = bulkV2ConnectionFactory.getConnection(targetOrgType);
+        int chunkSize = getConfigInt("salesforce.bulk.push.chunk.size", 10000);
+        long pollInterval = getConfigInt("salesforce.bulk.query.poll.interval", 5000);
+        long timeout = getConfigInt("salesforce.bulk.query.timeout", 7200000);
+
+        PushStatistics statistics = new PushStatistics();
+        String lastId = null;
+        while (true) {
+            List<Map<String, Object>> rows = customMapper.listAfterId("*", tableName, condition, lastId, chunkSize);
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            lastId = (String) rows.get(rows.size() - 1).get("id");
+
+            // 本地字段与目标系统可更新字段的交集，Id 列放在首位
+            List<String> columns = new ArrayList<>();
+            for (String column : rows.get(0).keySet()) {
+                if (!LOCAL_COLUMNS.contains(column.toLowerCase()) && fields.containsKey(column.toLowerCase())) {
+                    columns.add(column);
+                }
+            }
+
+            Map<String, String> localIdByNewId = new HashMap<>();
+            StringWriter csv = new StringWriter();
+            try (CsvWriter writer = CsvUtil.getWriter(csv)) {
+                String[] header = new String[columns.size() + 1];
+                header[0] = "Id";
+                for (int i = 0; i < columns.size(); i++) {
+                    header[i + 1] = fields.get(columns.get(i).toLowerCase()).getName();
+                }
+                writer.write(header);
+
+                for (Map<String, Object> row : rows) {
+                    String localId = (String) row.get("id");
+                    String newId = (String) row.get("new_id");
+                    if (StringUtils.isEmpty(newId)) {
+                        statistics.fail(localId, "new_id为空，请先执行插入操作");
+                        continue;
+                    }
+                    String[] line = new String[columns.size() + 1];
+                    line[0] = newId;
+                    for (int i = 0; i < columns.size(); i++) {
+                        line[i + 1] = formatCsvValue(row.get(columns.get(i)), fields.get(columns.get(i).toLowerCase()));
+                    }
+                    writer.write(line);
+                    localIdByNewId.put(newId, localId);
+                }
+            }
+            statistics.totalCount += rows.size();
+            if (localIdByNewId.isEmpty()) {
+                continue;
+            }
+
+            String jobId = null;
+            try {
+                JobInfo job = new JobInfo();
+                job.setObject(objDetail.getName());
+                job.setOperation(OperationEnum.update);
+                job.setContentType(ContentType.CSV);
+                jobId = bulkConnection.createJob(job).getId();
+                bulkConnection.startIngest(jobId, new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+                JobInfo finished = bulkConnection.awaitJobCompletion(jobId, false, pollInterval, timeout);
+                if (finished.getState() != JobStateEnum.JobComplete) {
+                    throw new RuntimeException("Bulk导入作业未成功完成，状态: " + finished.getState());
+                }
+
+                List<String> updatedIds = new ArrayList<>(localIdByNewId.size());
+                readIngestResults(bulkConnection.getIngestSuccessResultsStream(jobId), (targetId, error) -> {
+                    String localId = localIdByNewId.remove(targetId);
+                    if (localId != null) {
+                        updatedIds.add(localId);
+                    }
+                });
+                readIngestResults(bulkConnection.getIngestFailedResultsStream(jobId), (targetId, error) ->
+                        statistics.fail(localIdByNewId.remove(targetId), error));
+
+                if (!updatedIds.isEmpty()) {
+                    customMapper.markUpdated(tableName, updatedIds);
+                    statistics.successCount += updatedIds.size();
+                }
+                log.info("Bulk导入作业 {} 已完成，累计处理 {} 条记录，成功: {}，失败: {}", jobId,
+                        statistics.totalCount, statistics.successCount, statistics.failureCount);
+            } catch (Exception e) {
+                log.error("Bulk更新记录失败，表名: {}, 作业ID: {}", tableName, jobId, e);
+                for (String localId : localIdByNewId.values()) {
+                    statistics.fail(localId, e.getMessage());
+                }
+            }
+        }
+        return statistics.toMap();
+    }
+
+    /**
+     * 读取导入作业结果CSV
+     *
+     * @param stream 结果流
+     * @param consumer 结果处理，参数为目标系统记录ID与错误信息
+     */
+    private void readIngestResults(InputStream stream, BiConsumer<String, String> consumer) throws IOException {
+        CsvReadConfig readConfig = CsvReadConfig.defaultConfig();
+        readConfig.setContainsHeader(true);
+        readConfig.setSkipEmptyRows(true);
+        try (CsvParser parser = new CsvParser(new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8)), readConfig)) {
+            CsvRow row;
+            while ((row = parser.nextRow()) != null) {
+                String targetId = row.getByName("Id");
+                if (StringUtils.isEmpty(targetId)) {
+                    targetId = row.getByName("sf__Id");
+                }
+                consumer.accept(targetId, row.getByName("sf__Error"));
+            }
+        }
+    }
+
+    /**
+     * 获取目标对象可插入或可更新的字段，键为小写字段名
+     */
+    private Map<String, Field> resolveFields(DescribeSObjectResult objDetail, boolean insert) {
+        Map<String, Field> fields = new HashMap<>();
+        for (Field field : objDetail.getFields()) {
+            if (insert ? field.isCreateable() : field.isUpdateable()) {
+                fields.put(field.getName().toLowerCase(), field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * 将本地记录中可推送的非空字段写入SObject
+     */
+    private void fillFields(SObject sObject, Map<String, Object> row, Map<String, Field> fields) {
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null || LOCAL_COLUMNS.contains(entry.getKey().toLowerCase())) {
+                continue;
+            }
+            Field field = fields.get(entry.getKey().toLowerCase());
+            if (field == null) {
+                continue;
+            }
+            if (value instanceof LocalDateTime) {
+                value = Date.from(((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant());
+            } else if (value instanceof LocalDate) {
+                value = Date.from(((LocalDate) value).atStartOfDay(ZoneId.systemDefault()).toInstant());
+            }
+            sObject.setField(field.getName(), value);
+        }
+    }
+
+    /**
+     * 格式化Bulk导入CSV字段值，空值保持目标字段不变
+     */
+    private String formatCsvValue(Object value, Field field) {
+        if (value == null) {
+            return "";
+        }
+        String type = field.getType() != null ? field.getType().toString() : "";
+        if (value instanceof LocalDateTime) {
+            value = Date.from(((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant());
+        }
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).format(DATE_FORMATTER);
+        }
+        if (value instanceof Date) {
+            return "date".equals(type)
+                    ? DateFormatUtils.format((Date) value, "yyyy-MM-dd")
+                    : DateFormatUtils.formatUTC((Date) value, SalesforceConstants.SF_DATE_FORMAT);
+        }
+        return value.toString();
+    }
+
+    private String getErrorMessage(SaveResult saveResult) {
+        return saveResult.getErrors() != null && saveResult.getErrors().length > 0
+                ? saveResult.getErrors()[0].getMessage() : "未知错误";
+    }
+
+    private String appendCondition(String condition, String clause) {
+        return StringUtils.isEmpty(condition) ? clause : "(" + condition + ") AND " + clause;
+    }
+
+    private boolean shouldUseBulkApi(int recordCount) {
+        if (!Boolean.parseBoolean(configCacheManager.getConfigValue("salesforce.bulk.api.enabled"))) {
+            return false;
+        }
+        return recordCount > getConfigInt("salesforce.bulk.threshold", 2000);
+    }
+
+    /**
+     * 从配置缓存中获取整数类型配置值
+     *
+     * @param configKey 配置键
+     * @param defaultValue 默认值
+     * @return 配置值或默认值
+     */
+    private int getConfigInt(String configKey, int defaultValue) {
+        String value = configCacheManager.getConfigValue(configKey);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.warn("配置项{}的值{}无法转换为整数，使用默认值{}", configKey, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * 推送统计
+     */
+    private static class PushStatistics {
+
+        private int totalCount;
+
+        private int successCount;
+
+        private int failureCount;
+
+        private final List<Map<String, Object>> failedRecords = new ArrayList<>();
+
+        private void fail(String localId, String reason) {
+            failureCount++;
+            if (failedRecords.size() < MAX_FAILED_RECORDS) {
+                Map<String, Object> failedRecord = new HashMap<>();
+                failedRecord.put("localId", localId);
+                failedRecord.put("reason", reason);
+                failedRecords.add(failedRecord);
+            }
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("totalCount", totalCount);
+            result.put("successCount", successCount);
+            result.put("failureCount", failureCount);
+            result.put("failedRecords", failedRecords);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.datai.integration.service.impl;
+
+import cn.hutool.core.text.csv.CsvParser;
+import cn.hutool.core.text.csv.CsvReadConfig;
+import cn.hutool.core.text.csv.CsvRow;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.datai.common.utils.CacheUtils;
+import com.datai.integration.core.BulkV2QueryResult;
+import com.datai.integration.core.IBulkV2Connection;
+import com.datai.integration.factory.impl.BulkV2ConnectionFactory;
+import com.datai.integration.mapper.CustomMapper;
+import com.datai.integration.service.ISalesforceBulkExtractService;
+import com.datai.integration.service.ISalesforceCopyLoadService;
+import com.datai.integration.service.ISalesforceObjectRegistryService;
+import com.datai.integration.service.ISalesforceStatisticsService;
+import com.datai.integration.util.ConvertUtil;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import com.sforce.async.JobInfo;
+import com.sforce.async.JobStateEnum;
+import com.sforce.soap.partner.Field;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Salesforce Bulk API 2.0 数据提取服务实现类
+ * <p>
+ * 创建 queryAll 作业并等待完成后，按 Sforce-Locator 逐页读取CSV结果，
+ * 每页边读边转换、按批写入本地表，不在内存中缓存整页或整个对象的数据。
+ * </p>
+ */
+@Service
+@Slf4j
+public class SalesforceBulkExtractServiceImpl implements ISalesforceBulkExtractService {
+
+    /**
+     * 每次写入数据库的记录数
+     */
+    private static final int DB_WRITE_BATCH_SIZE = 2000;
+
+    /**
+     * 本地库支持 COPY 时每次写入数据库的记录数
+     */
+    private static final int COPY_WRITE_BATCH_SIZE = 50000;
+
+    /**
+     * Bulk API 不支持查询的字段类型
+     */
+    private static final Set<String> UNSUPPORTED_FIELD_TYPES = new HashSet<>(Arrays.asList("base64", "address", "location"));
+
+    /**
+     * Bulk提取断点缓存名称
+     */
+    private static final String CHECKPOINT_CACHE = "salesforceBulkCheckpoint";
+
+    /**
+     * 断点保留时长（小时），Bulk查询结果在Salesforce端保留7天
+     */
+    private static final long CHECKPOINT_CACHE_HOURS = 72;
+
+    @Autowired
+    private CustomMapper customMapper;
+
+    @Autowired
+    private BulkV2ConnectionFactory bulkV2ConnectionFactory;
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    @Autowired
+    private ISalesforceStatisticsService statisticsService;
+
+    @Autowired
+    private ISalesforceCopyLoadService copyLoadService;
+
+    @Autowired
+    private ISalesforceObjectRegistryService objectRegistryService;
+
+    @Override
+    public boolean shouldUseBulkApi(long recordCount) {
+        if (!Boolean.parseBoolean(configCacheManager.getConfigValue("salesforce.bulk.api.enabled"))) {
+            return false;
+        }
+        long threshold = getConfigLong("salesforce.bulk.query.threshold", 1000000L);
+        return recordCount > threshold;
+    }
+
+    @Override
+    public String buildBulkSelect(Field[] fields) {
+        List<String> names = new ArrayList<>();
+        for (Field field : fields) {
+            if (field.getType() != null && UNSUPPORTED_FIELD_TYPES.contains(field.getType().toString())) {
+                continue;
+            }
+            names.add(field.getName());
+        }
+        return String.join(",", names);
+    }
+
+    @Override
+    public int extractObjectData(String objectApi, Field[] fields, String soql) {
+        return extractObjectData(objectApi, fields, soql, null);
+    }
+
+    @Override
+    public int extractObjectData(String objectApi, Field[] fields, String soql, String checkpointKey) {
+        long startTime = System.currentTimeMillis();
+        IBulkV2Connection connection = bulkV2ConnectionFactory.getConnection("source");
+
+        String jobId = null;
+        boolean jobComplete = false;
+        try {
+            String locator = null;
+            int totalCount = 0;
+            String soqlHash = DigestUtils.md5DigestAsHex(soql.getBytes(StandardCharsets.UTF_8));
+            JSONObject checkpoint = loadCheckpoint(checkpointKey);
+            if (checkpoint != null && !soqlHash.equals(checkpoint.getString("soqlHash"))) {
+                // 查询语句（字段、过滤条件或时间窗口）已变化，断点作业的结果不适用于本次提取
+                log.info("对象 {} 的查询语句与断点不一致，丢弃断点 {}", objectApi, checkpoint.getString("jobId"));
+                removeCheckpoint(checkpointKey);
+                checkpoint = null;
+            }
+            if (checkpoint != null) {
+                JobInfo previous = null;
+                try {
+                    previous = connection.getExtractJobStatus(checkpoint.getString("jobId"));
+                } catch (Exception e) {
+                    // 作业已被清理或切换了ORG，断点失效，重新创建作业
+                    log.warn("对象 {} 查询断点作业 {} 失败，丢弃断点后重新提取: {}", objectApi, checkpoint.getString("jobId"), e.getMessage());
+                    removeCheckpoint(checkpointKey);
+                }
+                if (previous != null && previous.getState() == JobStateEnum.JobComplete) {
+                    jobId = previous.getId();
+                    locator = checkpoint.getString("locator");
+                    totalCount = checkpoint.getIntValue("count");
+                    jobComplete = true;
+                    log.info("对象 {} 从断点继续Bulk提取，作业ID: {}，定位器: {}", objectApi, jobId, locator);
+                } else if (previous != null) {
+                    log.info("对象 {} 断点作业 {} 状态为 {}，重新创建Bulk查询作业", objectApi, previous.getId(), previous.getState());
+                    removeCheckpoint(checkpointKey);
+                }
+            }
+
+            if (!jobComplete) {
+                JobInfo job = connection.createQueryJob(soql, true);
+                jobId = job.getId();
+                log.info("对象 {} 已创建Bulk查询作业，作业ID: {}", objectApi, jobId);
+
+                JobInfo finished = connection.awaitJobCompletion(jobId,
+                        getConfigLong("salesforce.bulk.query.poll.interval", 5000L),
+                        getConfigLong("salesforce.bulk.query.timeout", 7200000L));
+                if (finished.getState() != JobStateEnum.JobComplete) {
+                    throw new RuntimeException("Bulk查询作业未成功完成，作业ID: " + jobId + "，状态: " + finished.getState());
+                }
+                jobComplete = true;
+                log.info("对象 {} Bulk查询作业已完成，作业ID: {}，记录数: {}", objectApi, jobId, finished.getNumberRecordsProcessed());
+            }
+
+            Map<String, String> fieldTypes = new HashMap<>();
+            for (Field field : fields) {
+                fieldTypes.put(field.getName().toLowerCase(), field.getType().toString());
+            }
+
+            int pageSize = (int) getConfigLong("salesforce.bulk.query.page.size", 50000L);
+            int pageNum = 0;
+            boolean hasNextPage;
+            do {
+                try (BulkV2QueryResult page = connection.getQueryResultPage(jobId, locator, pageSize)) {
+                    pageNum++;
+                    totalCount += writeCsvPage(objectApi, page, fieldTypes);
+                    locator = page.getLocator();
+                    hasNextPage = page.hasNextPage();
+                }
+                if (hasNextPage) {
+                    saveCheckpoint(checkpointKey, soqlHash, jobId, locator, totalCount);
+                }
+                log.info("对象 {} 已写入第 {} 页Bulk查询结果，累计 {} 条记录", objectApi, pageNum, totalCount);
+            } while (hasNextPage);
+
+            removeCheckpoint(checkpointKey);
+            log.info("对象 {} Bulk提取完成，共写入 {} 条记录，耗时 {}ms", objectApi, totalCount, System.currentTimeMillis() - startTime);
+            return totalCount;
+        } catch (Exception e) {
+            // 已完成的作业保留结果供断点续传，不再中止
+            if (!jobComplete) {
+                abortQuietly(connection, jobId);
+            }
+            log.error("对象 {} Bulk提取失败，作业ID: {}", objectApi, jobId, e);
+            throw new RuntimeException("Bulk提取失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 读取断点
+     *
+     * @param checkpointKey 断点键
+     * @return 断点信息，不存在时返回null
+     */
+    private JSONObject loadCheckpoint(String checkpointKey) {
+        if (StringUtils.isEmpty(checkpointKey)) {
+            return null;
+        }
+        String value = CacheUtils.get(CHECKPOINT_CACHE, checkpointKey, String.class);
+        return StringUtils.isEmpty(value) ? null : JSON.parseObject(value);
+    }
+
+    /**
+     * 记录断点
+     *
+     * @param checkpointKey 断点键
+     * @param soqlHash 查询语句摘要，续传时校验
+     * @param jobId 作业ID
+     * @param locator 下一页定位器
+     * @param count 已写入的记录数
+     */
+    private void saveCheckpoint(String checkpointKey, String soqlHash, String jobId, String locator, int count) {
+        if (StringUtils.isEmpty(checkpointKey)) {
+            return;
+        }
+        JSONObject checkpoint = new JSONObject();
+        checkpoint.put("soqlHash", soqlHash);
+        checkpoint.put("jobId", jobId);
+        checkpoint.put("locator", locator);
+        checkpoint.put("count", count);
+        CacheUtils.put(CHECKPOINT_CACHE, checkpointKey, checkpoint.toJSONString(), CHECKPOINT_CACHE_HOURS, TimeUnit.HOURS);
+    }
+
+    /**
+     * 清除断点
+     *
+     * @param checkpointKey 断点键
+     */
+    private void removeCheckpoint(String checkpointKey) {
+        if (StringUtils.isNotEmpty(checkpointKey)) {
+            CacheUtils.remove(CHECKPOINT_CACHE, checkpointKey);
+        }
+    }
+
+    /**
+     * 读取一页CSV结果并分批写入本地表
+     *
+     * @param objectApi 对象API名称
+     * @param page 查询结果分页
+     * @param fieldTypes 字段类型（键为小写字段名）
+     * @return 写入的记录数
+     */
+    private int writeCsvPage(String objectApi, BulkV2QueryResult page, Map<String, String> fieldTypes) throws IOException {
+        CsvReadConfig readConfig = CsvReadConfig.defaultConfig();
+        readConfig.setContainsHeader(true);
+        readConfig.setSkipEmptyRows(true);
+
+        int batchSize = copyLoadService.isSupported() ? COPY_WRITE_BATCH_SIZE : DB_WRITE_BATCH_SIZE;
+        int count = 0;
+        try (CsvParser parser = new CsvParser(new BufferedReader(new InputStreamReader(page.getStream(), StandardCharsets.UTF_8)), readConfig)) {
+            List<String> keys = null;
+            String[] types = null;
+            List<Collection<Object>> values = new ArrayList<>(batchSize);
+
+            CsvRow row;
+            while ((row = parser.nextRow()) != null) {
+                if (keys == null) {
+                    keys = parser.getHeader();
+                    types = new String[keys.size()];
+                    for (int i = 0; i < keys.size(); i++) {
+                        types[i] = fieldTypes.getOrDefault(keys.get(i).toLowerCase(), "string");
+                    }
+                }
+
+                List<Object> rowValues = new ArrayList<>(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    rowValues.add(convertCsvValue(keys.get(i), types[i], i < row.size() ? row.get(i) : null));
+                }
+                values.add(rowValues);
+
+                if (values.size() >= batchSize) {
+                    count += flush(objectApi, keys, values);
+                    values.clear();
+                }
+            }
+
+            if (!values.isEmpty()) {
+                count += flush(objectApi, keys, values);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 将一批记录写入本地表，已存在的记录按主键更新
+     *
+     * @param objectApi 对象API名称
+     * @param keys 字段列表
+     * @param values 记录值
+     * @return 写入的记录数
+     */
+    private int flush(String objectApi, List<String> keys, List<Collection<Object>> values) {
+        if (copyLoadService.isSupported()) {
+            return copyLoadService.copyUpsert(objectApi, keys, values);
+        }
+        // PostgreSQL 系单条语句的绑定参数有上限，宽表按字段数拆分写入
+        int sliceSize = objectRegistryService.getDialect().maxBatchRows(keys.size());
+        for (int from = 0; from < values.size(); from += sliceSize) {
+            List<Collection<Object>> slice = values.subList(from, Math.min(from + sliceSize, values.size()));
+            int existing = statisticsService.countExisting(objectApi, keys, slice);
+            customMapper.upsertBatch(objectApi, keys, slice);
+            statisticsService.recordUpsert(objectApi, slice.size(), existing);
+        }
+        return values.size();
+    }
+
+    /**
+     * 转换CSV字段值，Bulk API 以空字符串表示null
+     */
+    private Object convertCsvValue(String fieldName, String type, String value) {
+        if (StringUtils.isEmpty(value)) {
+            return null;
+        }
+        try {
+            return ConvertUtil.convertMysqlBulkValue(type, value);
+        } catch (ParseException | NumberFormatException e) {
+            log.warn("字段 {} 的值 {} 无法按类型 {} 转换，置为空", fieldName, value, type);
+            return null;
+        }
+    }
+
+    /**
+     * 中止查询作业，失败时仅记录日志
+     */
+    private void abortQuietly(IBulkV2Connection connection, String jobId) {
+        if (jobId == null) {
+            return;
+        }
+        try {
+            connection.abortJob(jobId, true);
+        } catch (Exception e) {
+            log.warn("中止Bulk查询作业失败，作业ID: {}", jobId, e);
+        }
+    }
+
+    /**
+     * 从配置缓存中获取长整数类型配置值
+     *
+     * @param configKey 配置键
+     * @param defaultValue 默认值
+     * @return 配置值或默认值
+     */
+    private long getConfigLong(String configKey, long defaultValue) {
+        String value = configCacheManager.getConfigValue(configKey);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                log.warn("配置项{}的值{}无法转换为长整数，使用默认值{}", configKey, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,245 @@
+package com.datai.integration.service.impl;
+
+import com.datai.integration.service.ISalesforceCopyLoadService;
+import com.datai.integration.service.ISalesforceObjectRegistryService;
+import com.datai.integration.service.ISalesforceStatisticsService;
+import com.datai.integration.util.SqlDialect;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.DateFormatUtils;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * PostgreSQL COPY 批量写入服务实现类
+ * <p>
+ * 每次写入在同一连接的一个事务中完成：重建会话临时表（结构与目标表一致，提交时清空），
+ * 以 CSV 格式 COPY 写入，统计临时表中已存在于目标表的记录数，再合并到目标表。
+ * PostgreSQL 按主键约束 ON CONFLICT 更新，openGauss 使用 ON DUPLICATE KEY UPDATE；分区表由数据库按分区键路由。
+ * </p>
+ * <p>
+ * 连接已参与外部事务时不自行提交，由外部事务统一提交或回滚。
+ * </p>
+ */
+@Service
+@Slf4j
+public class SalesforceCopyLoadServiceImpl implements ISalesforceCopyLoadService {
+
+    /**
+     * 累积到该字节数后写入一次 COPY 流
+     */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String STAGE_TABLE_PREFIX = "copy_stage_";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ISalesforceObjectRegistryService objectRegistryService;
+
+    @Autowired
+    private ISalesforceStatisticsService statisticsService;
+
+    private volatile Boolean supported;
+
+    @Override
+    public boolean isSupported() {
+        Boolean current = supported;
+        if (current == null) {
+            current = detectSupport();
+            supported = current;
+        }
+        return current;
+    }
+
+    @Override
+    public int copyUpsert(String tableName, List<String> keys, Collection<? extends Collection<Object>> values) {
+        if (values == null || values.isEmpty()) {
+            return 0;
+        }
+
+        long startTime = System.currentTimeMillis();
+        SqlDialect dialect = objectRegistryService.getDialect();
+        String table = quote(tableName.toLowerCase(Locale.ROOT));
+        String stage = quote(STAGE_TABLE_PREFIX + tableName.toLowerCase(Locale.ROOT));
+        StringJoiner columns = new StringJoiner(", ");
+        StringJoiner updates = new StringJoiner(", ");
+        for (String key : keys) {
+            String column = quote(key.toLowerCase(Locale.ROOT));
+            columns.add(column);
+            if (!"id".equalsIgnoreCase(key)) {
+                updates.add(column + " = EXCLUDED." + column);
+            }
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        boolean transactional = DataSourceUtils.isConnectionTransactional(connection, dataSource);
+        boolean autoCommit = true;
+        try {
+            autoCommit = connection.getAutoCommit();
+            if (!transactional && autoCommit) {
+                connection.setAutoCommit(false);
+            }
+
+            int matched;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + stage);
+                statement.execute("CREATE TEMP TABLE " + stage + " (LIKE " + table + " INCLUDING DEFAULTS) ON COMMIT DELETE ROWS");
+
+                copyIn(connection, "COPY " + stage + " (" + columns + ") FROM STDIN WITH CSV", values);
+
+                try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(1) FROM " + stage + " s JOIN " + table + " t ON t.\"id\" = s.\"id\"")) {
+                    matched = resultSet.next() ? resultSet.getInt(1) : 0;
+                }
+
+                String conflictClause;
+                if (dialect == SqlDialect.OPENGAUSS) {
+                    conflictClause = updates.length() > 0 ? " ON DUPLICATE KEY UPDATE " + updates : " ON DUPLICATE KEY UPDATE NOTHING";
+                } else {
+                    conflictClause = updates.length() > 0
+                            ? " ON CONFLICT ON CONSTRAINT " + quote(tableName.toLowerCase(Locale.ROOT) + "_pkey") + " DO UPDATE SET " + updates
+                            : " ON CONFLICT DO NOTHING";
+                }
+                statement.executeUpdate("INSERT INTO " + table + " (" + columns + ") SELECT " + columns + " FROM " + stage + conflictClause);
+            }
+
+            if (!transactional) {
+                connection.commit();
+            }
+
+            int rows = values.size();
+            int inserted = Math.max(0, rows - matched);
+            statisticsService.recordUpsert(tableName, rows, matched);
+            log.info("COPY写入表 {} 共 {} 条记录，新增 {} 条，耗时 {}ms", tableName, rows, inserted, System.currentTimeMillis() - startTime);
+            return rows;
+        } catch (Exception e) {
+            if (!transactional) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackException) {
+                    log.warn("COPY写入表 {} 回滚失败: {}", tableName, rollbackException.getMessage());
+                }
+            }
+            throw new RuntimeException("COPY写入表 " + tableName + " 失败: " + e.getMessage(), e);
+        } finally {
+            if (!transactional && autoCommit) {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    log.warn("恢复连接自动提交失败: {}", e.getMessage());
+                }
+            }
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * 以CSV格式将记录写入 COPY 流
+     */
+    private void copyIn(Connection connection, String sql, Collection<? extends Collection<Object>> values) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 4096);
+            for (Collection<Object> row : values) {
+                appendCsvRow(buffer, row);
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeBuffer(copyIn, buffer);
+                }
+            }
+            writeBuffer(copyIn, buffer);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void writeBuffer(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    /**
+     * 追加一行CSV：null 写为空字段，其他值一律加引号，以区分空字符串
+     */
+    private void appendCsvRow(StringBuilder buffer, Collection<Object> row) {
+        boolean first = true;
+        for (Object value : row) {
+            if (!first) {
+                buffer.append(',');
+            }
+            first = false;
+            if (value == null) {
+                continue;
+            }
+            String text = formatValue(value);
+            buffer.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        }
+        buffer.append('\n');
+    }
+
+    /**
+     * 按数据库文本输入格式输出值，java.util.Date 按JVM默认时区输出，与JDBC参数绑定的结果一致
+     */
+    private String formatValue(Object value) {
+        if (value instanceof Date date) {
+            return DateFormatUtils.format(date, "yyyy-MM-dd HH:mm:ss.SSS");
+        } else if (value instanceof byte[] bytes) {
+            return "\\x" + HexFormat.of().formatHex(bytes);
+        }
+        return value.toString();
+    }
+
+    private String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private boolean detectSupport() {
+        if (!objectRegistryService.getDialect().isPostgresLike()) {
+            return false;
+        }
+        Connection connection = null;
+        try {
+            connection = DataSourceUtils.getConnection(dataSource);
+            boolean wrapper = connection.isWrapperFor(PGConnection.class);
+            log.info("本地库COPY写入{}", wrapper ? "可用" : "不可用，驱动未提供CopyManager");
+            return wrapper;
+        } catch (Throwable e) {
+            log.warn("检测本地库COPY写入能力失败，使用批量INSERT: {}", e.getMessage());
+            return false;
+        } finally {
+            if (connection != null) {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        }
+    }
+}
@@ -5,18 +5,30 @@ import com.datai.integration.model.domain.DataiIntegrationFilterLookup;
 import com.datai.integration.model.domain.DataiIntegrationMetadataChange;
 import com.datai.integration.model.domain.DataiIntegrationObject;
 import com.datai.integration.model.domain.DataiIntegrationPicklist;
+import com.alibaba.fastjson2.JSON;
+import com.datai.common.utils.CacheUtils;
 import com.datai.integration.model.param.DataiSyncParam;
 import com.datai.integration.factory.impl.SOAPConnectionFactory;
 import com.datai.integration.mapper.CustomMapper;
+import com.datai.integration.proxy.SalesforceRateLimiter;
 import com.datai.integration.service.IDataiIntegrationFieldService;
 import com.datai.integration.service.IDataiIntegrationFilterLookupService;
 import com.datai.integration.service.IDataiIntegrationMetadataChangeService;
 import com.datai.integration.service.IDataiIntegrationObjectService;
 import com.datai.integration.service.IDataiIntegrationPicklistService;
+import com.datai.integration.service.ISalesforceBulkExtractService;
 import com.datai.integration.service.ISalesforceDataPullService;
+import com.datai.integration.service.ISalesforceDescribeService;
+import com.datai.integration.service.ISalesforceObjectRegistryService;
+import com.datai.integration.service.ISalesforceStatisticsService;
 import com.datai.salesforce.common.utils.SoqlBuilder;
-import com.datai.integration.util.ConvertUtil;
+import com.datai.integration.util.RecordConvertPlan;
+import com.datai.integration.util.SalesforceIdRange;
+import com.datai.integration.util.TableLayout;
+import com.datai.integration.util.SqlDialect;
+import com.datai.setting.config.SalesforceConfigCacheManager;
 import com.datai.setting.future.SalesforceExecutor;
+import com.datai.setting.future.SalesforceTaskLane;
 import com.sforce.soap.partner.DescribeGlobalResult;
 import com.sforce.soap.partner.DescribeGlobalSObjectResult;
 import com.sforce.soap.partner.DescribeSObjectResult;
@@ -30,14 +42,21 @@ import com.sforce.ws.ConnectionException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
@@ -74,12 +93,64 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
     @Autowired
     private SalesforceExecutor salesforceExecutor;
 
+    @Autowired
+    private ISalesforceBulkExtractService bulkExtractService;
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    @Autowired
+    private SalesforceRateLimiter rateLimiter;
+
+    @Autowired
+    private ISalesforceDescribeService describeService;
+
+    @Autowired
+    private ISalesforceObjectRegistryService objectRegistryService;
+
+    @Autowired
+    private ISalesforceStatisticsService statisticsService;
+
+    @Autowired
+    @Qualifier("threadPoolTaskExecutor")
+    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+
 
     /**
      * 大数据量对象阈值（500万）
      */
     private static final int LARGE_OBJECT_THRESHOLD = 5000000;
 
+    /**
+     * Id分片进度缓存名称
+     */
+    private static final String ID_CHUNK_CACHE = "salesforceIdChunk";
+
+    /**
+     * Id分片进度缓存时长（小时）
+     */
+    private static final long ID_CHUNK_CACHE_HOURS = 24;
+
+    /**
+     * 单页记录并行转换时每段的记录数
+     */
+    private static final int CONVERT_SLICE_SIZE = 500;
+
+    /**
+     * 字段、选择列表与变更记录多行插入的批量大小
+     */
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * 表结构同步使用的对象描述摘要范围
+     */
+    private static final String DESCRIBE_HASH_SCOPE = "structure";
+
+    /**
+     * 元数据变更拉取使用的对象描述摘要范围
+     */
+    private static final String METADATA_HASH_SCOPE = "metadata";
+
     /**
      * 同步多个Salesforce对象的表结构
      *
@@ -105,17 +176,38 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
             IPartnerV1Connection connection = retryOperation(() -> soapConnectionFactory.getConnection("source"), 3, 1000);
             log.info("成功获取源ORG连接");
 
+            List<String> apis = new ArrayList<>();
             for (String objectApi : objectApis) {
                 if (objectApi != null && !objectApi.trim().isEmpty()) {
-                    boolean result = false;
-                    try {
+                    apis.add(objectApi.trim());
+                }
+            }
+
+            // 按组批量获取对象详细信息
+            Map<String, DescribeSObjectResult> describes = describeService.describeSObjects(connection, apis);
+            String hashScope = describeService.resolveScope(connection, DESCRIBE_HASH_SCOPE);
+            int skippedCount = 0;
+
+            for (String objectApi : apis) {
+                try {
+                    DescribeSObjectResult objDetail = describes.get(objectApi);
+                    if (objDetail == null) {
+                        log.error("未获取到对象 {} 的元数据，跳过该对象的同步", objectApi);
+                        continue;
+                    }
+
+                    // 描述与上次同步成功时一致，只跳过元数据与表结构部分，数据量与对象信息仍需更新
+                    String describeHash = describeService.computeHash(objDetail);
+                    boolean unchanged = describeService.isUnchanged(hashScope, objectApi, describeHash);
+                    boolean saved = false;
+                    if (unchanged) {
+                        skippedCount++;
+                        log.debug("对象 {} 的元数据未变化，跳过表结构同步", objectApi);
+                    } else {
                         log.info("开始同步对象: {}", objectApi);
-                        // 获取对象详细信息
-                        DescribeSObjectResult objDetail = connection.describeSObject(objectApi.trim());
-                        
                         // 保存对象元数据
                         DataiIntegrationObject object = buildObjectMetadata(objDetail);
-                        
+
                         // 检查buildObjectMetadata是否成功
                         if (object == null) {
                             log.error("构建对象 {} 的元数据失败，跳过该对象的同步", objectApi);
@@ -123,34 +215,32 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
                         }
 
                         // 保存对象字段信息
-                        saveObjectFieldsToDataiIntegrationField(objDetail);
+                        saved = saveObjectFieldsToDataiIntegrationField(objDetail);
+                    }
 
-                        // 检查对象数据量
-                        int objectNum = isLargeObject(connection, objectApi.trim());
-                        log.info("对象 {} 的数据量: {}", objectApi, objectNum);
+                    // 检查对象数据量
+                    int objectNum = isLargeObject(connection, objectApi);
+                    log.info("对象 {} 的数据量: {}", objectApi, objectNum);
 
-                        // 更新对象的日期和二进制字段信息
-                        updateDataiIntegrationObjectFields(objectApi.trim(), objectNum);
+                    // 更新对象的日期和二进制字段信息
+                    updateDataiIntegrationObjectFields(objectApi, objectNum);
 
-                        // 统一分区表判断阈值为100万
-                        if (objectNum > LARGE_OBJECT_THRESHOLD) {
-                            log.info("对象 {} 是大数据量对象，数据量大于一百万，创建分区表", objectApi);
-                            // 创建分区表（实际实现需要根据实际情况调整）
-                            result = true;
-                        } else {
-                            log.info("对象 {} 是普通对象，数据量少于一百万，创建正常表", objectApi);
-                            // 创建正常表（实际实现需要根据实际情况调整）
-                            result = true;
-                        }
-                        
-                        log.info("同步对象 {} 成功", objectApi);
-                    } catch (ConnectionException e) {
-                        log.error("获取对象 {} 的元数据失败: {}", objectApi, e.getMessage(), e);
-                    } catch (Exception e) {
-                        log.error("处理对象 {} 时出错: {}", objectApi, e.getMessage(), e);
+                    // 统一分区表判断阈值为100万
+                    if (objectNum > LARGE_OBJECT_THRESHOLD) {
+                        log.info("对象 {} 是大数据量对象，数据量大于一百万，创建分区表", objectApi);
+                    } else {
+                        log.info("对象 {} 是普通对象，数据量少于一百万，创建正常表", objectApi);
+                    }
+
+                    if (saved) {
+                        describeService.saveHash(hashScope, objectApi, describeHash);
                     }
+                    log.info("同步对象 {} 成功", objectApi);
+                } catch (Exception e) {
+                    log.error("处理对象 {} 时出错: {}", objectApi, e.getMessage(), e);
                 }
             }
+            log.info("对象表结构同步完成，共 {} 个对象，表结构未变化跳过 {} 个", apis.size(), skippedCount);
         } catch (Exception e) {
             log.error("Salesforce对象同步任务执行失败", e);
         }
@@ -211,8 +301,9 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
      * 保存对象字段信息
      *
      * @param objDetail 对象详情
+     * @return 字段信息是否全部保存成功
      */
-    private void saveObjectFieldsToDataiIntegrationField(DescribeSObjectResult objDetail) {
+    private boolean saveObjectFieldsToDataiIntegrationField(DescribeSObjectResult objDetail) {
         String objectApi = objDetail.getName();
 
         List<DataiIntegrationField> fields = new ArrayList<>();
@@ -315,12 +406,22 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
         }
 
         // 同步字段并记录变更
-        syncFieldsAndRecordChanges(objectApi, fields, picklists, filterLookups);
+        return syncFieldsAndRecordChanges(objectApi, fields, picklists, filterLookups);
     }
 
-    private void syncFieldsAndRecordChanges(String objectApi, List<DataiIntegrationField> newFields, 
-                                            List<DataiIntegrationPicklist> picklists, 
-                                            List<DataiIntegrationFilterLookup> filterLookups) {
+    /**
+     * 同步字段并记录变更
+     * <p>
+     * 新增字段、选择列表、过滤查找与变更记录按 {@link #INSERT_BATCH_SIZE} 条一组多行插入；
+     * 选择列表与过滤查找按对象整体替换，避免重复同步时累积重复数据。
+     * </p>
+     *
+     * @return 是否同步成功
+     */
+    private boolean syncFieldsAndRecordChanges(String objectApi, List<DataiIntegrationField> newFields,
+                                               List<DataiIntegrationPicklist> picklists,
+                                               List<DataiIntegrationFilterLookup> filterLookups) {
+        objectRegistryService.invalidate(objectApi);
         try {
             // 获取现有字段
             DataiIntegrationField queryField = new DataiIntegrationField();
@@ -345,6 +446,9 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
             List<DataiIntegrationObject> objects = integrationObjectService.selectDataiIntegrationObjectList(queryObject);
             String objectLabel = objects.isEmpty() ? objectApi : objects.get(0).getLabel();
             Boolean isCustom = objects.isEmpty() ? false : objects.get(0).getIsCustom();
+
+            List<DataiIntegrationField> insertFields = new ArrayList<>();
+            List<DataiIntegrationMetadataChange> changes = new ArrayList<>();
             
             // 处理新增和更新的字段
             for (DataiIntegrationField newField : newFields) {
@@ -352,9 +456,9 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
                 
                 if (existingField == null) {
                     // 新增字段
-                    integrationFieldService.insertDataiIntegrationField(newField);
-                    recordFieldChange(objectApi, objectLabel, newField.getField(), newField.getLabel(), 
-                                     null, "INSERT", "新增字段", isCustom);
+                    insertFields.add(newField);
+                    changes.add(buildFieldChange(objectApi, objectLabel, newField.getField(), newField.getLabel(),
+                                     null, "INSERT", "新增字段", isCustom));
                     log.debug("新增字段: {}.{}", objectApi, newField.getField());
                 } else {
                     // 检查字段是否有变更
@@ -362,9 +466,9 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
                     if (!changedFields.isEmpty()) {
                         newField.setId(existingField.getId());
                         integrationFieldService.updateDataiIntegrationField(newField);
-                        recordFieldChange(objectApi, objectLabel, newField.getField(), newField.getLabel(), 
+                        changes.add(buildFieldChange(objectApi, objectLabel, newField.getField(), newField.getLabel(),
                                          "字段属性变更: " + String.join(", ", changedFields), 
-                                         "UPDATE", "字段属性更新", isCustom);
+                                         "UPDATE", "字段属性更新", isCustom));
                         log.debug("更新字段: {}.{} - 变更: {}", objectApi, newField.getField(), 
                                  String.join(", ", changedFields));
                     }
@@ -374,29 +478,49 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
             // 处理删除的字段
             for (DataiIntegrationField existingField : existingFields) {
                 if (!newFieldMap.containsKey(existingField.getField())) {
-                    recordFieldChange(objectApi, objectLabel, existingField.getField(), existingField.getLabel(), 
-                                     "字段已从Salesforce中删除", "DELETE", "字段删除", isCustom);
+                    changes.add(buildFieldChange(objectApi, objectLabel, existingField.getField(), existingField.getLabel(),
+                                     "字段已从Salesforce中删除", "DELETE", "字段删除", isCustom));
                     log.warn("检测到字段已删除: {}.{}", objectApi, existingField.getField());
                 }
             }
-            
-            // 保存选择列表和过滤查找信息
-            if (!picklists.isEmpty()) {
-                for (DataiIntegrationPicklist picklist : picklists) {
-                    integrationPicklistService.insertDataiIntegrationPicklist(picklist);
-                }
+
+            for (List<DataiIntegrationField> chunk : partition(insertFields)) {
+                integrationFieldService.insertDataiIntegrationFieldBatch(chunk);
             }
-            if (!filterLookups.isEmpty()) {
-                for (DataiIntegrationFilterLookup filterLookup : filterLookups) {
-                    integrationFilterLookupService.insertDataiIntegrationFilterLookup(filterLookup);
-                }
+            for (List<DataiIntegrationMetadataChange> chunk : partition(changes)) {
+                metadataChangeService.insertDataiIntegrationMetadataChangeBatch(chunk);
             }
             
+            // 替换选择列表和过滤查找信息
+            integrationPicklistService.deleteDataiIntegrationPicklistByApi(objectApi);
+            for (List<DataiIntegrationPicklist> chunk : partition(picklists)) {
+                integrationPicklistService.insertDataiIntegrationPicklistBatch(chunk);
+            }
+            integrationFilterLookupService.deleteDataiIntegrationFilterLookupByApi(objectApi);
+            for (List<DataiIntegrationFilterLookup> chunk : partition(filterLookups)) {
+                integrationFilterLookupService.insertDataiIntegrationFilterLookupBatch(chunk);
+            }
+
+            log.debug("对象 {} 字段同步完成，新增字段 {} 个，变更记录 {} 条，选择列表 {} 条，过滤查找 {} 条",
+                    objectApi, insertFields.size(), changes.size(), picklists.size(), filterLookups.size());
+            return true;
         } catch (Exception e) {
             log.error("同步对象 {} 的字段时出错: {}", objectApi, e.getMessage(), e);
+            return false;
         }
     }
 
+    /**
+     * 按多行插入的批量大小切分列表
+     */
+    private <T> List<List<T>> partition(List<T> list) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += INSERT_BATCH_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + INSERT_BATCH_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
     private List<String> compareFields(DataiIntegrationField oldField, DataiIntegrationField newField) {
         List<String> changedFields = new ArrayList<>();
         
@@ -512,27 +636,21 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
         return changedFields;
     }
 
-    private void recordFieldChange(String objectApi, String objectLabel, String fieldApi, String fieldLabel, 
-                                   String changeReason, String operationType, String defaultReason, Boolean isCustom) {
-        try {
-            DataiIntegrationMetadataChange metadataChange = new DataiIntegrationMetadataChange();
-            metadataChange.setChangeType("FIELD");
-            metadataChange.setOperationType(operationType);
-            metadataChange.setObjectApi(objectApi);
-            metadataChange.setObjectLabel(objectLabel);
-            metadataChange.setFieldApi(fieldApi);
-            metadataChange.setFieldLabel(fieldLabel);
-            metadataChange.setChangeTime(LocalDateTime.now());
-            metadataChange.setSyncStatus(false);
-            metadataChange.setIsCustom(isCustom);
-            metadataChange.setChangeReason(changeReason != null ? changeReason : defaultReason);
-            metadataChange.setChangeUser("SYSTEM");
-
-            metadataChangeService.insertDataiIntegrationMetadataChange(metadataChange);
-            log.debug("记录字段变更成功: {}.{} - {}", objectApi, fieldApi, operationType);
-        } catch (Exception e) {
-            log.error("记录字段变更失败: {}.{} - {}", objectApi, fieldApi, e.getMessage(), e);
-        }
+    private DataiIntegrationMetadataChange buildFieldChange(String objectApi, String objectLabel, String fieldApi, String fieldLabel,
+                                                            String changeReason, String operationType, String defaultReason, Boolean isCustom) {
+        DataiIntegrationMetadataChange metadataChange = new DataiIntegrationMetadataChange();
+        metadataChange.setChangeType("FIELD");
+        metadataChange.setOperationType(operationType);
+        metadataChange.setObjectApi(objectApi);
+        metadataChange.setObjectLabel(objectLabel);
+        metadataChange.setFieldApi(fieldApi);
+        metadataChange.setFieldLabel(fieldLabel);
+        metadataChange.setChangeTime(LocalDateTime.now());
+        metadataChange.setSyncStatus(false);
+        metadataChange.setIsCustom(isCustom);
+        metadataChange.setChangeReason(changeReason != null ? changeReason : defaultReason);
+        metadataChange.setChangeUser("SYSTEM");
+        return metadataChange;
     }
 
     /**
@@ -616,27 +734,9 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
      */
     private int isLargeObject(IPartnerV1Connection connection, String objectApi) {
         try {
-            // 查询对象数据总量（简化实现，实际应使用更高效的方式）
+            // COUNT() 不返回记录，总数在 QueryResult.size 中
             QueryResult queryResult = connection.queryAll("SELECT COUNT() FROM " + objectApi);
-            
-            // 检查查询结果
-            if (queryResult != null && queryResult.getRecords() != null && queryResult.getRecords().length > 0) {
-                SObject record = queryResult.getRecords()[0];
-                Object countValue = record.getField("expr0");
-                
-                if (countValue != null) {
-                    String countStr = countValue.toString();
-                    // 安全转换为long
-                    long countLong = Long.parseLong(countStr);
-                    // 转换为int，确保不会溢出
-                    return Math.min(Math.toIntExact(countLong), Integer.MAX_VALUE);
-                }
-            }
-        } catch (NumberFormatException e) {
-            log.error("将对象 {} 的数据量转换为数字时出错: {}", objectApi, e.getMessage());
-        } catch (ArithmeticException e) {
-            log.error("对象 {} 的数据量超过int最大值，返回int最大值: {}", objectApi, e.getMessage());
-            return Integer.MAX_VALUE;
+            return queryResult != null ? Math.max(queryResult.getSize(), 0) : 0;
         } catch (Exception e) {
             log.error("检查对象 {} 的数据量时出错: {}", objectApi, e.getMessage());
         }
@@ -659,7 +759,8 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
             log.info("成功获取Salesforce SOAP连接，耗时 {}ms", System.currentTimeMillis() - startTime);
 
             // 获取对象的字段信息
-            List<String> fieldList = getSalesforceObjectFields(connection, objectApi);
+            Field[] objectFields = connection.describeSObject(objectApi).getFields();
+            List<String> fieldList = getSalesforceObjectFields(objectFields);
             log.info("获取到对象 {} 的字段列表，共 {} 个字段", objectApi, fieldList.size());
 
             // 构建查询参数
@@ -673,8 +774,20 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
                 log.info("对象 {} 存在删除字段，将包含删除记录", objectApi);
             }
 
-            // 执行查询并处理结果
-            int totalCount = executeQueryAndProcessData(connection, param, fieldList);
+            // 执行查询并处理结果，数据量超过阈值时使用 Bulk API 2.0 提取
+            int totalCount;
+            int recordCount = isLargeObject(connection, objectApi);
+            if (bulkExtractService.shouldUseBulkApi(recordCount)) {
+                log.info("对象 {} 共 {} 条记录，超过Bulk阈值，使用Bulk API 2.0提取", objectApi, recordCount);
+                param.setSelect(bulkExtractService.buildBulkSelect(objectFields));
+                totalCount = bulkExtractService.extractObjectData(objectApi, objectFields, buildDynamicQuery(param));
+            } else if (recordCount > LARGE_OBJECT_THRESHOLD) {
+                log.info("对象 {} 共 {} 条记录，超过大对象阈值，按Id分片并发拉取", objectApi, recordCount);
+                totalCount = executeChunkedQueryAndProcessData(connection, param, objectFields, recordCount);
+            } else {
+                log.info("对象 {} 共 {} 条记录，未超过分片与Bulk阈值，单流拉取", objectApi, recordCount);
+                totalCount = executeQueryAndProcessData(connection, param, objectFields);
+            }
             
             long endTime = System.currentTimeMillis();
             long duration = endTime - startTime;
@@ -696,18 +809,12 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
      * 查询指定对象的所有字段，并过滤掉不支持的字段类型（如base64）
      * </p>
      *
-     * @param connection SOAP连接
-     * @param objectApi  对象API名称
+     * @param objectFields 对象字段描述
      * @return 字段列表
-     * @throws ConnectionException 连接异常
      */
-    private List<String> getSalesforceObjectFields(IPartnerV1Connection connection, String objectApi) throws ConnectionException {
+    private List<String> getSalesforceObjectFields(Field[] objectFields) {
         List<String> fields = new ArrayList<>();
 
-        // 获取对象描述信息
-        DescribeSObjectResult describeResult = connection.describeSObject(objectApi);
-        Field[] objectFields = describeResult.getFields();
-
         // 过滤字段
         for (Field field : objectFields) {
             // 不查询文件类型字段
@@ -731,51 +838,344 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
     /**
      * 执行查询并处理结果
      * <p>
-     * 根据参数分批查询Salesforce数据并处理
+     * 以流水线方式分批查询Salesforce数据并处理：预取下一页（queryMore）、并行转换当前页、
+     * 写入上一页三个阶段同时进行。预取最多领先一页、写入最多一页在途，形成背压，
+     * 请求节奏由 {@link SalesforceRateLimiter} 控制。
      * </p>
      *
      * @param connection SOAP连接
      * @param param      查询参数
-     * @param fieldList  字段列表
+     * @param fields     字段描述
      * @return 处理的数据条数
      */
-    private int executeQueryAndProcessData(IPartnerV1Connection connection, DataiSyncParam param, List<String> fieldList) {
+    private int executeQueryAndProcessData(IPartnerV1Connection connection, DataiSyncParam param, Field[] fields) {
+        String api = param.getApi();
+        RecordConvertPlan plan = objectRegistryService.getConvertPlan(api, fields);
         int totalCount = 0;
+        CompletableFuture<Integer> pendingWrite = CompletableFuture.completedFuture(0);
         try {
             // 构建查询语句
             String query = buildDynamicQuery(param);
             log.info("执行查询SQL: {}", query);
 
             // 执行查询
+            rateLimiter.acquire();
             QueryResult result = connection.queryAll(query);
 
             // 处理查询结果
             while (true) {
-                if (result.getRecords() != null && result.getRecords().length > 0) {
-                    totalCount += processQueryResult(param.getApi(), result, fieldList);
+                // 阶段一：预取下一页
+                CompletableFuture<QueryResult> nextPage = null;
+                if (!result.isDone()) {
+                    String queryLocator = result.getQueryLocator();
+                    rateLimiter.acquire();
+                    nextPage = CompletableFuture.supplyAsync(() -> queryMore(connection, queryLocator), threadPoolTaskExecutor);
+                }
+
+                SObject[] records = result.getRecords();
+                if (records != null && records.length > 0) {
+                    // 阶段二：转换当前页
+                    List<Object[]> rows = convertRecords(records, plan);
+
+                    // 阶段三：等待上一页写入完成后提交当前页
+                    totalCount += pendingWrite.join();
+                    pendingWrite = CompletableFuture.supplyAsync(() -> writeRecords(api, plan, rows), threadPoolTaskExecutor);
                     log.info("已处理 {} 条记录", totalCount);
                 }
 
                 // 检查是否还有更多数据
-                if (result.isDone()) {
+                if (nextPage == null) {
                     break;
                 }
-
-                // 使用queryMore获取下一批数据
-                result = connection.queryMore(result.getQueryLocator());
-
-                // 添加短暂延迟，避免API限制
-                TimeUnit.MILLISECONDS.sleep(100);
+                result = nextPage.join();
             }
+            totalCount += pendingWrite.join();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.error("查询数据时线程被中断，对象API: {}", param.getApi(), e);
+            log.error("查询数据时线程被中断，对象API: {}", api, e);
         } catch (Exception e) {
-            log.error("查询处理数据时发生异常，对象API: {}", param.getApi(), e);
+            log.error("查询处理数据时发生异常，对象API: {}", api, e);
+            try {
+                totalCount += pendingWrite.join();
+            } catch (Exception writeException) {
+                log.error("等待最后一页写入时发生异常，对象API: {}", api, writeException);
+            }
         }
         return totalCount;
     }
 
+    /**
+     * 获取下一页数据，供异步预取使用
+     *
+     * @param connection   SOAP连接
+     * @param queryLocator 查询定位器
+     * @return 查询结果
+     */
+    private QueryResult queryMore(IPartnerV1Connection connection, String queryLocator) {
+        try {
+            return connection.queryMore(queryLocator);
+        } catch (ConnectionException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * 按Id范围分片并发拉取大数据量对象
+     * <p>
+     * 由最小、最大Id与记录总数推算分片边界，各分片以 Id > maxId AND Id <= endId 查询，
+     * 由当前线程与最多 (单对象并发数 - 1) 个 SalesforceExecutor 任务共同消费。
+     * 每页处理完成后记录分片的maxId，失败或重启后从未完成的分片及其maxId继续。
+     * </p>
+     *
+     * @param connection SOAP连接
+     * @param param      查询参数
+     * @param fields     字段描述
+     * @param total      选择拉取方式时统计的记录总数
+     * @return 处理的数据条数
+     * @throws ConnectionException 连接异常
+     */
+    private int executeChunkedQueryAndProcessData(IPartnerV1Connection connection, DataiSyncParam param, Field[] fields,
+                                                  long total) throws ConnectionException {
+        String api = param.getApi();
+        List<DataiSyncParam> chunks = loadIdChunks(param);
+        if (chunks == null) {
+            try {
+                chunks = buildIdChunks(connection, param, total, getConfigInt("salesforce.chunk.size", 500000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("生成Id分片时线程被中断", e);
+            }
+            saveIdChunks(api, chunks);
+        } else {
+            log.info("对象 {} 存在未完成的Id分片 {} 个，从断点继续拉取", api, chunks.size());
+        }
+
+        if (chunks.size() <= 1 && StringUtils.isEmpty(chunks.get(0).getMaxId()) && StringUtils.isEmpty(chunks.get(0).getEndId())) {
+            CacheUtils.remove(ID_CHUNK_CACHE, api);
+            return executeQueryAndProcessData(connection, param, fields);
+        }
+
+        List<DataiSyncParam> remaining = Collections.synchronizedList(new ArrayList<>(chunks));
+        ConcurrentLinkedQueue<DataiSyncParam> queue = new ConcurrentLinkedQueue<>(chunks);
+        AtomicInteger totalCount = new AtomicInteger();
+        AtomicInteger failedCount = new AtomicInteger();
+
+        Runnable worker = () -> {
+            DataiSyncParam chunk;
+            while ((chunk = queue.poll()) != null) {
+                try {
+                    totalCount.addAndGet(pullIdChunk(connection, chunk, fields, remaining));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failedCount.incrementAndGet();
+                    return;
+                } catch (Exception e) {
+                    failedCount.incrementAndGet();
+                    log.error("对象 {} Id分片 ({}, {}] 拉取失败", api, chunk.getMaxId(), chunk.getEndId(), e);
+                }
+            }
+        };
+
+        // 只等待已开始执行的辅助任务，未开始的直接移除，避免在线程池内互相等待
+        Object lock = new Object();
+        int[] running = {0};
+        boolean[] closed = {false};
+        int concurrency = Math.min(getConfigInt("salesforce.chunk.concurrency.per.object", 4), chunks.size());
+        List<Future<?>> helpers = new ArrayList<>();
+        for (int i = 1; i < concurrency; i++) {
+            helpers.add(salesforceExecutor.execute(() -> {
+                synchronized (lock) {
+                    if (closed[0]) {
+                        return;
+                    }
+                    running[0]++;
+                }
+                try {
+                    worker.run();
+                } finally {
+                    synchronized (lock) {
+                        running[0]--;
+                        lock.notifyAll();
+                    }
+                }
+            }, 0, 0, SalesforceTaskLane.BACKFILL, "source", api));
+        }
+
+        worker.run();
+
+        synchronized (lock) {
+            closed[0] = true;
+            while (running[0] > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("等待Id分片拉取完成时线程被中断", e);
+                }
+            }
+        }
+        salesforceExecutor.remove(helpers.toArray(new Future<?>[0]));
+
+        if (failedCount.get() > 0) {
+            throw new RuntimeException("对象 " + api + " 有 " + failedCount.get() + " 个Id分片拉取失败，已保留断点");
+        }
+        CacheUtils.remove(ID_CHUNK_CACHE, api);
+        log.info("对象 {} 全部Id分片拉取完成，共处理 {} 条记录", api, totalCount.get());
+        return totalCount.get();
+    }
+
+    /**
+     * 拉取单个Id分片，每页处理完成后记录断点
+     *
+     * @param connection SOAP连接
+     * @param chunk      分片查询参数
+     * @param fields     字段描述
+     * @param remaining  未完成的分片
+     * @return 处理的数据条数
+     * @throws ConnectionException 连接异常
+     */
+    private int pullIdChunk(IPartnerV1Connection connection, DataiSyncParam chunk, Field[] fields,
+                            List<DataiSyncParam> remaining) throws ConnectionException, InterruptedException {
+        int count = 0;
+        rateLimiter.acquire();
+        QueryResult result = connection.queryAll(buildDynamicQuery(chunk));
+        while (true) {
+            SObject[] records = result.getRecords();
+            if (records != null && records.length > 0) {
+                count += processQueryResult(chunk.getApi(), result, fields);
+                chunk.setMaxId(records[records.length - 1].getId());
+                saveIdChunks(chunk.getApi(), remaining);
+            }
+            if (result.isDone()) {
+                break;
+            }
+            rateLimiter.acquire();
+            result = connection.queryMore(result.getQueryLocator());
+        }
+
+        remaining.remove(chunk);
+        saveIdChunks(chunk.getApi(), remaining);
+        log.info("对象 {} Id分片 (.., {}] 拉取完成，处理 {} 条记录", chunk.getApi(), chunk.getEndId(), count);
+        return count;
+    }
+
+    /**
+     * 按最小、最大Id与记录总数推算分片边界
+     * <p>
+     * 记录总数沿用选择拉取方式时的统计，只再发起取最小Id、最大Id两次查询，均经过限流；按 记录数 / chunkSize 确定分片数后在Id区间内等分，
+     * 不再逐条扫描全部Id。Id格式无法识别时退回单个分片。
+     * </p>
+     *
+     * @param connection SOAP连接
+     * @param param      查询参数
+     * @param total      记录总数
+     * @param chunkSize  分片大小
+     * @return 分片查询参数列表
+     * @throws ConnectionException 连接异常
+     */
+    private List<DataiSyncParam> buildIdChunks(IPartnerV1Connection connection, DataiSyncParam param, long total, int chunkSize)
+            throws ConnectionException, InterruptedException {
+        String minId = queryBoundaryId(connection, param, SoqlBuilder.SortOrder.ASC);
+        String maxId = queryBoundaryId(connection, param, SoqlBuilder.SortOrder.DESC);
+
+        List<String> boundaries = Collections.emptyList();
+        if (minId != null && maxId != null) {
+            long parts = (total + Math.max(1, chunkSize) - 1) / Math.max(1, chunkSize);
+            boundaries = SalesforceIdRange.split(minId, maxId, (int) Math.min(parts, Integer.MAX_VALUE));
+        }
+
+        List<DataiSyncParam> chunks = new ArrayList<>();
+        String lowerId = null;
+        for (String boundary : boundaries) {
+            chunks.add(buildIdChunk(param, lowerId, boundary));
+            lowerId = boundary;
+        }
+        chunks.add(buildIdChunk(param, lowerId, null));
+        log.info("对象 {} 共 {} 条记录，Id区间 [{}, {}]，生成 {} 个Id分片", param.getApi(), total, minId, maxId, chunks.size());
+        return chunks;
+    }
+
+    /**
+     * 查询对象的最小或最大Id
+     *
+     * @return Id；对象无数据时返回null
+     */
+    private String queryBoundaryId(IPartnerV1Connection connection, DataiSyncParam param, SoqlBuilder.SortOrder order)
+            throws ConnectionException, InterruptedException {
+        String query = new SoqlBuilder()
+                .select(param.getIdField())
+                .from(param.getApi())
+                .orderBy(param.getIdField(), order)
+                .limit(1)
+                .build();
+        rateLimiter.acquire();
+        QueryResult result = connection.queryAll(query);
+        SObject[] records = result.getRecords();
+        return records != null && records.length > 0 ? records[0].getId() : null;
+    }
+
+    private DataiSyncParam buildIdChunk(DataiSyncParam param, String maxId, String endId) {
+        DataiSyncParam chunk = new DataiSyncParam();
+        chunk.setApi(param.getApi());
+        chunk.setSelect(param.getSelect());
+        chunk.setIdField(param.getIdField());
+        chunk.setBatchField(param.getBatchField());
+        chunk.setIsDeleted(param.getIsDeleted());
+        chunk.setMaxId(maxId);
+        chunk.setEndId(endId);
+        return chunk;
+    }
+
+    /**
+     * 读取未完成的Id分片，字段列表以本次查询为准
+     */
+    private List<DataiSyncParam> loadIdChunks(DataiSyncParam param) {
+        String cached = CacheUtils.get(ID_CHUNK_CACHE, param.getApi(), String.class);
+        if (StringUtils.isEmpty(cached)) {
+            return null;
+        }
+        List<DataiSyncParam> chunks = new ArrayList<>();
+        for (DataiSyncParam saved : JSON.parseArray(cached, DataiSyncParam.class)) {
+            chunks.add(buildIdChunk(param, saved.getMaxId(), saved.getEndId()));
+        }
+        return chunks.isEmpty() ? null : chunks;
+    }
+
+    /**
+     * 保存未完成的Id分片及断点
+     */
+    private void saveIdChunks(String api, List<DataiSyncParam> chunks) {
+        List<Map<String, String>> progress = new ArrayList<>();
+        synchronized (chunks) {
+            for (DataiSyncParam chunk : chunks) {
+                Map<String, String> item = new HashMap<>();
+                item.put("maxId", chunk.getMaxId());
+                item.put("endId", chunk.getEndId());
+                progress.add(item);
+            }
+        }
+        CacheUtils.put(ID_CHUNK_CACHE, api, JSON.toJSONString(progress), ID_CHUNK_CACHE_HOURS, TimeUnit.HOURS);
+    }
+
+    /**
+     * 从配置缓存中获取整数类型配置值
+     *
+     * @param configKey 配置键
+     * @param defaultValue 默认值
+     * @return 配置值或默认值
+     */
+    private int getConfigInt(String configKey, int defaultValue) {
+        String value = configCacheManager.getConfigValue(configKey);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.warn("配置项{}的值{}无法转换为整数，使用默认值{}", configKey, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
     /**
      * 构建动态查询语句
      *
@@ -825,6 +1225,15 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
         if (StringUtils.isNotEmpty(param.getMaxId())) {
             builder.whereGt(param.getIdField(), param.getMaxId());
         }
+
+        if (StringUtils.isNotEmpty(param.getEndId())) {
+            builder.whereLe(param.getIdField(), param.getEndId());
+        }
+
+        // Id分片按Id升序拉取，保证每页最后一条记录的Id可作为断点
+        if (StringUtils.isNotEmpty(param.getMaxId()) || StringUtils.isNotEmpty(param.getEndId())) {
+            builder.orderBy(param.getIdField(), SoqlBuilder.SortOrder.ASC);
+        }
         
         if (param.getLimit() != null && param.getLimit() > 0) {
             builder.limit(param.getLimit());
@@ -836,204 +1245,209 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
     /**
      * 处理查询结果
      *
-     * @param api       API名称
-     * @param result    查询结果
-     * @param fieldList 字段列表
+     * @param api    API名称
+     * @param result 查询结果
+     * @param fields 字段描述
      * @return 处理的数据条数
      */
-    private int processQueryResult(String api, QueryResult result, List<String> fieldList) {
-        int count = 0;
-        
+    private int processQueryResult(String api, QueryResult result, Field[] fields) {
         // 检查查询结果是否为空
         if (result == null || result.getRecords() == null) {
             log.info("处理API {} 的查询结果，共 0 条记录", api);
-            return count;
+            return 0;
         }
-        
-        SObject[] records = result.getRecords();
-        log.info("处理API {} 的查询结果，共 {} 条记录", api, records.length);
+        RecordConvertPlan plan = objectRegistryService.getConvertPlan(api, fields);
+        return writeRecords(api, plan, convertRecords(result.getRecords(), plan));
+    }
 
-        // 检查表是否分区（只检查一次，减少数据库查询）
-        boolean isPartitioned = checkIfTablePartitioned(api);
-        String batchField = null;
-        if (isPartitioned) {
-            // 只获取一次日期字段，减少方法调用
-            batchField = integrationFieldService.getDateField(api);
+    /**
+     * 转换一页查询结果
+     * <p>
+     * 记录数较多时按段提交到线程池并行转换，结果保持原有顺序
+     * </p>
+     *
+     * @param records SObject记录
+     * @param plan    对象的记录转换计划
+     * @return 与转换计划列对齐的值数组，转换失败的记录被跳过
+     */
+    private List<Object[]> convertRecords(SObject[] records, RecordConvertPlan plan) {
+        if (records.length <= CONVERT_SLICE_SIZE) {
+            return convertRecordSlice(records, 0, records.length, plan);
         }
 
-        // 准备批量处理的数据
-        Map<String, List<Map<String, Object>>> partitionedData = new HashMap<>();
-        List<Map<String, Object>> normalData = new ArrayList<>();
+        List<CompletableFuture<List<Object[]>>> slices = new ArrayList<>();
+        for (int from = 0; from < records.length; from += CONVERT_SLICE_SIZE) {
+            int start = from;
+            int end = Math.min(from + CONVERT_SLICE_SIZE, records.length);
+            slices.add(CompletableFuture.supplyAsync(() -> convertRecordSlice(records, start, end, plan), threadPoolTaskExecutor));
+        }
 
-        // 转换所有记录
-        for (SObject record : records) {
+        List<Object[]> rows = new ArrayList<>(records.length);
+        for (CompletableFuture<List<Object[]>> slice : slices) {
+            rows.addAll(slice.join());
+        }
+        return rows;
+    }
+
+    private List<Object[]> convertRecordSlice(SObject[] records, int start, int end, RecordConvertPlan plan) {
+        List<Object[]> rows = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            SObject record = records[i];
             if (record == null) {
                 continue;
             }
-            
             try {
-                // 将SObject记录转换为Map
-                Map<String, Object> recordMap = convertSObjectToMap(record, fieldList);
-
-                if (isPartitioned) {
-                    // 根据日期字段值确定分区名
-                    String partitionName = "p_default";
-                    
-                    if (StringUtils.isNotEmpty(batchField) && recordMap.containsKey(batchField.toLowerCase())) {
-                        Object dateValue = recordMap.get(batchField.toLowerCase());
-                        if (dateValue instanceof Date) {
-                            Calendar calendar = Calendar.getInstance();
-                            calendar.setTime((Date) dateValue);
-                            int year = calendar.get(Calendar.YEAR);
-                            partitionName = "p" + year;
-                        }
-                    }
-                    
-                    // 按分区名分组数据
-                    partitionedData.computeIfAbsent(partitionName, k -> new ArrayList<>()).add(recordMap);
-                } else {
-                    // 普通表数据
-                    normalData.add(recordMap);
-                }
-
-                count++;
-
+                rows.add(plan.convert(record));
             } catch (Exception e) {
                 String recordId = record.getId() != null ? record.getId() : "未知";
                 log.error("处理记录时发生异常，记录ID: {}", recordId, e);
             }
         }
+        return rows;
+    }
+
+    /**
+     * 将转换后的记录写入本地表
+     *
+     * @param api  API名称
+     * @param plan 对象的记录转换计划
+     * @param rows 转换后的记录
+     * @return 处理的数据条数
+     */
+    private int writeRecords(String api, RecordConvertPlan plan, List<Object[]> rows) {
+        log.info("处理API {} 的查询结果，共 {} 条记录", api, rows.size());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        // 表结构由对象注册表缓存，不再每页查询 information_schema
+        String tableName = api.toLowerCase();
+        TableLayout layout = objectRegistryService.getTableLayout(tableName);
+        boolean isPartitioned = layout.isPartitioned();
+        int batchSlot = -1;
+        if (isPartitioned) {
+            // 只获取一次日期字段，减少方法调用
+            batchSlot = plan.indexOf(integrationFieldService.getDateField(api));
+        }
 
-        // 批量处理数据
         try {
             if (isPartitioned) {
-                // 按分区批量插入
-                for (Map.Entry<String, List<Map<String, Object>>> entry : partitionedData.entrySet()) {
-                    String partitionName = entry.getKey();
-                    List<Map<String, Object>> dataList = entry.getValue();
-                    if (!dataList.isEmpty()) {
-                        // 将数据转换为saveBatchToPartition方法所需的格式
-                        if (!dataList.isEmpty()) {
-                            // 获取字段名列表
-                            Collection<String> keys = dataList.get(0).keySet();
-                            // 转换值列表
-                            Collection<Collection<Object>> values = new ArrayList<>();
-                            for (Map<String, Object> recordMap : dataList) {
-                                Collection<Object> recordValues = new ArrayList<>();
-                                for (String key : keys) {
-                                    recordValues.add(recordMap.get(key));
-                                }
-                                values.add(recordValues);
-                            }
-                            // 调用批量插入方法
-                            customMapper.saveBatchToPartition(api.toLowerCase(), partitionName, keys, values);
-                            log.info("批量插入分区 {} 数据 {} 条", partitionName, dataList.size());
-                        }
-                    }
+                // 按年份分组数据，缺少的年份分区先追加
+                Map<Integer, List<Object[]>> partitionedData = new HashMap<>();
+                for (Object[] row : rows) {
+                    partitionedData.computeIfAbsent(resolvePartitionYear(row, batchSlot), k -> new ArrayList<>()).add(row);
                 }
-            } else {
-                // 批量插入普通表
-                if (!normalData.isEmpty()) {
-                    // 将数据转换为saveBatch方法所需的格式
-                    Collection<String> keys = normalData.get(0).keySet();
-                    Collection<Collection<Object>> values = new ArrayList<>();
-                    for (Map<String, Object> recordMap : normalData) {
-                        Collection<Object> recordValues = new ArrayList<>();
-                        for (String key : keys) {
-                            recordValues.add(recordMap.get(key));
-                        }
-                        values.add(recordValues);
-                    }
-                    // 调用批量插入方法
-                    customMapper.saveBatch(api.toLowerCase(), keys, values);
-                    log.info("批量插入普通表数据 {} 条", normalData.size());
+                objectRegistryService.ensurePartitions(tableName, partitionedData.keySet());
+                // 按分区批量写入，已存在的记录按主键更新；没有对应分区的记录由数据库按分区键路由
+                for (Map.Entry<Integer, List<Object[]>> entry : partitionedData.entrySet()) {
+                    List<Object[]> dataList = entry.getValue();
+                    int[] slots = objectRegistryService.resolveSlots(tableName, plan, dataList);
+                    String partitionName = resolvePartitionName(layout, entry.getKey());
+                    upsertRows(tableName, partitionName, plan.columnsOf(slots), plan.valuesOf(dataList, slots));
+                    log.info("批量写入分区 {} 数据 {} 条", partitionName, dataList.size());
                 }
+            } else {
+                // 批量写入普通表，已存在的记录按主键更新，空值字段不写入
+                int[] slots = objectRegistryService.resolveSlots(tableName, plan, rows);
+                upsertRows(tableName, null, plan.columnsOf(slots), plan.valuesOf(rows, slots));
+                log.info("批量写入普通表数据 {} 条", rows.size());
             }
         } catch (Exception e) {
             log.error("批量处理数据时发生异常，API: {}", api, e);
-            // 如果批量处理失败，尝试单条处理
-            fallbackToSingleRecordProcessing(api, records, fieldList, isPartitioned, batchField);
+            // 如果批量处理失败，重新加载表结构（列可能已被删除）后尝试单条处理
+            fallbackToSingleRecordProcessing(tableName, plan, objectRegistryService.refreshTableLayout(tableName), rows, batchSlot);
         }
 
-        return count;
+        return rows.size();
     }
 
     /**
-     * 批量处理失败时的回退方案，使用单条记录处理
+     * 批量写入记录，已存在的记录按主键更新
+     * <p>
+     * PostgreSQL 系单条语句的绑定参数有上限，宽表的大页按 {@link SqlDialect#maxBatchRows(int)} 拆分为多条语句写入。
+     * </p>
      *
-     * @param api       API名称
-     * @param records   记录列表
-     * @param fieldList 字段列表
-     * @param isPartitioned 是否为分区表
-     * @param batchField 批次字段
+     * @param tableName     表名
+     * @param partitionName 分区名，为null时写入主表
+     * @param keys          字段列表
+     * @param values        记录值
      */
-    private void fallbackToSingleRecordProcessing(String api, SObject[] records, List<String> fieldList, boolean isPartitioned, String batchField) {
-        log.warn("批量处理数据失败，将回退到单条记录处理，API: {}", api);
-        
-        // 检查参数是否为空
-        if (records == null || records.length == 0) {
-            log.info("回退处理API {} 的记录，共 0 条记录", api);
-            return;
-        }
-        
-        for (SObject record : records) {
-            if (record == null) {
-                continue;
-            }
-            
-            try {
-                // 将SObject记录转换为Map
-                Map<String, Object> recordMap = convertSObjectToMap(record, fieldList);
-                
-                if (isPartitioned) {
-                    // 根据日期字段值确定分区名
-                    String partitionName = "p_default";
-                    
-                    if (StringUtils.isNotEmpty(batchField) && recordMap.containsKey(batchField.toLowerCase())) {
-                        Object dateValue = recordMap.get(batchField.toLowerCase());
-                        if (dateValue instanceof Date) {
-                            Calendar calendar = Calendar.getInstance();
-                            calendar.setTime((Date) dateValue);
-                            int year = calendar.get(Calendar.YEAR);
-                            partitionName = "p" + year;
-                        }
-                    }
-                    
-                    customMapper.upsertToPartition(api.toLowerCase(), partitionName, recordMap);
-                } else {
-                    customMapper.upsert(api.toLowerCase(), recordMap);
-                }
-            } catch (Exception e) {
-                String recordId = record.getId() != null ? record.getId() : "未知";
-                log.error("单条处理记录时发生异常，记录ID: {}", recordId, e);
+    private void upsertRows(String tableName, String partitionName, List<String> keys, List<Collection<Object>> values) {
+        int sliceSize = objectRegistryService.getDialect().maxBatchRows(keys.size());
+        for (int from = 0; from < values.size(); from += sliceSize) {
+            List<Collection<Object>> slice = values.subList(from, Math.min(from + sliceSize, values.size()));
+            int existing = statisticsService.countExisting(tableName, keys, slice);
+            if (partitionName != null) {
+                customMapper.upsertBatchToPartition(tableName, partitionName, keys, slice);
+            } else {
+                customMapper.upsertBatch(tableName, keys, slice);
             }
+            statisticsService.recordUpsert(tableName, slice.size(), existing);
         }
     }
 
     /**
-     * 检查表是否已分区
+     * 根据日期字段值确定分区年份
      *
-     * @param tableName 表名
-     * @return 是否已分区
+     * @param row       转换后的记录
+     * @param batchSlot 批次字段在记录中的位置，-1表示无批次字段
+     * @return 年份，日期字段为空时返回-1
      */
-    private boolean checkIfTablePartitioned(String tableName) {
-        // 查询数据库确认表是否已分区
-        Boolean isPartitioned = customMapper.isPartitioned(tableName);
-        return (isPartitioned != null) ? isPartitioned : false;
+    private int resolvePartitionYear(Object[] row, int batchSlot) {
+        Object dateValue = batchSlot >= 0 ? row[batchSlot] : null;
+        if (dateValue instanceof LocalDateTime dateTime) {
+            return dateTime.getYear();
+        } else if (dateValue instanceof LocalDate date) {
+            return date.getYear();
+        }
+        return -1;
     }
 
     /**
-     * 将SObject转换为Map
+     * 年份对应的已存在分区名
      *
-     * @param record SObject记录
-     * @param fieldList 字段列表
-     * @return 转换后的Map
+     * @param layout 表结构
+     * @param year   年份
+     * @return 分区名，分区不存在时返回null
      */
-    private Map<String, Object> convertSObjectToMap(SObject record, List<String> fieldList) {
-        return null;
+    private String resolvePartitionName(TableLayout layout, int year) {
+        String partitionName = year > 0 ? TableLayout.partitionName(year) : null;
+        return layout.hasPartition(partitionName) ? partitionName : null;
     }
 
-
+    /**
+     * 批量处理失败时的回退方案，使用单条记录处理
+     *
+     * @param tableName 表名
+     * @param plan      对象的记录转换计划
+     * @param layout    表结构
+     * @param rows      转换后的记录
+     * @param batchSlot 批次字段在记录中的位置
+     */
+    private void fallbackToSingleRecordProcessing(String tableName, RecordConvertPlan plan, TableLayout layout,
+                                                  List<Object[]> rows, int batchSlot) {
+        log.warn("批量处理数据失败，将回退到单条记录处理，API: {}", tableName);
+
+        Set<String> columns = layout.getColumns();
+        for (Object[] row : rows) {
+            Map<String, Object> recordMap = plan.toMap(row);
+            if (!columns.isEmpty()) {
+                recordMap.keySet().retainAll(columns);
+            }
+            try {
+                String partitionName = layout.isPartitioned() ? resolvePartitionName(layout, resolvePartitionYear(row, batchSlot)) : null;
+                int existing = statisticsService.countExisting(tableName, new ArrayList<>(recordMap.keySet()), List.of(recordMap.values()));
+                if (partitionName != null) {
+                    customMapper.upsertToPartition(tableName, partitionName, recordMap);
+                } else {
+                    customMapper.upsert(tableName, recordMap);
+                }
+                statisticsService.recordUpsert(tableName, 1, existing);
+            } catch (Exception e) {
+                log.error("单条处理记录时发生异常，记录ID: {}", recordMap.get("id"), e);
+            }
+        }
+    }
 
     @Override
     public boolean syncObjectsData(List<String> objectApis) {
@@ -1103,7 +1517,7 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
                     log.error("同步对象 {} 时发生异常: {}", api, e.getMessage(), e);
                     resultMap.put(api, false);
                 }
-            }, batchIndex, priority);
+            }, batchIndex, priority, SalesforceTaskLane.BACKFILL, "source", api);
 
             futures.add(future);
             batchIndex++;
@@ -1158,7 +1572,8 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
             log.info("成功获取Salesforce SOAP连接");
 
             // 获取对象的字段信息
-            List<String> fieldList = getSalesforceObjectFields(connection, objectApi);
+            Field[] objectFields = connection.describeSObject(objectApi).getFields();
+            List<String> fieldList = getSalesforceObjectFields(objectFields);
             log.info("获取到对象 {} 的字段列表: {}", objectApi, fieldList);
 
             // 构建查询参数
@@ -1172,7 +1587,7 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
             }
 
             // 执行查询并处理结果
-            int totalCount = executeQueryAndProcessData(connection, param, fieldList);
+            int totalCount = executeQueryAndProcessData(connection, param, objectFields);
             log.info("对象 {} 批次 {} 数据同步完成，共处理 {} 条记录", objectApi, batchId, totalCount);
 
             return true;
@@ -1406,109 +1821,130 @@ public class SalesforceDataPullServiceImpl implements ISalesforceDataPullService
             int objectChangeCount = 0;
             int fieldChangeCount = 0;
 
+            List<String> objectApis = new ArrayList<>();
             for (DescribeGlobalSObjectResult sObject : sObjects) {
+                if (shouldSyncObject(sObject)) {
+                    objectApis.add(sObject.getName());
+                }
+            }
+            Map<String, DescribeSObjectResult> describes = describeService.describeSObjects(connection, objectApis);
+            String hashScope = describeService.resolveScope(connection, METADATA_HASH_SCOPE);
+            int skippedCount = 0;
+
+            for (String objectApi : objectApis) {
                 try {
-                    String objectApi = sObject.getName();
-                    
-                    if (shouldSyncObject(sObject)) {
-                        DescribeSObjectResult objDetail = connection.describeSObject(objectApi);
-                        
-                        DataiIntegrationObject queryObject = new DataiIntegrationObject();
-                        queryObject.setApi(objectApi);
-                        List<DataiIntegrationObject> existingObjects = integrationObjectService.selectDataiIntegrationObjectList(queryObject);
-                        
-                        DataiIntegrationObject newObject = buildObjectMetadata(objDetail);
-                        boolean hasFieldChange = false;
-                        
-                        if (existingObjects.isEmpty()) {
-                            integrationObjectService.insertDataiIntegrationObject(newObject);
-                            recordObjectChange(newObject, null, "INSERT");
-                            objectChangeCount++;
-                            log.info("新增对象并记录变更: {}", objectApi);
-                            existingObjects = integrationObjectService.selectDataiIntegrationObjectList(queryObject);
-                            if (!existingObjects.isEmpty()) {
-                                newObject.setId(existingObjects.get(0).getId());
-                            }
-                        } else {
-                            DataiIntegrationObject existingObject = existingObjects.get(0);
-                            newObject.setId(existingObject.getId());
-                            List<String> changedFields = compareObjects(existingObject, newObject);
-                            if (!changedFields.isEmpty()) {
-                                recordObjectChange(newObject, existingObject, "UPDATE");
-                                objectChangeCount++;
-                                log.debug("记录对象更新: {} - 变更: {}", objectApi, String.join(", ", changedFields));
-                            }
-                        }
-                        
+                    DescribeSObjectResult objDetail = describes.get(objectApi);
+                    if (objDetail == null) {
+                        // 描述失败的对象视为仍存在，避免被误判为已删除
                         syncedObjectApis.add(objectApi);
-                        
-                        DataiIntegrationField queryField = new DataiIntegrationField();
-                        queryField.setApi(objectApi);
-                        List<DataiIntegrationField> existingFields = integrationFieldService.selectDataiIntegrationFieldList(queryField);
-                        
-                        Map<String, DataiIntegrationField> existingFieldMap = new HashMap<>();
-                        for (DataiIntegrationField existingField : existingFields) {
-                            existingFieldMap.put(existingField.getField(), existingField);
+                        continue;
+                    }
+
+                    String describeHash = describeService.computeHash(objDetail);
+                    if (describeService.isUnchanged(hashScope, objectApi, describeHash)) {
+                        syncedObjectApis.add(objectApi);
+                        skippedCount++;
+                        continue;
+                    }
+
+                    List<DataiIntegrationMetadataChange> changes = new ArrayList<>();
+                    DataiIntegrationObject queryObject = new DataiIntegrationObject();
+                    queryObject.setApi(objectApi);
+                    List<DataiIntegrationObject> existingObjects = integrationObjectService.selectDataiIntegrationObjectList(queryObject);
+                    
+                    DataiIntegrationObject newObject = buildObjectMetadata(objDetail);
+                    boolean hasFieldChange = false;
+                    
+                    if (existingObjects.isEmpty()) {
+                        integrationObjectService.insertDataiIntegrationObject(newObject);
+                        recordObjectChange(newObject, null, "INSERT");
+                        objectChangeCount++;
+                        log.info("新增对象并记录变更: {}", objectApi);
+                        existingObjects = integrationObjectService.selectDataiIntegrationObjectList(queryObject);
+                        if (!existingObjects.isEmpty()) {
+                            newObject.setId(existingObjects.get(0).getId());
                         }
-                        
-                        for (Field field : objDetail.getFields()) {
-                            DataiIntegrationField newField = buildFieldMetadata(objectApi, field);
-                            DataiIntegrationField existingField = existingFieldMap.get(field.getName());
-                            
-                            if (existingField == null) {
-                                recordFieldChange(objectApi, newObject.getLabel(), newField.getField(), 
-                                                newField.getLabel(), null, "INSERT", "新增字段", newObject.getIsCustom());
-                                fieldChangeCount++;
-                                hasFieldChange = true;
-                                log.debug("记录字段新增: {}.{}", objectApi, field.getName());
-                            } else {
-                                List<String> changedFieldProps = compareFields(existingField, newField);
-                                if (!changedFieldProps.isEmpty()) {
-                                    recordFieldChange(objectApi, newObject.getLabel(), newField.getField(), 
-                                                    newField.getLabel(), "字段属性变更: " + String.join(", ", changedFieldProps), 
-                                                    "UPDATE", "字段属性更新", newObject.getIsCustom());
-                                    fieldChangeCount++;
-                                    hasFieldChange = true;
-                                    log.debug("记录字段更新: {}.{} - 变更: {}", objectApi, field.getName(), 
-                                             String.join(", ", changedFieldProps));
-                                }
-                            }
+                    } else {
+                        DataiIntegrationObject existingObject = existingObjects.get(0);
+                        newObject.setId(existingObject.getId());
+                        List<String> changedFields = compareObjects(existingObject, newObject);
+                        if (!changedFields.isEmpty()) {
+                            recordObjectChange(newObject, existingObject, "UPDATE");
+                            objectChangeCount++;
+                            log.debug("记录对象更新: {} - 变更: {}", objectApi, String.join(", ", changedFields));
                         }
+                    }
+                    
+                    syncedObjectApis.add(objectApi);
+                    
+                    DataiIntegrationField queryField = new DataiIntegrationField();
+                    queryField.setApi(objectApi);
+                    List<DataiIntegrationField> existingFields = integrationFieldService.selectDataiIntegrationFieldList(queryField);
+                    
+                    Map<String, DataiIntegrationField> existingFieldMap = new HashMap<>();
+                    for (DataiIntegrationField existingField : existingFields) {
+                        existingFieldMap.put(existingField.getField(), existingField);
+                    }
+                    
+                    for (Field field : objDetail.getFields()) {
+                        DataiIntegrationField newField = buildFieldMetadata(objectApi, field);
+                        DataiIntegrationField existingField = existingFieldMap.get(field.getName());
                         
-                        for (DataiIntegrationField existingField : existingFields) {
-                            boolean fieldExists = false;
-                            for (Field field : objDetail.getFields()) {
-                                if (existingField.getField().equals(field.getName())) {
-                                    fieldExists = true;
-                                    break;
-                                }
-                            }
-                            if (!fieldExists) {
-                                recordFieldChange(objectApi, newObject.getLabel(), existingField.getField(), 
-                                                existingField.getLabel(), "字段已从Salesforce中删除", 
-                                                "DELETE", "字段删除", newObject.getIsCustom());
+                        if (existingField == null) {
+                            changes.add(buildFieldChange(objectApi, newObject.getLabel(), newField.getField(), 
+                                            newField.getLabel(), null, "INSERT", "新增字段", newObject.getIsCustom()));
+                            fieldChangeCount++;
+                            hasFieldChange = true;
+                            log.debug("记录字段新增: {}.{}", objectApi, field.getName());
+                        } else {
+                            List<String> changedFieldProps = compareFields(existingField, newField);
+                            if (!changedFieldProps.isEmpty()) {
+                                changes.add(buildFieldChange(objectApi, newObject.getLabel(), newField.getField(), 
+                                                newField.getLabel(), "字段属性变更: " + String.join(", ", changedFieldProps), 
+                                                "UPDATE", "字段属性更新", newObject.getIsCustom()));
                                 fieldChangeCount++;
                                 hasFieldChange = true;
-                                log.warn("记录字段删除: {}.{}", objectApi, existingField.getField());
+                                log.debug("记录字段更新: {}.{} - 变更: {}", objectApi, field.getName(), 
+                                         String.join(", ", changedFieldProps));
                             }
                         }
-                        
-                        if (hasFieldChange && newObject.getId() != null) {
-                            DataiIntegrationObject updateObject = new DataiIntegrationObject();
-                            updateObject.setId(newObject.getId());
-                            updateObject.setIsIncremental(false);
-                            integrationObjectService.updateDataiIntegrationObject(updateObject);
-                            log.info("检测到字段变更，已禁用对象 {} 的增量更新状态", objectApi);
+                    }
+                    
+                    Set<String> describedFieldNames = new HashSet<>();
+                    for (Field field : objDetail.getFields()) {
+                        describedFieldNames.add(field.getName());
+                    }
+                    for (DataiIntegrationField existingField : existingFields) {
+                        if (!describedFieldNames.contains(existingField.getField())) {
+                            changes.add(buildFieldChange(objectApi, newObject.getLabel(), existingField.getField(), 
+                                            existingField.getLabel(), "字段已从Salesforce中删除", 
+                                            "DELETE", "字段删除", newObject.getIsCustom()));
+                            fieldChangeCount++;
+                            hasFieldChange = true;
+                            log.warn("记录字段删除: {}.{}", objectApi, existingField.getField());
                         }
                     }
+                    
+                    for (List<DataiIntegrationMetadataChange> chunk : partition(changes)) {
+                        metadataChangeService.insertDataiIntegrationMetadataChangeBatch(chunk);
+                    }
+
+                    if (hasFieldChange && newObject.getId() != null) {
+                        DataiIntegrationObject updateObject = new DataiIntegrationObject();
+                        updateObject.setId(newObject.getId());
+                        updateObject.setIsIncremental(false);
+                        integrationObjectService.updateDataiIntegrationObject(updateObject);
+                        log.info("检测到字段变更，已禁用对象 {} 的增量更新状态", objectApi);
+                    }
+                    describeService.saveHash(hashScope, objectApi, describeHash);
                 } catch (Exception e) {
-                    log.error("处理对象 {} 时出错: {}", sObject.getName(), e.getMessage(), e);
+                    log.error("处理对象 {} 时出错: {}", objectApi, e.getMessage(), e);
                 }
             }
             
             checkDeletedObjectsForMetadata(syncedObjectApis);
 
-            log.info("同步元数据变更完成，对象变更: {} 个，字段变更: {} 个", objectChangeCount, fieldChangeCount);
+            log.info("同步元数据变更完成，对象变更: {} 个，字段变更: {} 个，未变化跳过 {} 个对象", objectChangeCount, fieldChangeCount, skippedCount);
             return true;
         } catch (Exception e) {
             log.error("同步元数据变更失败", e);
@@ -0,0 +1,265 @@
+package com.datai.integration.service.impl;
+
+import com.datai.common.utils.CacheUtils;
+import com.datai.integration.core.IPartnerV1Connection;
+import com.datai.integration.service.ISalesforceDescribeService;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import com.datai.setting.future.SalesforceExecutor;
+import com.datai.setting.future.SalesforceTaskLane;
+import com.sforce.soap.partner.DescribeSObjectResult;
+import com.sforce.soap.partner.Field;
+import com.sforce.soap.partner.FilteredLookupInfo;
+import com.sforce.soap.partner.PicklistEntry;
+import com.sforce.ws.ConnectionException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Salesforce 对象批量描述服务实现类
+ * <p>
+ * 一组中任一对象无法描述时 describeSObjects 整组失败，此时该组退回逐个 describeSObject。
+ * 摘要保存在缓存中并设置过期时间，过期后对象会被完整处理一次，避免缓存与本地元数据长期不一致；
+ * 缓存键包含源组织ID与目标库标识，切换源组织或目标库后不会沿用旧摘要。
+ * </p>
+ */
+@Service
+@Slf4j
+public class SalesforceDescribeServiceImpl implements ISalesforceDescribeService {
+
+    /**
+     * describeSObjects 单次调用允许的最大对象数
+     */
+    private static final int MAX_DESCRIBE_BATCH_SIZE = 100;
+
+    /**
+     * 对象描述摘要缓存名称
+     */
+    private static final String DESCRIBE_HASH_CACHE = "salesforceDescribeHash";
+
+    /**
+     * 对象描述摘要缓存过期时间（天）
+     */
+    private static final long DESCRIBE_HASH_CACHE_DAYS = 7;
+
+    @Autowired
+    private SalesforceExecutor salesforceExecutor;
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    /**
+     * 目标库标识，数据源在运行期间不变，首次解析后缓存
+     */
+    private volatile String targetDigest;
+
+    @Override
+    public Map<String, DescribeSObjectResult> describeSObjects(IPartnerV1Connection connection, Collection<String> objectApis) {
+        List<String> apis = new ArrayList<>(new LinkedHashSet<>(objectApis));
+        Map<String, DescribeSObjectResult> describes = new ConcurrentHashMap<>();
+        if (apis.isEmpty()) {
+            return describes;
+        }
+
+        int batchSize = Math.min(MAX_DESCRIBE_BATCH_SIZE, Math.max(1, getConfigInt("salesforce.describe.batch.size", MAX_DESCRIBE_BATCH_SIZE)));
+        long startTime = System.currentTimeMillis();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0, index = 0; from < apis.size(); from += batchSize, index++) {
+            List<String> group = apis.subList(from, Math.min(from + batchSize, apis.size()));
+            futures.add(salesforceExecutor.execute(() -> describeGroup(connection, group, describes), 0, index,
+                    SalesforceTaskLane.REALTIME, "source", null));
+        }
+
+        try {
+            salesforceExecutor.waitForFutures(futures.toArray(new Future<?>[0]));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("批量描述对象时线程被中断，已获取 {}/{} 个对象", describes.size(), apis.size());
+        }
+
+        log.info("批量描述 {} 个对象完成，分 {} 组，成功 {} 个，耗时 {}ms",
+                apis.size(), futures.size(), describes.size(), System.currentTimeMillis() - startTime);
+        return describes;
+    }
+
+    /**
+     * 描述一组对象，整组失败时逐个描述
+     */
+    private void describeGroup(IPartnerV1Connection connection, List<String> group, Map<String, DescribeSObjectResult> describes) {
+        try {
+            DescribeSObjectResult[] results = connection.describeSObjects(group.toArray(new String[0]));
+            if (results != null) {
+                for (int i = 0; i < results.length && i < group.size(); i++) {
+                    if (results[i] != null) {
+                        describes.put(group.get(i), results[i]);
+                    }
+                }
+            }
+            return;
+        } catch (Exception e) {
+            log.warn("批量描述 {} 个对象失败，改为逐个描述: {}", group.size(), e.getMessage());
+        }
+
+        for (String objectApi : group) {
+            try {
+                describes.put(objectApi, connection.describeSObject(objectApi));
+            } catch (ConnectionException e) {
+                log.error("获取对象 {} 的元数据失败: {}", objectApi, e.getMessage(), e);
+            } catch (Exception e) {
+                log.error("描述对象 {} 时出错: {}", objectApi, e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public String computeHash(DescribeSObjectResult describe) {
+        StringBuilder builder = new StringBuilder(4096);
+        append(builder, describe.getName(), describe.getLabel(), describe.getLabelPlural(), describe.getKeyPrefix(),
+                describe.isCustom(), describe.isCustomSetting(), describe.isQueryable(), describe.isCreateable(),
+                describe.isUpdateable(), describe.isDeletable(), describe.isReplicateable(), describe.isRetrieveable(),
+                describe.isSearchable());
+
+        // 按字段名排序，避免接口返回顺序变化导致摘要变化
+        Field[] fields = describe.getFields() != null ? describe.getFields().clone() : new Field[0];
+        Arrays.sort(fields, Comparator.comparing(Field::getName, Comparator.nullsFirst(String::compareTo)));
+        for (Field field : fields) {
+            builder.append('\n');
+            append(builder, field.getName(), field.getLabel(), field.getType(), field.getLength(), field.getPrecision(),
+                    field.getScale(), field.getByteLength(), field.isCreateable(), field.isNillable(), field.isUpdateable(),
+                    field.isDefaultedOnCreate(), field.isUnique(), field.isFilterable(), field.isSortable(),
+                    field.isAggregatable(), field.isGroupable(), field.isPolymorphicForeignKey(), field.isExternalId(),
+                    field.isCustom(), field.isCalculated(), field.isAutoNumber(), field.isCaseSensitive(),
+                    field.isEncrypted(), field.isHtmlFormatted(), field.isIdLookup(), field.isPermissionable(),
+                    field.isRestrictedPicklist(), field.isRestrictedDelete(), field.isWriteRequiresMasterRead(),
+                    field.getDefaultValueFormula(), field.getCalculatedFormula(), field.getInlineHelpText(),
+                    field.getRelationshipName(), field.getRelationshipOrder(),
+                    field.getReferenceTo() != null ? String.join(",", field.getReferenceTo()) : null);
+
+            PicklistEntry[] picklistValues = field.getPicklistValues();
+            if (picklistValues != null) {
+                for (PicklistEntry entry : picklistValues) {
+                    builder.append("|P");
+                    append(builder, entry.getValue(), entry.getLabel(), entry.isActive(), entry.isDefaultValue());
+                }
+            }
+
+            FilteredLookupInfo lookupInfo = field.getFilteredLookupInfo();
+            if (lookupInfo != null) {
+                builder.append("|L");
+                append(builder, lookupInfo.getControllingFields() != null ? String.join(",", lookupInfo.getControllingFields()) : null,
+                        lookupInfo.getDependent());
+            }
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(builder.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前环境不支持SHA-256摘要算法", e);
+        }
+    }
+
+    @Override
+    public String resolveScope(IPartnerV1Connection connection, String scope) {
+        try {
+            String organizationId = connection.getUserInfo().getOrganizationId();
+            String target = resolveTargetDigest();
+            if (organizationId == null || target == null) {
+                return null;
+            }
+            return scope + ":" + organizationId + ":" + target;
+        } catch (Exception e) {
+            log.warn("解析描述摘要范围 {} 失败，本次不使用摘要跳过: {}", scope, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 以目标库连接地址、库名与模式计算标识，只保存摘要避免连接信息进入缓存键
+     */
+    private String resolveTargetDigest() throws Exception {
+        String current = targetDigest;
+        if (current == null) {
+            String target;
+            try (Connection conn = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource().getConnection()) {
+                DatabaseMetaData metaData = conn.getMetaData();
+                target = metaData.getURL() + "|" + conn.getCatalog() + "|" + conn.getSchema();
+            }
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            current = HexFormat.of().formatHex(digest.digest(target.getBytes(StandardCharsets.UTF_8))).substring(0, 16);
+            targetDigest = current;
+        }
+        return current;
+    }
+
+    @Override
+    public boolean isUnchanged(String scope, String objectApi, String hash) {
+        if (scope == null || hash == null) {
+            return false;
+        }
+        try {
+            return hash.equals(CacheUtils.get(DESCRIBE_HASH_CACHE, buildCacheKey(scope, objectApi), String.class));
+        } catch (Exception e) {
+            log.warn("读取对象 {} 的描述摘要失败: {}", objectApi, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void saveHash(String scope, String objectApi, String hash) {
+        if (scope == null || hash == null) {
+            return;
+        }
+        try {
+            CacheUtils.put(DESCRIBE_HASH_CACHE, buildCacheKey(scope, objectApi), hash, DESCRIBE_HASH_CACHE_DAYS, TimeUnit.DAYS);
+        } catch (Exception e) {
+            log.warn("保存对象 {} 的描述摘要失败: {}", objectApi, e.getMessage());
+        }
+    }
+
+    private String buildCacheKey(String scope, String objectApi) {
+        return scope + ":" + objectApi;
+    }
+
+    /**
+     * 以不会出现在元数据中的分隔符拼接属性值
+     */
+    private void append(StringBuilder builder, Object... values) {
+        for (Object value : values) {
+            builder.append(value == null ? "\u0000" : value.toString()).append('\u0001');
+        }
+    }
+
+    /**
+     * 从配置缓存中获取整数类型配置值
+     *
+     * @param configKey 配置键
+     * @param defaultValue 默认值
+     * @return 配置值或默认值
+     */
+    private int getConfigInt(String configKey, int defaultValue) {
+        String value = configCacheManager.getConfigValue(configKey);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.warn("配置项{}的值{}无法转换为整数，使用默认值{}", configKey, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,403 @@
+package com.datai.integration.service.impl;
+
+import com.datai.common.utils.CacheUtils;
+import com.datai.integration.mapper.CustomMapper;
+import com.datai.integration.service.ISalesforceObjectRegistryService;
+import com.datai.integration.util.RecordConvertPlan;
+import com.datai.integration.util.SqlDialect;
+import com.datai.integration.util.TableLayout;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import com.sforce.soap.partner.Field;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Year;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Salesforce 对象注册表服务实现类
+ * <p>
+ * 转换计划持有转换器实例，无法序列化到分布式缓存，因此只保存在当前节点内存中。
+ * 取用时校验字段描述，其他节点变更元数据后本节点也会在下一次取用时重新编译。
+ * </p>
+ * <p>
+ * 表结构加载时及写入前补建到下一年的按年分区，跨年后第一页写入即会追加新分区，无需写入失败后再处理。
+ * </p>
+ * <p>
+ * 表结构同样只保存在当前节点内存中。本节点建表、增删列、追加分区后在共享缓存中更新表的版本号，
+ * 其他节点每隔 salesforce.table.layout.check.seconds 秒比对一次版本号，不一致时重新加载；
+ * 手工执行的 DDL 没有版本号，表结构超过 salesforce.table.layout.ttl.minutes 分钟后重新加载。
+ * </p>
+ */
+@Service
+@Slf4j
+public class SalesforceObjectRegistryServiceImpl implements ISalesforceObjectRegistryService {
+
+    /**
+     * 提前创建分区的年数
+     */
+    private static final int PARTITION_AHEAD_YEARS = 1;
+
+    /**
+     * 表结构版本号缓存名称
+     */
+    private static final String LAYOUT_VERSION_CACHE = "salesforce_table_layout_version";
+
+    private static final int LAYOUT_VERSION_CACHE_DAYS = 7;
+
+    private static final int DEFAULT_LAYOUT_CHECK_SECONDS = 30;
+
+    private static final int DEFAULT_LAYOUT_TTL_MINUTES = 10;
+
+    @Autowired
+    private CustomMapper customMapper;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    private volatile SqlDialect dialect;
+
+    private final Map<String, RecordConvertPlan> convertPlans = new ConcurrentHashMap<>();
+
+    private final Map<String, CachedLayout> tableLayouts = new ConcurrentHashMap<>();
+
+    @Override
+    public RecordConvertPlan getConvertPlan(String objectApi, Field[] fields) {
+        String key = objectApi.toLowerCase();
+        RecordConvertPlan plan = convertPlans.get(key);
+        if (plan != null && plan.matches(fields)) {
+            return plan;
+        }
+        plan = RecordConvertPlan.compile(fields);
+        convertPlans.put(key, plan);
+        log.debug("对象 {} 的记录转换计划已编译，共 {} 个字段", objectApi, plan.getColumns().length);
+        return plan;
+    }
+
+    @Override
+    public SqlDialect getDialect() {
+        SqlDialect current = dialect;
+        if (current == null) {
+            current = SqlDialect.of(sqlSessionFactory.getConfiguration().getDatabaseId());
+            dialect = current;
+            log.info("本地库SQL方言: {}", current);
+        }
+        return current;
+    }
+
+    @Override
+    public TableLayout getTableLayout(String tableName) {
+        String key = tableName.toLowerCase();
+        CachedLayout cached = tableLayouts.get(key);
+        if (cached != null) {
+            if (isFresh(key, cached)) {
+                return cached.layout;
+            }
+            tableLayouts.remove(key, cached);
+        }
+        return loadAndCache(tableName, key);
+    }
+
+    @Override
+    public TableLayout refreshTableLayout(String tableName) {
+        String key = tableName.toLowerCase();
+        tableLayouts.remove(key);
+        return loadAndCache(tableName, key);
+    }
+
+    @Override
+    public int[] resolveSlots(String tableName, RecordConvertPlan plan, List<Object[]> rows) {
+        String key = tableName.toLowerCase();
+        TableLayout layout = getTableLayout(tableName);
+        int[] slots = plan.presentSlots(rows);
+        List<String> missing = plan.missingColumns(slots, layout.getColumns());
+        if (missing.isEmpty()) {
+            return slots;
+        }
+
+        // 表结构可能已被其他节点或手工加列，按检查间隔限频重新加载一次
+        CachedLayout cached = tableLayouts.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt >= getLayoutCheckMillis()) {
+            layout = refreshTableLayout(tableName);
+            missing = plan.missingColumns(slots, layout.getColumns());
+            cached = tableLayouts.get(key);
+        }
+        if (!missing.isEmpty()) {
+            Set<String> warned = cached != null ? cached.warnedColumns : ConcurrentHashMap.newKeySet();
+            List<String> unwarned = missing.stream().filter(warned::add).toList();
+            if (!unwarned.isEmpty()) {
+                log.warn("表 {} 中不存在列 {}，这些字段的值将不会写入，请同步对象结构后补齐", tableName, unwarned);
+            }
+        }
+        return plan.presentSlots(rows, layout.getColumns());
+    }
+
+    @Override
+    public void registerTable(String tableName, Collection<String> partitionNames, Collection<String> columnNames) {
+        boolean partitioned = !partitionNames.isEmpty();
+        TableLayout layout = new TableLayout(tableName, partitioned, partitioned);
+        for (String partitionName : partitionNames) {
+            layout.addPartition(partitionName);
+        }
+        layout.addColumns(columnNames);
+        String key = tableName.toLowerCase();
+        tableLayouts.put(key, new CachedLayout(layout, bumpVersion(key)));
+        log.debug("表 {} 的结构已登记，分区 {} 个，列 {} 个", tableName, partitionNames.size(), columnNames.size());
+    }
+
+    @Override
+    public void addColumn(String tableName, String columnName) {
+        CachedLayout cached = tableLayouts.get(tableName.toLowerCase());
+        if (cached != null) {
+            cached.layout.addColumn(columnName);
+        }
+        markChanged(tableName.toLowerCase(), cached);
+    }
+
+    @Override
+    public void dropColumn(String tableName, String columnName) {
+        CachedLayout cached = tableLayouts.get(tableName.toLowerCase());
+        if (cached != null) {
+            cached.layout.removeColumn(columnName);
+        }
+        markChanged(tableName.toLowerCase(), cached);
+    }
+
+    @Override
+    public void ensurePartitions(String tableName, Collection<Integer> years) {
+        TableLayout layout = getTableLayout(tableName);
+        if (!layout.isRangePartitioned() || layout.getMaxPartitionYear() < 0 || years.isEmpty()) {
+            return;
+        }
+
+        boolean missing = false;
+        for (Integer year : years) {
+            if (year != null && year > layout.getMaxPartitionYear()) {
+                missing = true;
+                break;
+            }
+        }
+        int target = Year.now().getValue() + PARTITION_AHEAD_YEARS;
+        if (!missing || target <= layout.getMaxPartitionYear()) {
+            return;
+        }
+
+        synchronized (layout) {
+            for (int year = layout.getMaxPartitionYear() + 1; year <= target; year++) {
+                String partitionName = TableLayout.partitionName(year);
+                try {
+                    customMapper.addRangePartition(tableName, partitionName, String.valueOf(year + 1));
+                    layout.addPartition(partitionName);
+                    markChanged(tableName.toLowerCase(), tableLayouts.get(tableName.toLowerCase()));
+                    log.info("表 {} 已追加分区 {}", tableName, partitionName);
+                } catch (Exception e) {
+                    log.warn("表 {} 追加分区 {} 失败: {}", tableName, partitionName, e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(String objectApi) {
+        if (objectApi == null) {
+            return;
+        }
+        String key = objectApi.toLowerCase();
+        boolean removed = convertPlans.remove(key) != null;
+        if (tableLayouts.remove(key) != null) {
+            removed = true;
+            bumpVersion(key);
+        }
+        if (removed) {
+            log.debug("对象 {} 的注册表缓存已失效", objectApi);
+        }
+    }
+
+    private TableLayout loadAndCache(String tableName, String key) {
+        // 先读版本号再加载，加载期间其他节点的变更会在下次检查时发现
+        String version = currentVersion(key);
+        TableLayout layout = loadTableLayout(tableName);
+        if (layout == null) {
+            // 加载失败时不缓存，按非分区表处理且不过滤列，下次写入重新加载
+            return new TableLayout(tableName, false, false);
+        }
+        CachedLayout existing = tableLayouts.putIfAbsent(key, new CachedLayout(layout, version));
+        if (existing != null) {
+            return existing.layout;
+        }
+        if (layout.isRangePartitioned()) {
+            ensurePartitions(tableName, Collections.singleton(Year.now().getValue() + PARTITION_AHEAD_YEARS));
+        }
+        return layout;
+    }
+
+    /**
+     * 缓存的表结构是否仍然有效：未超过有效期，且共享缓存中的版本号未变化
+     */
+    private boolean isFresh(String key, CachedLayout cached) {
+        long now = System.currentTimeMillis();
+        if (now - cached.loadedAt >= getConfigInt("salesforce.table.layout.ttl.minutes", DEFAULT_LAYOUT_TTL_MINUTES) * 60_000L) {
+            return false;
+        }
+        if (now - cached.checkedAt < getLayoutCheckMillis()) {
+            return true;
+        }
+        cached.checkedAt = now;
+        String version = currentVersion(key);
+        if (Objects.equals(version, cached.version)) {
+            return true;
+        }
+        log.info("表 {} 的结构已在其他节点变更，重新加载", key);
+        return false;
+    }
+
+    /**
+     * 本节点变更表结构后更新共享版本号，本节点的缓存同步到新版本，避免自身重复加载
+     */
+    private void markChanged(String key, CachedLayout cached) {
+        String version = bumpVersion(key);
+        if (cached != null) {
+            cached.version = version;
+        }
+    }
+
+    private String bumpVersion(String key) {
+        String version = UUID.randomUUID().toString();
+        try {
+            CacheUtils.put(LAYOUT_VERSION_CACHE, key, version, LAYOUT_VERSION_CACHE_DAYS, TimeUnit.DAYS);
+        } catch (Exception e) {
+            log.warn("更新表 {} 的结构版本号失败，其他节点将在有效期后重新加载: {}", key, e.getMessage());
+        }
+        return version;
+    }
+
+    private String currentVersion(String key) {
+        try {
+            return CacheUtils.get(LAYOUT_VERSION_CACHE, key, String.class);
+        } catch (Exception e) {
+            log.debug("读取表 {} 的结构版本号失败: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private long getLayoutCheckMillis() {
+        return getConfigInt("salesforce.table.layout.check.seconds", DEFAULT_LAYOUT_CHECK_SECONDS) * 1000L;
+    }
+
+    /**
+     * 从配置缓存中获取整数类型配置值
+     *
+     * @param configKey 配置键
+     * @param defaultValue 默认值
+     * @return 配置值或默认值
+     */
+    private int getConfigInt(String configKey, int defaultValue) {
+        String value = configCacheManager.getConfigValue(configKey);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.warn("配置项{}的值{}无法转换为整数，使用默认值{}", configKey, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * 从数据库加载表结构
+     *
+     * @return 表结构，加载失败时返回null
+     */
+    private TableLayout loadTableLayout(String tableName) {
+        long startTime = System.currentTimeMillis();
+        try {
+            Boolean partitioned = customMapper.isPartitioned(tableName);
+            List<Map<String, Object>> partitionInfo = Boolean.TRUE.equals(partitioned)
+                    ? customMapper.getPartitionInfo(tableName) : Collections.emptyList();
+
+            boolean rangePartitioned = false;
+            for (Map<String, Object> partition : partitionInfo) {
+                Object method = getIgnoreCase(partition, "partition_method");
+                if (method != null && method.toString().toUpperCase().startsWith("RANGE")) {
+                    rangePartitioned = true;
+                    break;
+                }
+            }
+
+            TableLayout layout = new TableLayout(tableName, Boolean.TRUE.equals(partitioned), rangePartitioned);
+            for (Map<String, Object> partition : partitionInfo) {
+                Object name = getIgnoreCase(partition, "partition_name");
+                if (name != null) {
+                    layout.addPartition(name.toString());
+                }
+            }
+            List<String> columns = customMapper.getFields(tableName);
+            if (columns != null) {
+                layout.addColumns(columns);
+            }
+            log.info("表 {} 的结构已加载，分区表: {}，分区 {} 个，列 {} 个，耗时 {}ms", tableName, layout.isPartitioned(),
+                    partitionInfo.size(), layout.getColumns().size(), System.currentTimeMillis() - startTime);
+            return layout;
+        } catch (Exception e) {
+            log.warn("加载表 {} 的结构失败，按非分区表处理: {}", tableName, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * information_schema 返回的列名大小写随数据库版本不同，按忽略大小写读取
+     */
+    private Object getIgnoreCase(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (key.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 当前节点缓存的表结构
+     */
+    private static final class CachedLayout {
+
+        private final TableLayout layout;
+
+        private final long loadedAt = System.currentTimeMillis();
+
+        private volatile long checkedAt = loadedAt;
+
+        /**
+         * 加载时共享缓存中的版本号，没有版本号时为null
+         */
+        private volatile String version;
+
+        /**
+         * 已告警过的缺失列，每次加载只告警一次
+         */
+        private final Set<String> warnedColumns = ConcurrentHashMap.newKeySet();
+
+        private CachedLayout(TableLayout layout, String version) {
+            this.layout = layout;
+            this.version = version;
+        }
+    }
+}
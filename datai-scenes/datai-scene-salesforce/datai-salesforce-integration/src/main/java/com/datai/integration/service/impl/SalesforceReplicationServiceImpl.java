@@ -0,0 +1,258 @@
+package com.datai.integration.service.impl;
+
+import com.datai.integration.core.IPartnerV1Connection;
+import com.datai.integration.factory.impl.SOAPConnectionFactory;
+import com.datai.integration.mapper.CustomMapper;
+import com.datai.integration.service.ISalesforceObjectRegistryService;
+import com.datai.integration.service.ISalesforceReplicationService;
+import com.datai.integration.service.ISalesforceStatisticsService;
+import com.datai.integration.util.RecordConvertPlan;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import com.sforce.soap.partner.DeletedRecord;
+import com.sforce.soap.partner.DescribeSObjectResult;
+import com.sforce.soap.partner.Field;
+import com.sforce.soap.partner.GetDeletedResult;
+import com.sforce.soap.partner.GetUpdatedResult;
+import com.sforce.soap.partner.fault.ApiFault;
+import com.sforce.soap.partner.sobject.SObject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Salesforce 复制API增量同步服务实现类
+ * <p>
+ * 变更记录只拉取 getUpdated 返回的ID，删除记录按 salesforce.replication.delete.mode 在本地软删除或物理删除。
+ * 本地表没有 IsDeleted 字段时软删除退化为物理删除。
+ * </p>
+ */
+@Service
+@Slf4j
+public class SalesforceReplicationServiceImpl implements ISalesforceReplicationService {
+
+    /**
+     * retrieve 单次调用允许的最大ID数
+     */
+    private static final int RETRIEVE_BATCH_SIZE = 2000;
+
+    /**
+     * 复制API允许的最早起始时间（天），留出余量避免边界上的 INVALID_REPLICATION_DATE
+     */
+    private static final long MAX_REPLICATION_DAYS = 29;
+
+    /**
+     * 复制API要求的最小时间窗口（分钟）
+     */
+    private static final long MIN_WINDOW_MINUTES = 1;
+
+    /**
+     * retrieve 不支持的字段类型
+     */
+    private static final Set<String> UNSUPPORTED_FIELD_TYPES = new HashSet<>(Arrays.asList("base64", "address", "location"));
+
+    private static final String DELETE_MODE_HARD = "HARD";
+
+    @Autowired
+    private SOAPConnectionFactory soapConnectionFactory;
+
+    @Autowired
+    private CustomMapper customMapper;
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    @Autowired
+    private ISalesforceObjectRegistryService objectRegistryService;
+
+    @Autowired
+    private ISalesforceStatisticsService statisticsService;
+
+    @Override
+    public boolean isEnabled() {
+        return Boolean.parseBoolean(configCacheManager.getConfigValue("salesforce.replication.enabled"));
+    }
+
+    @Override
+    public Map<String, Object> replicate(String objectApi, LocalDateTime watermark) {
+        LocalDateTime now = LocalDateTime.now();
+        if (watermark == null || watermark.isBefore(now.minusDays(MAX_REPLICATION_DAYS))) {
+            log.info("对象 {} 的同步起点 {} 超出复制API可查询范围，改用查询方式增量同步", objectApi, watermark);
+            return null;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        if (Duration.between(watermark, now).toMinutes() < MIN_WINDOW_MINUTES) {
+            result.put("success", true);
+            result.put("updatedCount", 0);
+            result.put("deletedCount", 0);
+            result.put("latestDateCovered", watermark);
+            return result;
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            IPartnerV1Connection connection = soapConnectionFactory.getConnection("source");
+            DescribeSObjectResult describe = connection.describeSObject(objectApi);
+            if (!describe.isReplicateable()) {
+                log.info("对象 {} 不支持复制API，改用查询方式增量同步", objectApi);
+                return null;
+            }
+
+            Calendar start = toCalendar(watermark);
+            Calendar end = toCalendar(now);
+
+            GetUpdatedResult updated = connection.getUpdated(objectApi, start, end);
+            GetDeletedResult deleted = connection.getDeleted(objectApi, start, end);
+
+            Field[] fields = getRetrievableFields(describe.getFields());
+            RecordConvertPlan plan = objectRegistryService.getConvertPlan(objectApi, describe.getFields());
+            int updatedCount = applyUpdated(connection, objectApi, fields, plan, updated.getIds());
+            int deletedCount = applyDeleted(objectApi, fields, deleted.getDeletedRecords());
+
+            // 两个结果覆盖到的时间可能不同，取较早者，保证下次窗口不遗漏
+            Calendar covered = updated.getLatestDateCovered();
+            if (deleted.getLatestDateCovered() != null && (covered == null || deleted.getLatestDateCovered().before(covered))) {
+                covered = deleted.getLatestDateCovered();
+            }
+            LocalDateTime latestDateCovered = covered != null ? LocalDateTime.ofInstant(covered.toInstant(), ZoneId.systemDefault()) : watermark;
+
+            result.put("success", true);
+            result.put("updatedCount", updatedCount);
+            result.put("deletedCount", deletedCount);
+            result.put("latestDateCovered", latestDateCovered);
+            log.info("对象 {} 复制API增量同步完成，变更 {} 条，删除 {} 条，覆盖至 {}，耗时 {}ms",
+                    objectApi, updatedCount, deletedCount, latestDateCovered, System.currentTimeMillis() - startTime);
+            return result;
+        } catch (ApiFault fault) {
+            String code = String.valueOf(fault.getExceptionCode());
+            if ("EXCEEDED_ID_LIMIT".equals(code) || "INVALID_REPLICATION_DATE".equals(code)) {
+                log.warn("对象 {} 复制API调用返回 {}，改用查询方式增量同步", objectApi, code);
+                return null;
+            }
+            log.error("对象 {} 复制API增量同步失败: {}", objectApi, fault.getExceptionMessage(), fault);
+            result.put("success", false);
+            result.put("message", "复制API增量同步失败: " + fault.getExceptionMessage());
+            return result;
+        } catch (Exception e) {
+            log.error("对象 {} 复制API增量同步失败", objectApi, e);
+            result.put("success", false);
+            result.put("message", "复制API增量同步失败: " + e.getMessage());
+            return result;
+        }
+    }
+
+    /**
+     * 按ID分组拉取变更记录并写入本地表
+     *
+     * @return 写入的记录数
+     */
+    private int applyUpdated(IPartnerV1Connection connection, String objectApi, Field[] fields, RecordConvertPlan plan,
+                             String[] ids) throws Exception {
+        if (ids == null || ids.length == 0) {
+            return 0;
+        }
+
+        String fieldList = buildFieldList(fields);
+        String tableName = objectApi.toLowerCase();
+        int count = 0;
+        for (int from = 0; from < ids.length; from += RETRIEVE_BATCH_SIZE) {
+            String[] chunk = Arrays.copyOfRange(ids, from, Math.min(from + RETRIEVE_BATCH_SIZE, ids.length));
+            SObject[] records = connection.retrieve(fieldList, objectApi, chunk);
+            if (records == null || records.length == 0) {
+                continue;
+            }
+
+            List<Object[]> rows = new ArrayList<>(records.length);
+            for (SObject record : records) {
+                // retrieve 对已删除或无权限的ID返回null
+                if (record == null) {
+                    continue;
+                }
+                rows.add(plan.convert(record));
+            }
+            if (rows.isEmpty()) {
+                continue;
+            }
+
+            int[] slots = plan.presentSlots(rows);
+            List<String> keys = plan.columnsOf(slots);
+            List<Collection<Object>> values = plan.valuesOf(rows, slots);
+            // PostgreSQL 系单条语句的绑定参数有上限，宽表按字段数拆分写入
+            int sliceSize = objectRegistryService.getDialect().maxBatchRows(keys.size());
+            for (int offset = 0; offset < values.size(); offset += sliceSize) {
+                List<Collection<Object>> slice = values.subList(offset, Math.min(offset + sliceSize, values.size()));
+                int existing = statisticsService.countExisting(tableName, keys, slice);
+                customMapper.upsertBatch(tableName, keys, slice);
+                statisticsService.recordUpsert(tableName, slice.size(), existing);
+            }
+            count += rows.size();
+            log.debug("对象 {} 已写入 {}/{} 条变更记录", objectApi, count, ids.length);
+        }
+        return count;
+    }
+
+    /**
+     * 在本地表中删除或标记删除已删除的记录
+     *
+     * @return 处理的记录数
+     */
+    private int applyDeleted(String objectApi, Field[] fields, DeletedRecord[] deletedRecords) {
+        if (deletedRecords == null || deletedRecords.length == 0) {
+            return 0;
+        }
+
+        boolean softDelete = !DELETE_MODE_HARD.equalsIgnoreCase(configCacheManager.getConfigValue("salesforce.replication.delete.mode"))
+                && hasField(fields, "IsDeleted");
+        String tableName = objectApi.toLowerCase();
+        for (int from = 0; from < deletedRecords.length; from += RETRIEVE_BATCH_SIZE) {
+            int to = Math.min(from + RETRIEVE_BATCH_SIZE, deletedRecords.length);
+            List<String> ids = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                ids.add(deletedRecords[i].getId());
+            }
+            int affected = softDelete ? customMapper.markDeleted(tableName, ids) : customMapper.delete(tableName, ids);
+            statisticsService.recordDelete(tableName, affected, !softDelete);
+        }
+        log.info("对象 {} 已{}删除 {} 条记录", objectApi, softDelete ? "标记" : "物理", deletedRecords.length);
+        return deletedRecords.length;
+    }
+
+    private Field[] getRetrievableFields(Field[] fields) {
+        List<Field> retrievable = new ArrayList<>(fields.length);
+        for (Field field : fields) {
+            if (field.getType() != null && UNSUPPORTED_FIELD_TYPES.contains(field.getType().toString())) {
+                continue;
+            }
+            retrievable.add(field);
+        }
+        return retrievable.toArray(new Field[0]);
+    }
+
+    private String buildFieldList(Field[] fields) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (Field field : fields) {
+            joiner.add(field.getName());
+        }
+        return joiner.toString();
+    }
+
+    private boolean hasField(Field[] fields, String fieldName) {
+        for (Field field : fields) {
+            if (fieldName.equalsIgnoreCase(field.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Calendar toCalendar(LocalDateTime dateTime) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return calendar;
+    }
+}
@@ -0,0 +1,535 @@
+package com.datai.integration.service.impl;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.datai.common.utils.CacheUtils;
+import com.datai.integration.mapper.CustomMapper;
+import com.datai.integration.mapper.DataiIntegrationObjectMapper;
+import com.datai.integration.model.domain.DataiIntegrationObject;
+import com.datai.integration.service.ISalesforceStatisticsService;
+import com.datai.setting.config.SalesforceConfigCacheManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Salesforce 对象数据量统计服务实现类
+ * <p>
+ * 驱动返回的影响行数无法区分新增和更新：MySQL 默认按匹配行数返回，值未变化的已存在记录与新记录都计1；
+ * PostgreSQL 的 ON CONFLICT DO UPDATE 对新增和更新都计1。因此写入前按主键统计已存在的记录数，其余计为新增。
+ * 计数保存在当前节点内存中，写入路径只做累加，行数增减量每隔 salesforce.statistics.flush.interval.seconds 秒
+ * 以 total_rows = total_rows + 增量 的方式写回，多个节点同时写回不会互相覆盖。
+ * </p>
+ * <p>
+ * 校准每隔 salesforce.statistics.reconcile.schedule.minutes 分钟执行一次，校准时间记录在缓存中，各节点共享，
+ * 同一对象在 salesforce.statistics.reconcile.interval.hours 小时内只校准一次。
+ * </p>
+ */
+@Service
+@Slf4j
+public class SalesforceStatisticsServiceImpl implements ISalesforceStatisticsService {
+
+    private static final String RECONCILE_CACHE = "salesforce_statistics_reconcile";
+
+    private static final String BATCH_CACHE = "salesforce_statistics_batch";
+
+    private static final int BATCH_CACHE_DAYS = 7;
+
+    private static final int DEFAULT_FLUSH_INTERVAL_SECONDS = 30;
+
+    private static final int DEFAULT_RECONCILE_BATCH_SIZE = 5;
+
+    private static final int DEFAULT_RECONCILE_INTERVAL_HOURS = 24;
+
+    private static final int DEFAULT_RECONCILE_SCHEDULE_MINUTES = 60;
+
+    @Autowired
+    private DataiIntegrationObjectMapper dataiIntegrationObjectMapper;
+
+    @Autowired
+    private CustomMapper customMapper;
+
+    @Autowired
+    private SalesforceConfigCacheManager configCacheManager;
+
+    private final Map<String, ObjectCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 本节点正在同步的批次计数
+     */
+    private final Map<Integer, BatchCounter> runningBatches = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<BatchCounter> currentBatch = new ThreadLocal<>();
+
+    private ScheduledExecutorService flushExecutor;
+
+    private ScheduledExecutorService reconcileExecutor;
+
+    @PostConstruct
+    public void init() {
+        int interval = Math.max(1, getConfigInt("salesforce.statistics.flush.interval.seconds", DEFAULT_FLUSH_INTERVAL_SECONDS));
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "statistics-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushExecutor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.SECONDS);
+
+        // 精确计数可能耗时数十秒，使用单独线程执行，不阻塞写回
+        int reconcileMinutes = getConfigInt("salesforce.statistics.reconcile.schedule.minutes", DEFAULT_RECONCILE_SCHEDULE_MINUTES);
+        if (reconcileMinutes > 0) {
+            reconcileExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "statistics-reconcile");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reconcileExecutor.scheduleWithFixedDelay(this::reconcileQuietly, reconcileMinutes, reconcileMinutes, TimeUnit.MINUTES);
+        }
+        log.info("数据量统计服务已启动，写回间隔: {}秒，校准间隔: {}分钟", interval, reconcileMinutes);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reconcileExecutor != null) {
+            reconcileExecutor.shutdownNow();
+        }
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public int countExisting(String objectApi, List<String> keys, List<? extends Collection<Object>> values) {
+        if (objectApi == null || keys == null || values == null || values.isEmpty()) {
+            return -1;
+        }
+        int idIndex = -1;
+        for (int i = 0; i < keys.size(); i++) {
+            if ("id".equalsIgnoreCase(keys.get(i))) {
+                idIndex = i;
+                break;
+            }
+        }
+        if (idIndex < 0) {
+            return -1;
+        }
+        List<Object> ids = new ArrayList<>(values.size());
+        for (Collection<Object> value : values) {
+            Iterator<Object> iterator = value.iterator();
+            for (int i = 0; i < idIndex && iterator.hasNext(); i++) {
+                iterator.next();
+            }
+            if (iterator.hasNext()) {
+                ids.add(iterator.next());
+            }
+        }
+        try {
+            return customMapper.countByIds(objectApi, ids);
+        } catch (Exception e) {
+            log.debug("统计对象 {} 已存在的记录数失败: {}", objectApi, e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public void recordUpsert(String objectApi, int rows, int existing) {
+        if (objectApi == null || rows <= 0) {
+            return;
+        }
+        ObjectCounter counter = getCounter(objectApi);
+        BatchCounter batch = currentBatch.get();
+        if (existing < 0) {
+            // 写入前未能统计已存在的记录数，无法区分新增和更新，计为更新并尽快校准
+            counter.updated.add(rows);
+            if (batch != null) {
+                batch.updated.add(rows);
+            }
+            counter.reconciledAt = 0;
+            CacheUtils.remove(RECONCILE_CACHE, counter.key);
+            return;
+        }
+        int updated = Math.min(existing, rows);
+        int inserted = rows - updated;
+        counter.updated.add(updated);
+        if (batch != null) {
+            batch.inserted.add(inserted);
+            batch.updated.add(updated);
+        }
+        if (inserted > 0) {
+            counter.inserted.add(inserted);
+            counter.rowDelta.add(inserted);
+            counter.dirty.set(true);
+        }
+    }
+
+    @Override
+    public void recordDelete(String objectApi, int affected, boolean hardDelete) {
+        if (objectApi == null || affected <= 0) {
+            return;
+        }
+        ObjectCounter counter = getCounter(objectApi);
+        counter.deleted.add(affected);
+        BatchCounter batch = currentBatch.get();
+        if (batch != null) {
+            batch.deleted.add(affected);
+        }
+        if (hardDelete) {
+            counter.rowDelta.add(-affected);
+            counter.dirty.set(true);
+        }
+    }
+
+    @Override
+    public void beginBatch(Integer batchId) {
+        if (batchId == null) {
+            return;
+        }
+        BatchCounter batch = new BatchCounter(batchId);
+        currentBatch.set(batch);
+        runningBatches.put(batchId, batch);
+    }
+
+    @Override
+    public void endBatch() {
+        BatchCounter batch = currentBatch.get();
+        currentBatch.remove();
+        if (batch == null) {
+            return;
+        }
+        runningBatches.remove(batch.batchId, batch);
+        try {
+            JSONObject value = new JSONObject();
+            value.put("insertedRows", batch.inserted.sum());
+            value.put("updatedRows", batch.updated.sum());
+            value.put("deletedRows", batch.deleted.sum());
+            value.put("finishedAt", System.currentTimeMillis());
+            CacheUtils.put(BATCH_CACHE, String.valueOf(batch.batchId), value.toJSONString(), BATCH_CACHE_DAYS, TimeUnit.DAYS);
+        } catch (Exception e) {
+            log.warn("保存批次 {} 的写入计数失败: {}", batch.batchId, e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Object> getBatchStatistics(Integer batchId) {
+        Map<String, Object> statistics = new HashMap<>();
+        if (batchId == null) {
+            return statistics;
+        }
+        BatchCounter running = runningBatches.get(batchId);
+        if (running != null) {
+            statistics.put("insertedRows", running.inserted.sum());
+            statistics.put("updatedRows", running.updated.sum());
+            statistics.put("deletedRows", running.deleted.sum());
+            statistics.put("running", true);
+            return statistics;
+        }
+        String value = CacheUtils.get(BATCH_CACHE, String.valueOf(batchId), String.class);
+        if (value != null) {
+            JSONObject saved = JSON.parseObject(value);
+            statistics.put("insertedRows", saved.getLongValue("insertedRows"));
+            statistics.put("updatedRows", saved.getLongValue("updatedRows"));
+            statistics.put("deletedRows", saved.getLongValue("deletedRows"));
+            long finishedAt = saved.getLongValue("finishedAt");
+            statistics.put("finishedAt", finishedAt > 0
+                    ? LocalDateTime.ofInstant(Instant.ofEpochMilli(finishedAt), ZoneId.systemDefault()) : null);
+            statistics.put("running", false);
+        }
+        return statistics;
+    }
+
+    @Override
+    public int getEstimatedRows(String objectApi) {
+        return (int) Math.min(Integer.MAX_VALUE, getCounter(objectApi).estimate());
+    }
+
+    @Override
+    public void rebase(String objectApi, int rows) {
+        ObjectCounter counter = getCounter(objectApi);
+        synchronized (counter) {
+            counter.baseRows = rows;
+            counter.rowDelta.reset();
+            counter.dirty.set(false);
+        }
+    }
+
+    @Override
+    public void evict(String objectApi) {
+        if (objectApi != null && counters.remove(objectApi.trim().toLowerCase()) != null) {
+            log.debug("对象 {} 的数据量计数已丢弃", objectApi);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getWriteStatistics() {
+        long inserted = 0;
+        long updated = 0;
+        long deleted = 0;
+        int pendingObjects = 0;
+        for (ObjectCounter counter : counters.values()) {
+            inserted += counter.inserted.sum();
+            updated += counter.updated.sum();
+            deleted += counter.deleted.sum();
+            if (counter.dirty.get()) {
+                pendingObjects++;
+            }
+        }
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("insertedRows", inserted);
+        statistics.put("updatedRows", updated);
+        statistics.put("deletedRows", deleted);
+        statistics.put("pendingObjects", pendingObjects);
+        return statistics;
+    }
+
+    @Override
+    public Map<String, Object> getObjectStatistics(String objectApi) {
+        Map<String, Object> statistics = new HashMap<>();
+        ObjectCounter counter = objectApi != null ? counters.get(objectApi.trim().toLowerCase()) : null;
+        if (counter == null) {
+            return statistics;
+        }
+        statistics.put("estimatedRows", counter.estimate());
+        statistics.put("insertedRows", counter.inserted.sum());
+        statistics.put("updatedRows", counter.updated.sum());
+        statistics.put("deletedRows", counter.deleted.sum());
+        statistics.put("reconciledAt", counter.reconciledAt > 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(counter.reconciledAt), ZoneId.systemDefault()) : null);
+        return statistics;
+    }
+
+    @Override
+    public int flush() {
+        int flushed = 0;
+        for (ObjectCounter counter : counters.values()) {
+            if (counter.objectId == null || !counter.dirty.compareAndSet(true, false)) {
+                continue;
+            }
+            long delta;
+            synchronized (counter) {
+                delta = counter.rowDelta.sumThenReset();
+                counter.baseRows += delta;
+            }
+            if (delta == 0) {
+                continue;
+            }
+            try {
+                dataiIntegrationObjectMapper.addDataiIntegrationObjectTotalRows(counter.objectId, delta);
+                flushed++;
+            } catch (Exception e) {
+                synchronized (counter) {
+                    counter.baseRows -= delta;
+                    counter.rowDelta.add(delta);
+                }
+                counter.dirty.set(true);
+                log.warn("写回对象 {} 的数据量失败: {}", counter.key, e.getMessage());
+                continue;
+            }
+            // 以数据库为准刷新基准，同时纳入其他节点写回的增量
+            try {
+                DataiIntegrationObject object = dataiIntegrationObjectMapper.selectDataiIntegrationObjectById(counter.objectId);
+                if (object != null && object.getTotalRows() != null) {
+                    synchronized (counter) {
+                        counter.baseRows = object.getTotalRows();
+                    }
+                }
+            } catch (Exception e) {
+                log.debug("读取对象 {} 的数据量失败: {}", counter.key, e.getMessage());
+            }
+        }
+        if (flushed > 0) {
+            log.debug("已写回 {} 个对象的数据量", flushed);
+        }
+        return flushed;
+    }
+
+    @Override
+    public int reconcile(int maxObjects) {
+        int limit = maxObjects > 0 ? maxObjects : getConfigInt("salesforce.statistics.reconcile.batch.size", DEFAULT_RECONCILE_BATCH_SIZE);
+        int intervalHours = Math.max(1, getConfigInt("salesforce.statistics.reconcile.interval.hours", DEFAULT_RECONCILE_INTERVAL_HOURS));
+
+        DataiIntegrationObject query = new DataiIntegrationObject();
+        query.setIsWork(true);
+        List<DataiIntegrationObject> candidates = new ArrayList<>();
+        for (DataiIntegrationObject object : dataiIntegrationObjectMapper.selectDataiIntegrationObjectList(query)) {
+            if (object.getApi() != null && !CacheUtils.hasKey(RECONCILE_CACHE, object.getApi().trim().toLowerCase())) {
+                candidates.add(object);
+            }
+        }
+        // 本节点最久未校准的对象优先
+        candidates.sort(Comparator.comparingLong(object -> {
+            ObjectCounter counter = counters.get(object.getApi().trim().toLowerCase());
+            return counter != null ? counter.reconciledAt : 0L;
+        }));
+
+        int reconciled = 0;
+        for (DataiIntegrationObject object : candidates) {
+            if (reconciled >= limit) {
+                break;
+            }
+            String objectApi = object.getApi().trim();
+            String key = objectApi.toLowerCase();
+            // 先占用校准标记，避免多个节点同时对同一对象执行精确计数
+            if (CacheUtils.hasKey(RECONCILE_CACHE, key)) {
+                continue;
+            }
+            CacheUtils.put(RECONCILE_CACHE, key, "0", intervalHours, TimeUnit.HOURS);
+            long startTime = System.currentTimeMillis();
+            try {
+                Integer exact = customMapper.countBySQL(objectApi, null);
+                int rows = exact != null ? exact : 0;
+                long estimated = getCounter(objectApi).estimate();
+                rebase(objectApi, rows);
+
+                DataiIntegrationObject update = new DataiIntegrationObject();
+                update.setId(object.getId());
+                update.setTotalRows(rows);
+                dataiIntegrationObjectMapper.updateDataiIntegrationObject(update);
+
+                ObjectCounter counter = getCounter(objectApi);
+                counter.reconciledAt = System.currentTimeMillis();
+                CacheUtils.put(RECONCILE_CACHE, counter.key, String.valueOf(counter.reconciledAt), intervalHours, TimeUnit.HOURS);
+                reconciled++;
+                log.info("对象 {} 数据量已校准，估算: {}，精确: {}，耗时 {}ms", objectApi, estimated, rows, System.currentTimeMillis() - startTime);
+            } catch (Exception e) {
+                CacheUtils.remove(RECONCILE_CACHE, key);
+                log.warn("校准对象 {} 的数据量失败: {}", objectApi, e.getMessage());
+            }
+        }
+        return reconciled;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            int reconciled = reconcile(0);
+            if (reconciled > 0) {
+                log.info("定时数据量校准完成，共校准 {} 个对象", reconciled);
+            }
+        } catch (Exception e) {
+            log.warn("定时数据量校准失败: {}", e.getMessage());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("写回对象数据量失败: {}", e.getMessage());
+        }
+    }
+
+    private ObjectCounter getCounter(String objectApi) {
+        return counters.computeIfAbsent(objectApi.trim().toLowerCase(), this::loadCounter);
+    }
+
+    /**
+     * 以对象记录中的 total_rows 作为计数基准
+     */
+    private ObjectCounter loadCounter(String key) {
+        ObjectCounter counter = new ObjectCounter(key);
+        try {
+            DataiIntegrationObject object = dataiIntegrationObjectMapper.selectDataiIntegrationObjectByApi(key);
+            if (object != null) {
+                counter.objectId = object.getId();
+                counter.baseRows = object.getTotalRows() != null ? object.getTotalRows() : 0;
+            }
+        } catch (Exception e) {
+            log.warn("加载对象 {} 的数据量失败，从0开始计数: {}", key, e.getMessage());
+        }
+        return counter;
+    }
+
+    /**
+     * 从配置缓存中获取整数类型配置值
+     *
+     * @param configKey 配置键
+     * @param defaultValue 默认值
+     * @return 配置值或默认值
+     */
+    private int getConfigInt(String configKey, int defaultValue) {
+        String value = configCacheManager.getConfigValue(configKey);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.warn("配置项{}的值{}无法转换为整数，使用默认值{}", configKey, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * 单个对象的计数
+     */
+    private static final class ObjectCounter {
+
+        private final String key;
+
+        private volatile Integer objectId;
+
+        /**
+         * 最近一次加载、校准或写回时数据库中的行数
+         */
+        private volatile long baseRows;
+
+        /**
+         * 之后写入路径累计、尚未写回的行数增减量
+         */
+        private final LongAdder rowDelta = new LongAdder();
+
+        private final LongAdder inserted = new LongAdder();
+
+        private final LongAdder updated = new LongAdder();
+
+        private final LongAdder deleted = new LongAdder();
+
+        private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+        private volatile long reconciledAt;
+
+        private ObjectCounter(String key) {
+            this.key = key;
+        }
+
+        private long estimate() {
+            return Math.max(0, baseRows + rowDelta.sum());
+        }
+    }
+
+    /**
+     * 单个批次一次同步的计数
+     */
+    private static final class BatchCounter {
+
+        private final Integer batchId;
+
+        private final LongAdder inserted = new LongAdder();
+
+        private final LongAdder updated = new LongAdder();
+
+        private final LongAdder deleted = new LongAdder();
+
+        private BatchCounter(Integer batchId) {
+            this.batchId = batchId;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.datai.integration.task;
+
+import com.datai.integration.service.ISalesforceStatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 对象数据量校准任务
+ * 按对象轮流执行精确计数，修正写入路径维护的估算行数。统计服务已按 salesforce.statistics.reconcile.schedule.minutes 定时执行，此任务用于手动触发
+ */
+@Slf4j
+@Component("sfStatisticsTask")
+public class SalesforceStatisticsTask {
+
+    @Autowired
+    private ISalesforceStatisticsService statisticsService;
+
+    /**
+     * 校准对象数据量，每次校准的对象数取配置 salesforce.statistics.reconcile.batch.size
+     */
+    public void reconcile() {
+        reconcile(0);
+    }
+
+    /**
+     * 校准对象数据量
+     *
+     * @param maxObjects 本次最多校准的对象数
+     */
+    public void reconcile(Integer maxObjects) {
+        try {
+            log.info("开始执行对象数据量校准任务");
+            int reconciled = statisticsService.reconcile(maxObjects != null ? maxObjects : 0);
+            log.info("对象数据量校准任务完成，共校准 {} 个对象", reconciled);
+        } catch (Exception e) {
+            log.error("执行对象数据量校准任务失败", e);
+        }
+    }
+}
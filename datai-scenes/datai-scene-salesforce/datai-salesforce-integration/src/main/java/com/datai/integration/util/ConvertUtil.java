@@ -5,11 +5,8 @@ import com.alibaba.fastjson2.JSONObject;
 import com.datai.salesforce.common.constant.SalesforceConstants;
 import com.sforce.soap.partner.Field;
 import com.sforce.soap.partner.sobject.SObject;
-import com.sforce.ws.bind.XmlObject;
 import com.sforce.ws.types.Time;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections.map.CaseInsensitiveMap;
-import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.commons.lang3.time.DateUtils;
@@ -86,9 +83,10 @@ public class ConvertUtil {
      * @return JSONArray
      */
     public static JSONArray toJsonArray(SObject[] records, Field[] fields) throws ParseException {
+        RecordConvertPlan plan = RecordConvertPlan.compile(fields);
         JSONArray jsonArray = new JSONArray();
         for (SObject sObject : records) {
-            jsonArray.add(toJsonObject(sObject, fields));
+            jsonArray.add(plan.toJsonObject(sObject));
         }
         return jsonArray;
     }
@@ -96,88 +94,16 @@ public class ConvertUtil {
 
     /**
      * sObject 数组转 JSONObject
+     * <p>
+     * 每次调用都会编译转换计划，批量转换时应通过对象注册表获取 {@link RecordConvertPlan} 后复用
+     * </p>
      *
      * @param sObject sObject
      * @param fields  字段
      * @return JSONObject
      */
     public static JSONObject toJsonObject(SObject sObject, Field[] fields) throws ParseException {
-        Iterator<XmlObject> children = sObject.getChildren();
-        JSONObject jsonObject = new JSONObject();
-        CaseInsensitiveMap map = new CaseInsensitiveMap();
-        for (Field field : fields) {
-            map.put(field.getName(), field.getType().toString());
-        }
-        while (children.hasNext()) {
-            XmlObject next = children.next();
-            String name = next.getName().getLocalPart();
-            Object value = next.getValue();
-            // 全部当string处理
-            if (next instanceof SObject) {
-                SObject sObjectChild = (SObject) next;
-                Iterator<XmlObject> children1 = sObjectChild.getChildren();
-                while (children1.hasNext()) {
-                    XmlObject childNext = children1.next();
-                    String childName = childNext.getName().getLocalPart();
-                    Object childValue = childNext.getValue();
-                    // partner会多一个type 值为对象名称 这里过滤掉
-                    if ("type".equals(childName)) {
-                        continue;
-                    }
-                    if (childValue == null) {
-                        continue;
-                    }
-                    jsonObject.put(name+"_"+childName, childValue);
-                }
-            }
-            // partner会多一个type 值为对象名称 这里过滤掉
-            if ("type".equals(name)) {
-                continue;
-            }
-            if (value == null) {
-                continue;
-            }
-            String type = (String) map.get(name);
-            if (type == null) {
-                continue;
-            }
-            switch (type) {
-                case "date":
-                    jsonObject.put(name, DateUtils.parseDate((String) value, "yyyy-MM-dd"));
-                    break;
-                case "datetime":
-                    jsonObject.put(name, SF_DATE_FORMAT.parse((String) value));
-                    break;
-                case "time":
-                    jsonObject.put(name, SF_TIME_FORMAT.parse((String) value));
-                    break;
-                case "boolean":
-                    jsonObject.put(name, BooleanUtils.toBoolean((String) value));
-                    break;
-                case "long":
-                case "int":
-                    jsonObject.put(name, Integer.parseInt((String) value));
-                    break;
-                case "double":
-                case "currency":
-                case "percent":
-                    jsonObject.put(name, Double.parseDouble((String) value));
-                    break;
-                case "base64":
-                    // 文件不处理 统一存oss或者server
-                    break;
-                default:
-                    if (value instanceof GregorianCalendar) {
-                        jsonObject.put(name, DateFormatUtils.format(((GregorianCalendar) value), "yyyy-MM-dd HH:mm:ss"));
-                    } else if (value instanceof Time){
-                        jsonObject.put(name, DateFormatUtils.format((((Time) value).getTimeInMillis()), "HH:mm:ss"));
-                    }else {
-                        jsonObject.put(name,  String.valueOf(value));
-                    }
-                    break;
-            }
-        }
-        return jsonObject;
+        return RecordConvertPlan.compile(fields).toJsonObject(sObject);
     }
 
     /**
@@ -0,0 +1,398 @@
+package com.datai.integration.util;
+
+import com.alibaba.fastjson2.JSONObject;
+import com.sforce.soap.partner.Field;
+import com.sforce.soap.partner.sobject.SObject;
+import com.sforce.ws.bind.XmlObject;
+import com.sforce.ws.types.Time;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.time.DateFormatUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Salesforce 记录转换计划
+ * <p>
+ * 按对象描述编译一次：每个字段对应一个固定位置和预先选定的值转换器，
+ * 转换记录时按子节点名称定位字段并直接写入与 {@link #getColumns()} 对齐的参数数组，
+ * 不再为每条记录构建字段类型映射、按类型字符串分支和逐个格式试探解析日期。
+ * </p>
+ * <p>
+ * 日期时间类型转换为 java.time 类型，按JVM默认时区表示，与原先 java.util.Date 写入数据库的结果一致。
+ * base64 字段不参与转换；关联对象的子字段只在 {@link #toJsonObject(SObject)} 中按 关系名_字段名 展开。
+ * </p>
+ */
+public final class RecordConvertPlan {
+
+    /**
+     * partner 接口在记录中附带的对象类型节点
+     */
+    private static final String TYPE_ELEMENT = "type";
+
+    private final Field[] source;
+
+    private final String signature;
+
+    /**
+     * 字段API名称
+     */
+    private final String[] names;
+
+    /**
+     * 小写字段名，作为本地表列名
+     */
+    private final String[] columns;
+
+    private final ValueConverter[] converters;
+
+    /**
+     * 字段名到位置的映射，先按原名查找，查不到时按小写查找
+     */
+    private final Map<String, Integer> slots;
+
+    private final Map<String, Integer> lowerSlots;
+
+    private RecordConvertPlan(Field[] source, String signature, List<String> names, List<ValueConverter> converters) {
+        this.source = source;
+        this.signature = signature;
+        this.names = names.toArray(new String[0]);
+        this.columns = new String[this.names.length];
+        this.converters = converters.toArray(new ValueConverter[0]);
+        this.slots = new HashMap<>(this.names.length * 2);
+        this.lowerSlots = new HashMap<>(this.names.length * 2);
+        for (int i = 0; i < this.names.length; i++) {
+            columns[i] = this.names[i].toLowerCase();
+            slots.putIfAbsent(this.names[i], i);
+            lowerSlots.putIfAbsent(columns[i], i);
+        }
+    }
+
+    /**
+     * 按字段描述编译转换计划
+     *
+     * @param fields 字段描述
+     * @return 转换计划
+     */
+    public static RecordConvertPlan compile(Field[] fields) {
+        ZoneId zone = ZoneId.systemDefault();
+        List<String> names = new ArrayList<>(fields.length);
+        List<ValueConverter> converters = new ArrayList<>(fields.length);
+        for (Field field : fields) {
+            String type = field.getType() != null ? field.getType().toString() : "";
+            // 文件不处理 统一存oss或者server
+            if ("base64".equals(type)) {
+                continue;
+            }
+            names.add(field.getName());
+            converters.add(converterOf(type, zone));
+        }
+        return new RecordConvertPlan(fields, signatureOf(fields), names, converters);
+    }
+
+    /**
+     * 计算字段描述的签名，字段名或类型变化时签名变化
+     *
+     * @param fields 字段描述
+     * @return 签名
+     */
+    public static String signatureOf(Field[] fields) {
+        StringBuilder builder = new StringBuilder(fields.length * 24);
+        for (Field field : fields) {
+            builder.append(field.getName()).append(':').append(field.getType()).append('\u0001');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 判断转换计划是否由同一组字段描述编译
+     *
+     * @param fields 字段描述
+     * @return 字段描述为同一实例或签名一致时返回true
+     */
+    public boolean matches(Field[] fields) {
+        return fields == source || signature.equals(signatureOf(fields));
+    }
+
+    /**
+     * 本地表列名（小写字段名），与 {@link #convert(SObject)} 返回的数组位置一一对应
+     */
+    public String[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * 按字段名查找位置，不区分大小写
+     *
+     * @param name 字段名
+     * @return 位置，字段不存在时返回-1
+     */
+    public int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            slot = lowerSlots.get(name.toLowerCase());
+        }
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * 将记录转换为参数数组，空值和未查询的字段位置为null
+     *
+     * @param record SObject记录
+     * @return 与 {@link #getColumns()} 对齐的值数组
+     */
+    public Object[] convert(SObject record) {
+        Object[] row = new Object[names.length];
+        Iterator<XmlObject> children = record.getChildren();
+        while (children.hasNext()) {
+            XmlObject child = children.next();
+            Object value = child.getValue();
+            if (value == null) {
+                continue;
+            }
+            String name = child.getName().getLocalPart();
+            // partner会多一个type 值为对象名称 这里过滤掉
+            if (TYPE_ELEMENT.equals(name)) {
+                continue;
+            }
+            int slot = indexOf(name);
+            if (slot >= 0) {
+                row[slot] = converters[slot].convert(value);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * 将记录转换为JSONObject，键为字段API名称，关联对象子字段按 关系名_字段名 展开
+     *
+     * @param record SObject记录
+     * @return JSONObject
+     */
+    public JSONObject toJsonObject(SObject record) {
+        JSONObject jsonObject = new JSONObject();
+        Iterator<XmlObject> children = record.getChildren();
+        while (children.hasNext()) {
+            XmlObject child = children.next();
+            String name = child.getName().getLocalPart();
+            if (child instanceof SObject relation) {
+                Iterator<XmlObject> relationChildren = relation.getChildren();
+                while (relationChildren.hasNext()) {
+                    XmlObject relationChild = relationChildren.next();
+                    String childName = relationChild.getName().getLocalPart();
+                    if (TYPE_ELEMENT.equals(childName) || relationChild.getValue() == null) {
+                        continue;
+                    }
+                    jsonObject.put(name + "_" + childName, relationChild.getValue());
+                }
+            }
+            Object value = child.getValue();
+            if (value == null || TYPE_ELEMENT.equals(name)) {
+                continue;
+            }
+            int slot = indexOf(name);
+            if (slot >= 0) {
+                jsonObject.put(name, converters[slot].convert(value));
+            }
+        }
+        return jsonObject;
+    }
+
+    /**
+     * 一组记录中至少一条有值的字段位置
+     * <p>
+     * 空值字段不写入，与按记录取字段名并集的写入方式一致，未查询的字段不会被覆盖为空
+     * </p>
+     *
+     * @param rows 转换后的记录
+     * @return 字段位置，按列顺序排列
+     */
+    public int[] presentSlots(List<Object[]> rows) {
+        boolean[] present = new boolean[names.length];
+        int count = 0;
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (!present[i] && row[i] != null) {
+                    present[i] = true;
+                    count++;
+                }
+            }
+            if (count == names.length) {
+                break;
+            }
+        }
+        int[] result = new int[count];
+        for (int i = 0, j = 0; i < present.length; i++) {
+            if (present[i]) {
+                result[j++] = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 一组记录中至少一条有值、且本地表中存在对应列的字段位置
+     * <p>
+     * Salesforce 新增字段后、本地表加列前，该字段不写入，避免整页写入失败
+     * </p>
+     *
+     * @param rows         转换后的记录
+     * @param tableColumns 本地表列名（小写），为空时不过滤
+     * @return 字段位置，按列顺序排列
+     */
+    public int[] presentSlots(List<Object[]> rows, Set<String> tableColumns) {
+        int[] slots = presentSlots(rows);
+        if (tableColumns == null || tableColumns.isEmpty()) {
+            return slots;
+        }
+        int count = 0;
+        for (int slot : slots) {
+            if (tableColumns.contains(columns[slot])) {
+                slots[count++] = slot;
+            }
+        }
+        return count == slots.length ? slots : Arrays.copyOf(slots, count);
+    }
+
+    /**
+     * 字段位置中本地表不存在对应列的列名
+     *
+     * @param slots        字段位置
+     * @param tableColumns 本地表列名（小写）
+     * @return 不存在的列名，表列为空时返回空列表
+     */
+    public List<String> missingColumns(int[] slots, Set<String> tableColumns) {
+        List<String> missing = new ArrayList<>();
+        if (tableColumns == null || tableColumns.isEmpty()) {
+            return missing;
+        }
+        for (int slot : slots) {
+            if (!tableColumns.contains(columns[slot])) {
+                missing.add(columns[slot]);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * 字段位置对应的列名
+     *
+     * @param slots 字段位置
+     * @return 列名
+     */
+    public List<String> columnsOf(int[] slots) {
+        List<String> result = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            result.add(columns[slot]);
+        }
+        return result;
+    }
+
+    /**
+     * 按字段位置取出批量写入所需的值列表，全部字段都有值时直接包装原数组
+     *
+     * @param rows  转换后的记录
+     * @param slots 字段位置
+     * @return 与 {@link #columnsOf(int[])} 对齐的值列表
+     */
+    public List<Collection<Object>> valuesOf(List<Object[]> rows, int[] slots) {
+        List<Collection<Object>> values = new ArrayList<>(rows.size());
+        boolean all = slots.length == names.length;
+        for (Object[] row : rows) {
+            if (all) {
+                values.add(Arrays.asList(row));
+                continue;
+            }
+            Object[] projected = new Object[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                projected[i] = row[slots[i]];
+            }
+            values.add(Arrays.asList(projected));
+        }
+        return values;
+    }
+
+    /**
+     * 将参数数组转换为Map，键为小写字段名，只包含有值的字段
+     *
+     * @param row 转换后的记录
+     * @return Map
+     */
+    public Map<String, Object> toMap(Object[] row) {
+        Map<String, Object> map = new HashMap<>(row.length * 2);
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] != null) {
+                map.put(columns[i], row[i]);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * 按字段类型选定值转换器
+     */
+    private static ValueConverter converterOf(String type, ZoneId zone) {
+        switch (type) {
+            case "date":
+                return parsing(LocalDate::parse);
+            case "datetime":
+                return parsing(value -> LocalDateTime.ofInstant(Instant.parse(value), zone));
+            case "time":
+                // 原先按GMT解析为1970-01-01的Date后写入，数据库中的值为该时刻在默认时区的时间，这里保持一致
+                return parsing(value -> LocalTime.ofInstant(LocalDate.EPOCH
+                        .atTime(LocalTime.parse(value.endsWith("Z") ? value.substring(0, value.length() - 1) : value))
+                        .toInstant(ZoneOffset.UTC), zone));
+            case "boolean":
+                return parsing(BooleanUtils::toBoolean);
+            case "int":
+                return parsing(Integer::parseInt);
+            case "long":
+                return parsing(Long::parseLong);
+            case "double":
+            case "currency":
+            case "percent":
+                return parsing(Double::parseDouble);
+            default:
+                return value -> value instanceof String ? value : convertOther(value);
+        }
+    }
+
+    /**
+     * 字符串值使用指定解析器，空字符串转换为null，其他类型按通用规则转换
+     */
+    private static ValueConverter parsing(StringParser parser) {
+        return value -> {
+            if (value instanceof String text) {
+                return text.isEmpty() ? null : parser.parse(text);
+            }
+            return convertOther(value);
+        };
+    }
+
+    private static Object convertOther(Object value) {
+        if (value instanceof GregorianCalendar calendar) {
+            return DateFormatUtils.format(calendar, "yyyy-MM-dd HH:mm:ss");
+        } else if (value instanceof Time time) {
+            return DateFormatUtils.format(time.getTimeInMillis(), "HH:mm:ss");
+        }
+        return String.valueOf(value);
+    }
+
+    @FunctionalInterface
+    private interface ValueConverter {
+        Object convert(Object value);
+    }
+
+    @FunctionalInterface
+    private interface StringParser {
+        Object parse(String value);
+    }
+}
@@ -0,0 +1,95 @@
+package com.datai.integration.util;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Salesforce 记录Id区间切分
+ * <p>
+ * 15位Id由 0-9A-Za-z 组成，按字符升序与按62进制数值升序一致，且同一对象的Id基本按创建顺序递增。
+ * 将最小、最大Id视为62进制数后等分即可得到分片边界，无需逐条扫描；Id分布不均时各分片数据量会有偏差，
+ * 由分片队列的并发消费吸收。
+ * </p>
+ */
+public final class SalesforceIdRange {
+
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private static final String SUFFIX_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ012345";
+
+    private static final BigInteger BASE = BigInteger.valueOf(62);
+
+    private static final int ID_LENGTH = 15;
+
+    private SalesforceIdRange() {
+    }
+
+    /**
+     * 在 (minId, maxId) 之间等分出 parts - 1 个边界
+     *
+     * @param minId 最小Id，15位或18位
+     * @param maxId 最大Id，15位或18位
+     * @param parts 分片数
+     * @return 升序的18位边界Id；Id格式无法识别或区间不足以切分时返回空列表
+     */
+    public static List<String> split(String minId, String maxId, int parts) {
+        List<String> boundaries = new ArrayList<>();
+        BigInteger min = toNumber(minId);
+        BigInteger max = toNumber(maxId);
+        if (parts <= 1 || min == null || max == null || min.compareTo(max) >= 0) {
+            return boundaries;
+        }
+        BigInteger span = max.subtract(min);
+        BigInteger count = BigInteger.valueOf(parts);
+        BigInteger previous = min;
+        for (int i = 1; i < parts; i++) {
+            BigInteger boundary = min.add(span.multiply(BigInteger.valueOf(i)).divide(count));
+            if (boundary.compareTo(previous) > 0 && boundary.compareTo(max) < 0) {
+                boundaries.add(toId(boundary));
+                previous = boundary;
+            }
+        }
+        return boundaries;
+    }
+
+    private static BigInteger toNumber(String id) {
+        if (id == null || (id.length() != ID_LENGTH && id.length() != 18)) {
+            return null;
+        }
+        BigInteger value = BigInteger.ZERO;
+        for (int i = 0; i < ID_LENGTH; i++) {
+            int digit = DIGITS.indexOf(id.charAt(i));
+            if (digit < 0) {
+                return null;
+            }
+            value = value.multiply(BASE).add(BigInteger.valueOf(digit));
+        }
+        return value;
+    }
+
+    /**
+     * 62进制数转为18位Id，后3位为按大小写计算的校验后缀
+     */
+    private static String toId(BigInteger value) {
+        char[] chars = new char[ID_LENGTH];
+        BigInteger remaining = value;
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            BigInteger[] qr = remaining.divideAndRemainder(BASE);
+            chars[i] = DIGITS.charAt(qr[1].intValue());
+            remaining = qr[0];
+        }
+        StringBuilder id = new StringBuilder(18).append(chars);
+        for (int block = 0; block < 3; block++) {
+            int flags = 0;
+            for (int i = 0; i < 5; i++) {
+                char c = chars[block * 5 + i];
+                if (c >= 'A' && c <= 'Z') {
+                    flags |= 1 << i;
+                }
+            }
+            id.append(SUFFIX_CHARS.charAt(flags));
+        }
+        return id.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.datai.integration.util;
+
+import java.util.Locale;
+
+/**
+ * 本地库的SQL方言
+ * <p>
+ * 与 CustomMapper.xml 中 _databaseId 的取值一致。字段类型统一按 MySQL 类型生成（{@link ConvertUtil#fieldTypeToMysql}），
+ * 建表和增改列前由 {@link #columnType(String)} 转换为目标库的类型；PostgreSQL 系的表名、列名统一使用小写。
+ * </p>
+ */
+public enum SqlDialect {
+
+    MYSQL,
+
+    POSTGRESQL,
+
+    OPENGAUSS;
+
+    /**
+     * PostgreSQL 协议单条语句的绑定参数上限
+     */
+    private static final int PG_MAX_BIND_PARAMETERS = 65535;
+
+    /**
+     * 按 MyBatis databaseId 确定方言，未识别时按 MySQL 处理
+     *
+     * @param databaseId databaseId
+     * @return 方言
+     */
+    public static SqlDialect of(String databaseId) {
+        if ("postgresql".equalsIgnoreCase(databaseId)) {
+            return POSTGRESQL;
+        }
+        if ("openGauss".equalsIgnoreCase(databaseId)) {
+            return OPENGAUSS;
+        }
+        return MYSQL;
+    }
+
+    /**
+     * 是否为 PostgreSQL 系（PostgreSQL、openGauss）
+     */
+    public boolean isPostgresLike() {
+        return this != MYSQL;
+    }
+
+    /**
+     * 多值 INSERT 单条语句最多写入的记录数
+     * <p>
+     * PostgreSQL 系每条语句最多绑定 65535 个参数（记录数 × 字段数），超出时整条语句报错；MySQL 仅受 max_allowed_packet 限制。
+     * </p>
+     *
+     * @param columns 每条记录的字段数
+     * @return 最大记录数
+     */
+    public int maxBatchRows(int columns) {
+        if (!isPostgresLike()) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(1, PG_MAX_BIND_PARAMETERS / Math.max(1, columns));
+    }
+
+    /**
+     * 将 MySQL 字段类型转换为当前方言的字段类型
+     *
+     * @param mysqlType MySQL字段类型，可带 DEFAULT 子句（如 tinyint(1) DEFAULT 0）
+     * @return 当前方言的字段类型
+     */
+    public String columnType(String mysqlType) {
+        if (!isPostgresLike() || mysqlType == null) {
+            return mysqlType;
+        }
+        String type = mysqlType.trim().toLowerCase(Locale.ROOT);
+        String defaultClause = "";
+        int defaultIndex = type.indexOf(" default ");
+        if (defaultIndex > 0) {
+            defaultClause = type.substring(defaultIndex);
+            type = type.substring(0, defaultIndex).trim();
+        }
+
+        if (type.startsWith("tinyint(1)")) {
+            return "boolean" + defaultClause.replace(" 0", " false").replace(" 1", " true");
+        }
+        String baseType = type.contains("(") ? type.substring(0, type.indexOf('(')) : type;
+        switch (baseType) {
+            case "text":
+            case "mediumtext":
+            case "longtext":
+                return "text" + defaultClause;
+            case "longblob":
+            case "mediumblob":
+            case "blob":
+                return "bytea";
+            case "datetime":
+                return "timestamp" + defaultClause;
+            case "tinyint":
+            case "smallint":
+                return "smallint" + defaultClause;
+            case "int":
+            case "integer":
+            case "bigint":
+                // Salesforce 的 int、long 字段统一按 bigint 存储
+                return "bigint" + defaultClause;
+            case "double":
+                return "double precision" + defaultClause;
+            case "decimal":
+                return type.replace("decimal", "numeric") + defaultClause;
+            default:
+                return type + defaultClause;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.datai.integration.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本地表结构
+ * <p>
+ * 记录表是否分区、已存在的按年分区与列名，由对象注册表加载并在建表、增删列、新增分区时维护，
+ * 写入路径据此分组和过滤列，不再每页查询 information_schema。列名与分区名均为小写。
+ * </p>
+ */
+public final class TableLayout {
+
+    private final String tableName;
+
+    private final boolean partitioned;
+
+    /**
+     * 是否为可按年追加分区的 RANGE 分区表
+     */
+    private final boolean rangePartitioned;
+
+    private final Set<String> partitions = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> columns = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 最大的按年分区年份，没有按年分区时为-1
+     */
+    private volatile int maxPartitionYear = -1;
+
+    public TableLayout(String tableName, boolean partitioned, boolean rangePartitioned) {
+        this.tableName = tableName;
+        this.partitioned = partitioned;
+        this.rangePartitioned = rangePartitioned;
+    }
+
+    /**
+     * 按年分区名
+     *
+     * @param year 年份
+     * @return 分区名（如p2025）
+     */
+    public static String partitionName(int year) {
+        return "p" + year;
+    }
+
+    /**
+     * 从按年分区名中解析年份
+     *
+     * @param partitionName 分区名
+     * @return 年份，不是按年分区时返回-1
+     */
+    public static int partitionYear(String partitionName) {
+        if (partitionName == null || partitionName.length() != 5
+                || Character.toLowerCase(partitionName.charAt(0)) != 'p') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(partitionName.substring(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    public boolean isRangePartitioned() {
+        return rangePartitioned;
+    }
+
+    public int getMaxPartitionYear() {
+        return maxPartitionYear;
+    }
+
+    public boolean hasPartition(String partitionName) {
+        return partitionName != null && partitions.contains(partitionName.toLowerCase());
+    }
+
+    /**
+     * 表中的列名，表结构未加载到列时为空集合
+     */
+    public Set<String> getColumns() {
+        return Collections.unmodifiableSet(columns);
+    }
+
+    public void addPartition(String partitionName) {
+        String name = partitionName.toLowerCase();
+        partitions.add(name);
+        int year = partitionYear(name);
+        if (year > maxPartitionYear) {
+            maxPartitionYear = year;
+        }
+    }
+
+    public void addColumns(Collection<String> columnNames) {
+        for (String columnName : columnNames) {
+            addColumn(columnName);
+        }
+    }
+
+    public void addColumn(String columnName) {
+        columns.add(columnName.toLowerCase());
+    }
+
+    public void removeColumn(String columnName) {
+        columns.remove(columnName.toLowerCase());
+    }
+}
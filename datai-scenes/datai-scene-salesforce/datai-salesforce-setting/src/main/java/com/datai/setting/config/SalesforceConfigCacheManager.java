@@ -6,17 +6,38 @@ import com.datai.setting.model.domain.DataiConfiguration;
 import com.datai.setting.model.domain.DataiConfigEnvironment;
 import com.datai.setting.mapper.DataiConfigurationMapper;
 import com.datai.setting.mapper.DataiConfigEnvironmentMapper;
+import com.datai.setting.event.ConfigChangeEvent;
+import com.datai.setting.event.EnvironmentSwitchEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Salesforce配置缓存管理器
  * 负责配置的加载、缓存和更新
+ * <p>
+ * 当前环境的配置保存为不可变的版本化快照，重新加载时在旁路构建完整快照后一次性替换引用，
+ * 读取配置只访问快照字段，加载期间读到的始终是完整的旧快照或新快照。
+ * 快照同时写入共享缓存并记录版本号，其他节点定期比对版本号，发现变化后从数据库重建快照。
+ * </p>
  * 
  * @author datai
  * @date 2025-12-11
@@ -32,15 +53,45 @@ public class SalesforceConfigCacheManager {
     @Autowired
     private DataiConfigEnvironmentMapper environmentMapper;
 
+    /**
+     * 记录各环境配置快照版本号的缓存名称
+     */
+    private static final String VERSION_CACHE_NAME = SalesforceConfigConstants.SALESFORCE_CONFIG_CACHE_KEY + ":version";
+
+    /**
+     * 检查其他节点配置变更的间隔（秒）
+     */
+    private static final long VERSION_CHECK_INTERVAL_SECONDS = 10;
+
     /**
      * 当前环境编码，初始化时从数据库中获取
      */
-    private String currentEnvironmentCode;
+    private volatile String currentEnvironmentCode;
     
     /**
      * 当前环境ID，初始化时从数据库中获取
      */
-    private Long currentEnvironmentId;
+    private volatile Long currentEnvironmentId;
+
+    /**
+     * 当前环境的配置快照
+     */
+    private volatile ConfigSnapshot snapshot = ConfigSnapshot.EMPTY;
+
+    private ScheduledExecutorService versionCheckExecutor;
+
+    /**
+     * 配置快照，不可变
+     *
+     * @param version 快照版本号，与共享缓存中的版本号比对判断其他节点是否有变更
+     * @param environmentCode 环境编码
+     * @param values 配置键值
+     * @param keysById 配置ID与配置键的对应关系，用于配置键变更时移除旧键
+     */
+    private record ConfigSnapshot(String version, String environmentCode, Map<String, String> values, Map<Long, String> keysById) {
+
+        static final ConfigSnapshot EMPTY = new ConfigSnapshot(null, null, Collections.emptyMap(), Collections.emptyMap());
+    }
     
     /**
      * 配置加载锁，防止并发加载
@@ -61,9 +112,9 @@ public class SalesforceConfigCacheManager {
             long envInitEndTime = System.currentTimeMillis();
             logger.info("[配置加载] 环境信息初始化完成，耗时: {}ms", (envInitEndTime - envInitStartTime));
             
-            // 2. 加载配置到缓存
+            // 2. 加载配置到缓存，共享缓存中已有版本号时沿用，避免节点启动触发其他节点重新加载
             long configLoadStartTime = System.currentTimeMillis();
-            loadConfigToCache();
+            loadConfigToCache(getRemoteVersion());
             long configLoadEndTime = System.currentTimeMillis();
             logger.info("[配置加载] 配置加载到缓存完成，耗时: {}ms", (configLoadEndTime - configLoadStartTime));
             
@@ -76,6 +127,21 @@ public class SalesforceConfigCacheManager {
                 startTime, (endTime - startTime), e.getMessage(), e);
             throw new RuntimeException("Salesforce配置初始化失败", e);
         }
+
+        versionCheckExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "config-version-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        versionCheckExecutor.scheduleWithFixedDelay(this::checkRemoteVersion,
+            VERSION_CHECK_INTERVAL_SECONDS, VERSION_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (versionCheckExecutor != null) {
+            versionCheckExecutor.shutdownNow();
+        }
     }
 
     /**
@@ -108,16 +174,21 @@ public class SalesforceConfigCacheManager {
      * 将配置加载到缓存
      */
     public void loadConfigToCache() {
+        loadConfigToCache(null);
+    }
+
+    /**
+     * 从数据库构建新快照并替换当前快照
+     *
+     * @param version 快照版本号，为null时生成新版本号并写入共享缓存通知其他节点
+     */
+    private void loadConfigToCache(String version) {
         synchronized (configLoadLock) {
             long loadStartTime = System.currentTimeMillis();
             String cacheKey = getEnvironmentCacheKey();
             logger.info("[配置加载] 开始加载配置到缓存，当前环境: {}(ID: {}), 缓存键: {}", 
                 currentEnvironmentCode, currentEnvironmentId, cacheKey);
 
-            // 清空当前环境的缓存
-            CacheUtils.getCache(cacheKey).clear();
-            logger.info("[配置加载] 已清空现有缓存: {}", cacheKey);
-
             // 查询当前环境的所有激活配置
             long dbQueryStartTime = System.currentTimeMillis();
             DataiConfiguration query = new DataiConfiguration();
@@ -128,70 +199,157 @@ public class SalesforceConfigCacheManager {
             logger.info("[配置加载] 数据库查询完成，当前环境配置数量: {}, 查询耗时: {}ms", 
                 configs.size(), (dbQueryEndTime - dbQueryStartTime));
 
-            int successCount = 0;
-            int failCount = 0;
-            long cachePutStartTime = System.currentTimeMillis();
-            
-            // 将配置存入缓存
-            for (DataiConfiguration config : configs) {
-                try {
-                    CacheUtils.getCache(cacheKey).put(config.getConfigKey(), config.getConfigValue());
-                    logger.debug("[配置加载] 配置加载到缓存成功: {} = {}", config.getConfigKey(), config.getConfigValue());
-                    successCount++;
-                } catch (Exception e) {
-                    logger.error("[配置加载] 配置处理异常，跳过加载: {} = {}, 错误: {}", 
-                        config.getConfigKey(), config.getConfigValue(), e.getMessage(), e);
-                    failCount++;
-                }
-            }
-            
-            long cachePutEndTime = System.currentTimeMillis();
-            logger.info("[配置加载] 当前环境配置处理完成，成功: {}个, 失败: {}个, 缓存写入耗时: {}ms", 
-                successCount, failCount, (cachePutEndTime - cachePutStartTime));
-            
             // 如果当前环境没有配置，加载默认环境(environmentId为null)的配置作为 fallback
             if (configs.isEmpty()) {
                 logger.warn("[配置加载] 当前环境 {} 没有配置，尝试加载默认环境配置作为fallback", currentEnvironmentCode);
-                long defaultDbQueryStartTime = System.currentTimeMillis();
                 DataiConfiguration defaultQuery = new DataiConfiguration();
                 defaultQuery.setIsActive(true);
                 defaultQuery.setEnvironmentId(null); // 默认环境配置
-                List<DataiConfiguration> defaultConfigs = configurationMapper.selectDataiConfigurationList(defaultQuery);
-                long defaultDbQueryEndTime = System.currentTimeMillis();
-                logger.info("[配置加载] 默认环境配置查询完成，数量: {}, 查询耗时: {}ms", 
-                    defaultConfigs.size(), (defaultDbQueryEndTime - defaultDbQueryStartTime));
-                
-                int defaultSuccessCount = 0;
-                int defaultFailCount = 0;
-                long defaultCachePutStartTime = System.currentTimeMillis();
-                
-                for (DataiConfiguration config : defaultConfigs) {
-                    try {
-                        CacheUtils.getCache(cacheKey).put(config.getConfigKey(), config.getConfigValue());
-                        logger.debug("[配置加载] 默认配置加载到缓存成功: {} = {}", config.getConfigKey(), config.getConfigValue());
-                        defaultSuccessCount++;
-                    } catch (Exception e) {
-                        logger.error("[配置加载] 默认配置处理异常，跳过加载: {} = {}, 错误: {}", 
-                            config.getConfigKey(), config.getConfigValue(), e.getMessage(), e);
-                        defaultFailCount++;
-                    }
+                configs = configurationMapper.selectDataiConfigurationList(defaultQuery);
+                logger.info("[配置加载] 默认环境配置查询完成，数量: {}", configs.size());
+            }
+
+            Map<String, String> values = new HashMap<>(configs.size() * 2);
+            Map<Long, String> keysById = new HashMap<>(configs.size() * 2);
+            for (DataiConfiguration config : configs) {
+                if (config.getConfigKey() == null || config.getConfigValue() == null) {
+                    logger.warn("[配置加载] 配置键或值为空，跳过加载: {} = {}", config.getConfigKey(), config.getConfigValue());
+                    continue;
+                }
+                values.put(config.getConfigKey(), config.getConfigValue());
+                if (config.getId() != null) {
+                    keysById.put(config.getId(), config.getConfigKey());
                 }
-                
-                long defaultCachePutEndTime = System.currentTimeMillis();
-                logger.info("[配置加载] 默认环境配置处理完成，成功: {}个, 失败: {}个, 缓存写入耗时: {}ms", 
-                    defaultSuccessCount, defaultFailCount, (defaultCachePutEndTime - defaultCachePutStartTime));
-                
-                successCount += defaultSuccessCount;
-                failCount += defaultFailCount;
             }
-            
-            // 统计缓存最终状态
-            long cacheSize = CacheUtils.getkeys(cacheKey).size();
+
+            publishSnapshot(new ConfigSnapshot(version != null ? version : newVersion(), currentEnvironmentCode,
+                Map.copyOf(values), Map.copyOf(keysById)), version == null);
+
             long loadEndTime = System.currentTimeMillis();
-            logger.info("[配置加载] 配置加载到缓存完成，总耗时: {}ms, 总处理配置: {}个, 成功加载: {}个, 缓存最终大小: {}个, 缓存键: {}", 
-                (loadEndTime - loadStartTime), (successCount + failCount), successCount, cacheSize, cacheKey);
+            logger.info("[配置加载] 配置加载到缓存完成，总耗时: {}ms, 加载配置: {}个, 快照版本: {}, 缓存键: {}", 
+                (loadEndTime - loadStartTime), values.size(), snapshot.version(), cacheKey);
+        }
+    }
+
+    /**
+     * 替换当前快照，并同步到共享缓存
+     * 共享缓存先写入新值再移除已不存在的键，不做整体清空
+     *
+     * @param newSnapshot 新快照
+     * @param announce 是否写入版本号通知其他节点
+     */
+    private void publishSnapshot(ConfigSnapshot newSnapshot, boolean announce) {
+        snapshot = newSnapshot;
+
+        try {
+            String cacheKey = getEnvironmentCacheKey();
+            Cache cache = CacheUtils.getCache(cacheKey);
+            for (Map.Entry<String, String> entry : newSnapshot.values().entrySet()) {
+                cache.put(entry.getKey(), entry.getValue());
+            }
+            Set<String> cachedKeys = CacheUtils.getkeys(cacheKey);
+            if (cachedKeys != null) {
+                for (String key : cachedKeys) {
+                    if (!newSnapshot.values().containsKey(key)) {
+                        cache.evict(key);
+                    }
+                }
+            }
+            if (announce) {
+                CacheUtils.getCache(VERSION_CACHE_NAME).put(newSnapshot.environmentCode(), newSnapshot.version());
+            }
+        } catch (Exception e) {
+            logger.error("[配置加载] 同步配置快照到共享缓存失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 配置增删改后更新快照，先于其他监听器执行，保证其他监听器读取到新值
+     *
+     * @param event 配置变更事件
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onConfigChange(ConfigChangeEvent event) {
+        DataiConfiguration config = event.getConfig();
+        if (config == null || config.getConfigKey() == null) {
+            return;
+        }
+
+        synchronized (configLoadLock) {
+            ConfigSnapshot current = snapshot;
+            Map<String, String> values = new HashMap<>(current.values());
+            Map<Long, String> keysById = new HashMap<>(current.keysById());
+
+            if (config.getId() != null) {
+                String previousKey = keysById.remove(config.getId());
+                if (previousKey != null) {
+                    values.remove(previousKey);
+                }
+            }
+            if ("DELETE".equals(event.getOperationType()) || config.getConfigValue() == null
+                    || Boolean.FALSE.equals(config.getIsActive())) {
+                values.remove(config.getConfigKey());
+            } else {
+                values.put(config.getConfigKey(), config.getConfigValue());
+                if (config.getId() != null) {
+                    keysById.put(config.getId(), config.getConfigKey());
+                }
+            }
+
+            snapshot = new ConfigSnapshot(newVersion(), currentEnvironmentCode, Map.copyOf(values), Map.copyOf(keysById));
+            try {
+                CacheUtils.getCache(VERSION_CACHE_NAME).put(currentEnvironmentCode, snapshot.version());
+            } catch (Exception e) {
+                logger.error("[缓存更新] 写入配置快照版本号失败: {}", e.getMessage(), e);
+            }
+            logger.debug("[缓存更新] 配置快照已更新: {} {}, 快照版本: {}", event.getOperationType(), config.getConfigKey(), snapshot.version());
+        }
+    }
+
+    /**
+     * 环境切换后确认快照属于新环境
+     *
+     * @param event 环境切换事件
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onEnvironmentSwitch(EnvironmentSwitchEvent event) {
+        if (!Objects.equals(snapshot.environmentCode(), currentEnvironmentCode)) {
+            logger.info("[环境切换] 配置快照环境与当前环境不一致，重新加载: {} -> {}", snapshot.environmentCode(), currentEnvironmentCode);
+            loadConfigToCache();
         }
     }
+
+    /**
+     * 比对共享缓存中的版本号，其他节点变更配置后从数据库重建快照
+     */
+    private void checkRemoteVersion() {
+        try {
+            String remoteVersion = getRemoteVersion();
+            if (remoteVersion != null && !remoteVersion.equals(snapshot.version())) {
+                logger.info("[配置加载] 检测到其他节点配置变更，重新加载配置，本地版本: {}, 共享版本: {}", snapshot.version(), remoteVersion);
+                loadConfigToCache(remoteVersion);
+            }
+        } catch (Exception e) {
+            logger.warn("[配置加载] 检查配置快照版本失败: {}", e.getMessage());
+        }
+    }
+
+    private String getRemoteVersion() {
+        try {
+            Cache.ValueWrapper wrapper = CacheUtils.getCache(VERSION_CACHE_NAME).get(currentEnvironmentCode);
+            Object version = wrapper != null ? wrapper.get() : null;
+            return version != null ? version.toString() : null;
+        } catch (Exception e) {
+            logger.warn("[配置加载] 读取配置快照版本号失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String newVersion() {
+        return UUID.randomUUID().toString();
+    }
     
     /**
      * 获取带环境标识的缓存键
@@ -234,12 +392,13 @@ public class SalesforceConfigCacheManager {
         logger.info("[配置加载] 开始清空Salesforce配置缓存，当前环境: {}, 缓存键: {}", 
             currentEnvironmentCode, cacheKey);
         
-        CacheUtils.getCache(cacheKey).clear();
+        synchronized (configLoadLock) {
+            publishSnapshot(new ConfigSnapshot(newVersion(), currentEnvironmentCode, Collections.emptyMap(), Collections.emptyMap()), true);
+        }
         
         long clearEndTime = System.currentTimeMillis();
-        long cacheSizeAfter = CacheUtils.getkeys(cacheKey).size();
-        logger.info("[配置加载] 配置缓存清空完成，耗时: {}ms, 当前环境: {}, 缓存键: {}, 清空后缓存大小: {}个", 
-            (clearEndTime - clearStartTime), currentEnvironmentCode, cacheKey, cacheSizeAfter);
+        logger.info("[配置加载] 配置缓存清空完成，耗时: {}ms, 当前环境: {}, 缓存键: {}", 
+            (clearEndTime - clearStartTime), currentEnvironmentCode, cacheKey);
     }
     
     /**
@@ -249,8 +408,16 @@ public class SalesforceConfigCacheManager {
      * @return 配置值，如果不存在则返回null
      */
     public String getConfigValue(String configKey) {
-        Object value = CacheUtils.getCache(getEnvironmentCacheKey()).get(configKey);
-        return value != null ? value.toString() : null;
+        return snapshot.values().get(configKey);
+    }
+
+    /**
+     * 获取当前配置快照版本号
+     *
+     * @return 快照版本号
+     */
+    public String getSnapshotVersion() {
+        return snapshot.version();
     }
     
     /**
@@ -313,10 +480,6 @@ public class SalesforceConfigCacheManager {
                 return true;
             }
             
-            String oldCacheKey = SalesforceConfigConstants.SALESFORCE_CONFIG_CACHE_KEY + ":" + oldEnvironmentCode;
-            CacheUtils.getCache(oldCacheKey).clear();
-            logger.info("[环境切换] 已清理旧环境缓存: {}", oldCacheKey);
-            
             this.currentEnvironmentCode = environmentCode;
             this.currentEnvironmentId = newEnvironment.getId();
             logger.info("[环境切换] 已更新当前环境信息: 编码={}, ID={}, ORG类型={}", 
@@ -346,6 +509,11 @@ public class SalesforceConfigCacheManager {
                 throw new RuntimeException("加载新环境配置失败: " + loadException.getMessage(), loadException);
             }
             
+            // 新环境快照已生效，再清理旧环境的共享缓存
+            String oldCacheKey = SalesforceConfigConstants.SALESFORCE_CONFIG_CACHE_KEY + ":" + oldEnvironmentCode;
+            CacheUtils.getCache(oldCacheKey).clear();
+            logger.info("[环境切换] 已清理旧环境缓存: {}", oldCacheKey);
+            
             long endTime = System.currentTimeMillis();
             logger.info("[环境切换] 环境切换成功: {} -> {}, ORG类型: {}, 耗时: {}ms", 
                 oldEnvironmentCode, environmentCode, orgType, (endTime - startTime));
@@ -13,6 +13,9 @@ import java.util.concurrent.FutureTask;
  * 优先级规则：index值越大优先级越高；index相等时，batch值越小优先级越高。
  * 同时支持将父线程的Spring Security上下文传递到子线程中。
  * </p>
+ * <p>
+ * 任务还记录所属的调度通道、ORG类型和对象API，供 {@link SalesforceExecutor} 按通道权重和并发上限调度。
+ * </p>
  */
 @Getter
 public class ComparableFutureTask extends FutureTask<Object> implements Comparable<ComparableFutureTask> {
@@ -42,6 +45,26 @@ public class ComparableFutureTask extends FutureTask<Object> implements Comparab
      */
     private final SecurityContext parentSecurityContext;
 
+    /**
+     * 调度通道
+     */
+    private final SalesforceTaskLane lane;
+
+    /**
+     * ORG类型，为null时不受ORG并发上限限制
+     */
+    private final String orgType;
+
+    /**
+     * 对象API，为null时不受对象并发上限限制
+     */
+    private final String objectApi;
+
+    /**
+     * 提交时间（纳秒），用于统计排队等待时间
+     */
+    private final long submitNanos;
+
     /**
      * 构造函数
      *
@@ -50,10 +73,28 @@ public class ComparableFutureTask extends FutureTask<Object> implements Comparab
      * @param index    优先级索引
      */
     public ComparableFutureTask(Runnable runnable, int batch, int index) {
+        this(runnable, batch, index, SalesforceTaskLane.INCREMENTAL, null, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param runnable  要执行的任务
+     * @param batch     批次号
+     * @param index     优先级索引
+     * @param lane      调度通道
+     * @param orgType   ORG类型
+     * @param objectApi 对象API
+     */
+    public ComparableFutureTask(Runnable runnable, int batch, int index, SalesforceTaskLane lane, String orgType, String objectApi) {
         super(runnable, null);
         this.index = index;
         this.batch = batch;
         this.parentSecurityContext = SecurityContextHolder.getContext();
+        this.lane = lane != null ? lane : SalesforceTaskLane.INCREMENTAL;
+        this.orgType = orgType;
+        this.objectApi = objectApi;
+        this.submitNanos = System.nanoTime();
     }
 
     @Override
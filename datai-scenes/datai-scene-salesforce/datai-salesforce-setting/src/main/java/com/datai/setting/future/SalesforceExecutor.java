@@ -2,20 +2,32 @@ package com.datai.setting.future;
 
 import cn.hutool.core.thread.ThreadFactoryBuilder;
 import com.datai.setting.config.SalesforceConfigCacheManager;
+import com.datai.setting.event.ConfigChangeEvent;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.concurrent.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Salesforce专用线程池执行器
  * <p>
  * 该类提供了Salesforce数据处理任务的线程池管理功能，支持任务优先级排序和批量处理。
- * 使用PriorityBlockingQueue作为任务队列，确保高优先级任务优先执行。
+ * 任务按 {@link SalesforceTaskLane} 进入实时、增量、回填三个通道排队，通道内按 {@link ComparableFutureTask} 的优先级排序，
+ * 调度线程按通道权重（步长调度）公平分配空闲线程。
  * </p>
  * <p>
  * 特性：
@@ -23,6 +35,10 @@ import java.util.concurrent.*;
  * 2. 自动将父线程的Spring Security上下文传递到子线程
  * 3. 可配置的线程池参数（核心线程数、最大线程数、队列容量等）
  * 4. 支持优雅关闭和强制关闭
+ * 5. 通道权重与通道并发上限，回填任务默认最多占用一半线程，不会饿死实时和增量任务
+ * 6. 按ORG和对象限制并发数，超过上限的任务留在队列中，让出线程给其他任务
+ * 7. 可选使用虚拟线程执行以I/O为主的API调用任务
+ * 8. 统计各通道队列深度、运行数和排队等待时间
  * </p>
  */
 @Service
@@ -31,9 +47,16 @@ import java.util.concurrent.*;
 public class SalesforceExecutor {
 
     /**
-     * Salesforce任务执行线程池
+     * 步长调度的基数，通道每分配一个线程，其进度增加 STRIDE / 权重
      */
-    public ThreadPoolExecutor executorService;
+    private static final long STRIDE = 1L << 20;
+
+    private static final String CONFIG_PREFIX = "salesforce.executor.";
+
+    /**
+     * 执行任务的线程池，调度线程保证同时提交的任务数不超过并发上限
+     */
+    private ExecutorService executorService;
 
     /**
      * 配置缓存管理器
@@ -41,10 +64,62 @@ public class SalesforceExecutor {
     @Autowired
     private SalesforceConfigCacheManager configCacheManager;
 
+    private final ReentrantLock schedulerLock = new ReentrantLock();
+
+    /**
+     * 任务入队、完成或调度参数变化时通知调度线程
+     */
+    private final Condition schedulerChanged = schedulerLock.newCondition();
+
+    private final Map<SalesforceTaskLane, LaneState> lanes = new EnumMap<>(SalesforceTaskLane.class);
+
+    private final Map<String, Integer> runningByOrg = new HashMap<>();
+
+    private final Map<String, Integer> runningByObject = new HashMap<>();
+
+    /**
+     * 最近一次调度的通道进度，空闲通道重新有任务时从该进度开始，避免积累的额度一次性用完
+     */
+    private long globalPass;
+
+    private int running;
+
+    private int maxConcurrency;
+
+    private int orgMaxConcurrency;
+
+    private int objectMaxConcurrency;
+
+    private boolean virtualThreads;
+
+    private volatile boolean accepting;
+
+    private Thread dispatcher;
+
+    /**
+     * 单个通道的队列、调度进度与统计，均在 schedulerLock 下访问
+     */
+    private static class LaneState {
+        private final PriorityQueue<ComparableFutureTask> queue;
+        private int weight;
+        private int maxConcurrency;
+        private long pass;
+        private int running;
+        private long submitted;
+        private long completed;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        private LaneState(int initialCapacity) {
+            this.queue = new PriorityQueue<>(Math.max(1, initialCapacity));
+        }
+    }
+
     /**
      * 初始化线程池
      * <p>
-     * 从配置缓存中获取线程池参数，创建具有优先级任务队列的线程池。
+     * 从配置缓存中获取线程池参数，创建执行线程池和调度线程。
+     * 启用虚拟线程时每个任务使用一个虚拟线程，并发数为最大线程数；否则使用固定的平台线程，并发数为核心线程数。
      * </p>
      */
     @PostConstruct
@@ -55,24 +130,215 @@ public class SalesforceExecutor {
         long keepAliveTime = getConfigLong("salesforce.executor.keep.alive.time", 60);
         boolean allowCoreThreadTimeout = getConfigBoolean("salesforce.executor.allow.core.thread.timeout", false);
         int queueCapacity = getConfigInt("salesforce.executor.queue.capacity", 100);
+        this.virtualThreads = getConfigBoolean("salesforce.executor.virtual.threads.enabled", false);
 
-        this.executorService = new ThreadPoolExecutor(
-                corePoolSize,
-                maxPoolSize,
-                keepAliveTime,
-                TimeUnit.SECONDS,
-                new PriorityBlockingQueue<>(queueCapacity),
-                new ThreadFactoryBuilder().setNamePrefix("salesforce-executor-").build(),
-                (r, executor) -> {
-                    log.error("Salesforce任务被拒绝: {}", r);
-                    throw new RejectedExecutionException("Salesforce任务被拒绝: " + r.toString());
+        for (SalesforceTaskLane lane : SalesforceTaskLane.values()) {
+            lanes.put(lane, new LaneState(queueCapacity));
+        }
+
+        if (virtualThreads) {
+            this.executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("salesforce-executor-vt-", 0).factory());
+        } else {
+            ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+                    corePoolSize,
+                    corePoolSize,
+                    keepAliveTime,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder().setNamePrefix("salesforce-executor-").build());
+            // 设置是否允许核心线程超时
+            threadPool.allowCoreThreadTimeOut(allowCoreThreadTimeout);
+            this.executorService = threadPool;
+        }
+        applyLimits();
+
+        this.accepting = true;
+        this.dispatcher = new Thread(this::dispatchLoop, "salesforce-executor-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+
+        log.info("Salesforce线程池初始化完成，核心线程数: {}, 最大线程数: {}, 并发上限: {}, 线程存活时间: {}秒, 允许核心线程超时: {}, 虚拟线程: {}", 
+                corePoolSize, maxPoolSize, maxConcurrency, keepAliveTime, allowCoreThreadTimeout, virtualThreads);
+    }
+
+    /**
+     * 读取并发上限、通道权重等调度参数
+     */
+    private void applyLimits() {
+        int corePoolSize = getConfigInt("salesforce.executor.core.pool.size", Runtime.getRuntime().availableProcessors());
+        int maxPoolSize = getConfigInt("salesforce.executor.max.pool.size", Runtime.getRuntime().availableProcessors() * 2);
+        int concurrency = Math.max(1, virtualThreads ? maxPoolSize : corePoolSize);
+        int orgLimit = getConfigInt("salesforce.executor.org.max.concurrency", 0);
+        int objectLimit = getConfigInt("salesforce.executor.object.max.concurrency", 0);
+
+        schedulerLock.lock();
+        try {
+            if (executorService instanceof ThreadPoolExecutor threadPool && concurrency != maxConcurrency) {
+                if (concurrency > threadPool.getMaximumPoolSize()) {
+                    threadPool.setMaximumPoolSize(concurrency);
+                    threadPool.setCorePoolSize(concurrency);
+                } else {
+                    threadPool.setCorePoolSize(concurrency);
+                    threadPool.setMaximumPoolSize(concurrency);
+                }
+            }
+            this.maxConcurrency = concurrency;
+            this.orgMaxConcurrency = orgLimit;
+            this.objectMaxConcurrency = objectLimit;
+            for (Map.Entry<SalesforceTaskLane, LaneState> entry : lanes.entrySet()) {
+                SalesforceTaskLane lane = entry.getKey();
+                LaneState state = entry.getValue();
+                state.weight = Math.max(1, getConfigInt(CONFIG_PREFIX + "lane.weight." + lane.getCode(), lane.getDefaultWeight()));
+                // 回填任务默认最多占用一半线程，其他通道默认不限
+                int defaultLaneLimit = lane == SalesforceTaskLane.BACKFILL ? Math.max(1, concurrency / 2) : 0;
+                state.maxConcurrency = getConfigInt(CONFIG_PREFIX + "lane.max.concurrency." + lane.getCode(), defaultLaneLimit);
+            }
+            schedulerChanged.signalAll();
+        } finally {
+            schedulerLock.unlock();
+        }
+    }
+
+    /**
+     * 调度参数变更后重新读取，线程池类型（虚拟线程）需重启生效
+     *
+     * @param event 配置变更事件
+     */
+    @EventListener
+    public void onConfigChange(ConfigChangeEvent event) {
+        if (executorService != null && event.getConfig() != null && event.getConfig().getConfigKey() != null
+                && event.getConfig().getConfigKey().startsWith(CONFIG_PREFIX)) {
+            applyLimits();
+            log.info("Salesforce线程池调度参数已更新，并发上限: {}, ORG并发上限: {}, 对象并发上限: {}",
+                    maxConcurrency, orgMaxConcurrency, objectMaxConcurrency);
+        }
+    }
+
+    /**
+     * 调度线程：有空闲并发额度时按通道进度选择下一个可执行任务提交到线程池
+     */
+    private void dispatchLoop() {
+        while (true) {
+            ComparableFutureTask task;
+            schedulerLock.lock();
+            try {
+                while ((task = running < maxConcurrency ? pollNext() : null) == null) {
+                    schedulerChanged.await();
+                }
+                acquire(task);
+            } catch (InterruptedException e) {
+                log.info("Salesforce任务调度线程已停止");
+                return;
+            } finally {
+                schedulerLock.unlock();
+            }
+
+            final ComparableFutureTask dispatched = task;
+            try {
+                executorService.execute(() -> {
+                    try {
+                        dispatched.run();
+                    } finally {
+                        release(dispatched);
+                    }
                 });
+            } catch (RejectedExecutionException e) {
+                log.error("Salesforce任务被拒绝: {}", dispatched);
+                dispatched.cancel(false);
+                release(dispatched);
+            }
+        }
+    }
+
+    /**
+     * 按步长调度选择下一个任务：依次尝试进度最小的通道，跳过达到通道、ORG或对象并发上限的任务
+     */
+    private ComparableFutureTask pollNext() {
+        List<Map.Entry<SalesforceTaskLane, LaneState>> candidates = new ArrayList<>(lanes.entrySet());
+        candidates.sort((a, b) -> Long.compare(a.getValue().pass, b.getValue().pass));
+
+        for (Map.Entry<SalesforceTaskLane, LaneState> entry : candidates) {
+            LaneState state = entry.getValue();
+            if (state.queue.isEmpty() || (state.maxConcurrency > 0 && state.running >= state.maxConcurrency)) {
+                continue;
+            }
+
+            List<ComparableFutureTask> skipped = null;
+            ComparableFutureTask selected = null;
+            ComparableFutureTask candidate;
+            while ((candidate = state.queue.poll()) != null) {
+                if (candidate.isDone()) {
+                    // 已取消的任务直接丢弃
+                    continue;
+                }
+                if (withinLimit(runningByOrg, candidate.getOrgType(), orgMaxConcurrency)
+                        && withinLimit(runningByObject, candidate.getObjectApi(), objectMaxConcurrency)) {
+                    selected = candidate;
+                    break;
+                }
+                if (skipped == null) {
+                    skipped = new ArrayList<>();
+                }
+                skipped.add(candidate);
+            }
+            if (skipped != null) {
+                state.queue.addAll(skipped);
+            }
+
+            if (selected != null) {
+                globalPass = state.pass;
+                state.pass += STRIDE / state.weight;
+                return selected;
+            }
+        }
+        return null;
+    }
+
+    private boolean withinLimit(Map<String, Integer> runningMap, String key, int limit) {
+        return key == null || limit <= 0 || runningMap.getOrDefault(key, 0) < limit;
+    }
 
-        // 设置是否允许核心线程超时
-        this.executorService.allowCoreThreadTimeOut(allowCoreThreadTimeout);
+    private void acquire(ComparableFutureTask task) {
+        LaneState state = lanes.get(task.getLane());
+        long waitNanos = System.nanoTime() - task.getSubmitNanos();
+        state.totalWaitNanos += waitNanos;
+        state.maxWaitNanos = Math.max(state.maxWaitNanos, waitNanos);
+        state.running++;
+        running++;
+        if (task.getOrgType() != null) {
+            runningByOrg.merge(task.getOrgType(), 1, Integer::sum);
+        }
+        if (task.getObjectApi() != null) {
+            runningByObject.merge(task.getObjectApi(), 1, Integer::sum);
+        }
+    }
 
-        log.info("Salesforce线程池初始化完成，核心线程数: {}, 最大线程数: {}, 队列容量: {}, 线程存活时间: {}秒, 允许核心线程超时: {}", 
-                corePoolSize, maxPoolSize, queueCapacity, keepAliveTime, allowCoreThreadTimeout);
+    private void release(ComparableFutureTask task) {
+        schedulerLock.lock();
+        try {
+            LaneState state = lanes.get(task.getLane());
+            state.running--;
+            state.completed++;
+            running--;
+            if (task.getOrgType() != null) {
+                runningByOrg.computeIfPresent(task.getOrgType(), (k, v) -> v > 1 ? v - 1 : null);
+            }
+            if (task.getObjectApi() != null) {
+                runningByObject.computeIfPresent(task.getObjectApi(), (k, v) -> v > 1 ? v - 1 : null);
+            }
+            schedulerChanged.signalAll();
+        } finally {
+            schedulerLock.unlock();
+        }
+    }
+
+    private boolean isQueueEmpty() {
+        for (LaneState state : lanes.values()) {
+            if (!state.queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -161,7 +427,7 @@ public class SalesforceExecutor {
     /**
      * 取消并移除任务
      * <p>
-     * 取消给定的Future任务，并从线程池队列中移除。
+     * 取消给定的Future任务，并从通道队列中移除。
      * </p>
      *
      * @param futures 要取消的Future任务数组
@@ -171,20 +437,25 @@ public class SalesforceExecutor {
             return;
         }
 
-        for (Future<?> future : futures) {
-            if (future != null) {
-                future.cancel(true);
-                if (future instanceof RunnableFuture) {
-                    executorService.remove((RunnableFuture<?>) future);
+        schedulerLock.lock();
+        try {
+            for (Future<?> future : futures) {
+                if (future != null) {
+                    future.cancel(true);
+                    if (future instanceof ComparableFutureTask task) {
+                        lanes.get(task.getLane()).queue.remove(task);
+                    }
                 }
             }
+        } finally {
+            schedulerLock.unlock();
         }
     }
 
     /**
      * 执行任务
      * <p>
-     * 将任务提交到线程池执行，支持优先级设置。
+     * 将任务提交到增量通道执行，支持优先级设置。
      * </p>
      * <p>
      * 注意：该方法会自动将当前线程的Spring Security上下文传递到子线程中，
@@ -197,11 +468,88 @@ public class SalesforceExecutor {
      * @return 任务的Future对象
      */
     public Future<?> execute(Runnable runnable, int batch, int index) {
-        ComparableFutureTask futureTask = new ComparableFutureTask(runnable, batch, index);
-        executorService.execute(futureTask);
+        return execute(runnable, batch, index, SalesforceTaskLane.INCREMENTAL, null, null);
+    }
+
+    /**
+     * 执行任务
+     * <p>
+     * 将任务提交到指定通道，按通道权重及ORG、对象并发上限调度执行。
+     * </p>
+     *
+     * @param runnable  要执行的任务
+     * @param batch     批次号（优先级相同时，值越小优先级越高）
+     * @param index     优先级索引（值越大优先级越高）
+     * @param lane      调度通道
+     * @param orgType   ORG类型，为null时不受ORG并发上限限制
+     * @param objectApi 对象API，为null时不受对象并发上限限制
+     * @return 任务的Future对象
+     */
+    public Future<?> execute(Runnable runnable, int batch, int index, SalesforceTaskLane lane, String orgType, String objectApi) {
+        ComparableFutureTask futureTask = new ComparableFutureTask(runnable, batch, index, lane, orgType, objectApi);
+        schedulerLock.lock();
+        try {
+            if (!accepting) {
+                log.error("Salesforce任务被拒绝: {}", futureTask);
+                throw new RejectedExecutionException("Salesforce任务被拒绝: " + futureTask);
+            }
+            LaneState state = lanes.get(futureTask.getLane());
+            if (state.queue.isEmpty() && state.running == 0) {
+                state.pass = Math.max(state.pass, globalPass);
+            }
+            state.queue.add(futureTask);
+            state.submitted++;
+            schedulerChanged.signalAll();
+        } finally {
+            schedulerLock.unlock();
+        }
         return futureTask;
     }
 
+    /**
+     * 获取调度统计信息
+     * <p>
+     * 包括总体并发情况，以及各通道的权重、并发上限、队列深度、运行数、提交数、完成数和排队等待时间。
+     * </p>
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        schedulerLock.lock();
+        try {
+            stats.put("maxConcurrency", maxConcurrency);
+            stats.put("running", running);
+            stats.put("virtualThreads", virtualThreads);
+            stats.put("orgMaxConcurrency", orgMaxConcurrency);
+            stats.put("objectMaxConcurrency", objectMaxConcurrency);
+            stats.put("runningByOrg", new HashMap<>(runningByOrg));
+            stats.put("runningByObject", new HashMap<>(runningByObject));
+
+            Map<String, Object> laneStats = new LinkedHashMap<>();
+            for (Map.Entry<SalesforceTaskLane, LaneState> entry : lanes.entrySet()) {
+                LaneState state = entry.getValue();
+                long started = state.completed + state.running;
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("weight", state.weight);
+                item.put("maxConcurrency", state.maxConcurrency);
+                item.put("queued", state.queue.size());
+                item.put("running", state.running);
+                item.put("submitted", state.submitted);
+                item.put("completed", state.completed);
+                item.put("avgWaitMs", started > 0 ? TimeUnit.NANOSECONDS.toMillis(state.totalWaitNanos / started) : 0);
+                item.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(state.maxWaitNanos));
+                ComparableFutureTask head = state.queue.peek();
+                item.put("headWaitMs", head != null ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - head.getSubmitNanos()) : 0);
+                laneStats.put(entry.getKey().getCode(), item);
+            }
+            stats.put("lanes", laneStats);
+        } finally {
+            schedulerLock.unlock();
+        }
+        return stats;
+    }
+
     /**
      * 检查线程池是否为空
      * <p>
@@ -211,7 +559,12 @@ public class SalesforceExecutor {
      * @return 如果线程池为空返回true，否则返回false
      */
     public boolean isEmpty() {
-        return executorService.getActiveCount() == 0 && executorService.getQueue().isEmpty();
+        schedulerLock.lock();
+        try {
+            return running == 0 && isQueueEmpty();
+        } finally {
+            schedulerLock.unlock();
+        }
     }
 
     /**
@@ -222,16 +575,24 @@ public class SalesforceExecutor {
      */
     public void shutdown() {
         if (executorService != null) {
-            executorService.shutdown();
+            accepting = false;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            schedulerLock.lock();
             try {
-                // 等待最多60秒关闭
-                if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                    executorService.shutdownNow();
+                // 等待最多60秒，队列中的任务和执行中的任务都完成
+                while (running > 0 || !isQueueEmpty()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    schedulerChanged.awaitNanos(remaining);
                 }
             } catch (InterruptedException e) {
-                executorService.shutdownNow();
                 Thread.currentThread().interrupt();
+            } finally {
+                schedulerLock.unlock();
             }
+            shutdownNow();
             log.info("Salesforce线程池已关闭");
         }
     }
@@ -239,11 +600,24 @@ public class SalesforceExecutor {
     /**
      * 立即关闭线程池
      * <p>
-     * 立即关闭线程池，中断所有正在执行的任务。
+     * 立即关闭线程池，取消排队中的任务并中断所有正在执行的任务。
      * </p>
      */
     public void shutdownNow() {
         if (executorService != null) {
+            accepting = false;
+            schedulerLock.lock();
+            try {
+                for (LaneState state : lanes.values()) {
+                    state.queue.forEach(task -> task.cancel(false));
+                    state.queue.clear();
+                }
+            } finally {
+                schedulerLock.unlock();
+            }
+            if (dispatcher != null) {
+                dispatcher.interrupt();
+            }
             executorService.shutdownNow();
             log.info("Salesforce线程池已强制关闭");
         }
@@ -255,6 +629,6 @@ public class SalesforceExecutor {
      * @return 线程池大小
      */
     public Integer getExecutorSize() {
-        return executorService.getCorePoolSize();
+        return maxConcurrency;
     }
-}
\ No newline at end of file
+}
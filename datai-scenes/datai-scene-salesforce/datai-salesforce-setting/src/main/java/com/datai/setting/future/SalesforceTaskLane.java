@@ -0,0 +1,44 @@
+package com.datai.setting.future;
+
+import lombok.Getter;
+
+/**
+ * Salesforce任务调度通道
+ * <p>
+ * 不同类型的任务进入各自的通道排队，调度时按通道权重公平分配空闲线程，
+ * 避免大批量回填任务长时间占满线程池，导致实时和增量任务得不到执行。
+ * </p>
+ */
+@Getter
+public enum SalesforceTaskLane {
+
+    /**
+     * 实时任务：用户触发的元数据刷新、对象描述等，需要尽快返回
+     */
+    REALTIME("realtime", 8),
+
+    /**
+     * 增量任务：定时增量同步、数据推送等
+     */
+    INCREMENTAL("incremental", 4),
+
+    /**
+     * 回填任务：全量同步、分片拉取等长时间运行的大批量任务
+     */
+    BACKFILL("backfill", 1);
+
+    /**
+     * 通道编码，用于配置键 salesforce.executor.lane.weight.{code}
+     */
+    private final String code;
+
+    /**
+     * 默认权重，权重越大分配到的线程越多
+     */
+    private final int defaultWeight;
+
+    SalesforceTaskLane(String code, int defaultWeight) {
+        this.code = code;
+        this.defaultWeight = defaultWeight;
+    }
+}
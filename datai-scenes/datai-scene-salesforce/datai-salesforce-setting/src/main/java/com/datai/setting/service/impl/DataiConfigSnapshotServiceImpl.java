@@ -224,7 +224,7 @@ public class DataiConfigSnapshotServiceImpl implements IDataiConfigSnapshotServi
                 restoredCount++;
             }
             
-            dataiConfigurationService.clearConfigCache();
+            // 重新加载时整体替换快照，无需先清空缓存
             dataiConfigurationService.loadingConfigCache();
             
             logger.info("快照恢复成功，快照ID: {}, 恢复配置数量: {}", snapshotId, restoredCount);
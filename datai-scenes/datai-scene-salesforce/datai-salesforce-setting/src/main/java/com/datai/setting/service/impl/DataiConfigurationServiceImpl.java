@@ -57,15 +57,15 @@ public class DataiConfigurationServiceImpl implements IDataiConfigurationService
      */
     @Override
     public String selectConfigValueByKey(String configKey) {
-        // 获取环境隔离的缓存键 (格式: SALESFORCE_CONFIG_CACHE_KEY:environmentCode)
-        String cacheKey = SalesforceConfigConstants.SALESFORCE_CONFIG_CACHE_KEY + ":" + SalesforceConfigCacheManager.getCurrentEnvironmentCode();
-        
-        // 先从缓存获取 - 缓存优先策略
-        String configValue = CacheUtils.get(cacheKey, configKey, String.class);
+        // 先从配置快照获取 - 缓存优先策略
+        String configValue = SalesforceConfigCacheManager.getConfigValue(configKey);
         if (configValue != null) {
             return configValue;
         }
 
+        // 获取环境隔离的缓存键 (格式: SALESFORCE_CONFIG_CACHE_KEY:environmentCode)
+        String cacheKey = SalesforceConfigConstants.SALESFORCE_CONFIG_CACHE_KEY + ":" + SalesforceConfigCacheManager.getCurrentEnvironmentCode();
+
         // 缓存不存在则从数据库查询
         DataiConfiguration query = new DataiConfiguration();
         query.setConfigKey(configKey);
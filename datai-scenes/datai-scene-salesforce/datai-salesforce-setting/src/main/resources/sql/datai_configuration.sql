@@ -79,3 +79,39 @@ INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environm
 INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (168, 'salesforce.notification.webhook', '', 1, 0, 0, NULL, 1, NULL, 'Salesforce Webhook通知地址，接收通知的URL', NULL, 'admin', '2025-12-08 22:16:42', 'admin', '2025-12-26 11:58:20');
 INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (169, 'salesforce.notification.events', 'sync_complete,error,batch_complete', 1, 0, 0, NULL, 1, NULL, 'Salesforce通知事件，触发通知的事件类型', NULL, 'admin', '2025-12-08 22:16:42', 'admin', '2025-12-26 11:58:20');
 INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (170, 'system.data.start.time', '2020-01-01', 1, 0, 0, '系统数据开始时间，用于分区表创建', 1, NULL, '系统数据开始时间配置', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (171, 'salesforce.bulk.query.threshold', '1000000', 1, 0, 0, NULL, 1, NULL, 'Salesforce数据拉取使用Bulk API 2.0的记录数阈值，需同时启用salesforce.bulk.api.enabled', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (172, 'salesforce.bulk.query.page.size', '50000', 1, 0, 0, NULL, 1, NULL, 'Bulk API 2.0查询结果每页最大记录数(maxRecords)', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (173, 'salesforce.bulk.query.poll.interval', '5000', 1, 0, 0, NULL, 1, NULL, 'Bulk API 2.0查询作业状态轮询间隔(毫秒)', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (174, 'salesforce.bulk.query.timeout', '7200000', 1, 0, 0, NULL, 1, NULL, 'Bulk API 2.0查询作业等待超时时间(毫秒)', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (175, 'salesforce.chunk.size', '500000', 1, 0, 0, NULL, 1, NULL, '大数据量对象按Id分片拉取时每个分片的记录数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (176, 'salesforce.chunk.concurrency.per.object', '4', 1, 0, 0, NULL, 1, NULL, '大数据量对象按Id分片拉取时单个对象的最大并发数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (177, 'salesforce.bulk.push.chunk.size', '10000', 1, 0, 0, NULL, 1, NULL, '批次数据通过Bulk API 2.0推送时每个导入作业的记录数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (178, 'salesforce.rate.limit.org.sync.enabled', 'false', 1, 0, 0, NULL, 1, NULL, '是否定期通过Limits API按组织实际剩余额度收紧本地API额度', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (179, 'salesforce.log.async.buffer.size', '10000', 1, 0, 0, NULL, 1, NULL, '异步日志缓冲区容量(条)，重启后生效', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (180, 'salesforce.log.async.batch.size', '500', 1, 0, 0, NULL, 1, NULL, '异步日志每次批量写入的最大条数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (181, 'salesforce.log.async.flush.interval', '1000', 1, 0, 0, NULL, 1, NULL, '异步日志最长写入间隔(毫秒)', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (182, 'salesforce.log.async.overflow.policy', 'DROP_NEWEST', 1, 0, 0, NULL, 1, NULL, '异步日志缓冲区满时的处理策略：DROP_NEWEST丢弃新日志，DROP_OLDEST丢弃最早日志，SAMPLE超过水位后抽样保留成功日志', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (183, 'salesforce.log.async.sample.ratio', '10', 1, 0, 0, NULL, 1, NULL, 'SAMPLE策略下成功日志每N条保留一条', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (184, 'salesforce.replication.enabled', 'false', 1, 0, 0, NULL, 1, NULL, '增量同步是否优先使用复制API(getUpdated/getDeleted)，起点超出30天或对象不支持复制时自动改用查询方式', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (185, 'salesforce.replication.delete.mode', 'SOFT', 1, 0, 0, NULL, 1, NULL, '复制API同步删除记录的方式：SOFT标记IsDeleted，HARD物理删除', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (186, 'salesforce.describe.batch.size', '100', 1, 0, 0, NULL, 1, NULL, '元数据同步时每次describeSObjects调用的对象数，最大100，多组并行执行', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (187, 'salesforce.batch.plan.max.size', '500000', 1, 0, 0, NULL, 1, NULL, '新对象全量批次规划时单个批次的最大数据量，批次按总量均分', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (188, 'salesforce.statistics.flush.interval.seconds', '30', 1, 0, 0, NULL, 1, NULL, '对象估算行数写回total_rows的间隔秒数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (189, 'salesforce.statistics.reconcile.batch.size', '5', 1, 0, 0, NULL, 1, NULL, '数据量校准任务每次执行精确计数的对象数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (190, 'salesforce.statistics.reconcile.interval.hours', '24', 1, 0, 0, NULL, 1, NULL, '同一对象两次数据量校准的最小间隔小时数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (191, 'salesforce.http.max.total', '50', 1, 0, 0, NULL, 1, NULL, 'Salesforce HTTP连接池最大连接数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (192, 'salesforce.http.max.per.route', '20', 1, 0, 0, NULL, 1, NULL, 'Salesforce HTTP连接池每个主机的最大连接数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (193, 'salesforce.http.connect.timeout', '30000', 1, 0, 0, NULL, 1, NULL, 'Salesforce HTTP连接超时毫秒数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (194, 'salesforce.http.socket.timeout', '120000', 1, 0, 0, NULL, 1, NULL, 'Salesforce HTTP读取超时毫秒数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (195, 'salesforce.http.keep.alive.timeout', '60000', 1, 0, 0, NULL, 1, NULL, 'Salesforce HTTP空闲连接保活毫秒数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (196, 'salesforce.http.gzip.request.enabled', 'true', 1, 0, 0, NULL, 1, NULL, '是否gzip压缩上传到Salesforce的请求体', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (197, 'salesforce.session.refresh.ahead.seconds', '600', 1, 0, 0, NULL, 1, NULL, '会话到期前提前刷新的秒数', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (198, 'salesforce.executor.lane.weight.realtime', '8', 1, 0, 0, NULL, 1, NULL, '实时任务通道调度权重', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (199, 'salesforce.executor.lane.weight.incremental', '4', 1, 0, 0, NULL, 1, NULL, '增量任务通道调度权重', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (200, 'salesforce.executor.lane.weight.backfill', '1', 1, 0, 0, NULL, 1, NULL, '回填任务通道调度权重', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (201, 'salesforce.executor.org.max.concurrency', '0', 1, 0, 0, NULL, 1, NULL, '单个ORG同时执行的任务数上限，0表示不限制', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (202, 'salesforce.executor.object.max.concurrency', '0', 1, 0, 0, NULL, 1, NULL, '单个对象同时执行的任务数上限，0表示不限制', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (203, 'salesforce.executor.virtual.threads.enabled', 'false', 1, 0, 0, NULL, 1, NULL, '是否使用虚拟线程执行Salesforce任务，修改后重启生效', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (204, 'salesforce.statistics.reconcile.schedule.minutes', '60', 1, 0, 0, NULL, 1, NULL, '数据量定时校准的执行间隔分钟数，0表示不定时执行，仅通过任务手动触发', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (205, 'salesforce.table.layout.check.seconds', '30', 1, 0, 0, NULL, 1, NULL, '本地表结构比对共享版本号的间隔秒数，其他节点增删列后在该间隔内重新加载', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');
+INSERT INTO `datai_configuration` (`id`, `config_key`, `config_value`, `environment_id`, `is_sensitive`, `is_encrypted`, `description`, `is_active`, `version`, `remark`, `dept_id`, `create_by`, `create_time`, `update_by`, `update_time`) VALUES (206, 'salesforce.table.layout.ttl.minutes', '10', 1, 0, 0, NULL, 1, NULL, '本地表结构缓存的有效期分钟数，过期后重新加载以感知手工执行的DDL', NULL, 'admin', '2026-01-01 00:00:00', 'admin', '2026-01-01 00:00:00');